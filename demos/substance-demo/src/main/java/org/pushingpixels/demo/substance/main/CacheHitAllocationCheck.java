@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.demo.substance.main;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.Set;
+
+import javax.swing.JButton;
+
+import org.pushingpixels.substance.api.SubstanceSlices.Side;
+import org.pushingpixels.substance.api.colorscheme.OrangeColorScheme;
+import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+import org.pushingpixels.substance.api.painter.fill.ClassicFillPainter;
+import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
+import org.pushingpixels.substance.internal.utils.HashMapKey;
+import org.pushingpixels.substance.internal.utils.LazyResettableHashMap;
+import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
+
+/**
+ * Checks that a cache hit with a typed lookup key allocates nothing. Prints the bytes allocated
+ * per hit with a typed key and with a varargs key of the same shape, and exits with an error
+ * code if the typed key allocates.
+ */
+public class CacheHitAllocationCheck {
+    private static final int HITS = 1000000;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        SubstanceColorScheme scheme = new OrangeColorScheme();
+        SubstanceFillPainter painter = new ClassicFillPainter();
+        Set<Side> sides = EnumSet.of(Side.LEFT, Side.TOP);
+        LazyResettableHashMap<BufferedImage> cache = new LazyResettableHashMap<>(
+                "Allocation check");
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        cache.put(typedKey(scheme, painter, sides, 40), image);
+        cache.put(varargsKey(scheme, painter, sides, 40), image);
+
+        // Warm up so that the measured loops run compiled code
+        long found = 0;
+        for (int i = 0; i < HITS; i++) {
+            found += (cache.get(typedKey(scheme, painter, sides, 40)) != null) ? 1 : 0;
+            found += (cache.get(varargsKey(scheme, painter, sides, 40)) != null) ? 1 : 0;
+        }
+
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < HITS; i++) {
+            found += (cache.get(typedKey(scheme, painter, sides, 40)) != null) ? 1 : 0;
+        }
+        double typedBytes = (double) (threadBean.getThreadAllocatedBytes(threadId) - start)
+                / HITS;
+
+        start = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < HITS; i++) {
+            found += (cache.get(varargsKey(scheme, painter, sides, 40)) != null) ? 1 : 0;
+        }
+        double varargsBytes = (double) (threadBean.getThreadAllocatedBytes(threadId) - start)
+                / HITS;
+
+        if (found != 4L * HITS) {
+            throw new IllegalStateException("Cache misses: " + (4L * HITS - found));
+        }
+        System.out.println(String.format("Typed key: %.2f bytes per cache hit", typedBytes));
+        System.out.println(String.format("Varargs key: %.2f bytes per cache hit", varargsBytes));
+        if (typedBytes >= 1.0) {
+            System.err.println("A cache hit with a typed key allocates");
+            System.exit(1);
+        }
+    }
+
+    private static HashMapKey typedKey(SubstanceColorScheme scheme, SubstanceFillPainter painter,
+            Set<Side> sides, int width) {
+        return HashMapKey.lookup().with(width).with(20).with(scheme).with(painter).with(sides)
+                .with(JButton.class).with(true).with(0.5f);
+    }
+
+    private static HashMapKey varargsKey(SubstanceColorScheme scheme,
+            SubstanceFillPainter painter, Set<Side> sides, int width) {
+        return SubstanceCoreUtilities.getHashKey(width, 20, scheme.getDisplayName(),
+                painter.getDisplayName(), sides, JButton.class.getName(), true, 0.5f);
+    }
+}
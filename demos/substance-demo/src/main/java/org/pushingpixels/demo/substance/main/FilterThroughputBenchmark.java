@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.demo.substance.main;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+
+import org.pushingpixels.neon.internal.ColorFilter;
+import org.pushingpixels.substance.api.colorscheme.OrangeColorScheme;
+import org.pushingpixels.substance.internal.utils.filters.ColorSchemeFilter;
+import org.pushingpixels.substance.internal.utils.filters.GrayscaleFilter;
+import org.pushingpixels.substance.internal.utils.filters.TranslucentFilter;
+
+/**
+ * Measures the throughput of the image filters in megapixels per second, on icon-sized images
+ * and on a large image.
+ */
+public class FilterThroughputBenchmark {
+    private static final int[] SIZES = { 32, 1024 };
+
+    private static final long MEASURE_NANOS = 1000000000L;
+
+    public static void main(String[] args) {
+        String[] names = { "ColorSchemeFilter", "GrayscaleFilter", "TranslucentFilter",
+                "ColorFilter" };
+        BufferedImageOp[] filters = {
+                ColorSchemeFilter.getColorSchemeFilter(new OrangeColorScheme(), 0.5f),
+                new GrayscaleFilter(), new TranslucentFilter(0.5),
+                new ColorFilter(new Color(40, 120, 200)) };
+        for (int size : SIZES) {
+            BufferedImage image = createImage(size);
+            for (int i = 0; i < filters.length; i++) {
+                // Warm up
+                measure(filters[i], image);
+                System.out.println(String.format("%s %dx%d: %.1f megapixels per second",
+                        names[i], size, size, measure(filters[i], image)));
+            }
+        }
+        System.exit(0);
+    }
+
+    private static BufferedImage createImage(int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setPaint(new GradientPaint(0, 0, new Color(255, 0, 0, 40), size, size,
+                new Color(0, 120, 255, 255)));
+        g2d.fillOval(0, 0, size, size);
+        g2d.dispose();
+        return image;
+    }
+
+    private static double measure(BufferedImageOp filter, BufferedImage image) {
+        long pixels = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            filter.filter(image, null);
+            pixels += (long) image.getWidth() * image.getHeight();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return pixels * 1000.0 / elapsed;
+    }
+}
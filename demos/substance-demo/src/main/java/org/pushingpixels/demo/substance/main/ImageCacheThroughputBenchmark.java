@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.demo.substance.main;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.pushingpixels.substance.internal.utils.HashMapKey;
+import org.pushingpixels.substance.internal.utils.LazyResettableHashMap;
+import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
+
+/**
+ * Measures the throughput of the image caches at 1, 4 and 16 threads. Every thread runs a mix
+ * of nine lookups for every insertion, over a key space that is twice the number of
+ * preloaded keys, which is roughly what painting a frame does.
+ */
+public class ImageCacheThroughputBenchmark {
+    private static final int[] THREAD_COUNTS = { 1, 4, 16 };
+
+    private static final int KEY_COUNT = 2048;
+
+    private static final long MEASURE_MILLIS = 2000;
+
+    public static void main(String[] args) throws Exception {
+        LazyResettableHashMap<BufferedImage> cache = new LazyResettableHashMap<>(
+                "Throughput benchmark");
+        HashMapKey[] keys = new HashMapKey[KEY_COUNT];
+        BufferedImage[] images = new BufferedImage[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = SubstanceCoreUtilities.getHashKey("button", i, 16, 0.5f, true);
+            images[i] = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+            if (i % 2 == 0) {
+                cache.put(keys[i], images[i]);
+            }
+        }
+
+        // Warm up
+        measure(cache, keys, images, 4);
+        for (int threadCount : THREAD_COUNTS) {
+            long ops = measure(cache, keys, images, threadCount);
+            System.out.println(threadCount + " threads: "
+                    + (ops * 1000 / MEASURE_MILLIS / 1000) + "K operations per second");
+        }
+    }
+
+    private static long measure(LazyResettableHashMap<BufferedImage> cache, HashMapKey[] keys,
+            BufferedImage[] images, int threadCount) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder operations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    int index = random.nextInt(KEY_COUNT);
+                    if ((count % 10) == 9) {
+                        cache.put(keys[index], images[index]);
+                    } else {
+                        cache.get(keys[index]);
+                    }
+                    count++;
+                }
+                operations.add(count);
+                done.countDown();
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        done.await();
+        return operations.sum();
+    }
+}
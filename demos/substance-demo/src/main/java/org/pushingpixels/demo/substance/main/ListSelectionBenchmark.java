@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.demo.substance.main;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+
+import org.pushingpixels.substance.api.SubstanceCortex;
+import org.pushingpixels.substance.api.skin.BusinessSkin;
+
+/**
+ * Times the selection tracking of a Substance list with a million rows. Each operation is
+ * timed until the list UI delegate has processed the resulting events.
+ */
+public class ListSelectionBenchmark {
+    private static final int ROWS = 1000000;
+
+    private static final int RUNS = 20;
+
+    private static class RowModel extends AbstractListModel<Integer> {
+        private int size = ROWS;
+
+        @Override
+        public int getSize() {
+            return this.size;
+        }
+
+        @Override
+        public Integer getElementAt(int index) {
+            return index;
+        }
+
+        void insertFirst() {
+            this.size++;
+            this.fireIntervalAdded(this, 0, 0);
+        }
+
+        void removeFirst() {
+            this.size--;
+            this.fireIntervalRemoved(this, 0, 0);
+        }
+
+        void changeAll() {
+            this.fireContentsChanged(this, 0, this.size - 1);
+        }
+    }
+
+    private interface Operation {
+        void run(JList<Integer> list, RowModel model);
+    }
+
+    public static void main(String[] args) throws Exception {
+        RowModel[] model = new RowModel[1];
+        @SuppressWarnings("unchecked")
+        JList<Integer>[] list = new JList[1];
+        SwingUtilities.invokeAndWait(() -> {
+            SubstanceCortex.GlobalScope.setSkin(new BusinessSkin());
+            model[0] = new RowModel();
+            list[0] = new JList<>(model[0]);
+            list[0].setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+            // Keep the cell measurement of the basic list UI out of the timings
+            list[0].setPrototypeCellValue(ROWS);
+        });
+
+        time("Select all", list[0], model[0], (JList<Integer> l, RowModel m) -> {
+            l.clearSelection();
+            l.setSelectionInterval(0, ROWS - 1);
+        });
+        time("Shift-range selection", list[0], model[0], (JList<Integer> l, RowModel m) -> {
+            l.setSelectionInterval(ROWS / 4, ROWS / 4);
+            l.getSelectionModel().setLeadSelectionIndex(3 * ROWS / 4);
+        });
+        time("Insert and remove a row", list[0], model[0], (JList<Integer> l, RowModel m) -> {
+            l.setSelectionInterval(0, ROWS - 1);
+            m.insertFirst();
+            m.removeFirst();
+        });
+        time("Contents change", list[0], model[0], (JList<Integer> l, RowModel m) -> {
+            l.setSelectionInterval(0, ROWS - 1);
+            m.changeAll();
+        });
+        time("Model reset", list[0], model[0], (JList<Integer> l, RowModel m) -> {
+            l.setSelectionInterval(0, ROWS - 1);
+            l.setModel(new RowModel());
+        });
+        System.exit(0);
+    }
+
+    private static void time(String name, JList<Integer> list, RowModel model,
+            Operation operation) throws Exception {
+        long total = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            SwingUtilities.invokeAndWait(() -> operation.run(list, model));
+            // The list UI delegate updates its selection state in separate events
+            SwingUtilities.invokeAndWait(() -> {
+            });
+            SwingUtilities.invokeAndWait(() -> {
+            });
+            total += System.nanoTime() - start;
+        }
+        System.out.println(name + ": " + (total / RUNS / 1000) + " us per operation");
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.demo.substance.main;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+
+import org.pushingpixels.substance.api.SubstanceCortex;
+import org.pushingpixels.substance.api.skin.BusinessSkin;
+
+/**
+ * Times a rollover pass over popup menus with a growing number of menu items. Every menu item
+ * gets a tooltip change, which does not affect the layout, and is then painted, which reads the
+ * popup layout metrics. With the metrics cached per popup and invalidated only by layout
+ * properties, the time per menu item should stay about the same as the item count grows.
+ */
+public class PopupMenuLayoutBenchmark {
+    private static final int[] ITEM_COUNTS = { 50, 100, 200, 400, 800, 1600 };
+
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        BufferedImage image = new BufferedImage(400, 40, BufferedImage.TYPE_INT_ARGB);
+        SwingUtilities.invokeAndWait(
+                () -> SubstanceCortex.GlobalScope.setSkin(new BusinessSkin()));
+        // Warm up the menu painting and the caches behind it
+        run(ITEM_COUNTS[2], RUNS, image);
+        for (int itemCount : ITEM_COUNTS) {
+            long nanos = run(itemCount, RUNS, image);
+            System.out.println(itemCount + " items: " + (nanos / RUNS / 1000)
+                    + " us per rollover pass, " + (nanos / RUNS / itemCount) + " ns per item");
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Creates a popup menu with the specified number of items, lays it out, and then runs the
+     * specified number of rollover passes over its items. Every item is changed and painted in
+     * a separate event, so that the invalidations queued by the change run before the paint of
+     * the next item.
+     * 
+     * @return The combined time of all the passes.
+     */
+    private static long run(int itemCount, int runs, BufferedImage image) throws Exception {
+        JPopupMenu[] popupMenuHolder = new JPopupMenu[1];
+        SwingUtilities.invokeAndWait(() -> {
+            JPopupMenu popupMenu = new JPopupMenu();
+            popupMenuHolder[0] = popupMenu;
+            for (int i = 0; i < itemCount; i++) {
+                JMenuItem menuItem = new JMenuItem("Generated entry " + i);
+                if (i % 4 == 0) {
+                    menuItem.setAccelerator(KeyStroke.getKeyStroke(
+                            KeyEvent.VK_A + (i / 4) % 26, KeyEvent.CTRL_DOWN_MASK));
+                }
+                popupMenu.add(menuItem);
+            }
+            Dimension size = popupMenu.getPreferredSize();
+            popupMenu.setSize(size);
+            popupMenu.doLayout();
+        });
+
+        JPopupMenu popupMenu = popupMenuHolder[0];
+        long total = 0;
+        for (int run = 0; run < runs; run++) {
+            int currentRun = run;
+            long start = System.nanoTime();
+            for (int i = 0; i < itemCount; i++) {
+                JMenuItem menuItem = (JMenuItem) popupMenu.getComponent(i);
+                SwingUtilities.invokeAndWait(() -> {
+                    menuItem.setToolTipText("Pass " + currentRun);
+                    Graphics2D g2d = image.createGraphics();
+                    menuItem.paint(g2d);
+                    g2d.dispose();
+                });
+            }
+            total += System.nanoTime() - start;
+        }
+        return total;
+    }
+}
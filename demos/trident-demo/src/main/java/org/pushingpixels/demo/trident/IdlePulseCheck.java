@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2005-2018 Trident Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *  o Redistributions of source code must retain the above copyright notice, 
+ *    this list of conditions and the following disclaimer. 
+ *     
+ *  o Redistributions in binary form must reproduce the above copyright notice, 
+ *    this list of conditions and the following disclaimer in the documentation 
+ *    and/or other materials provided with the distribution. 
+ *     
+ *  o Neither the name of Trident Kirill Grouchnikov nor the names of 
+ *    its contributors may be used to endorse or promote products derived 
+ *    from this software without specific prior written permission. 
+ *     
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" 
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, 
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR 
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR 
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, 
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, 
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; 
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE 
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, 
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. 
+ */
+package org.pushingpixels.demo.trident;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.pushingpixels.trident.Timeline;
+
+/**
+ * Checks that the pulse thread parks while there is nothing to animate, even after it has been
+ * interrupted. Prints the CPU time used by the idle pulse thread over one second.
+ */
+public class IdlePulseCheck {
+    private float value;
+
+    public void setValue(float newValue) {
+        this.value = newValue;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Timeline timeline = new Timeline(new IdlePulseCheck());
+        timeline.addPropertyToInterpolate("value", 0.0f, 1.0f);
+        timeline.setDuration(100);
+        timeline.play();
+        while (!timeline.isDone()) {
+            Thread.sleep(50);
+        }
+
+        Thread pulseThread = null;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("Trident pulse source thread".equals(thread.getName())) {
+                pulseThread = thread;
+            }
+        }
+        if (pulseThread == null) {
+            throw new IllegalStateException("No pulse thread");
+        }
+        pulseThread.interrupt();
+        Thread.sleep(100);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long cpuStart = threadBean.getThreadCpuTime(pulseThread.getId());
+        Thread.sleep(1000);
+        long cpuMs = (threadBean.getThreadCpuTime(pulseThread.getId()) - cpuStart) / 1000000;
+        System.out.println("Idle pulse thread CPU time over 1000 ms: " + cpuMs + " ms");
+        if (cpuMs > 50) {
+            System.err.println("The interrupted pulse thread does not park");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2005-2018 Trident Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *  o Redistributions of source code must retain the above copyright notice, 
+ *    this list of conditions and the following disclaimer. 
+ *     
+ *  o Redistributions in binary form must reproduce the above copyright notice, 
+ *    this list of conditions and the following disclaimer in the documentation 
+ *    and/or other materials provided with the distribution. 
+ *     
+ *  o Neither the name of Trident Kirill Grouchnikov nor the names of 
+ *    its contributors may be used to endorse or promote products derived 
+ *    from this software without specific prior written permission. 
+ *     
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" 
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, 
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR 
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR 
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, 
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, 
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; 
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE 
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, 
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. 
+ */
+package org.pushingpixels.demo.trident;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.pushingpixels.trident.Timeline;
+import org.pushingpixels.trident.Timeline.RepeatBehavior;
+import org.pushingpixels.trident.TridentConfig;
+
+/**
+ * Runs 10,000 looping timelines and measures the time spent processing every pulse, along with
+ * the time that a caller thread (standing in for the EDT) spends in timeline operations while
+ * the pulses run. The first argument turns on deferred timeline operations, and the second
+ * sets the number of pulse worker threads, for example <code>true 4</code>.
+ */
+public class PulseBenchmark {
+    private static final int TIMELINE_COUNT = 10000;
+
+    private static final long MEASURE_MILLIS = 5000;
+
+    private float value;
+
+    public void setValue(float newValue) {
+        this.value = newValue;
+    }
+
+    /**
+     * Pulse source that measures the time between pulses that is spent outside of waiting,
+     * which is the time that the engine spends processing the pulse.
+     */
+    private static class MeasuringPulseSource implements TridentConfig.PulseSource {
+        private final TridentConfig.PulseSource delegate = new TridentConfig.FixedRatePulseSource(
+                16);
+
+        private long lastPulseEnd;
+
+        private long pulseCount;
+
+        private long pulseNanos;
+
+        private long maxPulseNanos;
+
+        @Override
+        public void waitUntilNextPulse() {
+            long now = System.nanoTime();
+            if (this.lastPulseEnd != 0) {
+                long pulse = now - this.lastPulseEnd;
+                synchronized (this) {
+                    this.pulseCount++;
+                    this.pulseNanos += pulse;
+                    this.maxPulseNanos = Math.max(this.maxPulseNanos, pulse);
+                }
+            }
+            this.delegate.waitUntilNextPulse();
+            this.lastPulseEnd = System.nanoTime();
+        }
+
+        synchronized void reset() {
+            this.pulseCount = 0;
+            this.pulseNanos = 0;
+            this.maxPulseNanos = 0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean defer = (args.length > 0) && Boolean.parseBoolean(args[0]);
+        int workers = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+        MeasuringPulseSource pulseSource = new MeasuringPulseSource();
+        TridentConfig.getInstance().setPulseSource(pulseSource);
+        TridentConfig.getInstance().setDeferTimelineOperations(defer);
+        TridentConfig.getInstance().setPulseWorkerCount(workers);
+
+        List<Timeline> timelines = new ArrayList<>(TIMELINE_COUNT);
+        for (int i = 0; i < TIMELINE_COUNT; i++) {
+            Timeline timeline = new Timeline(new PulseBenchmark());
+            timeline.addPropertyToInterpolate("value", 0.0f, 1.0f);
+            timeline.setDuration(500 + (i % 500));
+            timeline.playLoop(RepeatBehavior.REVERSE);
+            timelines.add(timeline);
+        }
+        // Let the timelines start and the code paths get compiled
+        Thread.sleep(2000);
+        pulseSource.reset();
+
+        // Suspend and resume random timelines, as rollovers and selection changes would
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long operationCount = 0;
+        long operationNanos = 0;
+        long maxOperationNanos = 0;
+        long end = System.currentTimeMillis() + MEASURE_MILLIS;
+        while (System.currentTimeMillis() < end) {
+            Timeline timeline = timelines.get(random.nextInt(TIMELINE_COUNT));
+            long start = System.nanoTime();
+            timeline.suspend();
+            timeline.resume();
+            long operation = System.nanoTime() - start;
+            operationCount++;
+            operationNanos += operation;
+            maxOperationNanos = Math.max(maxOperationNanos, operation);
+            Thread.sleep(1);
+        }
+
+        synchronized (pulseSource) {
+            System.out.println("Deferred operations: " + defer + ", pulse workers: " + workers);
+            System.out.println("Pulses: " + pulseSource.pulseCount + ", average "
+                    + (pulseSource.pulseNanos / Math.max(1, pulseSource.pulseCount) / 1000)
+                    + " us, max " + (pulseSource.maxPulseNanos / 1000) + " us");
+        }
+        System.out.println("Caller suspend/resume pairs: " + operationCount + ", average "
+                + (operationNanos / Math.max(1, operationCount) / 1000) + " us, max "
+                + (maxOperationNanos / 1000) + " us");
+        System.exit(0);
+    }
+}
@@ -32,9 +32,13 @@ package org.pushingpixels.flamingo.api.common;
 import org.pushingpixels.flamingo.api.common.icon.EmptyResizableIcon;
 import org.pushingpixels.neon.AsynchronousLoading;
 import org.pushingpixels.neon.icon.ResizableIcon;
+import org.pushingpixels.neon.internal.PrioritizedTaskQueue;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
 import java.util.List;
@@ -68,6 +72,111 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
      */
     private SwingWorker<Void, Leaf> mainWorker;
 
+    /**
+     * If <code>true</code>, the next call to {@link #setFolder(List)} shows the folder in
+     * virtualized mode.
+     *
+     * @see #setVirtualized(boolean)
+     */
+    private boolean isVirtualized;
+
+    /**
+     * The folder shown in virtualized mode, or <code>null</code> if the current folder is not
+     * virtualized.
+     */
+    private VirtualFolder virtualFolder;
+
+    /**
+     * Number of rows above and below the visible part of a virtualized folder for which buttons
+     * are created and leaf contents are loaded ahead of scrolling.
+     */
+    private static final int PREFETCH_ROWS = 3;
+
+    /**
+     * Gap between buttons, and between the buttons and the panel insets, in virtualized mode.
+     */
+    private static final int VIRTUAL_GAP = 4;
+
+    /**
+     * Loads the leaf contents of all virtualized folders. Loads of visible leafs go first.
+     */
+    private static final PrioritizedTaskQueue leafLoader = new PrioritizedTaskQueue(
+            "Flamingo file view loader", Thread.NORM_PRIORITY);
+
+    /**
+     * Folder shown in virtualized mode. Only the buttons in the visible part of the panel and
+     * {@link #PREFETCH_ROWS} around it exist, and the leaf contents are only loaded for those
+     * buttons. All the fields are accessed on EDT.
+     */
+    private class VirtualFolder {
+        /**
+         * The leafs to show, already filtered by {@link #toShowFile(StringValuePair)}.
+         */
+        private final List<StringValuePair<T>> leafs;
+
+        /**
+         * Maps from leaf index to the button that shows it.
+         */
+        private final Map<Integer, JCommandButton> buttons = new HashMap<>();
+
+        /**
+         * Maps from leaf index to the pending load of its contents.
+         */
+        private final Map<Integer, LeafLoad> loads = new HashMap<>();
+
+        /**
+         * Indexes of the existing buttons with completely loaded icons, or with leafs that
+         * failed to load.
+         */
+        private final BitSet loaded = new BitSet();
+
+        /**
+         * The size of a single button, or <code>null</code> if it needs to be recomputed.
+         */
+        private Dimension cellSize;
+
+        private int columns = 1;
+
+        private int cellWidth;
+
+        private VirtualFolder(List<StringValuePair<T>> leafs) {
+            this.leafs = leafs;
+        }
+    }
+
+    /**
+     * Load of the contents of a single leaf in a virtualized folder.
+     */
+    private class LeafLoad extends PrioritizedTaskQueue.Task {
+        private final VirtualFolder folder;
+
+        private final int index;
+
+        private LeafLoad(VirtualFolder folder, int index, boolean isVisible) {
+            super(isVisible);
+            this.folder = folder;
+            this.index = index;
+        }
+
+        @Override
+        protected void execute() {
+            Leaf leaf;
+            try {
+                StringValuePair<T> leafPair = this.folder.leafs.get(this.index);
+                InputStream stream = getLeafContent(leafPair.getValue());
+                leaf = new Leaf(leafPair.getKey(), stream);
+                leaf.setLeafProp("source", leafPair.getValue());
+                for (Map.Entry<String, Object> propEntry : leafPair.getProps().entrySet()) {
+                    leaf.setLeafProp(propEntry.getKey(), propEntry.getValue());
+                }
+            } catch (RuntimeException | Error failure) {
+                SwingUtilities.invokeLater(() -> onLeafLoadFailed(this));
+                throw failure;
+            }
+            SwingUtilities.invokeLater(() -> onLeafLoaded(this, leaf));
+        }
+    }
+
     /**
      * Information on the specific file. Depending on the actual type of the file repository, the
      * property map will have different keys.
@@ -167,6 +276,7 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
         this.loadedSet = new HashSet<>();
 
         this.setToShowGroupLabels(false);
+        this.installVirtualFolderListener();
     }
 
     /**
@@ -181,6 +291,27 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
         this.loadedSet = new HashSet<>();
 
         this.setToShowGroupLabels(false);
+        this.installVirtualFolderListener();
+    }
+
+    private void installVirtualFolderListener() {
+        // Scrolling moves this panel inside its viewport
+        this.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentMoved(ComponentEvent e) {
+                updateVirtualFolder();
+            }
+
+            @Override
+            public void componentResized(ComponentEvent e) {
+                // The number of rows, and the total height, depend on the width
+                if ((virtualFolder != null)
+                        && (getPreferredSize().height != getHeight())) {
+                    revalidate();
+                }
+                updateVirtualFolder();
+            }
+        });
     }
 
     public void setProgressListener(ProgressListener progressListener) {
@@ -191,6 +322,28 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
         return this.progressListener;
     }
 
+    /**
+     * Sets the virtualized mode for the folders shown by the subsequent calls to
+     * {@link #setFolder(List)}. In virtualized mode, buttons are only created for the visible
+     * part of this panel and a few rows around it, and are discarded once scrolled away. The
+     * leaf contents are loaded on a bounded pool of background threads, visible leafs first, and
+     * pending loads are cancelled when their buttons are scrolled away or another folder is
+     * shown. This mode is intended for folders with a large number of entries. In this mode the
+     * buttons are always laid out in rows, {@link #getButtonMap()} only contains the buttons
+     * that currently exist, and the progress listener is notified about the loading of the
+     * buttons that currently exist.
+     *
+     * @param isVirtualized If <code>true</code>, the subsequent folders are shown in
+     *                      virtualized mode.
+     */
+    public void setVirtualized(boolean isVirtualized) {
+        this.isVirtualized = isVirtualized;
+    }
+
+    public boolean isVirtualized() {
+        return this.isVirtualized;
+    }
+
     /**
      * Sets the current entries to show. The current contents of the panel are discarded. For each
      * matching entry determined by the {@link #toShowFile(StringValuePair)} call, a new
@@ -202,8 +355,24 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
      */
     public void setFolder(final java.util.List<StringValuePair<T>> leafs) {
         this.removeAllGroups();
-        this.addButtonGroup("");
+        this.discardVirtualFolder();
         this.buttonMap.clear();
+
+        if (this.isVirtualized) {
+            List<StringValuePair<T>> leafsToShow = new ArrayList<>();
+            for (StringValuePair<T> leaf : leafs) {
+                if (toShowFile(leaf)) {
+                    leafsToShow.add(leaf);
+                }
+            }
+            this.virtualFolder = new VirtualFolder(leafsToShow);
+            this.revalidate();
+            this.doLayout();
+            this.repaint();
+            return;
+        }
+
+        this.addButtonGroup("");
         int fileCount = 0;
 
         final Map<String, JCommandButton> newButtons = new HashMap<>();
@@ -213,17 +382,7 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
                 continue;
             }
 
-            int initialSize = currDimension;
-            if (initialSize < 0) {
-                initialSize = currState.getPreferredIconSize();
-            }
-            JCommandButton button = new JCommandButton(name, new EmptyResizableIcon(initialSize));
-            button.setHorizontalAlignment(SwingUtilities.LEFT);
-            button.setDisplayState(this.currState);
-            if (this.currState == CommandButtonDisplayState.FIT_TO_ICON) {
-                button.updateCustomDimension(currDimension);
-            }
-
+            JCommandButton button = this.createButton(name);
             this.addButtonToLastGroup(button);
 
             newButtons.put(name, button);
@@ -304,11 +463,15 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
     }
 
     /**
-     * Returns the number of loaded icons.
+     * Returns the number of loaded icons. In virtualized mode, only the buttons that currently
+     * exist are counted, and leafs that failed to load count as loaded.
      * 
      * @return The number of loaded icons.
      */
     public int getLoadedIconCount() {
+        if (this.virtualFolder != null) {
+            return this.virtualFolder.loaded.cardinality();
+        }
         return this.loadedSet.size();
     }
 
@@ -316,6 +479,12 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
      * Cancels the pending processing.
      */
     public void cancelMainWorker() {
+        if (this.virtualFolder != null) {
+            for (LeafLoad load : this.virtualFolder.loads.values()) {
+                leafLoader.cancel(load);
+            }
+            this.virtualFolder.loads.clear();
+        }
         if (this.mainWorker == null)
             return;
         if (this.mainWorker.isDone() || this.mainWorker.isCancelled())
@@ -323,6 +492,304 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
         this.mainWorker.cancel(false);
     }
 
+    /**
+     * Discards the buttons and cancels the pending loads of the current virtualized folder.
+     */
+    private void discardVirtualFolder() {
+        if (this.virtualFolder == null) {
+            return;
+        }
+        this.cancelMainWorker();
+        for (JCommandButton button : this.virtualFolder.buttons.values()) {
+            this.remove(button);
+        }
+        this.virtualFolder = null;
+    }
+
+    @Override
+    public void setIconDimension(int dimension) {
+        if (this.virtualFolder != null) {
+            for (JCommandButton button : this.virtualFolder.buttons.values()) {
+                button.updateCustomDimension(dimension);
+            }
+            this.virtualFolder.cellSize = null;
+        }
+        super.setIconDimension(dimension);
+    }
+
+    @Override
+    public void setIconState(CommandButtonDisplayState state) {
+        if (this.virtualFolder != null) {
+            for (JCommandButton button : this.virtualFolder.buttons.values()) {
+                button.setDisplayState(state);
+                button.revalidate();
+                button.doLayout();
+            }
+            this.virtualFolder.cellSize = null;
+        }
+        super.setIconState(state);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if ((this.virtualFolder == null) || this.isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        VirtualFolder folder = this.virtualFolder;
+        this.computeVirtualGrid(folder);
+        Insets insets = this.getInsets();
+        int rows = (folder.leafs.size() + folder.columns - 1) / folder.columns;
+        int height = insets.top + insets.bottom + 2 * VIRTUAL_GAP
+                + rows * (folder.cellSize.height + VIRTUAL_GAP) - VIRTUAL_GAP;
+        return new Dimension(Math.max(10, this.getWidth()), Math.max(10, height));
+    }
+
+    @Override
+    public void doLayout() {
+        if (this.virtualFolder == null) {
+            super.doLayout();
+            return;
+        }
+        this.computeVirtualGrid(this.virtualFolder);
+        for (Map.Entry<Integer, JCommandButton> buttonEntry :
+                this.virtualFolder.buttons.entrySet()) {
+            buttonEntry.getValue().setBounds(this.getVirtualCellBounds(buttonEntry.getKey()));
+        }
+        this.updateVirtualFolder();
+    }
+
+    /**
+     * Computes the button size and the number of columns of the current virtualized folder,
+     * following the row fill layout of {@link JCommandButtonPanel}. All the buttons have the same
+     * size, which starts as the preferred size of a button with the widest leaf name, and grows
+     * if any of the configured buttons needs more space.
+     */
+    private void computeVirtualGrid(VirtualFolder folder) {
+        if (folder.cellSize == null) {
+            JCommandButton prototype = this.createButton("");
+            FontMetrics fm = prototype.getFontMetrics(prototype.getFont());
+            String widestName = "";
+            int widestNameWidth = -1;
+            for (StringValuePair<T> leaf : folder.leafs) {
+                int nameWidth = fm.stringWidth(leaf.getKey());
+                if (nameWidth > widestNameWidth) {
+                    widestName = leaf.getKey();
+                    widestNameWidth = nameWidth;
+                }
+            }
+            prototype.setText(widestName);
+            folder.cellSize = prototype.getPreferredSize();
+        }
+        for (JCommandButton button : folder.buttons.values()) {
+            Dimension pref = button.getPreferredSize();
+            if ((pref.width > folder.cellSize.width) || (pref.height > folder.cellSize.height)) {
+                folder.cellSize = new Dimension(Math.max(pref.width, folder.cellSize.width),
+                        Math.max(pref.height, folder.cellSize.height));
+                // The total height of the panel has changed
+                this.revalidate();
+            }
+        }
+
+        Insets insets = this.getInsets();
+        int maxWidth = this.getWidth() - insets.left - insets.right - 2 * VIRTUAL_GAP;
+        folder.columns = Math.max(1,
+                (maxWidth + VIRTUAL_GAP) / (folder.cellSize.width + VIRTUAL_GAP));
+        // spread the buttons so that we don't have extra space on the right
+        folder.cellWidth = (folder.leafs.size() > folder.columns)
+                ? (maxWidth - (folder.columns - 1) * VIRTUAL_GAP) / folder.columns
+                : folder.cellSize.width;
+    }
+
+    private Rectangle getVirtualCellBounds(int index) {
+        VirtualFolder folder = this.virtualFolder;
+        Insets insets = this.getInsets();
+        int row = index / folder.columns;
+        int column = index % folder.columns;
+        int x = insets.left + VIRTUAL_GAP + column * (folder.cellWidth + VIRTUAL_GAP);
+        if (!this.getComponentOrientation().isLeftToRight()) {
+            x = this.getWidth() - x - folder.cellWidth;
+        }
+        int y = insets.top + VIRTUAL_GAP + row * (folder.cellSize.height + VIRTUAL_GAP);
+        return new Rectangle(x, y, folder.cellWidth, folder.cellSize.height);
+    }
+
+    /**
+     * Creates the buttons that have scrolled into the visible part of the current virtualized
+     * folder (or the prefetch rows around it) and discards the buttons that have scrolled away.
+     */
+    private void updateVirtualFolder() {
+        VirtualFolder folder = this.virtualFolder;
+        if ((folder == null) || (folder.cellSize == null)) {
+            return;
+        }
+
+        Rectangle visibleRect = this.getVisibleRect();
+        int rowHeight = folder.cellSize.height + VIRTUAL_GAP;
+        int top = this.getInsets().top + VIRTUAL_GAP;
+        int firstVisibleRow = Math.max(0, (visibleRect.y - top) / rowHeight);
+        int lastVisibleRow = Math.max(0, (visibleRect.y + visibleRect.height - top) / rowHeight);
+        int leafCount = folder.leafs.size();
+        int firstVisible = Math.min(leafCount, firstVisibleRow * folder.columns);
+        int lastVisible = Math.min(leafCount, (lastVisibleRow + 1) * folder.columns);
+        int first = Math.max(0, firstVisible - PREFETCH_ROWS * folder.columns);
+        int last = Math.min(leafCount, lastVisible + PREFETCH_ROWS * folder.columns);
+
+        boolean hasChanged = false;
+        Iterator<Map.Entry<Integer, JCommandButton>> buttonIterator =
+                folder.buttons.entrySet().iterator();
+        while (buttonIterator.hasNext()) {
+            Map.Entry<Integer, JCommandButton> buttonEntry = buttonIterator.next();
+            int index = buttonEntry.getKey();
+            if ((index < first) || (index >= last)) {
+                JCommandButton button = buttonEntry.getValue();
+                this.remove(button);
+                this.buttonMap.remove(button.getText());
+                buttonIterator.remove();
+                folder.loaded.clear(index);
+                LeafLoad load = folder.loads.remove(index);
+                if (load != null) {
+                    leafLoader.cancel(load);
+                }
+                hasChanged = true;
+            }
+        }
+
+        for (int index = first; index < last; index++) {
+            boolean isVisible = (index >= firstVisible) && (index < lastVisible);
+            LeafLoad load = folder.loads.get(index);
+            if (load != null) {
+                leafLoader.setPrioritized(load, isVisible);
+                continue;
+            }
+            if (folder.buttons.containsKey(index)) {
+                continue;
+            }
+
+            String name = folder.leafs.get(index).getKey();
+            JCommandButton button = this.createButton(name);
+            button.setBounds(this.getVirtualCellBounds(index));
+            this.add(button);
+            folder.buttons.put(index, button);
+            this.buttonMap.put(name, button);
+
+            load = new LeafLoad(folder, index, isVisible);
+            folder.loads.put(index, load);
+            leafLoader.schedule(load);
+            hasChanged = true;
+        }
+
+        if (hasChanged) {
+            this.fireVirtualFolderProgress(folder);
+            this.repaint();
+        }
+    }
+
+    /**
+     * Reports the progress of the current virtualized folder. Only the buttons that currently
+     * exist are ever loaded, so the progress is reported against those buttons and not against
+     * all the leafs of the folder. Called on EDT.
+     */
+    private void fireVirtualFolderProgress(VirtualFolder folder) {
+        if ((this.progressListener == null) || (folder != this.virtualFolder)
+                || folder.buttons.isEmpty()) {
+            return;
+        }
+        int loadedCount = 0;
+        for (int index : folder.buttons.keySet()) {
+            if (folder.loaded.get(index)) {
+                loadedCount++;
+            }
+        }
+        this.progressListener.onProgress(new ProgressEvent(this, 0, folder.buttons.size(),
+                loadedCount));
+    }
+
+    /**
+     * Shows the loaded contents of a leaf in a virtualized folder. Called on EDT.
+     */
+    private void onLeafLoaded(LeafLoad load, Leaf leaf) {
+        VirtualFolder folder = load.folder;
+        JCommandButton commandButton = folder.buttons.get(load.index);
+        if (folder.loads.get(load.index) == load) {
+            folder.loads.remove(load.index);
+        }
+        if (load.isCancelled() || (folder != this.virtualFolder) || (commandButton == null)) {
+            InputStream stream = leaf.getLeafStream();
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ioe) {
+                }
+            }
+            return;
+        }
+
+        Dimension dim = new Dimension(currDimension, currDimension);
+        final ResizableIcon icon = getResizableIcon(leaf, leaf.getLeafStream(), currState, dim);
+        if (icon == null) {
+            this.markLeafFinished(folder, load.index, commandButton);
+            return;
+        }
+        commandButton.setIcon(icon);
+
+        if (icon instanceof AsynchronousLoading) {
+            // The existing buttons are only tracked on EDT
+            ((AsynchronousLoading) icon).addAsynchronousLoadListener(
+                    (boolean success) -> SwingUtilities.invokeLater(
+                            () -> markLeafFinished(folder, load.index, commandButton)));
+        } else {
+            this.markLeafFinished(folder, load.index, commandButton);
+        }
+
+        configureCommandButton(leaf, commandButton, icon);
+
+        commandButton.setDisplayState(currState);
+        if (currState == CommandButtonDisplayState.FIT_TO_ICON) {
+            commandButton.updateCustomDimension(currDimension);
+        }
+    }
+
+    /**
+     * Cleans up after a leaf of a virtualized folder has failed to load. The leaf is counted as
+     * finished so that the progress can still complete. Called on EDT.
+     */
+    private void onLeafLoadFailed(LeafLoad load) {
+        VirtualFolder folder = load.folder;
+        if (folder.loads.get(load.index) == load) {
+            folder.loads.remove(load.index);
+        }
+        if (!load.isCancelled()) {
+            this.markLeafFinished(folder, load.index, folder.buttons.get(load.index));
+        }
+    }
+
+    /**
+     * Marks the leaf shown by the specified button as finished loading, unless the button has
+     * been discarded since. Called on EDT.
+     */
+    private void markLeafFinished(VirtualFolder folder, int index, JCommandButton commandButton) {
+        if ((folder != this.virtualFolder) || (commandButton == null)
+                || (folder.buttons.get(index) != commandButton) || folder.loaded.get(index)) {
+            return;
+        }
+        folder.loaded.set(index);
+        this.fireVirtualFolderProgress(folder);
+    }
+
+    private JCommandButton createButton(String name) {
+        int initialSize = currDimension;
+        if (initialSize < 0) {
+            initialSize = currState.getPreferredIconSize();
+        }
+        JCommandButton button = new JCommandButton(name, new EmptyResizableIcon(initialSize));
+        button.setHorizontalAlignment(SwingUtilities.LEFT);
+        button.setDisplayState(this.currState);
+        if (this.currState == CommandButtonDisplayState.FIT_TO_ICON) {
+            button.updateCustomDimension(currDimension);
+        }
+        return button;
+    }
+
     /**
      * Returns the button map.
      * 
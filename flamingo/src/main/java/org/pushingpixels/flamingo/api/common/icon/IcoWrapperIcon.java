@@ -30,8 +30,12 @@
 package org.pushingpixels.flamingo.api.common.icon;
 
 import org.pushingpixels.neon.*;
+import org.pushingpixels.neon.internal.DaemonExecutors;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import javax.swing.*;
 import javax.swing.event.EventListenerList;
 import java.awt.*;
@@ -39,6 +43,7 @@ import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Helper class to load image planes from .ICO files.
@@ -46,21 +51,41 @@ import java.util.*;
  * @author Kirill Grouchnikov
  */
 abstract class IcoWrapperIcon implements Icon, AsynchronousLoading {
+	/**
+	 * Shared pool that parses ICO resources and scales their planes. Bounded so
+	 * that a large number of icons does not flood the machine with decoding
+	 * threads.
+	 */
+	private static final ThreadPoolExecutor icoLoader = DaemonExecutors
+			.newBoundedPool("Flamingo ICO loader", new LinkedBlockingQueue<>());
+
 	/**
 	 * The input stream of the original image.
 	 */
 	protected InputStream icoInputStream;
 
 	/**
-	 * Image planes of the original ICO image.
+	 * The original ICO image. The planes are decoded on demand.
+	 */
+	protected Ico ico;
+
+	/**
+	 * Maps from plane width to the index of the ICO plane with the largest
+	 * color count for that width. Computed from the ICO directory, without
+	 * decoding any of the planes.
 	 */
-	protected Map<Integer, BufferedImage> icoPlaneMap;
+	protected Map<Integer, Integer> icoPlaneMap;
 
 	/**
 	 * Contains all precomputed images.
 	 */
 	protected Map<String, BufferedImage> cachedImages;
 
+	/**
+	 * Keys of the images that are currently scheduled on the loader pool.
+	 */
+	private final Set<String> pendingImages = new HashSet<String>();
+
 	/**
 	 * The width of the current image.
 	 */
@@ -123,8 +148,11 @@ abstract class IcoWrapperIcon implements Icon, AsynchronousLoading {
 
 	@Override
 	public void paintIcon(Component c, Graphics g, int x, int y) {
-		BufferedImage image = this.cachedImages.get(this.getIconWidth() + ":"
-				+ this.getIconHeight());
+		BufferedImage image;
+		synchronized (this) {
+			image = this.cachedImages.get(this.getIconWidth() + ":"
+					+ this.getIconHeight());
+		}
 		if (image != null) {
 			int dx = (this.width - image.getWidth()) / 2;
 			int dy = (this.height - image.getHeight()) / 2;
@@ -158,118 +186,110 @@ abstract class IcoWrapperIcon implements Icon, AsynchronousLoading {
 	 */
 	protected synchronized void renderImage(final int renderWidth,
 			final int renderHeight) {
-		String key = renderWidth + ":" + renderHeight;
+		final String key = renderWidth + ":" + renderHeight;
 		if (this.cachedImages.containsKey(key)) {
 			fireAsyncCompleted(true);
 			return;
 		}
+		if (!this.pendingImages.add(key)) {
+			// already scheduled
+			return;
+		}
 
-		SwingWorker<BufferedImage, Void> worker = new SwingWorker<BufferedImage, Void>() {
-			@Override
-			protected BufferedImage doInBackground() throws Exception {
-				synchronized (icoInputStream) {
-					if (icoPlaneMap == null) {
-						// read original ICO image
-						Ico ico = new Ico(icoInputStream);
-						icoPlaneMap = new TreeMap<Integer, BufferedImage>();
-
-						Set<Integer> widths = new HashSet<Integer>();
-						for (int i = 0; i < ico.getNumImages(); i++) {
-							BufferedImage icoPlane = ico.getImage(i);
-							widths.add(icoPlane.getWidth());
-						}
-
-						for (int width : widths) {
-							// find the ico plane with the largest color count
-							BufferedImage bestMatch = null;
-							int bestColorCount = -1;
-							for (int i = 0; i < ico.getNumImages(); i++) {
-								BufferedImage icoPlane = ico.getImage(i);
-								if (icoPlane.getWidth() != width)
-									continue;
-								int icoPlaneColorCount = ico.getNumColors(i);
-								if (icoPlaneColorCount == 0) {
-									bestMatch = icoPlane;
-									bestColorCount = 0;
-								} else {
-									if (bestColorCount == 0)
-										continue;
-									if (icoPlaneColorCount > bestColorCount) {
-										bestMatch = icoPlane;
-										bestColorCount = icoPlaneColorCount;
-									}
-								}
-							}
-							icoPlaneMap.put(width, bestMatch);
-						}
+		icoLoader.execute(() -> {
+			BufferedImage result = null;
+			try {
+				result = createImage(renderWidth, renderHeight);
+			} catch (Exception exc) {
+			}
+			final BufferedImage image = result;
+			SwingUtilities.invokeLater(() -> {
+				synchronized (IcoWrapperIcon.this) {
+					pendingImages.remove(key);
+					if (image != null) {
+						cachedImages.put(key, image);
 					}
 				}
+				fireAsyncCompleted(image != null);
+			});
+		});
+	}
 
-				// find the best match
-				int indexOfBestMatch = -1;
-				int bestMatchWidth = -1;
-				for (Map.Entry<Integer, BufferedImage> icoPlaneMapEntry : icoPlaneMap
-						.entrySet()) {
-					BufferedImage icoPlane = icoPlaneMapEntry.getValue();
-					int icoPlaneWidth = icoPlane.getWidth();
-					if (icoPlaneWidth > renderWidth) {
-						// check if the ICO plane width is closer
-						// to the required width than the best match so far
-						if (bestMatchWidth < 0) {
-							bestMatchWidth = icoPlaneWidth;
-						} else {
-							if (bestMatchWidth > icoPlaneWidth) {
-								bestMatchWidth = icoPlaneWidth;
-							}
-						}
+	/**
+	 * Creates the image for the specified size. Called on the loader pool.
+	 * 
+	 * @param renderWidth
+	 *            Requested rendering width.
+	 * @param renderHeight
+	 *            Requested rendering height.
+	 * @return The image of the ICO plane that best matches the specified size,
+	 *         scaled down to fit into that size if necessary.
+	 */
+	private BufferedImage createImage(int renderWidth, int renderHeight)
+			throws BadIcoResException, IOException {
+		synchronized (icoInputStream) {
+			if (icoPlaneMap == null) {
+				// read original ICO image
+				ico = new Ico(icoInputStream);
+				Map<Integer, Integer> planeMap = new TreeMap<Integer, Integer>();
+				for (int i = 0; i < ico.getNumImages(); i++) {
+					// find the ico plane with the largest color count
+					int width = ico.getWidth(i);
+					Integer bestMatch = planeMap.get(width);
+					if (bestMatch == null) {
+						planeMap.put(width, i);
+						continue;
 					}
-				}
-
-				// if at this point the best match is not found, it
-				// means that the requested width is bigger than
-				// any of the ICO planes. Take the biggest ICO plane
-				// available
-				if (indexOfBestMatch < 0) {
-					for (Map.Entry<Integer, BufferedImage> icoPlaneMapEntry : icoPlaneMap
-							.entrySet()) {
-						BufferedImage icoPlane = icoPlaneMapEntry.getValue();
-						int icoPlaneWidth = icoPlane.getWidth();
-						if (icoPlaneWidth > bestMatchWidth) {
-							bestMatchWidth = icoPlaneWidth;
-						}
+					int bestColorCount = ico.getNumColors(bestMatch);
+					if (bestColorCount == 0)
+						continue;
+					int icoPlaneColorCount = ico.getNumColors(i);
+					if ((icoPlaneColorCount == 0)
+							|| (icoPlaneColorCount > bestColorCount)) {
+						planeMap.put(width, i);
 					}
 				}
+				icoPlaneMap = planeMap;
+			}
+		}
 
-				BufferedImage bestMatchPlane = icoPlaneMap.get(bestMatchWidth);
-				BufferedImage result = bestMatchPlane;
-				float scaleX = (float) bestMatchPlane.getWidth()
-						/ (float) renderWidth;
-				float scaleY = (float) bestMatchPlane.getHeight()
-						/ (float) renderHeight;
-
-				float scale = Math.max(scaleX, scaleY);
-				if (scale > 1.0f) {
-					int finalWidth = (int) (bestMatchPlane.getWidth() / scale);
-					result = NeonCortex.createThumbnail(bestMatchPlane,
-							finalWidth);
-				}
+		if (icoPlaneMap.isEmpty())
+			throw new BadIcoResException("No image planes");
 
-				return result;
+		// find the best match - the narrowest ICO plane that is at least
+		// as wide as the required width
+		int bestMatchWidth = -1;
+		for (int icoPlaneWidth : icoPlaneMap.keySet()) {
+			if (icoPlaneWidth >= renderWidth) {
+				bestMatchWidth = icoPlaneWidth;
+				break;
 			}
+		}
 
-			@Override
-			protected void done() {
-				try {
-					BufferedImage bufferedImage = get();
-					cachedImages.put(renderWidth + ":" + renderHeight,
-							bufferedImage);
-					fireAsyncCompleted(true);
-				} catch (Exception exc) {
-					fireAsyncCompleted(false);
-				}
+		// if at this point the best match is not found, it
+		// means that the requested width is bigger than
+		// any of the ICO planes. Take the biggest ICO plane
+		// available
+		if (bestMatchWidth < 0) {
+			for (int icoPlaneWidth : icoPlaneMap.keySet()) {
+				bestMatchWidth = icoPlaneWidth;
 			}
-		};
-		worker.execute();
+		}
+
+		BufferedImage bestMatchPlane = ico.getImage(icoPlaneMap
+				.get(bestMatchWidth));
+		BufferedImage result = bestMatchPlane;
+		float scaleX = (float) bestMatchPlane.getWidth() / (float) renderWidth;
+		float scaleY = (float) bestMatchPlane.getHeight()
+				/ (float) renderHeight;
+
+		float scale = Math.max(scaleX, scaleY);
+		if (scale > 1.0f) {
+			int finalWidth = (int) (bestMatchPlane.getWidth() / scale);
+			result = NeonCortex.createThumbnail(bestMatchPlane, finalWidth);
+		}
+
+		return result;
 	}
 
 	/**
@@ -312,15 +332,28 @@ class Ico {
 	private final static int FDE_OFFSET = 6; // first directory entry offset
 	private final static int DE_LENGTH = 16; // directory entry length
 
-	private final static int BMIH_LENGTH = 40; // BITMAPINFOHEADER length
+	private final static int[] masks = { 128, 64, 32, 16, 8, 4, 2, 1 };
+
+	private final byte[] icoimage;
+
+	private final int numImages;
+
+	private final int[] width;
+
+	private final int[] height;
 
-	private byte[] icoimage = new byte[0]; // new byte [0] facilitates read()
+	private final int[] colorCount;
 
-	private int numImages;
+	private final int[] imageOffset;
 
-	private BufferedImage[] bi;
+	private final int[] bytesInRes;
 
-	private int[] colorCount;
+	private final boolean[] isPng;
+
+	/**
+	 * Decoded images, filled on first access to each image.
+	 */
+	private final BufferedImage[] bi;
 
 	public Ico(File file) throws BadIcoResException, IOException {
 		this(file.getAbsolutePath());
@@ -328,14 +361,38 @@ class Ico {
 
 	public Ico(InputStream is) throws BadIcoResException, IOException {
 		try {
-			read(is);
-			parseICOImage();
+			icoimage = read(is);
 		} finally {
 			try {
 				is.close();
 			} catch (IOException ioe) {
 			}
 		}
+
+		// Check resource type field. 1 is ICO, 2 is CUR, and both have
+		// the same layout, except that CUR directory entries have the
+		// hotspot instead of the planes and the bit count.
+
+		if (icoimage.length < FDE_OFFSET || icoimage[0] != 0
+				|| icoimage[1] != 0 || (icoimage[2] != 1 && icoimage[2] != 2)
+				|| icoimage[3] != 0)
+			throw new BadIcoResException("Not an ICO or CUR resource");
+
+		numImages = ushort(FDE_OFFSET - 2);
+		if (icoimage.length < FDE_OFFSET + numImages * DE_LENGTH)
+			throw new BadIcoResException("Truncated directory");
+
+		width = new int[numImages];
+		height = new int[numImages];
+		colorCount = new int[numImages];
+		imageOffset = new int[numImages];
+		bytesInRes = new int[numImages];
+		isPng = new boolean[numImages];
+		bi = new BufferedImage[numImages];
+
+		for (int i = 0; i < numImages; i++) {
+			parseDirectoryEntry(i);
+		}
 	}
 
 	public Ico(String filename) throws BadIcoResException, IOException {
@@ -346,13 +403,36 @@ class Ico {
 		this(url.openStream());
 	}
 
-	public BufferedImage getImage(int index) {
+	/**
+	 * Returns the image at the specified index, decoding it if this is the
+	 * first time that image is requested.
+	 */
+	public synchronized BufferedImage getImage(int index)
+			throws BadIcoResException, IOException {
 		if (index < 0 || index >= numImages)
 			throw new IllegalArgumentException("index out of range");
 
+		if (bi[index] == null) {
+			bi[index] = isPng[index] ? parsePngImage(index)
+					: parseBitmapImage(index);
+		}
 		return bi[index];
 	}
 
+	public int getWidth(int index) {
+		if (index < 0 || index >= numImages)
+			throw new IllegalArgumentException("index out of range");
+
+		return width[index];
+	}
+
+	public int getHeight(int index) {
+		if (index < 0 || index >= numImages)
+			throw new IllegalArgumentException("index out of range");
+
+		return height[index];
+	}
+
 	public int getNumColors(int index) {
 		if (index < 0 || index >= numImages)
 			throw new IllegalArgumentException("index out of range");
@@ -373,267 +453,194 @@ class Ico {
 		return (((width * bitCount) + 31) / 32) * 4;
 	}
 
-	private void parseICOImage() throws BadIcoResException, IOException {
-		// Check resource type field.
+	/**
+	 * Reads the size and the color count of the specified image from its
+	 * directory entry and the header of its data, without decoding the image
+	 * itself.
+	 */
+	private void parseDirectoryEntry(int i) throws BadIcoResException {
+		int entryOffset = FDE_OFFSET + i * DE_LENGTH;
+		width[i] = ubyte(icoimage[entryOffset]);
+		height[i] = ubyte(icoimage[entryOffset + 1]);
+		colorCount[i] = ubyte(icoimage[entryOffset + 2]);
+		bytesInRes[i] = uint(entryOffset + 8);
+		imageOffset[i] = uint(entryOffset + 12);
+
+		int offset = imageOffset[i];
+		if (offset < 0 || bytesInRes[i] < 0
+				|| offset + Math.min(bytesInRes[i], 40) > icoimage.length)
+			throw new BadIcoResException("Image data out of range");
+
+		if (offset + 24 <= icoimage.length
+				&& ubyte(icoimage[offset]) == 0x89 && icoimage[offset + 1] == 0x50
+				&& icoimage[offset + 2] == 0x4e && icoimage[offset + 3] == 0x47
+				&& icoimage[offset + 4] == 0x0d && icoimage[offset + 5] == 0x0a
+				&& icoimage[offset + 6] == 0x1a && icoimage[offset + 7] == 0x0a) {
+			// PNG detected. The size is in the big-endian IHDR chunk that
+			// always comes first.
+
+			isPng[i] = true;
+			width[i] = ubyte(icoimage[offset + 16]) << 24
+					| ubyte(icoimage[offset + 17]) << 16
+					| ubyte(icoimage[offset + 18]) << 8
+					| ubyte(icoimage[offset + 19]);
+			height[i] = ubyte(icoimage[offset + 20]) << 24
+					| ubyte(icoimage[offset + 21]) << 16
+					| ubyte(icoimage[offset + 22]) << 8
+					| ubyte(icoimage[offset + 23]);
+			return;
+		}
+
+		if (offset + 16 > icoimage.length || uint(offset) != 40)
+			throw new BadIcoResException("BITMAPINFOHEADER or PNG "
+					+ "expected");
 
-		if (icoimage[2] != 1 || icoimage[3] != 0)
-			throw new BadIcoResException("Not an ICO resource");
+		// BITMAPINFOHEADER detected
 
-		numImages = ubyte(icoimage[5]);
-		numImages <<= 8;
-		numImages |= icoimage[4];
+		// If width is 0 (for 256 pixels or higher), the header contains
+		// actual width.
 
-		bi = new BufferedImage[numImages];
+		if (width[i] == 0)
+			width[i] = uint(offset + 4);
 
-		colorCount = new int[numImages];
+		// If height is 0 (for 256 pixels or higher), the header contains
+		// actual height times 2.
 
-		for (int i = 0; i < numImages; i++) {
-			int width = ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH]);
-
-			int height = ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 1]);
-
-			colorCount[i] = ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 2]);
-
-			int bytesInRes = ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 11]);
-			bytesInRes <<= 8;
-			bytesInRes |= ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 10]);
-			bytesInRes <<= 8;
-			bytesInRes |= ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 9]);
-			bytesInRes <<= 8;
-			bytesInRes |= ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 8]);
-
-			int imageOffset = ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 15]);
-			imageOffset <<= 8;
-			imageOffset |= ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 14]);
-			imageOffset <<= 8;
-			imageOffset |= ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 13]);
-			imageOffset <<= 8;
-			imageOffset |= ubyte(icoimage[FDE_OFFSET + i * DE_LENGTH + 12]);
-
-			if (icoimage[imageOffset] == 40 && icoimage[imageOffset + 1] == 0
-					&& icoimage[imageOffset + 2] == 0
-					&& icoimage[imageOffset + 3] == 0) {
-				// BITMAPINFOHEADER detected
-
-				int _width = ubyte(icoimage[imageOffset + 7]);
-				_width <<= 8;
-				_width |= ubyte(icoimage[imageOffset + 6]);
-				_width <<= 8;
-				_width |= ubyte(icoimage[imageOffset + 5]);
-				_width <<= 8;
-				_width |= ubyte(icoimage[imageOffset + 4]);
-
-				// If width is 0 (for 256 pixels or higher), _width contains
-				// actual width.
-
-				if (width == 0)
-					width = _width;
-
-				int _height = ubyte(icoimage[imageOffset + 11]);
-				_height <<= 8;
-				_height |= ubyte(icoimage[imageOffset + 10]);
-				_height <<= 8;
-				_height |= ubyte(icoimage[imageOffset + 9]);
-				_height <<= 8;
-				_height |= ubyte(icoimage[imageOffset + 8]);
-
-				// If height is 0 (for 256 pixels or higher), _height contains
-				// actual height times 2.
-
-				if (height == 0)
-					height = _height >> 1; // Divide by 2.
-
-				int planes = ubyte(icoimage[imageOffset + 13]);
-				planes <<= 8;
-				planes |= ubyte(icoimage[imageOffset + 12]);
-
-				int bitCount = ubyte(icoimage[imageOffset + 15]);
-				bitCount <<= 8;
-				bitCount |= ubyte(icoimage[imageOffset + 14]);
-
-				// If colorCount [i] is 0, the number of colors is determined
-				// from the planes and bitCount values. For example, the number
-				// of colors is 256 when planes is 1 and bitCount is 8. Leave
-				// colorCount [i] set to 0 when planes is 1 and bitCount is 32.
-
-				if (colorCount[i] == 0) {
-					if (planes == 1) {
-						if (bitCount == 1)
-							colorCount[i] = 2;
-						else if (bitCount == 4)
-							colorCount[i] = 16;
-						else if (bitCount == 8)
-							colorCount[i] = 256;
-						else if (bitCount != 32)
-							colorCount[i] = (int) Math.pow(2, bitCount);
-					} else
-						colorCount[i] = (int) Math.pow(2, bitCount * planes);
+		if (height[i] == 0)
+			height[i] = uint(offset + 8) >> 1; // Divide by 2.
+
+		int planes = ushort(offset + 12);
+		int bitCount = ushort(offset + 14);
+
+		// If colorCount [i] is 0, the number of colors is determined
+		// from the planes and bitCount values. For example, the number
+		// of colors is 256 when planes is 1 and bitCount is 8. Leave
+		// colorCount [i] set to 0 when planes is 1 and bitCount is 32.
+
+		if (colorCount[i] == 0) {
+			if (planes == 1) {
+				if (bitCount == 1)
+					colorCount[i] = 2;
+				else if (bitCount == 4)
+					colorCount[i] = 16;
+				else if (bitCount == 8)
+					colorCount[i] = 256;
+				else if (bitCount != 32)
+					colorCount[i] = (int) Math.pow(2, bitCount);
+			} else
+				colorCount[i] = (int) Math.pow(2, bitCount * planes);
+		}
+	}
+
+	private BufferedImage parseBitmapImage(int i) throws BadIcoResException {
+		int offset = imageOffset[i];
+		int w = width[i];
+		int h = height[i];
+		int bitCount = ushort(offset + 14);
+		int paletteSize = (bitCount <= 8) ? (1 << bitCount) : 0;
+
+		int colorTableOffset = offset + uint(offset);
+		int xorImageOffset = colorTableOffset + paletteSize * 4;
+		int scanlineBytes = calcScanlineBytes(w, bitCount);
+		int andImageOffset = xorImageOffset + scanlineBytes * h;
+		int andScanlineBytes = calcScanlineBytes(w, 1);
+		boolean hasAndMask = (bitCount != 32);
+		int end = hasAndMask ? andImageOffset + andScanlineBytes * h
+				: andImageOffset;
+		if ((bitCount != 1 && bitCount != 4 && bitCount != 8 && bitCount != 24
+				&& bitCount != 32) || end > icoimage.length)
+			throw new BadIcoResException("Unsupported or truncated bitmap");
+
+		int[] pixels = new int[w * h];
+		for (int row = 0; row < h; row++) {
+			int rowOffset = xorImageOffset + row * scanlineBytes;
+			int pixelRowOffset = (h - 1 - row) * w;
+			for (int col = 0; col < w; col++) {
+				int rgb;
+				if (bitCount == 32) {
+					int pixelOffset = rowOffset + col * 4;
+					rgb = ubyte(icoimage[pixelOffset + 3]) << 24
+							| ubyte(icoimage[pixelOffset + 2]) << 16
+							| ubyte(icoimage[pixelOffset + 1]) << 8
+							| ubyte(icoimage[pixelOffset]);
+				} else if (bitCount == 24) {
+					int pixelOffset = rowOffset + col * 3;
+					rgb = ubyte(icoimage[pixelOffset + 2]) << 16
+							| ubyte(icoimage[pixelOffset + 1]) << 8
+							| ubyte(icoimage[pixelOffset]);
+				} else {
+					int index;
+					if (bitCount == 1) {
+						index = ((icoimage[rowOffset + col / 8] & masks[col % 8]) != 0) ? 1
+								: 0;
+					} else if (bitCount == 4) {
+						index = ubyte(icoimage[rowOffset + col / 2]);
+						index = ((col & 1) == 0) ? (index >> 4) : (index & 15);
+					} else {
+						index = ubyte(icoimage[rowOffset + col]);
+					}
+					int paletteOffset = colorTableOffset + index * 4;
+					rgb = ubyte(icoimage[paletteOffset + 2]) << 16
+							| ubyte(icoimage[paletteOffset + 1]) << 8
+							| ubyte(icoimage[paletteOffset]);
 				}
 
-				bi[i] = new BufferedImage(width, height,
-						BufferedImage.TYPE_INT_ARGB);
-
-				// Parse image to image buffer.
-
-				int colorTableOffset = imageOffset + BMIH_LENGTH;
-
-				if (colorCount[i] == 2) {
-					int xorImageOffset = colorTableOffset + 2 * 4;
-
-					int scanlineBytes = calcScanlineBytes(width, 1);
-					int andImageOffset = xorImageOffset + scanlineBytes
-							* height;
-
-					int[] masks = { 128, 64, 32, 16, 8, 4, 2, 1 };
-
-					for (int row = 0; row < height; row++)
-						for (int col = 0; col < width; col++) {
-							int index;
-
-							if ((ubyte(icoimage[xorImageOffset + row
-									* scanlineBytes + col / 8]) & masks[col % 8]) != 0)
-								index = 1;
-							else
-								index = 0;
-
-							int rgb = 0;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4
-									+ 2]));
-							rgb <<= 8;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4
-									+ 1]));
-							rgb <<= 8;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4]));
-
-							if ((ubyte(icoimage[andImageOffset + row
-									* scanlineBytes + col / 8]) & masks[col % 8]) != 0)
-								bi[i].setRGB(col, height - 1 - row, rgb);
-							else
-								bi[i].setRGB(col, height - 1 - row,
-										0xff000000 | rgb);
-						}
-				} else if (colorCount[i] == 16) {
-					int xorImageOffset = colorTableOffset + 16 * 4;
-
-					int scanlineBytes = calcScanlineBytes(width, 4);
-					int andImageOffset = xorImageOffset + scanlineBytes
-							* height;
-
-					int[] masks = { 128, 64, 32, 16, 8, 4, 2, 1 };
-
-					for (int row = 0; row < height; row++)
-						for (int col = 0; col < width; col++) {
-							int index;
-							if ((col & 1) == 0) // even
-							{
-								index = ubyte(icoimage[xorImageOffset + row
-										* scanlineBytes + col / 2]);
-								index >>= 4;
-							} else {
-								index = ubyte(icoimage[xorImageOffset + row
-										* scanlineBytes + col / 2]) & 15;
-							}
-
-							int rgb = 0;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4
-									+ 2]));
-							rgb <<= 8;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4
-									+ 1]));
-							rgb <<= 8;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4]));
-
-							if ((ubyte(icoimage[andImageOffset + row
-									* calcScanlineBytes(width, 1) + col / 8]) & masks[col % 8]) != 0)
-								bi[i].setRGB(col, height - 1 - row, rgb);
-							else
-								bi[i].setRGB(col, height - 1 - row,
-										0xff000000 | rgb);
-						}
-				} else if (colorCount[i] == 256) {
-					int xorImageOffset = colorTableOffset + 256 * 4;
-
-					int scanlineBytes = calcScanlineBytes(width, 8);
-					int andImageOffset = xorImageOffset + scanlineBytes
-							* height;
-
-					int[] masks = { 128, 64, 32, 16, 8, 4, 2, 1 };
-
-					for (int row = 0; row < height; row++)
-						for (int col = 0; col < width; col++) {
-							int index;
-							index = ubyte(icoimage[xorImageOffset + row
-									* scanlineBytes + col]);
-
-							int rgb = 0;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4
-									+ 2]));
-							rgb <<= 8;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4
-									+ 1]));
-							rgb <<= 8;
-							rgb |= (ubyte(icoimage[colorTableOffset + index * 4]));
-
-							if ((ubyte(icoimage[andImageOffset + row
-									* calcScanlineBytes(width, 1) + col / 8]) & masks[col % 8]) != 0)
-								bi[i].setRGB(col, height - 1 - row, rgb);
-							else
-								bi[i].setRGB(col, height - 1 - row,
-										0xff000000 | rgb);
-						}
-				} else if (colorCount[i] == 0) {
-					int scanlineBytes = calcScanlineBytes(width, 32);
-
-					for (int row = 0; row < height; row++)
-						for (int col = 0; col < width; col++) {
-							int rgb = ubyte(icoimage[colorTableOffset + row
-									* scanlineBytes + col * 4 + 3]);
-							rgb <<= 8;
-							rgb |= ubyte(icoimage[colorTableOffset + row
-									* scanlineBytes + col * 4 + 2]);
-							rgb <<= 8;
-							rgb |= ubyte(icoimage[colorTableOffset + row
-									* scanlineBytes + col * 4 + 1]);
-							rgb <<= 8;
-							rgb |= ubyte(icoimage[colorTableOffset + row
-									* scanlineBytes + col * 4]);
-
-							bi[i].setRGB(col, height - 1 - row, rgb);
-						}
+				if (hasAndMask) {
+					// Pixels with the AND mask bit set are transparent
+					if ((icoimage[andImageOffset + row * andScanlineBytes + col
+							/ 8] & masks[col % 8]) == 0)
+						rgb |= 0xff000000;
 				}
-			} else if (ubyte(icoimage[imageOffset]) == 0x89
-					&& icoimage[imageOffset + 1] == 0x50
-					&& icoimage[imageOffset + 2] == 0x4e
-					&& icoimage[imageOffset + 3] == 0x47
-					&& icoimage[imageOffset + 4] == 0x0d
-					&& icoimage[imageOffset + 5] == 0x0a
-					&& icoimage[imageOffset + 6] == 0x1a
-					&& icoimage[imageOffset + 7] == 0x0a) {
-				// PNG detected
-
-				ByteArrayInputStream bais;
-				bais = new ByteArrayInputStream(icoimage, imageOffset,
-						bytesInRes);
-				bi[i] = ImageIO.read(bais);
-			} else
-				throw new BadIcoResException("BITMAPINFOHEADER or PNG "
-						+ "expected");
+				pixels[pixelRowOffset + col] = rgb;
+			}
 		}
 
-		icoimage = null; // This array can now be garbage collected.
+		BufferedImage result = new BufferedImage(w, h,
+				BufferedImage.TYPE_INT_ARGB);
+		result.setRGB(0, 0, w, h, pixels, 0, w);
+		return result;
 	}
 
-	private void read(InputStream is) throws IOException {
-		int bytesToRead;
-		while ((bytesToRead = is.available()) != 0) {
-			byte[] icoimage2 = new byte[icoimage.length + bytesToRead];
-			System.arraycopy(icoimage, 0, icoimage2, 0, icoimage.length);
-			is.read(icoimage2, icoimage.length, bytesToRead);
-			icoimage = icoimage2;
+	private BufferedImage parsePngImage(int i) throws BadIcoResException,
+			IOException {
+		// Go straight to the PNG reader with an in-memory stream, instead of
+		// probing every registered reader and caching the stream to a
+		// temporary file as ImageIO.read would do.
+		Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("png");
+		if (!readers.hasNext())
+			throw new BadIcoResException("No PNG reader available");
+		ImageReader reader = readers.next();
+		try (ImageInputStream iis = new MemoryCacheImageInputStream(
+				new ByteArrayInputStream(icoimage, imageOffset[i],
+						Math.min(bytesInRes[i], icoimage.length - imageOffset[i])))) {
+			reader.setInput(iis, true, true);
+			return reader.read(0);
+		} finally {
+			reader.dispose();
 		}
 	}
 
-	private int ubyte(byte b) {
+	private static byte[] read(InputStream is) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int count;
+		while ((count = is.read(buffer)) >= 0) {
+			result.write(buffer, 0, count);
+		}
+		return result.toByteArray();
+	}
+
+	private int ushort(int offset) {
+		return ubyte(icoimage[offset + 1]) << 8 | ubyte(icoimage[offset]);
+	}
+
+	private int uint(int offset) {
+		return ubyte(icoimage[offset + 3]) << 24
+				| ubyte(icoimage[offset + 2]) << 16
+				| ubyte(icoimage[offset + 1]) << 8 | ubyte(icoimage[offset]);
+	}
+
+	private static int ubyte(byte b) {
 		return (b < 0) ? 256 + b : b; // Convert byte to unsigned byte.
 	}
 }
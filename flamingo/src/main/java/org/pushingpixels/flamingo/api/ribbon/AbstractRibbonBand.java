@@ -144,6 +144,14 @@ public abstract class AbstractRibbonBand extends JComponent {
      */
     protected List<RibbonBandResizePolicy> resizePolicies;
 
+    /**
+     * Incremented every time the resize policies are replaced.
+     *
+     * @see #setResizePolicies(List)
+     * @see #getResizePoliciesRevision()
+     */
+    private int resizePoliciesRevision;
+
     /**
      * The key tip for the ribbon band expand button. Is relevant only when
      * {@link #expandActionListener} is not <code>null</code>.
@@ -389,6 +397,17 @@ public abstract class AbstractRibbonBand extends JComponent {
         return Collections.unmodifiableList(this.resizePolicies);
     }
 
+    /**
+     * Returns the revision of the resize policies of this ribbon band. The
+     * revision changes every time the resize policies are replaced with
+     * {@link #setResizePolicies(List)}.
+     *
+     * @return The revision of the resize policies of this ribbon band.
+     */
+    public int getResizePoliciesRevision() {
+        return this.resizePoliciesRevision;
+    }
+
     /**
      * Sets the specified parameter as the available resize policies of this
      * ribbon band. The order of the resize policies in this list is important.
@@ -404,6 +423,7 @@ public abstract class AbstractRibbonBand extends JComponent {
      */
     public void setResizePolicies(List<RibbonBandResizePolicy> resizePolicies) {
         this.resizePolicies = Collections.unmodifiableList(resizePolicies);
+        this.resizePoliciesRevision++;
         if (this.ribbonTask != null) {
             FlamingoUtilities.checkResizePoliciesConsistency(this);
         }
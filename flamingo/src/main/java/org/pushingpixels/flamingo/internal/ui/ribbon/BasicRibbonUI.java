@@ -593,6 +593,14 @@ public abstract class BasicRibbonUI extends RibbonUI {
      * @author Kirill Grouchnikov
      */
     private class BandHostPanelLayout implements LayoutManager {
+        /**
+         * Revision of the resize policies of each band as of its last consistency check.
+         *
+         * @see AbstractRibbonBand#getResizePoliciesRevision()
+         */
+        private final Map<AbstractRibbonBand, Integer> checkedResizePoliciesRevisions =
+                new WeakHashMap<>();
+
         @Override
         public void addLayoutComponent(String name, Component c) {
         }
@@ -671,9 +679,14 @@ public abstract class BasicRibbonUI extends RibbonUI {
             if (selectedTask == null)
                 return;
 
-            // check that the resize policies are still consistent
+            // check that the resize policies are still consistent, measuring
+            // only the bands whose policies have changed since the last check
             for (AbstractRibbonBand band : selectedTask.getBands()) {
-                FlamingoUtilities.checkResizePoliciesConsistency(band);
+                Integer revision = band.getResizePoliciesRevision();
+                if (!revision.equals(checkedResizePoliciesRevisions.get(band))) {
+                    FlamingoUtilities.checkResizePoliciesConsistency(band);
+                    checkedResizePoliciesRevisions.put(band, revision);
+                }
             }
 
             // start with the most "permissive" resize policy for each band
@@ -685,73 +698,40 @@ public abstract class BasicRibbonUI extends RibbonUI {
 
             int availableBandHeight = c.getHeight();
             int availableWidth = c.getWidth();
+            // preferred widths of the bands under their resize policies, measured
+            // at most once per band and policy during this layout pass
+            Map<AbstractRibbonBand, BandWidths> bandWidthsMap = new HashMap<>();
             if (selectedTask.getBandCount() > 0) {
+                int totalWidth = 0;
+                int collapsibleBandCount = 0;
+                for (AbstractRibbonBand ribbonBand : selectedTask.getBands()) {
+                    BandWidths bandWidths = new BandWidths(ribbonBand, availableBandHeight);
+                    bandWidthsMap.put(ribbonBand, bandWidths);
+                    totalWidth += bandWidths.getCurrentWidth() + bandGap;
+                    if (!bandWidths.isAtLastPolicy()) {
+                        collapsibleBandCount++;
+                    }
+                }
+
                 RibbonBandResizeSequencingPolicy resizeSequencingPolicy = selectedTask
                         .getResizeSequencingPolicy();
                 resizeSequencingPolicy.reset();
                 AbstractRibbonBand currToTakeFrom = resizeSequencingPolicy.next();
-                while (true) {
-                    // check whether all bands have the current resize
-                    // policy as their last (most restrictive) registered policy
-                    boolean noMore = true;
-                    for (AbstractRibbonBand band : selectedTask.getBands()) {
-                        RibbonBandResizePolicy currentResizePolicy = band.getCurrentResizePolicy();
-                        List<RibbonBandResizePolicy> resizePolicies = band.getResizePolicies();
-                        if (currentResizePolicy != resizePolicies.get(resizePolicies.size() - 1)) {
-                            noMore = false;
-                            break;
-                        }
-                    }
-                    if (noMore)
-                        break;
-
-                    // get the current preferred width of the bands
-                    int totalWidth = 0;
-                    // System.out.println("Iteration");
-                    for (AbstractRibbonBand ribbonBand : selectedTask.getBands()) {
-                        RibbonBandResizePolicy currentResizePolicy = ribbonBand
-                                .getCurrentResizePolicy();
-
-                        Insets ribbonBandInsets = ribbonBand.getInsets();
-                        AbstractBandControlPanel controlPanel = ribbonBand.getControlPanel();
-                        if (controlPanel == null) {
-                            controlPanel = ribbonBand.getPopupRibbonBand().getControlPanel();
+                // keep going while some band can still be collapsed and the
+                // current total preferred width of the bands doesn't fit
+                while ((collapsibleBandCount > 0) && (totalWidth >= availableWidth)) {
+                    // try to take from the currently rotating band, updating
+                    // the total width with the difference that it makes
+                    BandWidths bandWidths = bandWidthsMap.get(currToTakeFrom);
+                    if ((bandWidths != null) && !bandWidths.isAtLastPolicy()) {
+                        totalWidth -= bandWidths.getCurrentWidth();
+                        bandWidths.policyIndex++;
+                        totalWidth += bandWidths.getCurrentWidth();
+                        if (bandWidths.isAtLastPolicy()) {
+                            collapsibleBandCount--;
                         }
-                        Insets controlPanelInsets = controlPanel.getInsets();
-                        int controlPanelGap = controlPanel.getUI().getLayoutGap();
-                        int ribbonBandHeight = availableBandHeight - ribbonBandInsets.top
-                                - ribbonBandInsets.bottom;
-                        int availableHeight = ribbonBandHeight
-                                - ribbonBand.getUI().getBandTitleHeight();
-                        if (controlPanel != null) {
-                            availableHeight = availableHeight - controlPanelInsets.top
-                                    - controlPanelInsets.bottom;
-                        }
-                        int preferredWidth = currentResizePolicy.getPreferredWidth(availableHeight,
-                                controlPanelGap) + ribbonBandInsets.left + ribbonBandInsets.right;
-                        totalWidth += preferredWidth + bandGap;
-                        // System.out.println("\t"
-                        // + ribbonBand.getTitle()
-                        // + ":"
-                        // + currentResizePolicy.getClass()
-                        // .getSimpleName() + ":" + preferredWidth
-                        // + " under " + availableHeight + " with "
-                        // + controlPanel.getComponentCount()
-                        // + " children");
-                    }
-                    // System.out.println("\t:Total:" + totalWidth + "("
-                    // + availableWidth + ")");
-                    // System.out.println("\n");
-                    if (totalWidth < availableWidth)
-                        break;
-
-                    // try to take from the currently rotating band
-                    List<RibbonBandResizePolicy> policies = currToTakeFrom.getResizePolicies();
-                    int currPolicyIndex = policies.indexOf(currToTakeFrom.getCurrentResizePolicy());
-                    if (currPolicyIndex == (policies.size() - 1)) {
-                        // nothing to take
-                    } else {
-                        currToTakeFrom.setCurrentResizePolicy(policies.get(currPolicyIndex + 1));
+                        currToTakeFrom.setCurrentResizePolicy(
+                                bandWidths.policies.get(bandWidths.policyIndex));
                     }
                     currToTakeFrom = resizeSequencingPolicy.next();
                 }
@@ -761,25 +741,8 @@ public abstract class BasicRibbonUI extends RibbonUI {
             x = ltr ? 1 : c.getWidth() - 1;
             // System.out.println("Will get [" + availableWidth + "]:");
             for (AbstractRibbonBand ribbonBand : selectedTask.getBands()) {
-                Insets ribbonBandInsets = ribbonBand.getInsets();
-                RibbonBandResizePolicy currentResizePolicy = ribbonBand.getCurrentResizePolicy();
-                AbstractBandControlPanel controlPanel = ribbonBand.getControlPanel();
-                if (controlPanel == null) {
-                    controlPanel = ribbonBand.getPopupRibbonBand().getControlPanel();
-                }
-                Insets controlPanelInsets = controlPanel.getInsets();
-                int controlPanelGap = controlPanel.getUI().getLayoutGap();
                 int ribbonBandHeight = availableBandHeight;
-                // - ribbonBandInsets.top - ribbonBandInsets.bottom;
-                int availableHeight = ribbonBandHeight - ribbonBandInsets.top
-                        - ribbonBandInsets.bottom - ribbonBand.getUI().getBandTitleHeight();
-                if (controlPanelInsets != null) {
-                    availableHeight = availableHeight - controlPanelInsets.top
-                            - controlPanelInsets.bottom;
-                }
-
-                int requiredBandWidth = currentResizePolicy.getPreferredWidth(availableHeight,
-                        controlPanelGap) + ribbonBandInsets.left + ribbonBandInsets.right;
+                int requiredBandWidth = bandWidthsMap.get(ribbonBand).getCurrentWidth();
 
                 if (ltr) {
                     ribbonBand.setBounds(x, y, requiredBandWidth, ribbonBandHeight);
@@ -806,6 +769,53 @@ public abstract class BasicRibbonUI extends RibbonUI {
             }
             // System.out.println();
         }
+
+        /**
+         * Preferred widths of a single ribbon band under its resize policies. The
+         * widths are measured lazily, so that the resize sequencing only queries
+         * the policies that it actually gets to.
+         */
+        private class BandWidths {
+            private final List<RibbonBandResizePolicy> policies;
+            private final int availableHeight;
+            private final int controlPanelGap;
+            private final int horizontalInsets;
+            private final int[] widths;
+            private int policyIndex;
+
+            private BandWidths(AbstractRibbonBand ribbonBand, int availableBandHeight) {
+                this.policies = ribbonBand.getResizePolicies();
+
+                Insets ribbonBandInsets = ribbonBand.getInsets();
+                AbstractBandControlPanel controlPanel = ribbonBand.getControlPanel();
+                if (controlPanel == null) {
+                    controlPanel = ribbonBand.getPopupRibbonBand().getControlPanel();
+                }
+                Insets controlPanelInsets = controlPanel.getInsets();
+                this.controlPanelGap = controlPanel.getUI().getLayoutGap();
+                this.availableHeight = availableBandHeight - ribbonBandInsets.top
+                        - ribbonBandInsets.bottom - ribbonBand.getUI().getBandTitleHeight()
+                        - controlPanelInsets.top - controlPanelInsets.bottom;
+                this.horizontalInsets = ribbonBandInsets.left + ribbonBandInsets.right;
+
+                this.widths = new int[this.policies.size()];
+                Arrays.fill(this.widths, -1);
+                this.policyIndex = this.policies.indexOf(ribbonBand.getCurrentResizePolicy());
+            }
+
+            private int getCurrentWidth() {
+                if (this.widths[this.policyIndex] < 0) {
+                    this.widths[this.policyIndex] = this.policies.get(this.policyIndex)
+                            .getPreferredWidth(this.availableHeight, this.controlPanelGap)
+                            + this.horizontalInsets;
+                }
+                return this.widths[this.policyIndex];
+            }
+
+            private boolean isAtLastPolicy() {
+                return this.policyIndex == (this.policies.size() - 1);
+            }
+        }
     }
 
     protected abstract class TaskToggleButtonsHostPanel extends JPanel {
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2005-2018 Radiance Neon Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *  o Redistributions of source code must retain the above copyright notice, 
+ *    this list of conditions and the following disclaimer. 
+ *     
+ *  o Redistributions in binary form must reproduce the above copyright notice, 
+ *    this list of conditions and the following disclaimer in the documentation 
+ *    and/or other materials provided with the distribution. 
+ *     
+ *  o Neither the name of Radiance Neon Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived 
+ *    from this software without specific prior written permission. 
+ *     
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" 
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, 
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR 
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR 
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, 
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, 
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; 
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE 
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, 
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. 
+ */
+package org.pushingpixels.neon.filter;
+
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+
+/**
+ * Base class for filters that map every pixel independently of its neighbours. Subclasses
+ * implement {@link #filterPixels(int[], int, int[], int, int)} for a run of pixels, and call
+ * {@link #filterPixels(BufferedImage, BufferedImage)} from their
+ * {@link #filter(BufferedImage, BufferedImage)}.
+ *
+ * @author Kirill Grouchnikov
+ */
+public abstract class NeonAbstractPixelFilter extends NeonAbstractFilter {
+    /**
+     * Images with at least this many pixels are split into row bands that are filtered in
+     * parallel by {@link #filterPixels(BufferedImage, BufferedImage)}.
+     */
+    private static final int MIN_PARALLEL_PIXEL_COUNT = 256 * 256;
+
+    /**
+     * Minimal number of pixels in a single row band of a parallel filter pass.
+     */
+    private static final int MIN_BAND_PIXEL_COUNT = 64 * 256;
+
+    /**
+     * Filters a run of pixels. The implementation must not allocate, as it is called for every
+     * row of every filtered image, and must support <code>src</code> and <code>dst</code> being
+     * the same array.
+     *
+     * @param src       source pixels, as ARGB integers
+     * @param srcOffset offset of the first source pixel
+     * @param dst       destination pixels, as ARGB integers
+     * @param dstOffset offset of the first destination pixel
+     * @param length    number of pixels in the run
+     */
+    protected abstract void filterPixels(int[] src, int srcOffset, int[] dst, int dstOffset,
+            int length);
+
+    /**
+     * <p>
+     * Filters the source image into the destination image by calling
+     * {@link #filterPixels(int[], int, int[], int, int)} on all its rows. The rows are copied
+     * through a single reused row buffer with {@link #getPixels(BufferedImage, int, int, int,
+     * int, int[])} and {@link #setPixels(BufferedImage, int, int, int, int, int[])}, so that
+     * integer images stay managed. Large images are split into row bands that are filtered in
+     * parallel.
+     * </p>
+     *
+     * @param src the source image
+     * @param dst the destination image. If <code>null</code>, a compatible image is created
+     * @return the destination image
+     */
+    protected BufferedImage filterPixels(BufferedImage src, BufferedImage dst) {
+        if (dst == null) {
+            dst = createCompatibleDestImage(src, null);
+        }
+
+        int width = src.getWidth();
+        int height = src.getHeight();
+        if ((width == 0) || (height == 0)) {
+            return dst;
+        }
+
+        int bandHeight = height;
+        if (width * height >= MIN_PARALLEL_PIXEL_COUNT) {
+            int bandCount = Math.min(Runtime.getRuntime().availableProcessors(),
+                    width * height / MIN_BAND_PIXEL_COUNT);
+            bandHeight = (height + bandCount - 1) / Math.max(1, bandCount);
+        }
+
+        BufferedImage target = dst;
+        forEachBand(height, bandHeight, (fromRow, toRow) -> {
+            int[] row = new int[width];
+            for (int y = fromRow; y < toRow; y++) {
+                getPixels(src, 0, y, width, 1, row);
+                filterPixels(row, 0, row, 0, width);
+                setPixels(target, 0, y, width, 1, row);
+            }
+        });
+
+        return dst;
+    }
+
+    private interface BandFilter {
+        void filter(int fromRow, int toRow);
+    }
+
+    private static void forEachBand(int height, int bandHeight, BandFilter bandFilter) {
+        if (bandHeight >= height) {
+            bandFilter.filter(0, height);
+            return;
+        }
+        int bandCount = (height + bandHeight - 1) / bandHeight;
+        IntStream.range(0, bandCount).parallel().forEach(band -> bandFilter.filter(
+                band * bandHeight, Math.min(height, (band + 1) * bandHeight)));
+    }
+}
@@ -31,6 +31,7 @@ package org.pushingpixels.neon.icon;
 
 import org.pushingpixels.neon.NeonCortex;
 import org.pushingpixels.neon.internal.ColorFilter;
+import org.pushingpixels.neon.internal.IconRasterAtlas;
 import org.pushingpixels.neon.internal.contrib.intellij.JBHiDPIScaledImage;
 
 import javax.swing.*;
@@ -47,6 +48,7 @@ import java.awt.image.BufferedImage;
 public class NeonIcon implements ResizableIcon, IsHiDpiAware {
     private final double factor;
     private final boolean isHiDpiAwareSource;
+    private final boolean isRasterCacheableSource;
 
     private BufferedImage imageSource;
     private Icon iconSource;
@@ -58,6 +60,7 @@ public class NeonIcon implements ResizableIcon, IsHiDpiAware {
         this.imageSource = image;
         this.factor = NeonCortex.getScaleFactor();
         this.isHiDpiAwareSource = image instanceof JBHiDPIScaledImage;
+        this.isRasterCacheableSource = false;
         this.width = getInternalWidth();
         this.height = getInternalHeight();
     }
@@ -73,6 +76,8 @@ public class NeonIcon implements ResizableIcon, IsHiDpiAware {
         this.factor = NeonCortex.getScaleFactor();
         this.isHiDpiAwareSource = (icon instanceof IsHiDpiAware)
                 && ((IsHiDpiAware) icon).isHiDpiAware();
+        this.isRasterCacheableSource = (icon instanceof IsRasterCacheable)
+                && ((IsRasterCacheable) icon).isRasterCacheable();
         this.width = getInternalWidth();
         this.height = getInternalHeight();
     }
@@ -103,7 +108,10 @@ public class NeonIcon implements ResizableIcon, IsHiDpiAware {
             g2d.drawImage(this.imageSource, 0, 0, (int) (this.imageSource.getWidth() / this.factor),
                     (int) (this.imageSource.getHeight() / this.factor), null);
         } else if (this.iconSource != null) {
-            this.iconSource.paintIcon(c, g2d, 0, 0);
+            if (!this.isRasterCacheableSource
+                    || !IconRasterAtlas.paintIcon(this.iconSource, c, g2d, 0, 0)) {
+                this.iconSource.paintIcon(c, g2d, 0, 0);
+            }
         }
         g2d.dispose();
     }
@@ -29,7 +29,7 @@
  */
 package org.pushingpixels.neon.internal;
 
-import org.pushingpixels.neon.filter.NeonAbstractFilter;
+import org.pushingpixels.neon.filter.NeonAbstractPixelFilter;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -37,37 +37,35 @@ import java.awt.image.BufferedImage;
 /**
  * @author Kirill Grouchnikov
  */
-public class ColorFilter extends NeonAbstractFilter {
-	private int color;
+public class ColorFilter extends NeonAbstractPixelFilter {
+	/**
+	 * Filtered pixel for each source alpha value.
+	 */
+	private int[] alphaToPixel;
 	
 	public ColorFilter(Color color) {
-		this.color = color.getRGB();
+		int argb = color.getRGB();
+		int colorAlpha = (argb >>> 24) & 0xFF;
+		int colorRGB = argb & 0x00FFFFFF;
+		this.alphaToPixel = new int[256];
+		for (int alpha = 0; alpha < 256; alpha++) {
+			// Multiply source alpha by the alpha in our target color
+			// and use R/G/B from our target color
+			this.alphaToPixel[alpha] = (alpha * colorAlpha / 256) << 24 | colorRGB;
+		}
 	}
 
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
-		if (dst == null) {
-			dst = createCompatibleDestImage(src, null);
-		}
-
-		int width = src.getWidth();
-		int height = src.getHeight();
+		return filterPixels(src, dst);
+	}
 
-		int[] pixels = new int[width * height];
-		getPixels(src, 0, 0, width, height, pixels);
-		
-		int colorAlpha = (this.color >>> 24) & 0xFF;
-		int colorRed = (this.color >>> 16) & 0xFF;
-		int colorGreen = (this.color >>> 8) & 0xFF;
-		int colorBlue = this.color & 0xFF;
-		for (int i = 0; i < pixels.length; i++) {
-			// Multiply source alpha by the alpha in our target color
-			int alpha = ((pixels[i] >>> 24) & 0xFF) * colorAlpha / 256;
-			// and use R/G/B from our target color
-			pixels[i] = alpha << 24 | colorRed << 16 | colorGreen << 8 | colorBlue;
+	@Override
+	protected void filterPixels(int[] src, int srcOffset, int[] dst, int dstOffset,
+			int length) {
+		int[] alphaToPixel = this.alphaToPixel;
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i] = alphaToPixel[src[srcOffset + i] >>> 24];
 		}
-		setPixels(dst, 0, 0, width, height, pixels);
-
-		return dst;
 	}
 }
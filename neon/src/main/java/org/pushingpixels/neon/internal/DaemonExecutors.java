@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2005-2018 Radiance Neon Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *  o Redistributions of source code must retain the above copyright notice, 
+ *    this list of conditions and the following disclaimer. 
+ *     
+ *  o Redistributions in binary form must reproduce the above copyright notice, 
+ *    this list of conditions and the following disclaimer in the documentation 
+ *    and/or other materials provided with the distribution. 
+ *     
+ *  o Neither the name of Radiance Neon Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived 
+ *    from this software without specific prior written permission. 
+ *     
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" 
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, 
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR 
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR 
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, 
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, 
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; 
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE 
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, 
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. 
+ */
+package org.pushingpixels.neon.internal;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory for the shared background pools that load and render resources off the Event
+ * Dispatch Thread. All the pools are bounded by the same thread count, use daemon threads and
+ * release their idle threads after a short keep-alive, so that an application that is done
+ * with the background work is not left with parked threads.
+ *
+ * @author Kirill Grouchnikov
+ */
+public final class DaemonExecutors {
+    /**
+     * Maximal number of threads in a single pool.
+     */
+    private static final int MAX_THREAD_COUNT = 4;
+
+    /**
+     * Time (in seconds) that an idle pool thread is kept alive.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 5;
+
+    private DaemonExecutors() {
+    }
+
+    /**
+     * Creates a new bounded pool of daemon threads with the normal priority.
+     *
+     * @param threadName Name of the pool threads.
+     * @param queue      Queue for the tasks submitted to the pool. A priority queue orders the
+     *                   tasks that are waiting for a thread.
+     * @return The new pool.
+     */
+    public static ThreadPoolExecutor newBoundedPool(String threadName,
+            BlockingQueue<Runnable> queue) {
+        return newBoundedPool(threadName, Thread.NORM_PRIORITY, queue);
+    }
+
+    /**
+     * Creates a new bounded pool of daemon threads.
+     *
+     * @param threadName     Name of the pool threads.
+     * @param threadPriority Priority of the pool threads.
+     * @param queue          Queue for the tasks submitted to the pool. A priority queue orders
+     *                       the tasks that are waiting for a thread.
+     * @return The new pool.
+     */
+    public static ThreadPoolExecutor newBoundedPool(String threadName, int threadPriority,
+            BlockingQueue<Runnable> queue) {
+        int threadCount = Math.max(1,
+                Math.min(MAX_THREAD_COUNT, Runtime.getRuntime().availableProcessors()));
+        ThreadPoolExecutor result = new ThreadPoolExecutor(threadCount, threadCount,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, (Runnable runnable) -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    thread.setPriority(threadPriority);
+                    return thread;
+                });
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+}
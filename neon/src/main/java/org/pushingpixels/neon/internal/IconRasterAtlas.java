@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2005-2018 Radiance Neon Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *  o Redistributions of source code must retain the above copyright notice, 
+ *    this list of conditions and the following disclaimer. 
+ *     
+ *  o Redistributions in binary form must reproduce the above copyright notice, 
+ *    this list of conditions and the following disclaimer in the documentation 
+ *    and/or other materials provided with the distribution. 
+ *     
+ *  o Neither the name of Radiance Neon Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived 
+ *    from this software without specific prior written permission. 
+ *     
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" 
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, 
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR 
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR 
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, 
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, 
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; 
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE 
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, 
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. 
+ */
+package org.pushingpixels.neon.internal;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Shared cache of icon rasters. Icons are rasterized once per class, size and scale factor, and
+ * the rasters are packed into a small number of atlas pages. Every raster is surrounded by a
+ * transparent gutter, so that sampling at its edges never picks up the neighbouring rasters.
+ * When all the pages are full, the least recently used page is cleared and reused.
+ *
+ * <p>
+ * Only icons whose painting depends solely on their class and current dimension can be cached
+ * here (see {@link org.pushingpixels.neon.icon.IsRasterCacheable}). Rasters are only drawn when
+ * the target graphics maps them 1:1 to device pixels - under a uniform positive scale with
+ * integer device coordinates and a source-over composite. In all other cases the icon has to be
+ * painted directly.
+ * </p>
+ *
+ * @author Kirill Grouchnikov
+ */
+public final class IconRasterAtlas {
+    /**
+     * Width and height of a single atlas page.
+     */
+    private static final int PAGE_SIZE = 512;
+
+    /**
+     * Maximal number of atlas pages. Together with {@link #PAGE_SIZE} this caps the cache at
+     * 8MB of ARGB pixels.
+     */
+    private static final int MAX_PAGE_COUNT = 8;
+
+    /**
+     * Rasters larger than this in either direction are not cached.
+     */
+    private static final int MAX_RASTER_SIZE = PAGE_SIZE / 4;
+
+    /**
+     * Width of the transparent gutter around every raster.
+     */
+    private static final int GUTTER = 1;
+
+    private static final Map<RasterKey, Slot> slots = new HashMap<>();
+
+    private static final List<Page> pages = new ArrayList<>();
+
+    private static long useCount;
+
+    private IconRasterAtlas() {
+    }
+
+    private static final class RasterKey {
+        private final Class<?> iconClass;
+        private final int width;
+        private final int height;
+        private final double scale;
+
+        private RasterKey(Class<?> iconClass, int width, int height, double scale) {
+            this.iconClass = iconClass;
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof RasterKey)) {
+                return false;
+            }
+            RasterKey other = (RasterKey) obj;
+            return (this.iconClass == other.iconClass) && (this.width == other.width)
+                    && (this.height == other.height) && (this.scale == other.scale);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = this.iconClass.hashCode();
+            result = 31 * result + this.width;
+            result = 31 * result + this.height;
+            return 31 * result + Double.hashCode(this.scale);
+        }
+    }
+
+    private static final class Slot {
+        private final Page page;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        private Slot(Page page, int x, int y, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * A single atlas page. Rasters are packed in horizontal shelves from top to bottom, each
+     * one in a cell that adds {@link #GUTTER} on every side.
+     */
+    private static final class Page {
+        private final BufferedImage image;
+        private final List<RasterKey> keys = new ArrayList<>();
+        private int shelfX;
+        private int shelfY;
+        private int shelfHeight;
+        private long lastUsed;
+
+        private Page() {
+            this.image = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        private Slot allocate(int width, int height) {
+            int cellWidth = width + 2 * GUTTER;
+            int cellHeight = height + 2 * GUTTER;
+            if (this.shelfX + cellWidth > PAGE_SIZE) {
+                // start a new shelf
+                this.shelfY += this.shelfHeight;
+                this.shelfX = 0;
+                this.shelfHeight = 0;
+            }
+            if (this.shelfY + cellHeight > PAGE_SIZE) {
+                return null;
+            }
+            Slot slot = new Slot(this, this.shelfX + GUTTER, this.shelfY + GUTTER, width,
+                    height);
+            this.shelfX += cellWidth;
+            this.shelfHeight = Math.max(this.shelfHeight, cellHeight);
+            return slot;
+        }
+
+        private void clear() {
+            for (RasterKey key : this.keys) {
+                slots.remove(key);
+            }
+            this.keys.clear();
+            this.shelfX = 0;
+            this.shelfY = 0;
+            this.shelfHeight = 0;
+            Graphics2D g2d = this.image.createGraphics();
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, PAGE_SIZE, PAGE_SIZE);
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Paints the specified icon from its cached raster, rasterizing it first if needed.
+     *
+     * @param icon   Icon to paint. Its painting must depend only on its class and current
+     *               dimension.
+     * @param c      Component passed to the icon when it is rasterized.
+     * @param g      Graphics context.
+     * @param x      X coordinate of the icon.
+     * @param y      Y coordinate of the icon.
+     * @return <code>true</code> if the icon has been painted, <code>false</code> if the
+     * graphics context does not allow drawing a cached raster, or the icon is too large to be
+     * cached. In the latter case the caller must paint the icon directly.
+     */
+    public static synchronized boolean paintIcon(Icon icon, Component c, Graphics2D g,
+            int x, int y) {
+        int width = icon.getIconWidth();
+        int height = icon.getIconHeight();
+        if ((width <= 0) || (height <= 0)) {
+            return true;
+        }
+
+        AffineTransform transform = g.getTransform();
+        if ((transform.getType() & ~(AffineTransform.TYPE_TRANSLATION
+                | AffineTransform.TYPE_UNIFORM_SCALE)) != 0) {
+            return false;
+        }
+        Composite composite = g.getComposite();
+        if (!(composite instanceof AlphaComposite)
+                || (((AlphaComposite) composite).getRule() != AlphaComposite.SRC_OVER)) {
+            return false;
+        }
+        double scale = transform.getScaleX();
+        if ((scale <= 0.0) || !isDevicePixel(width * scale) || !isDevicePixel(height * scale)
+                || !isDevicePixel(transform.getTranslateX() + x * scale)
+                || !isDevicePixel(transform.getTranslateY() + y * scale)) {
+            return false;
+        }
+        int rasterWidth = (int) Math.round(width * scale);
+        int rasterHeight = (int) Math.round(height * scale);
+        if ((rasterWidth > MAX_RASTER_SIZE) || (rasterHeight > MAX_RASTER_SIZE)) {
+            return false;
+        }
+
+        RasterKey key = new RasterKey(icon.getClass(), width, height, scale);
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = allocate(rasterWidth, rasterHeight);
+            rasterize(icon, c, scale, slot);
+            slot.page.keys.add(key);
+            slots.put(key, slot);
+        }
+        slot.page.lastUsed = ++useCount;
+
+        g.drawImage(slot.page.image, x, y, x + width, y + height, slot.x, slot.y,
+                slot.x + slot.width, slot.y + slot.height, null);
+        return true;
+    }
+
+    private static boolean isDevicePixel(double value) {
+        return Math.abs(value - Math.rint(value)) < 1.0E-6;
+    }
+
+    private static Slot allocate(int width, int height) {
+        for (Page page : pages) {
+            Slot slot = page.allocate(width, height);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        Page page;
+        if (pages.size() < MAX_PAGE_COUNT) {
+            page = new Page();
+            pages.add(page);
+        } else {
+            page = pages.get(0);
+            for (Page candidate : pages) {
+                if (candidate.lastUsed < page.lastUsed) {
+                    page = candidate;
+                }
+            }
+            page.clear();
+        }
+        return page.allocate(width, height);
+    }
+
+    private static void rasterize(Icon icon, Component c, double scale, Slot slot) {
+        Graphics2D g2d = slot.page.image.createGraphics();
+        g2d.clipRect(slot.x, slot.y, slot.width, slot.height);
+        g2d.translate(slot.x, slot.y);
+        g2d.scale(scale, scale);
+        icon.paintIcon(c, g2d, 0, 0);
+        g2d.dispose();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2005-2018 Radiance Neon Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *  o Redistributions of source code must retain the above copyright notice, 
+ *    this list of conditions and the following disclaimer. 
+ *     
+ *  o Redistributions in binary form must reproduce the above copyright notice, 
+ *    this list of conditions and the following disclaimer in the documentation 
+ *    and/or other materials provided with the distribution. 
+ *     
+ *  o Neither the name of Radiance Neon Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived 
+ *    from this software without specific prior written permission. 
+ *     
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" 
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, 
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR 
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR 
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, 
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, 
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; 
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE 
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, 
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. 
+ */
+package org.pushingpixels.neon.internal;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background queue of tasks that run on a bounded pool of daemon threads (see
+ * {@link DaemonExecutors}). Prioritized tasks, such as the tasks for content that is currently
+ * visible, go ahead of all the other queued tasks. Tasks with the same priority run in the order
+ * of their creation.
+ *
+ * @author Kirill Grouchnikov
+ */
+public final class PrioritizedTaskQueue {
+    /**
+     * A single task of the queue.
+     */
+    public abstract static class Task implements Runnable, Comparable<Task> {
+        private static final AtomicLong sequenceCounter = new AtomicLong();
+
+        private final long sequence = sequenceCounter.getAndIncrement();
+
+        private volatile boolean isPrioritized;
+
+        private volatile boolean isCancelled;
+
+        protected Task(boolean isPrioritized) {
+            this.isPrioritized = isPrioritized;
+        }
+
+        public boolean isPrioritized() {
+            return this.isPrioritized;
+        }
+
+        public boolean isCancelled() {
+            return this.isCancelled;
+        }
+
+        /**
+         * Runs the content of this task. Not called for tasks cancelled before they started.
+         */
+        protected abstract void execute();
+
+        @Override
+        public final void run() {
+            if (!this.isCancelled) {
+                this.execute();
+            }
+        }
+
+        @Override
+        public final int compareTo(Task other) {
+            if (this.isPrioritized != other.isPrioritized) {
+                return this.isPrioritized ? -1 : 1;
+            }
+            return Long.compare(this.sequence, other.sequence);
+        }
+    }
+
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a new queue.
+     *
+     * @param threadName     Name of the pool threads.
+     * @param threadPriority Priority of the pool threads.
+     */
+    public PrioritizedTaskQueue(String threadName, int threadPriority) {
+        this.executor = DaemonExecutors.newBoundedPool(threadName, threadPriority, this.queue);
+    }
+
+    public void schedule(Task task) {
+        this.executor.execute(task);
+    }
+
+    /**
+     * Changes the priority of the specified task. If the task is queued, it is moved to its new
+     * place in the queue. Otherwise only the flag changes.
+     *
+     * @param task          Task.
+     * @param isPrioritized If <code>true</code>, the task goes ahead of all the tasks that are
+     *                      not prioritized.
+     */
+    public void setPrioritized(Task task, boolean isPrioritized) {
+        if (task.isPrioritized == isPrioritized) {
+            return;
+        }
+        // The priority of a queued task can only change while the task is out of the queue
+        synchronized (this.queue) {
+            boolean wasQueued = this.queue.remove(task);
+            task.isPrioritized = isPrioritized;
+            if (wasQueued) {
+                this.queue.add(task);
+            }
+        }
+    }
+
+    /**
+     * Cancels the specified task. A queued task is removed from the queue, and a running task
+     * can check {@link Task#isCancelled()} to drop its result.
+     *
+     * @param task Task.
+     */
+    public void cancel(Task task) {
+        task.isCancelled = true;
+        this.queue.remove(task);
+    }
+
+    /**
+     * Sets the number of pool threads.
+     *
+     * @param threadCount Number of pool threads. Must be positive.
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        synchronized (this.executor) {
+            if (threadCount > this.executor.getMaximumPoolSize()) {
+                this.executor.setMaximumPoolSize(threadCount);
+                this.executor.setCorePoolSize(threadCount);
+            } else {
+                this.executor.setCorePoolSize(threadCount);
+                this.executor.setMaximumPoolSize(threadCount);
+            }
+        }
+    }
+}
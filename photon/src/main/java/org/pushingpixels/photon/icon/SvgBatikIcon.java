@@ -29,30 +29,37 @@
  */
 package org.pushingpixels.photon.icon;
 
-import org.apache.batik.bridge.InterruptedBridgeException;
-import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.bridge.*;
+import org.apache.batik.gvt.CanvasGraphicsNode;
+import org.apache.batik.gvt.CompositeGraphicsNode;
+import org.apache.batik.gvt.GraphicsNode;
 import org.apache.batik.swing.gvt.GVTTreeRenderer;
 import org.apache.batik.swing.gvt.GVTTreeRendererEvent;
 import org.apache.batik.swing.gvt.GVTTreeRendererListener;
-import org.apache.batik.transcoder.TranscoderInput;
 import org.apache.batik.transcoder.TranscoderOutput;
 import org.apache.batik.transcoder.image.ImageTranscoder;
 import org.apache.batik.util.EventDispatcher;
 import org.apache.batik.util.EventDispatcher.Dispatcher;
+import org.apache.batik.util.SVGConstants;
+import org.apache.batik.util.XMLResourceDescriptor;
 import org.pushingpixels.neon.NeonCortex;
+import org.w3c.dom.Element;
+import org.w3c.dom.svg.SVGDocument;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
 import java.util.*;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A Swing Icon that draws an SVG image.
@@ -61,10 +68,18 @@ import java.util.concurrent.Executors;
  * @author Kirill Grouchnikov
  */
 abstract class SvgBatikIcon extends UserAgentAdapter implements Icon {
+    private static final AtomicLong idCounter = new AtomicLong();
+
     /**
-     * Contains all precomputed images.
+     * Width and height of the viewport that {@link ImageTranscoder} uses while building the
+     * GVT tree. Percentage lengths in the document are resolved against it.
      */
-    protected Map<String, BufferedImage> cachedImages = new HashMap<>();
+    private static final int TRANSCODER_VIEWPORT_SIZE = 400;
+
+    /**
+     * Identifies the images of this icon in {@link SvgRasterCache}.
+     */
+    private final long id = idCounter.getAndIncrement();
 
     /**
      * The width of the rendered image.
@@ -86,7 +101,116 @@ abstract class SvgBatikIcon extends UserAgentAdapter implements Icon {
      */
     protected List<GVTTreeRendererListener> listeners;
 
-    private static ExecutorService loadService = Executors.newFixedThreadPool(5);
+    /**
+     * The parsed SVG document. Softly referenced, since it can always be parsed again from
+     * {@link #svgBytes}.
+     */
+    private SoftReference<ParsedDocument> parsedDocument = new SoftReference<>(null);
+
+    /**
+     * Guards the lazy parsing of {@link #parsedDocument}.
+     */
+    private final Object parseLock = new Object();
+
+    /**
+     * The queued or running render task. Guarded by <code>this</code>.
+     */
+    private SvgRenderService.RenderTask pendingTask;
+
+    /**
+     * Render tasks that have failed, so that the same size is not parsed and rendered again
+     * on every paint. Guarded by <code>this</code>.
+     */
+    private final List<SvgRenderService.RenderTask> failedTasks = new ArrayList<>();
+
+    /**
+     * The GVT tree of a parsed SVG document, along with everything needed to render that tree at
+     * any size. The tree is rendered by one thread at a time.
+     */
+    private static class ParsedDocument {
+        private final BridgeContext bridgeContext;
+
+        private final GraphicsNode gvtRoot;
+
+        private final Element svgRoot;
+
+        private final Dimension2D documentSize;
+
+        private ParsedDocument(byte[] svgBytes) throws IOException {
+            SAXSVGDocumentFactory factory = new SAXSVGDocumentFactory(
+                    XMLResourceDescriptor.getXMLParserClassName());
+            SVGDocument svgDocument = factory.createSVGDocument(null,
+                    new ByteArrayInputStream(svgBytes));
+
+            UserAgentAdapter userAgent = new UserAgentAdapter() {
+                @Override
+                public Dimension2D getViewportSize() {
+                    return new Dimension(TRANSCODER_VIEWPORT_SIZE, TRANSCODER_VIEWPORT_SIZE);
+                }
+            };
+            this.bridgeContext = new BridgeContext(userAgent, new DocumentLoader(userAgent));
+            userAgent.setBridgeContext(this.bridgeContext);
+            this.gvtRoot = new GVTBuilder().build(this.bridgeContext, svgDocument);
+            this.svgRoot = svgDocument.getRootElement();
+            this.documentSize = this.bridgeContext.getDocumentSize();
+        }
+
+        /**
+         * Renders the GVT tree, mapping the document to the specified size the same way as
+         * {@link ImageTranscoder} does.
+         */
+        private synchronized BufferedImage render(int renderWidth, int renderHeight,
+                double scaleFactor) {
+            float width = (float) this.documentSize.getWidth();
+            float height = (float) this.documentSize.getHeight();
+            if ((renderWidth != 0) && (renderHeight != 0)) {
+                width = (float) (renderWidth * scaleFactor);
+                height = (float) (renderHeight * scaleFactor);
+            }
+
+            AffineTransform viewTransform;
+            String viewBox = this.svgRoot.getAttributeNS(null,
+                    SVGConstants.SVG_VIEW_BOX_ATTRIBUTE);
+            if ((viewBox != null) && (viewBox.length() != 0)) {
+                String aspectRatio = this.svgRoot.getAttributeNS(null,
+                        SVGConstants.SVG_PRESERVE_ASPECT_RATIO_ATTRIBUTE);
+                viewTransform = ViewBox.getPreserveAspectRatioTransform(this.svgRoot, viewBox,
+                        aspectRatio, width, height, this.bridgeContext);
+            } else {
+                float scale = Math.min(width / (float) this.documentSize.getWidth(),
+                        height / (float) this.documentSize.getHeight());
+                viewTransform = AffineTransform.getScaleInstance(scale, scale);
+            }
+
+            BufferedImage result = new BufferedImage(Math.max(1, (int) (width + 0.5f)),
+                    Math.max(1, (int) (height + 0.5f)), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = result.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            CanvasGraphicsNode canvasNode = this.getCanvasGraphicsNode();
+            if (canvasNode != null) {
+                canvasNode.setViewingTransform(viewTransform);
+            } else {
+                g2d.transform(viewTransform);
+            }
+            this.gvtRoot.paint(g2d);
+            g2d.dispose();
+            return result;
+        }
+
+        private CanvasGraphicsNode getCanvasGraphicsNode() {
+            if (!(this.gvtRoot instanceof CompositeGraphicsNode)) {
+                return null;
+            }
+            List children = ((CompositeGraphicsNode) this.gvtRoot).getChildren();
+            if (children.isEmpty() || !(children.get(0) instanceof CanvasGraphicsNode)) {
+                return null;
+            }
+            return (CanvasGraphicsNode) children.get(0);
+        }
+    }
 
     /**
      * Create a new SVG icon.
@@ -183,12 +307,32 @@ abstract class SvgBatikIcon extends UserAgentAdapter implements Icon {
         return height;
     }
 
+    /**
+     * Returns the rendered image for the specified size at the current scale factor.
+     *
+     * @param renderWidth  Rendering width.
+     * @param renderHeight Rendering height.
+     * @return The rendered image, or <code>null</code> if it is not available.
+     */
+    protected BufferedImage getCachedImage(int renderWidth, int renderHeight) {
+        return SvgRasterCache.get(this.id, renderWidth, renderHeight,
+                NeonCortex.getScaleFactor());
+    }
+
     @Override
     public void paintIcon(Component c, Graphics g, int x, int y) {
-        BufferedImage image = this.cachedImages.get(this.getIconWidth() + ":"
-                + this.getIconHeight());
-        if (image != null) {
-            double scaleFactor = NeonCortex.getScaleFactor();
+        double scaleFactor = NeonCortex.getScaleFactor();
+        BufferedImage image = SvgRasterCache.get(this.id, this.width, this.height, scaleFactor);
+        if (image == null) {
+            // The image has not been rendered yet, or has been evicted from the cache since.
+            // As this icon is visible, its rendering goes ahead of icons that are not.
+            synchronized (this) {
+                this.renderGVTTree(this.width, this.height);
+                if (this.pendingTask != null) {
+                    SvgRenderService.prioritize(this.pendingTask);
+                }
+            }
+        } else {
             int dx = (int) ((this.width - image.getWidth() / scaleFactor) / 2);
             int dy = (int) ((this.height - image.getHeight() / scaleFactor) / 2);
             Graphics2D g2d = (Graphics2D) g.create();
@@ -252,56 +396,92 @@ abstract class SvgBatikIcon extends UserAgentAdapter implements Icon {
      */
     protected synchronized boolean renderGVTTree(final int renderWidth,
             final int renderHeight) {
-        String cacheKey = renderWidth + ":" + renderHeight;
-        if (this.cachedImages.containsKey(cacheKey)) {
+        double scaleFactor = NeonCortex.getScaleFactor();
+        if (SvgRasterCache.get(this.id, renderWidth, renderHeight, scaleFactor) != null) {
             return true;
         }
+        for (SvgRenderService.RenderTask failedTask : this.failedTasks) {
+            if (failedTask.matches(renderWidth, renderHeight, scaleFactor)) {
+                return false;
+            }
+        }
+        if (this.pendingTask != null) {
+            if (this.pendingTask.matches(renderWidth, renderHeight, scaleFactor)) {
+                return false;
+            }
+            // The previously requested size is not needed anymore
+            SvgRenderService.cancel(this.pendingTask);
+        }
 
-        Runnable load = new Runnable() {
+        this.pendingTask = new SvgRenderService.RenderTask(renderWidth, renderHeight,
+                scaleFactor) {
             @Override
-            public void run() {
+            void render() {
                 GVTTreeRendererEvent ev = new GVTTreeRendererEvent(this, null);
                 try {
-                    ev = new GVTTreeRendererEvent(this, null);
                     fireEvent(startedDispatcher, ev);
 
-                    BufferedImageTranscoder t =
-                            new BufferedImageTranscoder((float) NeonCortex.getScaleFactor());
-                    if (renderWidth != 0 && renderHeight != 0) {
-                        t.setDimensions(renderWidth, renderHeight);
-                    }
-
-                    InputStream is = new ByteArrayInputStream(svgBytes);
-                    TranscoderInput ti = new TranscoderInput(is);
-                    t.transcode(ti, null);
-
-                    BufferedImage bufferedImage = t.getBufferedImage();
-                    String key = renderWidth + ":" + renderHeight;
-                    if (bufferedImage != null) {
-                        synchronized (SvgBatikIcon.this) {
-                            cachedImages.put(key, bufferedImage);
+                    BufferedImage bufferedImage = getParsedDocument().render(this.width,
+                            this.height, this.scaleFactor);
+                    SvgRasterCache.put(id, this.width, this.height, this.scaleFactor,
+                            bufferedImage);
+                    synchronized (SvgBatikIcon.this) {
+                        if (pendingTask == this) {
+                            pendingTask = null;
                         }
+                    }
 
+                    if (!this.isCancelled()) {
                         ev = new GVTTreeRendererEvent(this, bufferedImage);
                         fireEvent(completedDispatcher, ev);
                     }
                 } catch (InterruptedBridgeException e) {
                     // this sometimes happens with SVG Fonts since the glyphs
                     // are not built till the rendering stage
+                    clearPendingTask(this);
                     fireEvent(cancelledDispatcher, ev);
                 } catch (ThreadDeath td) {
+                    clearPendingTask(this);
                     fireEvent(failedDispatcher, ev);
                     throw td;
                 } catch (Throwable t) {
+                    synchronized (SvgBatikIcon.this) {
+                        failedTasks.add(this);
+                    }
+                    clearPendingTask(this);
                     fireEvent(failedDispatcher, ev);
                 }
             }
         };
-        loadService.execute(load);
+        SvgRenderService.schedule(this.pendingTask);
 
         return false;
     }
 
+    private synchronized void clearPendingTask(SvgRenderService.RenderTask task) {
+        if (this.pendingTask == task) {
+            this.pendingTask = null;
+        }
+    }
+
+    /**
+     * Returns the parsed SVG document, parsing {@link #svgBytes} if this is the first time
+     * this icon is rendered or the previously parsed document has been reclaimed.
+     *
+     * @return The parsed SVG document.
+     * @throws IOException in case the SVG document could not be parsed.
+     */
+    private ParsedDocument getParsedDocument() throws IOException {
+        synchronized (this.parseLock) {
+            ParsedDocument result = this.parsedDocument.get();
+            if (result == null) {
+                result = new ParsedDocument(this.svgBytes);
+                this.parsedDocument = new SoftReference<>(result);
+            }
+            return result;
+        }
+    }
+
     /**
      * Adds a {@link GVTTreeRendererListener} to this {@link GVTTreeRenderer}.
      *
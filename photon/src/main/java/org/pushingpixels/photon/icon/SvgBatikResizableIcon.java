@@ -244,8 +244,32 @@ public class SvgBatikResizableIcon extends SvgBatikIcon implements
 
 	@Override
 	public synchronized boolean isLoading() {
-		String cacheKey = this.getIconWidth() + ":" + this.getIconHeight();
-		BufferedImage image = this.cachedImages.get(cacheKey);
+		BufferedImage image = this.getCachedImage(this.getIconWidth(),
+				this.getIconHeight());
 		return (image == null);
 	}
+
+	/**
+	 * Sets the number of threads that render the content of all SVG icons. The
+	 * default is the number of available processors, up to four.
+	 * 
+	 * @param threadCount
+	 *            Number of render threads.
+	 */
+	public static void setRenderThreadCount(int threadCount) {
+		SvgRenderService.setThreadCount(threadCount);
+	}
+
+	/**
+	 * Sets the maximum total memory of the rendered images of all SVG icons.
+	 * The least recently used images are evicted first, and are rendered again
+	 * from the parsed SVG content when their icons are painted. The default is
+	 * 64MB.
+	 * 
+	 * @param capacity
+	 *            Maximum total memory of the rendered images, in bytes.
+	 */
+	public static void setRasterCacheCapacity(long capacity) {
+		SvgRasterCache.setCapacity(capacity);
+	}
 }
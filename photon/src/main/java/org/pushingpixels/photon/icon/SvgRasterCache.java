@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2005-2018 Radiance Photon Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Radiance Photon Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.photon.icon;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Raster cache shared by all SVG icons. The cache is bounded by the total memory of the cached
+ * images, and evicts the least recently used images first.
+ *
+ * @author Kirill Grouchnikov
+ */
+final class SvgRasterCache {
+    private static final class Key {
+        private final long iconId;
+        private final int width;
+        private final int height;
+        private final double scaleFactor;
+
+        private Key(long iconId, int width, int height, double scaleFactor) {
+            this.iconId = iconId;
+            this.width = width;
+            this.height = height;
+            this.scaleFactor = scaleFactor;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return (this.iconId == other.iconId) && (this.width == other.width)
+                    && (this.height == other.height) && (this.scaleFactor == other.scaleFactor);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Long.hashCode(this.iconId);
+            result = 31 * result + this.width;
+            result = 31 * result + this.height;
+            result = 31 * result + Double.hashCode(this.scaleFactor);
+            return result;
+        }
+    }
+
+    /**
+     * Cached images in access order.
+     */
+    private static final LinkedHashMap<Key, BufferedImage> images =
+            new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * The maximum total size of the cached images in bytes.
+     */
+    private static long capacity = 64L * 1024 * 1024;
+
+    /**
+     * The total size of the cached images in bytes.
+     */
+    private static long size;
+
+    private SvgRasterCache() {
+    }
+
+    static synchronized BufferedImage get(long iconId, int width, int height,
+            double scaleFactor) {
+        return images.get(new Key(iconId, width, height, scaleFactor));
+    }
+
+    static synchronized void put(long iconId, int width, int height, double scaleFactor,
+            BufferedImage image) {
+        BufferedImage previous = images.put(new Key(iconId, width, height, scaleFactor), image);
+        if (previous != null) {
+            size -= getSize(previous);
+        }
+        size += getSize(image);
+        evict();
+    }
+
+    static synchronized void setCapacity(long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        SvgRasterCache.capacity = capacity;
+        evict();
+    }
+
+    /**
+     * Evicts the least recently used images until the cache fits in its capacity. The most
+     * recently used image is always kept so that an icon larger than the entire capacity can
+     * still be painted.
+     */
+    private static void evict() {
+        Iterator<Map.Entry<Key, BufferedImage>> entries = images.entrySet().iterator();
+        while ((size > capacity) && (images.size() > 1)) {
+            size -= getSize(entries.next().getValue());
+            entries.remove();
+        }
+    }
+
+    private static long getSize(BufferedImage image) {
+        // All the cached images are INT_ARGB
+        return 4L * image.getWidth() * image.getHeight();
+    }
+}
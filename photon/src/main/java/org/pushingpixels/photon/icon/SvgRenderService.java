@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2005-2018 Radiance Photon Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Radiance Photon Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.photon.icon;
+
+import org.pushingpixels.neon.internal.PrioritizedTaskQueue;
+
+/**
+ * Render service shared by all SVG icons. The pool is bounded by a configurable number of daemon
+ * threads, and each icon has at most one queued render task at any time, since a task for a
+ * size that is no longer needed is cancelled when a new size is requested. Tasks of icons that
+ * have been painted while waiting for their content go ahead of the rest of the queue.
+ *
+ * @author Kirill Grouchnikov
+ */
+final class SvgRenderService {
+    /**
+     * Render task for a single size of a single icon.
+     */
+    abstract static class RenderTask extends PrioritizedTaskQueue.Task {
+        final int width;
+
+        final int height;
+
+        final double scaleFactor;
+
+        RenderTask(int width, int height, double scaleFactor) {
+            super(false);
+            this.width = width;
+            this.height = height;
+            this.scaleFactor = scaleFactor;
+        }
+
+        boolean matches(int width, int height, double scaleFactor) {
+            return (this.width == width) && (this.height == height)
+                    && (this.scaleFactor == scaleFactor);
+        }
+
+        /**
+         * Renders the content of this task. Not called for tasks cancelled before they started.
+         */
+        abstract void render();
+
+        @Override
+        protected final void execute() {
+            this.render();
+        }
+    }
+
+    private static final PrioritizedTaskQueue renderQueue = new PrioritizedTaskQueue(
+            "Photon SVG renderer", Thread.NORM_PRIORITY - 1);
+
+    private SvgRenderService() {
+    }
+
+    static void schedule(RenderTask task) {
+        renderQueue.schedule(task);
+    }
+
+    /**
+     * Moves the specified task ahead of all tasks of icons that have not been painted. Does
+     * nothing if the task has already started.
+     *
+     * @param task Render task.
+     */
+    static void prioritize(RenderTask task) {
+        renderQueue.setPrioritized(task, true);
+    }
+
+    static void cancel(RenderTask task) {
+        renderQueue.cancel(task);
+    }
+
+    static void setThreadCount(int threadCount) {
+        renderQueue.setThreadCount(threadCount);
+    }
+}
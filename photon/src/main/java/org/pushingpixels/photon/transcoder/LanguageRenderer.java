@@ -51,4 +51,8 @@ public interface LanguageRenderer {
     public String endSetterAssignment();
     
     public String getGetter(String propertyName);
+
+    public String startStaticFieldDefinition(String fieldTypeName, String fieldName);
+
+    public String startStaticMethodDefinition(String returnTypeName, String methodName);
 }
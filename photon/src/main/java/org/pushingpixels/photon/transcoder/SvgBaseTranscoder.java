@@ -39,6 +39,8 @@ import org.apache.batik.gvt.*;
 import java.awt.*;
 import java.awt.geom.*;
 import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * SVG to Java2D transcoder.
@@ -89,6 +91,46 @@ abstract class SvgBaseTranscoder {
 
     protected final static String TOKEN_ORIG_HEIGHT = "TOKEN_ORIG_HEIGHT";
 
+    protected final static String TOKEN_STATIC_GEOMETRY = "TOKEN_STATIC_GEOMETRY";
+
+    /**
+     * If <code>true</code>, shapes, paints, strokes and transforms are emitted as static final
+     * fields that are created once, and the painting code only references them.
+     */
+    private boolean staticGeometry;
+
+    /**
+     * Print writer for the static field definitions. Only used when {@link #staticGeometry} is
+     * set.
+     */
+    private PrintWriter staticPrintWriter;
+
+    /**
+     * Maps the creation expressions of the static paints, strokes and transforms to the names
+     * of the static fields that hold them, so that identical values share a single field.
+     */
+    private Map<String, String> staticFields;
+
+    private int staticShapeCount;
+
+    /**
+     * Transform from the root node to the node that is currently being transcoded. Only used
+     * when {@link #staticGeometry} is set.
+     */
+    private AffineTransform currentTransform;
+
+    /**
+     * Name of the static transform field that has been installed on the graphics context by
+     * the code emitted so far, or <code>null</code> if the original transform is installed.
+     */
+    private String installedTransform;
+
+    /**
+     * Representation of the composite installed by the code emitted so far, or
+     * <code>null</code> if no composite has been installed yet.
+     */
+    private String installedComposite;
+
     /**
      * Creates a new transcoder.
      *
@@ -104,6 +146,19 @@ abstract class SvgBaseTranscoder {
         this.packageName = packageName;
     }
 
+    /**
+     * Sets the output mode of the generated code. When set to <code>true</code>, all shapes,
+     * paints, strokes and transforms are hoisted into static final fields. The generated painting
+     * code then only installs them on the graphics context, skipping identity transforms and
+     * repeated composites, and does not allocate any geometry on painting. The default is
+     * <code>false</code>, which creates all the objects in the painting code.
+     *
+     * @param staticGeometry If <code>true</code>, the generated code uses static geometry.
+     */
+    public void setStaticGeometry(boolean staticGeometry) {
+        this.staticGeometry = staticGeometry;
+    }
+
     /**
      * Sets the listener.
      *
@@ -152,11 +207,33 @@ abstract class SvgBaseTranscoder {
 
         ByteArrayOutputStream paintingCodeStream = new ByteArrayOutputStream();
         this.printWriter = new PrintWriter(paintingCodeStream);
-        transcodeGraphicsNode(gvtRoot, "");
+        ByteArrayOutputStream staticCodeStream = new ByteArrayOutputStream();
+        if (this.staticGeometry) {
+            this.staticPrintWriter = new PrintWriter(staticCodeStream);
+            this.staticFields = new HashMap<>();
+            this.staticShapeCount = 0;
+            this.currentTransform = new AffineTransform();
+            this.installedTransform = null;
+            this.installedComposite = null;
+            printWriter.println(languageRenderer.startVariableDefinition("AffineTransform")
+                    + "defaultTransform = g" + languageRenderer.getGetter("transform")
+                    + languageRenderer.getStatementEnd());
+            transcodeGraphicsNode(gvtRoot, "");
+            if (this.installedTransform != null) {
+                printWriter.println("g" + languageRenderer.startSetterAssignment("transform")
+                        + "defaultTransform" + languageRenderer.endSetterAssignment()
+                        + languageRenderer.getStatementEnd());
+            }
+            this.staticPrintWriter.close();
+        } else {
+            transcodeGraphicsNode(gvtRoot, "");
+        }
         this.printWriter.close();
 
         String paintingCode = new String(paintingCodeStream.toByteArray());
         templateString = templateString.replaceAll(TOKEN_PAINTING_CODE, paintingCode);
+        String staticCode = new String(staticCodeStream.toByteArray());
+        templateString = templateString.replaceAll(TOKEN_STATIC_GEOMETRY, staticCode);
 
         Rectangle2D bounds = gvtRoot.getBounds();
 
@@ -182,9 +259,22 @@ abstract class SvgBaseTranscoder {
      * @param pathIterator Path iterator.
      */
     private void transcodePathIterator(PathIterator pathIterator) {
-        float[] coords = new float[6];
         printWriter.println("shape = " + languageRenderer.getObjectCreationNoParams("GeneralPath")
                 + languageRenderer.getStatementEnd());
+        transcodePathSegments(pathIterator, printWriter,
+                languageRenderer.getObjectCast("shape", "GeneralPath"));
+    }
+
+    /**
+     * Transcodes the segments of the specified path iterator.
+     *
+     * @param pathIterator Path iterator.
+     * @param printWriter  Print writer for the transcoded segments.
+     * @param pathRep      Representation of the path that the segments are added to.
+     */
+    private void transcodePathSegments(PathIterator pathIterator, PrintWriter printWriter,
+            String pathRep) {
+        float[] coords = new float[6];
         for (; !pathIterator.isDone(); pathIterator.next()) {
             int type = pathIterator.currentSegment(coords);
             switch (type) {
@@ -193,39 +283,37 @@ abstract class SvgBaseTranscoder {
                     // printWriter.println("CUBICTO " + coords[0] + ":" + coords[1]
                     // + ":" + coords[2] + ":" + coords[3] + ":"
                     // + coords[4] + ":" + coords[5]);
-                    printWriter.println(languageRenderer.getObjectCast("shape", "GeneralPath")
-                            + ".curveTo(" + coords[0] + ", " + coords[1] + ", " + coords[2] + ", "
-                            + coords[3] + ", " + coords[4] + ", " + coords[5] + ")"
+                    printWriter.println(pathRep + ".curveTo(" + coords[0] + ", " + coords[1]
+                            + ", " + coords[2] + ", " + coords[3] + ", " + coords[4] + ", "
+                            + coords[5] + ")"
                             + languageRenderer.getStatementEnd());
                     break;
                 case PathIterator.SEG_QUADTO:
                     // offset(offset + 1);
                     // printWriter.println("QUADTO " + coords[0] + ":" + coords[1]
                     // + ":" + coords[2] + ":" + coords[3]);
-                    printWriter.println(languageRenderer.getObjectCast("shape", "GeneralPath")
-                            + ".quadTo(" + coords[0] + ", " + coords[1] + ", " + coords[2] + ", "
-                            + coords[3] + ")" + languageRenderer.getStatementEnd());
+                    printWriter.println(pathRep + ".quadTo(" + coords[0] + ", " + coords[1]
+                            + ", " + coords[2] + ", " + coords[3] + ")"
+                            + languageRenderer.getStatementEnd());
                     break;
                 case PathIterator.SEG_MOVETO:
                     // offset(offset + 1);
                     // printWriter.println("MOVETO " + coords[0] + ":" + coords[1]);
-                    printWriter.println(languageRenderer.getObjectCast("shape", "GeneralPath")
-                            + ".moveTo(" + coords[0] + ", " + coords[1] + ")"
+                    printWriter.println(pathRep + ".moveTo(" + coords[0] + ", " + coords[1] + ")"
                             + languageRenderer.getStatementEnd());
                     break;
                 case PathIterator.SEG_LINETO:
                     // offset(offset + 1);
                     // printWriter.println("LINETO " + coords[0] + ":" + coords[1]);
-                    printWriter.println(languageRenderer.getObjectCast("shape", "GeneralPath")
-                            + ".lineTo(" + coords[0] + ", " + coords[1] + ")"
+                    printWriter.println(pathRep + ".lineTo(" + coords[0] + ", " + coords[1] + ")"
                             + languageRenderer.getStatementEnd());
                     break;
                 // through
                 case PathIterator.SEG_CLOSE:
                     // offset(offset + 1);
                     // printWriter.println("CLOSE");
-                    printWriter.println(languageRenderer.getObjectCast("shape", "GeneralPath")
-                            + ".closePath()" + languageRenderer.getStatementEnd());
+                    printWriter.println(pathRep + ".closePath()"
+                            + languageRenderer.getStatementEnd());
                     break;
             }
         }
@@ -246,47 +334,109 @@ abstract class SvgBaseTranscoder {
             transcodePathIterator(((GeneralPath) shape).getPathIterator(null));
             return;
         }
+        printWriter.println("shape = " + getShapeCreation(shape)
+                + languageRenderer.getStatementEnd());
+    }
+
+    /**
+     * Returns the creation expression of the specified non-path shape.
+     *
+     * @param shape Shape.
+     * @return The creation expression of the shape.
+     * @throws UnsupportedOperationException if the shape is unsupported.
+     */
+    private String getShapeCreation(Shape shape) throws UnsupportedOperationException {
         if (shape instanceof Rectangle2D) {
             Rectangle2D rect = (Rectangle2D) shape;
-            printWriter
-                    .println("shape = " + languageRenderer.getObjectCreation("Rectangle2D.Double")
-                            + "(" + rect.getX() + ", " + rect.getY() + ", " + rect.getWidth() + ", "
-                            + rect.getHeight() + ")" + languageRenderer.getStatementEnd());
-            return;
+            return languageRenderer.getObjectCreation("Rectangle2D.Double")
+                    + "(" + rect.getX() + ", " + rect.getY() + ", " + rect.getWidth() + ", "
+                    + rect.getHeight() + ")";
         }
         if (shape instanceof RoundRectangle2D) {
             RoundRectangle2D rRect = (RoundRectangle2D) shape;
-            printWriter.println(
-                    "shape = " + languageRenderer.getObjectCreation("RoundRectangle2D.Double") + "("
-                            + rRect.getX() + ", " + rRect.getY() + ", " + rRect.getWidth() + ", "
-                            + rRect.getHeight() + ", " + rRect.getArcWidth() + ", "
-                            + rRect.getArcHeight() + ")" + languageRenderer.getStatementEnd());
-            return;
+            return languageRenderer.getObjectCreation("RoundRectangle2D.Double") + "("
+                    + rRect.getX() + ", " + rRect.getY() + ", " + rRect.getWidth() + ", "
+                    + rRect.getHeight() + ", " + rRect.getArcWidth() + ", "
+                    + rRect.getArcHeight() + ")";
         }
         if (shape instanceof Ellipse2D) {
             Ellipse2D ell = (Ellipse2D) shape;
-            printWriter.println("shape = " + languageRenderer.getObjectCreation("Ellipse2D.Double")
+            return languageRenderer.getObjectCreation("Ellipse2D.Double")
                     + "(" + ell.getX() + ", " + ell.getY() + ", " + ell.getWidth() + ", "
-                    + ell.getHeight() + ")" + languageRenderer.getStatementEnd());
-            return;
+                    + ell.getHeight() + ")";
         }
         if (shape instanceof Line2D.Float) {
             Line2D.Float l2df = (Line2D.Float) shape;
-            printWriter.print("shape = " + languageRenderer.getObjectCreation("Line2D.Float"));
-            printWriter.format("(%ff,%ff,%ff,%ff)", l2df.x1, l2df.y1, l2df.x2, l2df.y2);
-            printWriter.println(languageRenderer.getStatementEnd());
-            return;
+            return languageRenderer.getObjectCreation("Line2D.Float")
+                    + String.format("(%ff,%ff,%ff,%ff)", l2df.x1, l2df.y1, l2df.x2, l2df.y2);
         }
         throw new UnsupportedOperationException(shape.getClass().getCanonicalName());
     }
 
+    /**
+     * Transcodes the specified shape into a static field.
+     *
+     * @param shape Shape.
+     * @return The name of the static field that holds the shape.
+     * @throws UnsupportedOperationException if the shape is unsupported.
+     */
+    private String transcodeStaticShape(Shape shape) throws UnsupportedOperationException {
+        String fieldName = "shape_" + this.staticShapeCount++;
+        PathIterator pathIterator = null;
+        if (shape instanceof ExtendedGeneralPath) {
+            pathIterator = ((ExtendedGeneralPath) shape).getPathIterator(null);
+        } else if (shape instanceof GeneralPath) {
+            pathIterator = ((GeneralPath) shape).getPathIterator(null);
+        }
+        if (pathIterator == null) {
+            staticPrintWriter.println(languageRenderer.startStaticFieldDefinition("Shape",
+                    fieldName) + getShapeCreation(shape) + languageRenderer.getStatementEnd());
+            return fieldName;
+        }
+
+        // Paths go into separate factory methods to keep the static initializer small
+        String factoryName = "create" + Character.toUpperCase(fieldName.charAt(0))
+                + fieldName.substring(1);
+        staticPrintWriter.println(languageRenderer.startStaticFieldDefinition("Shape",
+                fieldName) + factoryName + "()" + languageRenderer.getStatementEnd());
+        staticPrintWriter.println(languageRenderer.startStaticMethodDefinition("Shape",
+                factoryName));
+        staticPrintWriter.println(languageRenderer.startVariableDefinition("GeneralPath")
+                + "path = " + languageRenderer.getObjectCreationNoParams("GeneralPath")
+                + languageRenderer.getStatementEnd());
+        transcodePathSegments(pathIterator, staticPrintWriter, "path");
+        staticPrintWriter.println("return path" + languageRenderer.getStatementEnd());
+        staticPrintWriter.println("}");
+        return fieldName;
+    }
+
+    /**
+     * Returns the name of the static field initialized with the specified creation expression,
+     * adding that field if needed.
+     *
+     * @param prefix     Prefix of the field name.
+     * @param typeName   Type of the field.
+     * @param creation   Creation expression.
+     * @return The name of the static field.
+     */
+    private String getStaticField(String prefix, String typeName, String creation) {
+        String fieldName = this.staticFields.get(creation);
+        if (fieldName == null) {
+            fieldName = prefix + "_" + this.staticFields.size();
+            this.staticFields.put(creation, fieldName);
+            staticPrintWriter.println(languageRenderer.startStaticFieldDefinition(typeName,
+                    fieldName) + creation + languageRenderer.getStatementEnd());
+        }
+        return fieldName;
+    }
+
     /**
      * Transcodes the specified linear gradient paint.
      *
      * @param paint Linear gradient paint.
      * @throws IllegalArgumentException if the fractions are not strictly increasing.
      */
-    private void transcodeLinearGradientPaint(LinearGradientPaint paint)
+    private String getLinearGradientPaintCreation(LinearGradientPaint paint)
             throws IllegalArgumentException {
         Point2D startPoint = paint.getStartPoint();
         Point2D endPoint = paint.getEndPoint();
@@ -368,17 +518,16 @@ abstract class SvgBaseTranscoder {
         double[] transfMatrix = new double[6];
         transform.getMatrix(transfMatrix);
 
-        this.printWriter
-                .println("paint = " + languageRenderer.getObjectCreation("LinearGradientPaint")
-                        + "(" + languageRenderer.getObjectCreation("Point2D.Double") + "("
-                        + startPoint.getX() + ", " + startPoint.getY() + "), "
-                        + languageRenderer.getObjectCreation("Point2D.Double") + "("
-                        + endPoint.getX() + ", " + endPoint.getY() + "), " + fractionsRep.toString()
-                        + ", " + colorsRep.toString() + ", " + cycleMethodRep + ", " + colorSpaceRep
-                        + ", " + languageRenderer.getObjectCreation("AffineTransform") + "("
-                        + transfMatrix[0] + "f, " + transfMatrix[1] + "f, " + transfMatrix[2]
-                        + "f, " + transfMatrix[3] + "f, " + transfMatrix[4] + "f, "
-                        + transfMatrix[5] + "f))" + languageRenderer.getStatementEnd());
+        return languageRenderer.getObjectCreation("LinearGradientPaint")
+                + "(" + languageRenderer.getObjectCreation("Point2D.Double") + "("
+                + startPoint.getX() + ", " + startPoint.getY() + "), "
+                + languageRenderer.getObjectCreation("Point2D.Double") + "("
+                + endPoint.getX() + ", " + endPoint.getY() + "), " + fractionsRep.toString()
+                + ", " + colorsRep.toString() + ", " + cycleMethodRep + ", " + colorSpaceRep
+                + ", " + languageRenderer.getObjectCreation("AffineTransform") + "("
+                + transfMatrix[0] + "f, " + transfMatrix[1] + "f, " + transfMatrix[2]
+                + "f, " + transfMatrix[3] + "f, " + transfMatrix[4] + "f, "
+                + transfMatrix[5] + "f))";
 
         // offset(offset);
         // printWriter.println("LinearGradientPaint");
@@ -402,7 +551,7 @@ abstract class SvgBaseTranscoder {
      * @param paint Radial gradient paint.
      * @throws IllegalArgumentException if the fractions are not strictly increasing.
      */
-    private void transcodeRadialGradientPaint(RadialGradientPaint paint)
+    private String getRadialGradientPaintCreation(RadialGradientPaint paint)
             throws IllegalArgumentException {
         // offset(offset);
         Point2D centerPoint = paint.getCenterPoint();
@@ -486,8 +635,7 @@ abstract class SvgBaseTranscoder {
         double[] transfMatrix = new double[6];
         transform.getMatrix(transfMatrix);
 
-        this.printWriter.println("paint = "
-                + languageRenderer.getObjectCreation("RadialGradientPaint") + "("
+        return languageRenderer.getObjectCreation("RadialGradientPaint") + "("
                 + languageRenderer.getObjectCreation("Point2D.Double") + "(" + centerPoint.getX()
                 + ", " + centerPoint.getY() + "), " + radius + "f, "
                 + languageRenderer.getObjectCreation("Point2D.Double") + "(" + focusPoint.getX()
@@ -495,8 +643,7 @@ abstract class SvgBaseTranscoder {
                 + colorsRep.toString() + ", " + cycleMethodRep + ", " + colorSpaceRep + ", "
                 + languageRenderer.getObjectCreation("AffineTransform") + "(" + transfMatrix[0]
                 + "f, " + transfMatrix[1] + "f, " + transfMatrix[2] + "f, " + transfMatrix[3]
-                + "f, " + transfMatrix[4] + "f, " + transfMatrix[5] + "f))"
-                + languageRenderer.getStatementEnd());
+                + "f, " + transfMatrix[4] + "f, " + transfMatrix[5] + "f))";
         //
         // printWriter.println("RadialGradientPaint");
         // // offset(offset + 1);
@@ -523,31 +670,93 @@ abstract class SvgBaseTranscoder {
      * @param paint Paint.
      * @throws UnsupportedOperationException if the paint is unsupported.
      */
-    private void transcodePaint(Paint paint) throws UnsupportedOperationException {
+    private String transcodePaint(Paint paint) throws UnsupportedOperationException {
+        String creation = getPaintCreation(paint);
+        if (this.staticGeometry) {
+            return getStaticField("paint", "Paint", creation);
+        }
+        printWriter.println("paint = " + creation + languageRenderer.getStatementEnd());
+        return "paint";
+    }
+
+    /**
+     * Returns the creation expression of the specified paint.
+     *
+     * @param paint Paint.
+     * @return The creation expression of the paint.
+     * @throws UnsupportedOperationException if the paint is unsupported.
+     */
+    private String getPaintCreation(Paint paint) throws UnsupportedOperationException {
         if (paint instanceof RadialGradientPaint) {
-            transcodeRadialGradientPaint((RadialGradientPaint) paint);
-            return;
+            return getRadialGradientPaintCreation((RadialGradientPaint) paint);
         }
         if (paint instanceof LinearGradientPaint) {
-            transcodeLinearGradientPaint((LinearGradientPaint) paint);
-            return;
+            return getLinearGradientPaintCreation((LinearGradientPaint) paint);
         }
         if (paint instanceof Color) {
-            // offset(offset);
-            // printWriter.println((Color) paint);
             Color c = (Color) paint;
-            printWriter.println("paint = " + languageRenderer.getObjectCreation("Color") + "("
+            return languageRenderer.getObjectCreation("Color") + "("
                     + c.getRed() + ", " + c.getGreen() + ", " + c.getBlue() + ", " + c.getAlpha()
-                    + ")" + languageRenderer.getStatementEnd());
-            return;
+                    + ")";
         }
-        if (paint == null) {
-            // offset(offset);
-            printWriter.println("No paint");
-            return;
+
+        throw new UnsupportedOperationException((paint == null) ? "No paint"
+                : paint.getClass().getCanonicalName());
+    }
+
+    /**
+     * Transcodes the specified shape and emits the code to fill or draw it.
+     *
+     * @param shape    Shape.
+     * @param paintRep Representation of the paint.
+     * @param strokeRep Representation of the stroke, or <code>null</code> to fill the shape.
+     */
+    private void transcodeShapePainting(Shape shape, String paintRep, String strokeRep) {
+        String shapeRep = "shape";
+        if (this.staticGeometry) {
+            shapeRep = transcodeStaticShape(shape);
+            installCurrentTransform();
+        } else {
+            transcodeShape(shape);
         }
+        printWriter.println("g" + languageRenderer.startSetterAssignment("paint") + paintRep
+                + languageRenderer.endSetterAssignment() + languageRenderer.getStatementEnd());
+        if (strokeRep == null) {
+            printWriter.println("g.fill(" + shapeRep + ")" + languageRenderer.getStatementEnd());
+        } else {
+            printWriter.println("g" + languageRenderer.startSetterAssignment("stroke")
+                    + strokeRep + languageRenderer.endSetterAssignment()
+                    + languageRenderer.getStatementEnd());
+            printWriter.println("g.draw(" + shapeRep + ")" + languageRenderer.getStatementEnd());
+        }
+    }
 
-        throw new UnsupportedOperationException(paint.getClass().getCanonicalName());
+    /**
+     * Emits the code to install the transform of the node that is being transcoded, unless
+     * it is already installed. Only used when {@link #staticGeometry} is set.
+     */
+    private void installCurrentTransform() {
+        String transformRep = null;
+        if (!this.currentTransform.isIdentity()) {
+            double[] matrix = new double[6];
+            this.currentTransform.getMatrix(matrix);
+            transformRep = getStaticField("transform", "AffineTransform",
+                    languageRenderer.getObjectCreation("AffineTransform") + "(" + matrix[0]
+                            + ", " + matrix[1] + ", " + matrix[2] + ", " + matrix[3] + ", "
+                            + matrix[4] + ", " + matrix[5] + ")");
+        }
+        if ((transformRep == null) ? (this.installedTransform == null)
+                : transformRep.equals(this.installedTransform)) {
+            return;
+        }
+        printWriter.println("g" + languageRenderer.startSetterAssignment("transform")
+                + "defaultTransform" + languageRenderer.endSetterAssignment()
+                + languageRenderer.getStatementEnd());
+        if (transformRep != null) {
+            printWriter.println("g.transform(" + transformRep + ")"
+                    + languageRenderer.getStatementEnd());
+        }
+        this.installedTransform = transformRep;
     }
 
     /**
@@ -596,14 +805,11 @@ abstract class SvgBaseTranscoder {
         Paint paint = painter.getPaint();
         if (paint == null)
             return;
-        transcodePaint(paint);
+        String paintRep = transcodePaint(paint);
         Shape shape = painter.getShape();
         // offset(offset);
         // printWriter.println("FillShapePainter");
-        transcodeShape(shape);
-        printWriter.println("g" + languageRenderer.startSetterAssignment("paint") + "paint"
-                + languageRenderer.endSetterAssignment() + languageRenderer.getStatementEnd());
-        printWriter.println("g.fill(shape)" + languageRenderer.getStatementEnd());
+        transcodeShapePainting(shape, paintRep, null);
     }
 
     /**
@@ -618,7 +824,7 @@ abstract class SvgBaseTranscoder {
         Paint paint = painter.getPaint();
         if (paint == null)
             return;
-        transcodePaint(paint);
+        String paintRep = transcodePaint(paint);
         // offset(offset + 1);
         // printWriter.println(paint);
         Stroke stroke = painter.getStroke();
@@ -645,16 +851,17 @@ abstract class SvgBaseTranscoder {
             }
             dashRep.append("}");
         }
-        printWriter.println("stroke = " + languageRenderer.getObjectCreation("BasicStroke")
+        String strokeCreation = languageRenderer.getObjectCreation("BasicStroke")
                 + "(" + width + "f," + cap + "," + join + "," + miterlimit + "f," + dashRep
-                + "," + dash_phase + "f)" + languageRenderer.getStatementEnd());
+                + "," + dash_phase + "f)";
+        String strokeRep = "stroke";
+        if (this.staticGeometry) {
+            strokeRep = getStaticField("stroke", "Stroke", strokeCreation);
+        } else {
+            printWriter.println("stroke = " + strokeCreation + languageRenderer.getStatementEnd());
+        }
 
-        transcodeShape(shape);
-        printWriter.println("g" + languageRenderer.startSetterAssignment("paint") + "paint"
-                + languageRenderer.endSetterAssignment() + languageRenderer.getStatementEnd());
-        printWriter.println("g" + languageRenderer.startSetterAssignment("stroke") + "stroke"
-                + languageRenderer.endSetterAssignment() + languageRenderer.getStatementEnd());
-        printWriter.println("g.draw(shape)" + languageRenderer.getStatementEnd());
+        transcodeShapePainting(shape, paintRep, strokeRep);
     }
 
     /**
@@ -698,6 +905,10 @@ abstract class SvgBaseTranscoder {
      */
     private void transcodeGraphicsNode(GraphicsNode node, String comment)
             throws UnsupportedOperationException {
+        if (this.staticGeometry) {
+            transcodeStaticGraphicsNode(node, comment);
+            return;
+        }
         AlphaComposite composite = (AlphaComposite) node.getComposite();
         if (composite != null) {
             int rule = composite.getRule();
@@ -738,4 +949,56 @@ abstract class SvgBaseTranscoder {
                     + languageRenderer.getStatementEnd());
         }
     }
+
+    /**
+     * Transcodes the specified graphics node when {@link #staticGeometry} is set. Instead of
+     * saving and restoring the graphics transform around every node, the transforms of all the
+     * nodes on the path from the root are concatenated into a single static transform that is
+     * installed before painting a shape. Composites are only set when they change.
+     *
+     * @param node    Graphics node.
+     * @param comment Comment (for associating the Java2D section with the corresponding SVG section).
+     * @throws UnsupportedOperationException if the graphics node is unsupported.
+     */
+    private void transcodeStaticGraphicsNode(GraphicsNode node, String comment)
+            throws UnsupportedOperationException {
+        AlphaComposite composite = (AlphaComposite) node.getComposite();
+        if (composite != null) {
+            String compositeRep = "AlphaComposite.getInstance(" + composite.getRule() + ", "
+                    + composite.getAlpha() + "f * origAlpha)";
+            if (!compositeRep.equals(this.installedComposite)) {
+                printWriter.println("g" + languageRenderer.startSetterAssignment("composite")
+                        + compositeRep + languageRenderer.endSetterAssignment()
+                        + languageRenderer.getStatementEnd());
+                this.installedComposite = compositeRep;
+            }
+        }
+
+        AffineTransform parentTransform = this.currentTransform;
+        AffineTransform transform = node.getTransform();
+        if ((transform != null) && !transform.isIdentity()) {
+            // match the float precision of the transforms in the dynamic output
+            double[] transfMatrix = new double[6];
+            transform.getMatrix(transfMatrix);
+            for (int i = 0; i < transfMatrix.length; i++) {
+                transfMatrix[i] = (float) transfMatrix[i];
+            }
+            this.currentTransform = new AffineTransform(parentTransform);
+            this.currentTransform.concatenate(new AffineTransform(transfMatrix));
+        }
+
+        try {
+            if (node instanceof ShapeNode) {
+                transcodeShapeNode((ShapeNode) node, comment);
+                return;
+            }
+            if (node instanceof CompositeGraphicsNode) {
+                transcodeCompositeGraphicsNode((CompositeGraphicsNode) node, comment);
+                return;
+            }
+            throw new UnsupportedOperationException(node.getClass().getCanonicalName());
+        } finally {
+            this.currentTransform = parentTransform;
+        }
+    }
 }
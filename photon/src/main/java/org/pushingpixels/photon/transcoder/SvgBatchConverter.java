@@ -29,13 +29,15 @@
  */
 package org.pushingpixels.photon.transcoder;
 
-import org.pushingpixels.photon.transcoder.java.JavaLanguageRenderer;
-import org.pushingpixels.photon.transcoder.kotlin.KotlinLanguageRenderer;
-
 import java.io.*;
-import java.util.concurrent.CountDownLatch;
 
 public class SvgBatchConverter {
+    /**
+     * Name of the manifest file with the content hashes of the transcoded SVG files, kept in the
+     * output folder.
+     */
+    public static final String MANIFEST_FILE_NAME = ".photon-manifest";
+
     private static String getInputArgument(String[] args, String argumentName) {
         for (String arg : args) {
             String[] split = arg.split("=");
@@ -61,6 +63,15 @@ public class SvgBatchConverter {
      *             output files will be placed in the 'sourceFolder'</li>
      *             <li>outputClassNamePrefix=xyz - optional prefix for the class name of each
      *             transcoded class</li>
+     *             <li>staticGeometry=true|false - optional. If true, the transcoded classes
+     *             create their shapes, paints and transforms once in static fields instead of
+     *             on every paint</li>
+     *             <li>incremental=true|false - optional. If false, all SVG images are transcoded
+     *             even if they have not changed since the previous run</li>
+     *             <li>threadCount=n - optional number of threads to transcode on. Defaults to the
+     *             number of available processors</li>
+     *             <li>reportFile=xyz - optional location of the report with the transcoding time
+     *             of each SVG image</li>
      *             </ul>
      */
     public static void main(String[] args) {
@@ -104,6 +115,8 @@ public class SvgBatchConverter {
         if (outputClassNamePrefix == null) {
             outputClassNamePrefix = "";
         }
+        boolean staticGeometry = "true".equals(getInputArgument(args, "staticGeometry"));
+
         String outputFolderName = getInputArgument(args, "outputFolder");
         if (outputFolderName == null) {
             outputFolderName = sourceFolderName;
@@ -118,11 +131,6 @@ public class SvgBatchConverter {
             return;
         }
 
-        LanguageRenderer languageRenderer = ("java".compareTo(outputLanguage) == 0)
-                ? new JavaLanguageRenderer()
-                : new KotlinLanguageRenderer();
-        String outputFileNameExtension = ("java".compareTo(outputLanguage) == 0) ? ".java" : ".kt";
-
         System.out.println(
                 "******************************************************************************");
         System.out.println("Processing " + sourceFolderName + " to " + outputPackageName + " in "
@@ -130,42 +138,40 @@ public class SvgBatchConverter {
         System.out.println(
                 "******************************************************************************");
 
-        for (File file : inputFolder.listFiles((File dir, String name) -> name.endsWith(".svg"))) {
-            String svgClassName = outputClassNamePrefix
-                    + file.getName().substring(0, file.getName().length() - 4);
-            svgClassName = svgClassName.replace('-', '_');
-            svgClassName = svgClassName.replace(' ', '_');
-            String classFilename = outputFolderName + File.separator +
-                    svgClassName + outputFileNameExtension;
-
-            System.err.println("Processing " + file.getName());
-
-            try (PrintWriter pw = new PrintWriter(classFilename);
-                 InputStream templateStream = SvgBatchConverter.class
-                         .getResourceAsStream(templateFile)) {
-                final CountDownLatch latch = new CountDownLatch(1);
+        SvgBatchProcessor processor = new SvgBatchProcessor(inputFolder, outputFolder,
+                outputPackageName, outputLanguage, templateFile);
+        processor.setOutputClassNamePrefix(outputClassNamePrefix);
+        processor.setStaticGeometry(staticGeometry);
+        if (!"false".equals(getInputArgument(args, "incremental"))) {
+            processor.setManifestFile(new File(outputFolder, MANIFEST_FILE_NAME));
+        }
+        String threadCount = getInputArgument(args, "threadCount");
+        if (threadCount != null) {
+            processor.setThreadCount(Integer.parseInt(threadCount));
+        }
+        processor.setListener(new SvgBatchProcessor.BatchListener() {
+            public void onTranscoding(File svgFile) {
+                System.err.println("Processing " + svgFile.getName());
+            }
 
-                SvgTranscoder transcoder = new SvgTranscoder(file.toURI().toURL().toString(),
-                        svgClassName, languageRenderer);
-                transcoder.setPackageName(outputPackageName);
-                transcoder.setListener(new TranscoderListener() {
-                    public Writer getWriter() {
-                        return pw;
-                    }
+            public void onFailure(File svgFile, Throwable failure) {
+                System.err.println("Failed processing " + svgFile.getName());
+                failure.printStackTrace();
+            }
+        });
 
-                    public void finished() {
-                        latch.countDown();
-                    }
-                });
-                if (templateStream == null) {
-                    System.err.println("Couldn't load " + templateFile);
-                    return;
+        try {
+            SvgBatchProcessor.Report report = processor.process();
+            report.writeTo(new PrintWriter(System.out), 10);
+            String reportFile = getInputArgument(args, "reportFile");
+            if (reportFile != null) {
+                try (PrintWriter reportWriter = new PrintWriter(reportFile)) {
+                    report.writeTo(reportWriter, Integer.MAX_VALUE);
                 }
-                transcoder.transcode(templateStream);
-                latch.await();
-            } catch (Exception e) {
-                e.printStackTrace();
             }
+        } catch (IOException ioe) {
+            ioe.printStackTrace();
+            System.exit(1);
         }
     }
 }
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2005-2018 Radiance Photon Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Radiance Photon Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.photon.transcoder;
+
+import org.pushingpixels.photon.transcoder.java.JavaLanguageRenderer;
+import org.pushingpixels.photon.transcoder.kotlin.KotlinLanguageRenderer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Transcodes all SVG files in a folder, spreading the work across a pool of threads. When a
+ * manifest file is set, the content hash of every successfully transcoded SVG file is recorded
+ * in it, and a subsequent run skips SVG files whose content has not changed since. Changing the
+ * template or any of the transcoding options invalidates the entire manifest.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class SvgBatchProcessor {
+    /**
+     * Key of the manifest entry that holds the hash of the template and the transcoding options.
+     */
+    private static final String MANIFEST_CONFIGURATION_KEY = "#configuration";
+
+    /**
+     * Listener on the progress of the batch. {@link #onTranscoding(File)} is called on the worker
+     * threads.
+     */
+    public interface BatchListener {
+        /**
+         * Called when the specified SVG file is about to be transcoded.
+         *
+         * @param svgFile SVG file.
+         */
+        void onTranscoding(File svgFile);
+
+        /**
+         * Called when the specified SVG file could not be transcoded.
+         *
+         * @param svgFile SVG file.
+         * @param failure The failure.
+         */
+        void onFailure(File svgFile, Throwable failure);
+    }
+
+    /**
+     * Outcome of processing a single SVG file.
+     */
+    public enum Status {
+        TRANSCODED, SKIPPED, FAILED
+    }
+
+    /**
+     * Timing report of a single batch run.
+     */
+    public static class Report {
+        private final Map<File, Status> statuses = new TreeMap<>();
+        private final Map<File, Long> durations = new HashMap<>();
+        private final int threadCount;
+        private long totalDuration;
+
+        private Report(int threadCount) {
+            this.threadCount = threadCount;
+        }
+
+        public int getCount(Status status) {
+            int result = 0;
+            for (Status fileStatus : this.statuses.values()) {
+                if (fileStatus == status) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        public Status getStatus(File svgFile) {
+            return this.statuses.get(svgFile);
+        }
+
+        /**
+         * Returns the time it took to transcode the specified file.
+         *
+         * @param svgFile SVG file.
+         * @return Transcoding time in nanoseconds, or 0 if the file was skipped.
+         */
+        public long getDuration(File svgFile) {
+            Long duration = this.durations.get(svgFile);
+            return (duration == null) ? 0 : duration;
+        }
+
+        /**
+         * Returns the wall time of the entire batch.
+         *
+         * @return Wall time of the batch in nanoseconds.
+         */
+        public long getTotalDuration() {
+            return this.totalDuration;
+        }
+
+        /**
+         * Writes the summary of this report, followed by the transcoding times of the slowest
+         * files.
+         *
+         * @param writer     Writer.
+         * @param maxEntries Maximum number of per-file entries to write.
+         */
+        public void writeTo(PrintWriter writer, int maxEntries) {
+            writer.println(String.format("Transcoded %d, skipped %d, failed %d of %d files "
+                            + "in %.1f ms on %d threads",
+                    getCount(Status.TRANSCODED), getCount(Status.SKIPPED),
+                    getCount(Status.FAILED), this.statuses.size(),
+                    this.totalDuration / 1000000.0, this.threadCount));
+
+            List<File> byDuration = new ArrayList<>(this.durations.keySet());
+            byDuration.sort((File f1, File f2) -> Long.compare(getDuration(f2),
+                    getDuration(f1)));
+            for (int i = 0; i < Math.min(maxEntries, byDuration.size()); i++) {
+                File svgFile = byDuration.get(i);
+                writer.println(String.format("%10.1f ms  %s%s", getDuration(svgFile) / 1000000.0,
+                        svgFile.getName(),
+                        (this.statuses.get(svgFile) == Status.FAILED) ? " [failed]" : ""));
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * Content hash and transcoding time of a single SVG file. The time is negative if the file
+     * has not changed since the previous run.
+     */
+    private static class FileResult {
+        private String hash;
+        private long duration = -1;
+    }
+
+    private final File inputFolder;
+    private final File outputFolder;
+    private final String outputPackageName;
+    private final String outputLanguage;
+    private final String templateFile;
+    private String outputClassNamePrefix = "";
+    private boolean staticGeometry;
+    private File manifestFile;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private BatchListener listener;
+
+    /**
+     * Creates a new batch processor.
+     *
+     * @param inputFolder       Folder with the SVG files.
+     * @param outputFolder      Folder for the transcoded classes.
+     * @param outputPackageName Package name for the transcoded classes.
+     * @param outputLanguage    Either <code>java</code> or <code>kotlin</code>.
+     * @param templateFile      Classpath location of the template file.
+     */
+    public SvgBatchProcessor(File inputFolder, File outputFolder, String outputPackageName,
+            String outputLanguage, String templateFile) {
+        if ((outputLanguage.compareTo("java") != 0) && (outputLanguage.compareTo("kotlin") != 0)) {
+            throw new IllegalArgumentException(
+                    "Output language must be either java or kotlin, got " + outputLanguage);
+        }
+        this.inputFolder = inputFolder;
+        this.outputFolder = outputFolder;
+        this.outputPackageName = outputPackageName;
+        this.outputLanguage = outputLanguage;
+        this.templateFile = templateFile;
+    }
+
+    public void setOutputClassNamePrefix(String outputClassNamePrefix) {
+        this.outputClassNamePrefix = (outputClassNamePrefix == null) ? "" : outputClassNamePrefix;
+    }
+
+    public void setStaticGeometry(boolean staticGeometry) {
+        this.staticGeometry = staticGeometry;
+    }
+
+    /**
+     * Sets the manifest file that tracks the content hashes of the transcoded SVG files.
+     *
+     * @param manifestFile Manifest file. If <code>null</code>, all SVG files are transcoded on
+     *                     every run.
+     */
+    public void setManifestFile(File manifestFile) {
+        this.manifestFile = manifestFile;
+    }
+
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.threadCount = threadCount;
+    }
+
+    public void setListener(BatchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the transcoded class file for the specified SVG file.
+     *
+     * @param svgFile SVG file.
+     * @return The transcoded class file.
+     */
+    public File getOutputFile(File svgFile) {
+        return new File(this.outputFolder, getClassName(svgFile)
+                + (("java".compareTo(this.outputLanguage) == 0) ? ".java" : ".kt"));
+    }
+
+    private String getClassName(File svgFile) {
+        String svgClassName = this.outputClassNamePrefix
+                + svgFile.getName().substring(0, svgFile.getName().length() - 4);
+        svgClassName = svgClassName.replace('-', '_');
+        svgClassName = svgClassName.replace(' ', '_');
+        return svgClassName;
+    }
+
+    /**
+     * Transcodes all the SVG files in the input folder that have changed since the previous
+     * run, and updates the manifest file.
+     *
+     * @return The timing report of this run.
+     * @throws IOException if the template file or the manifest file could not be read, or the
+     *                     manifest file could not be written.
+     */
+    public Report process() throws IOException {
+        long start = System.nanoTime();
+        byte[] template = loadTemplate();
+        String configurationHash = getHash(template, this.outputPackageName, this.outputLanguage,
+                this.outputClassNamePrefix, String.valueOf(this.staticGeometry));
+
+        Properties previousManifest = new Properties();
+        if ((this.manifestFile != null) && this.manifestFile.exists()) {
+            try (InputStream manifestStream = new FileInputStream(this.manifestFile)) {
+                previousManifest.load(manifestStream);
+            }
+            if (!configurationHash.equals(
+                    previousManifest.getProperty(MANIFEST_CONFIGURATION_KEY))) {
+                previousManifest.clear();
+            }
+        }
+
+        File[] svgFiles = this.inputFolder.listFiles(
+                (File dir, String name) -> name.endsWith(".svg"));
+        if (svgFiles == null) {
+            throw new IOException("Couldn't list " + this.inputFolder);
+        }
+
+        Report report = new Report(this.threadCount);
+        Properties manifest = new Properties();
+        manifest.setProperty(MANIFEST_CONFIGURATION_KEY, configurationHash);
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threadCount);
+        try {
+            Map<File, Future<FileResult>> results = new LinkedHashMap<>();
+            for (File svgFile : svgFiles) {
+                results.put(svgFile, executor.submit(() -> {
+                    FileResult result = new FileResult();
+                    result.hash = getHash(Files.readAllBytes(svgFile.toPath()));
+                    if (!result.hash.equals(previousManifest.getProperty(svgFile.getName()))
+                            || !getOutputFile(svgFile).exists()) {
+                        long fileStart = System.nanoTime();
+                        transcode(svgFile, template);
+                        result.duration = System.nanoTime() - fileStart;
+                    }
+                    return result;
+                }));
+            }
+
+            for (Map.Entry<File, Future<FileResult>> resultEntry : results.entrySet()) {
+                File svgFile = resultEntry.getKey();
+                try {
+                    FileResult result = resultEntry.getValue().get();
+                    if (result.duration < 0) {
+                        report.statuses.put(svgFile, Status.SKIPPED);
+                    } else {
+                        report.statuses.put(svgFile, Status.TRANSCODED);
+                        report.durations.put(svgFile, result.duration);
+                    }
+                    manifest.setProperty(svgFile.getName(), result.hash);
+                } catch (ExecutionException ee) {
+                    report.statuses.put(svgFile, Status.FAILED);
+                    if (this.listener != null) {
+                        this.listener.onFailure(svgFile, ee.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while transcoding "
+                    + this.inputFolder);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (this.manifestFile != null) {
+            try (OutputStream manifestStream = new FileOutputStream(this.manifestFile)) {
+                manifest.store(manifestStream, "Content hashes of the transcoded SVG files");
+            }
+        }
+
+        report.totalDuration = System.nanoTime() - start;
+        return report;
+    }
+
+    private byte[] loadTemplate() throws IOException {
+        try (InputStream templateStream =
+                     SvgBatchProcessor.class.getResourceAsStream(this.templateFile)) {
+            if (templateStream == null) {
+                throw new FileNotFoundException("Couldn't load " + this.templateFile);
+            }
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = templateStream.read(buffer)) > 0) {
+                result.write(buffer, 0, read);
+            }
+            return result.toByteArray();
+        }
+    }
+
+    /**
+     * Transcodes a single SVG file. The transcoded class is written only after the transcoder
+     * has finished, so that a failure does not leave a partially written class behind.
+     */
+    private void transcode(File svgFile, byte[] template) throws IOException {
+        if (this.listener != null) {
+            this.listener.onTranscoding(svgFile);
+        }
+
+        StringWriter transcoded = new StringWriter();
+        boolean[] finished = new boolean[1];
+        SvgTranscoder transcoder = new SvgTranscoder(svgFile.toURI().toURL().toString(),
+                getClassName(svgFile), ("java".compareTo(this.outputLanguage) == 0)
+                ? new JavaLanguageRenderer() : new KotlinLanguageRenderer());
+        transcoder.setPackageName(this.outputPackageName);
+        transcoder.setStaticGeometry(this.staticGeometry);
+        transcoder.setListener(new TranscoderListener() {
+            public Writer getWriter() {
+                return transcoded;
+            }
+
+            public void finished() {
+                finished[0] = true;
+            }
+        });
+        transcoder.transcode(new ByteArrayInputStream(template));
+        if (!finished[0]) {
+            throw new IOException("Couldn't transcode " + svgFile);
+        }
+
+        try (PrintWriter pw = new PrintWriter(getOutputFile(svgFile))) {
+            pw.write(transcoded.toString());
+        }
+    }
+
+    private static String getHash(byte[] content, String... extras) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            for (String extra : extras) {
+                digest.update((byte) 0);
+                digest.update(extra.getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder result = new StringBuilder();
+            for (byte b : digest.digest()) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException nsae) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(nsae);
+        }
+    }
+}
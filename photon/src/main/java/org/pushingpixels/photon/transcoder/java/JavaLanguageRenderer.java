@@ -86,4 +86,14 @@ public class JavaLanguageRenderer implements LanguageRenderer {
     public String getGetter(String propertyName) {
         return ".get" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1) + "()";
     }
+
+    @Override
+    public String startStaticFieldDefinition(String fieldTypeName, String fieldName) {
+        return "private static final " + fieldTypeName + " " + fieldName + " = ";
+    }
+
+    @Override
+    public String startStaticMethodDefinition(String returnTypeName, String methodName) {
+        return "private static " + returnTypeName + " " + methodName + "() {";
+    }
 }
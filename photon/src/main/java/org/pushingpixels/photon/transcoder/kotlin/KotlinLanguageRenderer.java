@@ -87,4 +87,14 @@ public class KotlinLanguageRenderer implements LanguageRenderer {
     public String getGetter(String propertyName) {
         return "." + propertyName;
     }
+
+    @Override
+    public String startStaticFieldDefinition(String fieldTypeName, String fieldName) {
+        return "private val " + fieldName + ": " + fieldTypeName + " = ";
+    }
+
+    @Override
+    public String startStaticMethodDefinition(String returnTypeName, String methodName) {
+        return "private fun " + methodName + "(): " + returnTypeName + " {";
+    }
 }
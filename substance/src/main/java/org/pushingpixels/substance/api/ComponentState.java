@@ -36,6 +36,7 @@ import org.pushingpixels.substance.api.skin.NebulaSkin;
 
 import javax.swing.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -177,6 +178,11 @@ import java.util.*;
 public final class ComponentState {
 	private static Set<ComponentState> allStates = new HashSet<>();
 
+	/**
+	 * Source of the dense ordinals of component states.
+	 */
+	private static final AtomicInteger stateCount = new AtomicInteger();
+
 	/**
 	 * Disabled default. Used for disabled buttons that have been marked as
 	 * <code>default</code> with {@link JRootPane#setDefaultButton(JButton)}
@@ -274,20 +280,25 @@ public final class ComponentState {
 			new ComponentStateFacet[] { ComponentStateFacet.ENABLE }, null);
 
 	/**
-	 * Facets that are turned on for this state. For example,
+	 * Bit mask of facets that are turned on for this state. For example,
 	 * {@link #ROLLOVER_SELECTED} contains {@link ComponentStateFacet#ROLLOVER}
 	 * and {@link ComponentStateFacet#SELECTION}.
 	 */
-	private Set<ComponentStateFacet> facetsTurnedOn;
+	private final long facetsTurnedOn;
 
 	/**
-	 * Facets that are turned on for this state. For example,
+	 * Bit mask of facets that are turned off for this state. For example,
 	 * {@link #DISABLED_UNSELECTED} contains {@link ComponentStateFacet#ENABLE}
 	 * and {@link ComponentStateFacet#SELECTION}.
 	 */
-	private Set<ComponentStateFacet> facetsTurnedOff;
+	private final long facetsTurnedOff;
 
-	private Map<ComponentStateFacet, Boolean> mapping;
+	/**
+	 * Dense ordinal of this state, used to index the resolved color schemes in
+	 * {@link SubstanceColorSchemeBundle}. Unlike {@link #equals(Object)}, the
+	 * ordinal is unique to each instance.
+	 */
+	final int ordinal;
 
 	private String name;
 
@@ -344,44 +355,54 @@ public final class ComponentState {
 		}
 		this.name = name;
 		this.hardFallback = hardFallback;
-		this.facetsTurnedOn = new HashSet<>();
-		if (facetsOn != null) {
-		    Collections.addAll(this.facetsTurnedOn, facetsOn);
-		}
-		this.facetsTurnedOff = new HashSet<>();
-		if (facetsOff != null) {
-            Collections.addAll(this.facetsTurnedOff, facetsOff);
-		}
-		this.mapping = new HashMap<>();
+		this.facetsTurnedOn = toMask(facetsOn);
+		this.facetsTurnedOff = toMask(facetsOff);
+		this.ordinal = stateCount.getAndIncrement();
 		allStates.add(this);
 	}
 
+	private static long toMask(ComponentStateFacet[] facets) {
+		long mask = 0;
+		if (facets != null) {
+			for (ComponentStateFacet facet : facets) {
+				mask |= facet.mask;
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the number of component states created so far. All ordinals are
+	 * smaller than this value.
+	 * 
+	 * @return The number of component states created so far.
+	 */
+	static int getStateCount() {
+		return stateCount.get();
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer sb = new StringBuffer();
 		sb.append(this.name);
 		sb.append(" : on {");
-		if (this.facetsTurnedOn != null) {
-			String sep = "";
-			for (ComponentStateFacet on : this.facetsTurnedOn) {
-				sb.append(sep);
-				sep = ", ";
-				sb.append(on.toString());
-			}
-		}
+		appendFacets(sb, this.facetsTurnedOn);
 		sb.append("} : off {");
-		if (this.facetsTurnedOff != null) {
-			String sep = "";
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				sb.append(sep);
-				sep = ", ";
-				sb.append(off.toString());
-			}
-		}
+		appendFacets(sb, this.facetsTurnedOff);
 		sb.append("}");
 		return sb.toString();
 	}
 
+	private static void appendFacets(StringBuffer sb, long facets) {
+		String sep = "";
+		for (long remaining = facets; remaining != 0; remaining &= remaining - 1) {
+			sb.append(sep);
+			sep = ", ";
+			sb.append(ComponentStateFacet.forIndex(
+					Long.numberOfTrailingZeros(remaining)).toString());
+		}
+	}
+
 	/**
 	 * Returns indication whether <code>this</code> component state is "active"
 	 * under the specified facet. For example, {@link #ROLLOVER_SELECTED} will
@@ -398,16 +419,7 @@ public final class ComponentState {
 	 *         otherwise.
 	 */
 	public boolean isFacetActive(ComponentStateFacet stateFacet) {
-		Boolean result = this.mapping.get(stateFacet);
-		if (result != null) {
-            return result;
-        }
-		if ((facetsTurnedOn != null) && facetsTurnedOn.contains(stateFacet)) {
-			this.mapping.put(stateFacet, Boolean.TRUE);
-			return true;
-		}
-		this.mapping.put(stateFacet, Boolean.FALSE);
-		return false;
+		return (this.facetsTurnedOn & stateFacet.mask) != 0;
 	}
 
 	/**
@@ -603,42 +615,27 @@ public final class ComponentState {
 	}
 
 	private int fitValue(ComponentState state) {
+		return fitValue(this.facetsTurnedOn, state.facetsTurnedOn,
+				state.facetsTurnedOff)
+				+ fitValue(this.facetsTurnedOff, state.facetsTurnedOff,
+						state.facetsTurnedOn);
+	}
+
+	private static int fitValue(long facets, long matching, long opposite) {
 		int value = 0;
-		if (this.facetsTurnedOn != null) {
-			for (ComponentStateFacet on : this.facetsTurnedOn) {
-				if (state.facetsTurnedOn == null) {
-					value -= on.value / 2;
-				} else {
-					if (state.facetsTurnedOn.contains(on)) {
-						value += on.value;
-					} else {
-						value -= on.value / 2;
-					}
-					if (state.facetsTurnedOff.contains(on)) {
-						value -= on.value;
-					}
-				}
+		for (long remaining = facets; remaining != 0; remaining &= remaining - 1) {
+			long bit = remaining & -remaining;
+			int facetValue = ComponentStateFacet.forIndex(
+					Long.numberOfTrailingZeros(bit)).value;
+			if ((matching & bit) != 0) {
+				value += facetValue;
+			} else {
+				value -= facetValue / 2;
 			}
-		}
-		if (this.facetsTurnedOff != null) {
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				if (state.facetsTurnedOff == null) {
-					value -= off.value / 2;
-				} else {
-					if (state.facetsTurnedOff.contains(off)) {
-						value += off.value;
-					} else {
-						value -= off.value / 2;
-					}
-					if (state.facetsTurnedOn.contains(off)) {
-						value -= off.value;
-					}
-				}
+			if ((opposite & bit) != 0) {
+				value -= facetValue;
 			}
 		}
-		// / System.out.println("Fit value is " + value + " for ");
-		// / System.out.println("\t" + this);
-		// System.out.println("\t" + state);
 		return value;
 	}
 
@@ -673,38 +670,7 @@ public final class ComponentState {
 
 	@Override
 	public int hashCode() {
-		if (this.facetsTurnedOn.isEmpty() && this.facetsTurnedOff.isEmpty()) {
-            return 0;
-        }
-
-		if (this.facetsTurnedOn.isEmpty()) {
-			boolean isFirst = true;
-			int result = 0;
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				if (isFirst) {
-					result = ~off.hashCode();
-					isFirst = false;
-				} else {
-					result = result & ~off.hashCode();
-				}
-			}
-			return result;
-		} else {
-			boolean isFirst = true;
-			int result = 0;
-			for (ComponentStateFacet on : this.facetsTurnedOn) {
-				if (isFirst) {
-					result = on.hashCode();
-					isFirst = false;
-				} else {
-					result = result & on.hashCode();
-				}
-			}
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				result = result & ~off.hashCode();
-			}
-			return result;
-		}
+		return Long.hashCode(this.facetsTurnedOn * 31 + this.facetsTurnedOff);
 	}
 
 	@Override
@@ -714,20 +680,7 @@ public final class ComponentState {
         }
 
 		ComponentState second = (ComponentState) obj;
-		if (this.facetsTurnedOn.size() != second.facetsTurnedOn.size()) {
-            return false;
-        }
-		if (this.facetsTurnedOff.size() != second.facetsTurnedOff.size()) {
-            return false;
-        }
-
-		if (!this.facetsTurnedOn.containsAll(second.facetsTurnedOn)) {
-            return false;
-        }
-		if (!this.facetsTurnedOff.containsAll(second.facetsTurnedOff)) {
-            return false;
-        }
-
-		return true;
+		return (this.facetsTurnedOn == second.facetsTurnedOn)
+				&& (this.facetsTurnedOff == second.facetsTurnedOff);
 	}
 }
@@ -122,6 +122,50 @@ public class SubstanceColorSchemeBundle {
 
     private Map<ColorSchemeAssociationKind, Map<ComponentState, ComponentState>> bestFillMap;
 
+	/**
+	 * Color schemes resolved so far for (association kind, component state)
+	 * pairs. Dropped whenever a color scheme is registered, and recreated
+	 * when a state or a kind created after it is looked up.
+	 */
+	private volatile ResolvedSchemes resolvedSchemes;
+
+	/**
+	 * Flat table of resolved color schemes indexed by the association kind
+	 * ordinal, the fallback flag and the component state ordinal. Each cell
+	 * is filled on the first lookup of its pair, so that subsequent lookups
+	 * on the paint path do not hash or allocate.
+	 */
+	private static final class ResolvedSchemes {
+		/**
+		 * Marks cells that resolve to no color scheme.
+		 */
+		private static final Object NO_SCHEME = new Object();
+
+		private final int kindCount;
+
+		private final int stateCount;
+
+		private final Object[] schemes;
+
+		private ResolvedSchemes(int kindCount, int stateCount) {
+			this.kindCount = kindCount;
+			this.stateCount = stateCount;
+			this.schemes = new Object[kindCount * 2 * stateCount];
+		}
+
+		private boolean covers(ColorSchemeAssociationKind associationKind,
+				ComponentState componentState) {
+			return (associationKind.ordinal < this.kindCount)
+					&& (componentState.ordinal < this.stateCount);
+		}
+
+		private int indexOf(ColorSchemeAssociationKind associationKind,
+				ComponentState componentState, boolean allowFallback) {
+			return (2 * associationKind.ordinal + (allowFallback ? 1 : 0))
+					* this.stateCount + componentState.ordinal;
+		}
+	}
+
 	/**
 	 * Creates a new color scheme bundle.
 	 * 
@@ -190,6 +234,7 @@ public class SubstanceColorSchemeBundle {
 		if (stateColorScheme == null) {
 			throw new IllegalArgumentException("Cannot pass null color scheme");
 		}
+		this.invalidateResolvedSchemes();
 		if (states != null) {
 			for (ComponentState state : states) {
 				this.colorSchemeMap.get(associationKind).put(state, stateColorScheme);
@@ -227,6 +272,7 @@ public class SubstanceColorSchemeBundle {
 		if (stateHighlightScheme == null) {
 			throw new IllegalArgumentException("Cannot pass null color scheme");
 		}
+		this.invalidateResolvedSchemes();
 		if ((states == null) || (states.length == 0)) {
 			for (ComponentState state : ComponentState.getAllStates()) {
 				if (this.colorSchemeMap.get(ColorSchemeAssociationKind.HIGHLIGHT).containsKey(state)) {
@@ -268,6 +314,7 @@ public class SubstanceColorSchemeBundle {
 		if (highlightScheme == null) {
 			throw new IllegalArgumentException("Cannot pass null color scheme");
 		}
+		this.invalidateResolvedSchemes();
 
 		if ((states == null) || (states.length == 0)) {
 			for (ComponentState state : ComponentState.getAllStates()) {
@@ -305,6 +352,11 @@ public class SubstanceColorSchemeBundle {
 	 *         state.
 	 */
 	public SubstanceColorScheme getColorScheme(ComponentState componentState) {
+		return this.getResolvedColorScheme(ColorSchemeAssociationKind.FILL,
+				componentState, true);
+	}
+
+	private SubstanceColorScheme resolveColorScheme(ComponentState componentState) {
 		SubstanceColorScheme registered = this.colorSchemeMap.get(
 				ColorSchemeAssociationKind.FILL).get(componentState);
 		if (registered != null) {
@@ -461,6 +513,7 @@ public class SubstanceColorSchemeBundle {
 		if (scheme == null) {
 			throw new IllegalArgumentException("Cannot pass null color scheme");
 		}
+		this.invalidateResolvedSchemes();
 
 		if ((states == null) || (states.length == 0)) {
 			for (ComponentState state : ComponentState.getAllStates()) {
@@ -494,7 +547,13 @@ public class SubstanceColorSchemeBundle {
 		if (associationKind == ColorSchemeAssociationKind.FILL) {
             return this.getColorScheme(componentState);
         }
+		return this.getResolvedColorScheme(associationKind, componentState,
+				allowFallback);
+	}
 
+	private SubstanceColorScheme resolveColorScheme(
+			ColorSchemeAssociationKind associationKind,
+			ComponentState componentState, boolean allowFallback) {
 		SubstanceColorScheme registered = this.colorSchemeMap.get(
 				associationKind).get(componentState);
 		if (registered != null) {
@@ -530,6 +589,44 @@ public class SubstanceColorSchemeBundle {
 		return getColorScheme(fallback, componentState, allowFallback);
 	}
 
+	/**
+	 * Returns the color scheme for the specified association kind and
+	 * component state, resolving it on the first lookup of the pair.
+	 */
+	private SubstanceColorScheme getResolvedColorScheme(
+			ColorSchemeAssociationKind associationKind,
+			ComponentState componentState, boolean allowFallback) {
+		ResolvedSchemes resolved = this.resolvedSchemes;
+		if ((resolved == null) || !resolved.covers(associationKind, componentState)) {
+			resolved = new ResolvedSchemes(ColorSchemeAssociationKind.getKindCount(),
+					ComponentState.getStateCount());
+			this.resolvedSchemes = resolved;
+		}
+		int index = resolved.indexOf(associationKind, componentState, allowFallback);
+		Object scheme = resolved.schemes[index];
+		if (scheme == null) {
+			SubstanceColorScheme resolvedScheme =
+					(associationKind == ColorSchemeAssociationKind.FILL)
+							? this.resolveColorScheme(componentState)
+							: this.resolveColorScheme(associationKind, componentState,
+									allowFallback);
+			scheme = (resolvedScheme != null) ? resolvedScheme : ResolvedSchemes.NO_SCHEME;
+			resolved.schemes[index] = scheme;
+		}
+		return (scheme == ResolvedSchemes.NO_SCHEME) ? null : (SubstanceColorScheme) scheme;
+	}
+
+	/**
+	 * Drops all the color schemes resolved so far. Called whenever the
+	 * registered color schemes change.
+	 */
+	private void invalidateResolvedSchemes() {
+		this.resolvedSchemes = null;
+		for (Map<ComponentState, ComponentState> bestFit : this.bestFillMap.values()) {
+			bestFit.clear();
+		}
+	}
+
 	/**
 	 * Creates a new color scheme bundle that has the same settings as this
 	 * color scheme bundle with the addition of applying the specified color
@@ -62,6 +62,7 @@ import javax.swing.text.JTextComponent;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class is the only officially-supported entry point into configuring the behavior of
@@ -108,6 +109,12 @@ public class SubstanceCortex {
          */
         private static SubstanceSkin currentSkin = null;
 
+        /**
+         * Identifies the latest skin preparation started by
+         * {@link #prepareAndSetSkin(SubstanceSkin)}, or <code>null</code> if there is none pending.
+         */
+        private static Object currentPreparation = null;
+
         /**
          * List of all listeners on skin changes.
          */
@@ -144,11 +151,35 @@ public class SubstanceCortex {
          * @see #setSkin(SubstanceSkin)
          */
         static boolean setSkin(SubstanceSkin newSkin, boolean toUpdateWindows) {
+            return setSkin(newSkin, toUpdateWindows, null, false);
+        }
+
+        /**
+         * Sets the specified skin.
+         *
+         * @param newSkin             Skin to set.
+         * @param toUpdateWindows     if <code>true</code>, the
+         *                            {@link SwingUtilities#updateComponentTreeUI(Component)} is
+         *                            called on all windows returned by {@link Window#getWindows()}
+         *                            API.
+         * @param preparation         Tag of the cached values that have been rendered for the new
+         *                            skin ahead of time and are to be kept, or <code>null</code>
+         *                            if the skin has not been prepared.
+         * @param isWatermarkPrepared if <code>true</code>, the watermark image of the new skin
+         *                            has already been updated.
+         * @return <code>true</code> if the specified skin has been set successfully,
+         * <code>false</code> otherwise.
+         */
+        private static boolean setSkin(SubstanceSkin newSkin, boolean toUpdateWindows,
+                Object preparation, boolean isWatermarkPrepared) {
             if (!SwingUtilities.isEventDispatchThread()) {
                 throw new IllegalStateException(
                         "This method must be called on the Event Dispatch Thread");
             }
 
+            // any pending preparation is superseded by this skin
+            currentPreparation = null;
+
             if (!newSkin.isValid())
                 return false;
 
@@ -185,7 +216,7 @@ public class SubstanceCortex {
                 if ((currentSkin != null) && (currentSkin.getWatermark() != null)) {
                     currentSkin.getWatermark().dispose();
                 }
-                if (newSkin.getWatermark() != null) {
+                if ((newSkin.getWatermark() != null) && !isWatermarkPrepared) {
                     if (!newSkin.getWatermark().updateWatermarkImage(newSkin)) {
                         return false;
                     }
@@ -214,7 +245,8 @@ public class SubstanceCortex {
                 }
 
                 if (isSubstance)
-                    LazyResettableHashMap.reset();
+                    LazyResettableHashMap.invalidate(LazyResettableHashMap.Dependency.SKIN,
+                            preparation);
 
                 currentSkin = newSkin;
 
@@ -262,6 +294,74 @@ public class SubstanceCortex {
             return setSkin(newSkin, true);
         }
 
+        /**
+         * Prepares the specified skin in the background and then sets it. The preparation takes
+         * the inventory of the components in all open top-level windows, and then, off the Event
+         * Dispatch Thread, resolves the color schemes of the skin and renders its watermark and
+         * the cached images that these windows use. Once the preparation is done, the skin is set
+         * on the Event Dispatch Thread as in {@link #setSkin(SubstanceSkin)}, keeping the images
+         * rendered during the preparation.
+         *
+         * <p>
+         * If the current look-and-feel is not Substance, or the specified skin is not valid, this
+         * method sets the skin right away with {@link #setSkin(SubstanceSkin)}. A preparation
+         * that has not finished is superseded by a subsequent call to this method or to
+         * {@link #setSkin(SubstanceSkin)}, and its skin is not set.
+         * </p>
+         *
+         * @param newSkin Skin to set.
+         * @return Future that is completed on the Event Dispatch Thread with <code>true</code> if
+         * the specified skin has been set successfully, and <code>false</code> otherwise.
+         * @throws IllegalStateException When called outside the Event Dispatch Thread.
+         * @see #setSkin(SubstanceSkin)
+         * @see SubstanceSkin#isValid()
+         */
+        public static CompletableFuture<Boolean> prepareAndSetSkin(SubstanceSkin newSkin) {
+            if (!SwingUtilities.isEventDispatchThread()) {
+                throw new IllegalStateException(
+                        "This method must be called on the Event Dispatch Thread");
+            }
+
+            if (!(UIManager.getLookAndFeel() instanceof SubstanceLookAndFeel)
+                    || !newSkin.isValid()) {
+                return CompletableFuture.completedFuture(setSkin(newSkin));
+            }
+
+            final Object preparation = new Object();
+            currentPreparation = preparation;
+            // A watermark shared with the current skin is still in use, and is updated when
+            // the skin is set
+            final boolean toPrepareWatermark = (newSkin.getWatermark() != null)
+                    && ((currentSkin == null)
+                    || (currentSkin.getWatermark() != newSkin.getWatermark()));
+
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            SkinPreparation.prepare(newSkin, SkinPreparation.takeInventory(), preparation,
+                    toPrepareWatermark).whenComplete((Boolean isPrepared, Throwable failure) ->
+                    SwingUtilities.invokeLater(() -> {
+                        if (currentPreparation != preparation) {
+                            // superseded
+                            result.complete(false);
+                            return;
+                        }
+                        currentPreparation = null;
+                        if (failure != null) {
+                            // the preparation is only an optimization - set the skin the
+                            // regular way
+                            failure.printStackTrace(System.out);
+                            result.complete(setSkin(newSkin, true, preparation, false));
+                            return;
+                        }
+                        if (!isPrepared) {
+                            result.complete(false);
+                            return;
+                        }
+                        result.complete(
+                                setSkin(newSkin, true, preparation, toPrepareWatermark));
+                    }));
+            return result;
+        }
+
         /**
          * Sets the specified skin. If the current look-and-feel is not Substance, this method will
          * create a new Substance look-and-feel based on the specified skin and set it on
@@ -569,7 +669,7 @@ public class SubstanceCortex {
                 throw new IllegalArgumentException("Cannot pass null icon pack");
             }
             GlobalScope.iconPack = iconPack;
-            LazyResettableHashMap.reset();
+            LazyResettableHashMap.invalidate(LazyResettableHashMap.Dependency.ICON_PACK);
         }
 
         /**
@@ -1282,6 +1382,41 @@ public class SubstanceCortex {
             UIManager.put(SubstanceSynapse.HEAP_STATUS_TRACE_FILE, heapStatusTraceFilename);
         }
 
+        /**
+         * Specifies the byte budget shared by all the internal image caches. Every cached image
+         * is charged the size of its pixel data, and the least recently used images are evicted
+         * once the combined size of all cached images exceeds this budget.
+         *
+         * @param imageCacheBudget Byte budget shared by all the internal image caches. Must be
+         *                         positive.
+         * @see #getImageCacheBudget()
+         */
+        public static void setImageCacheBudget(long imageCacheBudget) {
+            LazyResettableHashMap.setBudget(imageCacheBudget);
+        }
+
+        /**
+         * Returns the byte budget shared by all the internal image caches.
+         *
+         * @return Byte budget shared by all the internal image caches.
+         * @see #setImageCacheBudget(long)
+         */
+        public static long getImageCacheBudget() {
+            return LazyResettableHashMap.getBudget();
+        }
+
+        /**
+         * Returns the usage statistics of the internal image caches. The same statistics are
+         * exported through the <code>org.pushingpixels.substance:type=ImageCaches</code> JMX
+         * MBean.
+         *
+         * @return Usage statistics of the internal image caches, sorted by cache display name.
+         * @see #setImageCacheBudget(long)
+         */
+        public static java.util.List<ImageCacheStats> getImageCacheStats() {
+            return LazyResettableHashMap.getCacheStats();
+        }
+
         /**
          * Specifies the kind of focus indication to be used on application components.
          *
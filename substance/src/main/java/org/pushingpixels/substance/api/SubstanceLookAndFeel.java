@@ -238,6 +238,9 @@ public abstract class SubstanceLookAndFeel extends BasicLookAndFeel {
 
         SubstanceCortex.GlobalScope.setSkin(this.skin, false);
 
+        // usage statistics of image caches
+        ImageCacheMonitor.register();
+
         // tracer for memory analysis
         String traceFilename = (String) UIManager.get(SubstanceSynapse.TRACE_FILE);
         if (traceFilename != null) {
@@ -45,6 +45,7 @@ import java.awt.geom.GeneralPath;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Various constants and data classes used in scope-defined APIs provided by
@@ -874,6 +875,17 @@ public final class SubstanceSlices {
          */
         private static Set<ColorSchemeAssociationKind> values = new HashSet<ColorSchemeAssociationKind>();
 
+        /**
+         * Source of the dense ordinals of association kinds.
+         */
+        private static final AtomicInteger kindCount = new AtomicInteger();
+
+        /**
+         * Dense ordinal of this association kind, used to index the resolved color schemes in
+         * {@link SubstanceColorSchemeBundle}.
+         */
+        final int ordinal;
+
         /**
          * Name for this association kind.
          */
@@ -906,9 +918,20 @@ public final class SubstanceSlices {
         public ColorSchemeAssociationKind(String name, ColorSchemeAssociationKind fallback) {
             this.name = name;
             this.fallback = fallback;
+            this.ordinal = kindCount.getAndIncrement();
             values.add(this);
         }
 
+        /**
+         * Returns the number of association kinds created so far. All ordinals are smaller than
+         * this value.
+         * 
+         * @return The number of association kinds created so far.
+         */
+        static int getKindCount() {
+            return kindCount.get();
+        }
+
         @Override
         public String toString() {
             return this.name;
@@ -1003,10 +1026,28 @@ public final class SubstanceSlices {
      * </p>
      */
     public final static class ComponentStateFacet {
+        /**
+         * All facets created so far, indexed by {@link #index}. Component states encode their
+         * facets as bits of a <code>long</code>, which limits the number of facets to 64.
+         */
+        private static final ComponentStateFacet[] allFacets = new ComponentStateFacet[Long.SIZE];
+
+        private static int facetCount;
+
         int value;
 
         String name;
 
+        /**
+         * Index of this facet in {@link #allFacets}.
+         */
+        final int index;
+
+        /**
+         * Bit of this facet in the facet masks of {@link ComponentState}.
+         */
+        final long mask;
+
         /**
          * Facet that describes the enabled bit.
          */
@@ -1068,6 +1109,26 @@ public final class SubstanceSlices {
                 throw new IllegalArgumentException("Facet value must be non-negative");
             }
             this.value = value;
+            synchronized (allFacets) {
+                if (facetCount == allFacets.length) {
+                    throw new IllegalStateException("At most " + allFacets.length
+                            + " component state facets are supported");
+                }
+                this.index = facetCount++;
+                allFacets[this.index] = this;
+            }
+            this.mask = 1L << this.index;
+        }
+
+        /**
+         * Returns the facet that is encoded by the specified bit index.
+         * 
+         * @param index
+         *            Bit index.
+         * @return The facet encoded by the specified bit index.
+         */
+        static ComponentStateFacet forIndex(int index) {
+            return allFacets[index];
         }
 
         @Override
@@ -1075,4 +1136,128 @@ public final class SubstanceSlices {
             return this.name + ":" + this.value;
         }
     }
+
+    /**
+     * Snapshot of the usage statistics of an internal image cache. Caches that share the same
+     * display name are reported together. This class is part of officially supported API.
+     *
+     * @see SubstanceCortex.GlobalScope#getImageCacheStats()
+     */
+    public final static class ImageCacheStats {
+        private final String displayName;
+        private final int cacheCount;
+        private final int entryCount;
+        private final long hitCount;
+        private final long missCount;
+        private final long putCount;
+        private final long evictionCount;
+        private final long residentBytes;
+        private final long averageMissRenderNanos;
+
+        public ImageCacheStats(String displayName, int cacheCount, int entryCount,
+                long hitCount, long missCount, long putCount, long evictionCount,
+                long residentBytes, long averageMissRenderNanos) {
+            this.displayName = displayName;
+            this.cacheCount = cacheCount;
+            this.entryCount = entryCount;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.putCount = putCount;
+            this.evictionCount = evictionCount;
+            this.residentBytes = residentBytes;
+            this.averageMissRenderNanos = averageMissRenderNanos;
+        }
+
+        /**
+         * Returns the display name of the cache.
+         *
+         * @return The display name of the cache.
+         */
+        public String getDisplayName() {
+            return this.displayName;
+        }
+
+        /**
+         * Returns the number of caches that share this display name.
+         *
+         * @return The number of caches that share this display name.
+         */
+        public int getCacheCount() {
+            return this.cacheCount;
+        }
+
+        /**
+         * Returns the number of entries currently held by the cache.
+         *
+         * @return The number of entries currently held by the cache.
+         */
+        public int getEntryCount() {
+            return this.entryCount;
+        }
+
+        /**
+         * Returns the number of lookups that found a cached entry.
+         *
+         * @return The number of lookups that found a cached entry.
+         */
+        public long getHitCount() {
+            return this.hitCount;
+        }
+
+        /**
+         * Returns the number of lookups that did not find a cached entry.
+         *
+         * @return The number of lookups that did not find a cached entry.
+         */
+        public long getMissCount() {
+            return this.missCount;
+        }
+
+        /**
+         * Returns the number of entries added to the cache.
+         *
+         * @return The number of entries added to the cache.
+         */
+        public long getPutCount() {
+            return this.putCount;
+        }
+
+        /**
+         * Returns the number of entries evicted from the cache to stay within the budget set by
+         * {@link SubstanceCortex.GlobalScope#setImageCacheBudget(long)}.
+         *
+         * @return The number of entries evicted from the cache.
+         */
+        public long getEvictionCount() {
+            return this.evictionCount;
+        }
+
+        /**
+         * Returns the combined pixel size of the entries currently held by the cache.
+         *
+         * @return The combined pixel size (in bytes) of the entries currently held by the cache.
+         */
+        public long getResidentBytes() {
+            return this.residentBytes;
+        }
+
+        /**
+         * Returns the average time between a lookup that did not find a cached entry and adding
+         * the newly rendered entry to the cache.
+         *
+         * @return The average render time (in nanoseconds) of a missing entry.
+         */
+        public long getAverageMissRenderNanos() {
+            return this.averageMissRenderNanos;
+        }
+
+        @Override
+        public String toString() {
+            return this.cacheCount + " " + this.displayName + " with " + this.entryCount
+                    + " entries total (" + this.residentBytes / 1024 + " KB), " + this.hitCount
+                    + " hits, " + this.missCount + " misses, " + this.putCount + " puts, "
+                    + this.evictionCount + " evictions, "
+                    + this.averageMissRenderNanos / 1000 + " us per miss";
+        }
+    }
 }
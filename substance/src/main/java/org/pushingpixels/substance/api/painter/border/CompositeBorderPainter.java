@@ -99,4 +99,22 @@ public class CompositeBorderPainter implements SubstanceBorderPainter {
 	public Color getRepresentativeColor(SubstanceColorScheme borderScheme) {
 		return this.outer.getRepresentativeColor(borderScheme);
 	}
+
+	/**
+	 * Returns the painter for the inner contour.
+	 * 
+	 * @return The painter for the inner contour.
+	 */
+	public SubstanceBorderPainter getInner() {
+		return this.inner;
+	}
+
+	/**
+	 * Returns the painter for the outer contour.
+	 * 
+	 * @return The painter for the outer contour.
+	 */
+	public SubstanceBorderPainter getOuter() {
+		return this.outer;
+	}
 }
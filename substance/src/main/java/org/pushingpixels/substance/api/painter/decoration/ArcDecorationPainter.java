@@ -32,13 +32,14 @@ package org.pushingpixels.substance.api.painter.decoration;
 import org.pushingpixels.substance.api.SubstanceSkin;
 import org.pushingpixels.substance.api.SubstanceSlices.DecorationAreaType;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+import org.pushingpixels.substance.internal.painter.DecorationPainterUtils;
+import org.pushingpixels.substance.internal.utils.HashMapKey;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.MultipleGradientPaint.CycleMethod;
 import java.awt.geom.GeneralPath;
-import java.awt.image.BufferedImage;
 
 /**
  * Implementation of {@link SubstanceDecorationPainter} that uses "arc" painting on title panes and
@@ -62,11 +63,12 @@ public class ArcDecorationPainter implements SubstanceDecorationPainter {
             DecorationAreaType decorationAreaType, int width, int height, SubstanceSkin skin) {
         if ((decorationAreaType == DecorationAreaType.PRIMARY_TITLE_PANE)
                 || (decorationAreaType == DecorationAreaType.SECONDARY_TITLE_PANE)) {
-            this.paintTitleBackground(graphics, comp, width, height,
+            this.paintTitleBackground(graphics, decorationAreaType, width, height,
                     skin.getBackgroundColorScheme(decorationAreaType));
         } else {
-            this.paintExtraBackground(graphics, SubstanceCoreUtilities.getHeaderParent(comp), comp,
-                    width, height, skin.getBackgroundColorScheme(decorationAreaType));
+            this.paintExtraBackground(graphics, decorationAreaType,
+                    SubstanceCoreUtilities.getHeaderParent(comp), comp, width, height,
+                    skin.getBackgroundColorScheme(decorationAreaType));
         }
     }
 
@@ -75,8 +77,8 @@ public class ArcDecorationPainter implements SubstanceDecorationPainter {
      * 
      * @param graphics
      *            Graphics context.
-     * @param comp
-     *            Component.
+     * @param decorationAreaType
+     *            Decoration area type.
      * @param width
      *            Width.
      * @param height
@@ -84,13 +86,29 @@ public class ArcDecorationPainter implements SubstanceDecorationPainter {
      * @param scheme
      *            Color scheme for painting the title background.
      */
-    private void paintTitleBackground(Graphics2D graphics, Component comp, int width, int height,
+    private void paintTitleBackground(Graphics2D graphics, DecorationAreaType decorationAreaType,
+            int width, int height, SubstanceColorScheme scheme) {
+        HashMapKey key = HashMapKey.lookup().with(this).with(decorationAreaType).with(scheme);
+        DecorationPainterUtils.paintCachedArea(graphics, key, 0, 0, width, height,
+                (Graphics2D rgraphics, int areaWidth, int areaHeight) -> this
+                        .renderTitleBackground(rgraphics, areaWidth, areaHeight, scheme));
+    }
+
+    /**
+     * Renders the title background.
+     * 
+     * @param rgraphics
+     *            Graphics context.
+     * @param width
+     *            Width.
+     * @param height
+     *            Height.
+     * @param scheme
+     *            Color scheme for painting the title background.
+     */
+    private void renderTitleBackground(Graphics2D rgraphics, int width, int height,
             SubstanceColorScheme scheme) {
-        // System.out.println(scheme.getDisplayName());
-        // create rectangular background and later draw it on
-        // result image with contour clip.
-        BufferedImage rectangular = SubstanceCoreUtilities.getBlankImage(width, height);
-        Graphics2D rgraphics = (Graphics2D) rectangular.getGraphics();
+        rgraphics = (Graphics2D) rgraphics.create();
 
         // Fill background
         GeneralPath clipTop = new GeneralPath();
@@ -133,8 +151,7 @@ public class ArcDecorationPainter implements SubstanceDecorationPainter {
                 RenderingHints.VALUE_ANTIALIAS_ON);
         rgraphics.setClip(new Rectangle(0, 0, width, height));
         rgraphics.draw(mid);
-
-        graphics.drawImage(rectangular, 0, 0, width, height, null);
+        rgraphics.dispose();
     }
 
     /**
@@ -142,6 +159,8 @@ public class ArcDecorationPainter implements SubstanceDecorationPainter {
      * 
      * @param graphics
      *            Graphics context.
+     * @param decorationAreaType
+     *            Decoration area type.
      * @param parent
      *            Component ancestor for computing the correct offset of the background painting.
      * @param comp
@@ -153,8 +172,9 @@ public class ArcDecorationPainter implements SubstanceDecorationPainter {
      * @param scheme
      *            Color scheme for painting the title background.
      */
-    private void paintExtraBackground(Graphics2D graphics, Container parent, Component comp,
-            int width, int height, SubstanceColorScheme scheme) {
+    private void paintExtraBackground(Graphics2D graphics, DecorationAreaType decorationAreaType,
+            Container parent, Component comp, int width, int height,
+            SubstanceColorScheme scheme) {
         Point offset = SubstanceCoreUtilities.getOffsetInRootPaneCoords(comp);
         JRootPane rootPane = SwingUtilities.getRootPane(parent);
         // fix for bug 234 - Window doesn't have a root pane.
@@ -165,15 +185,19 @@ public class ArcDecorationPainter implements SubstanceDecorationPainter {
                 : layeredPane.getWidth() - layeredPaneInsets.left - layeredPaneInsets.right;
 
         if (pWidth != 0) {
-            LinearGradientPaint gradientBottom = new LinearGradientPaint(-offset.x, 0,
-                    -offset.x + pWidth, 0, new float[] { 0.0f, 0.5f, 1.0f },
-                    new Color[] { scheme.getMidColor(), scheme.getLightColor(),
-                                    scheme.getMidColor() },
-                    CycleMethod.REPEAT);
-            Graphics2D g2d = (Graphics2D) graphics.create();
-            g2d.setPaint(gradientBottom);
-            g2d.fillRect(-offset.x, 0, pWidth, height);
-            g2d.dispose();
+            // The gradient spans the width of the header, so that all the components in it
+            // paint their part of the same raster regardless of their position
+            HashMapKey key = HashMapKey.lookup().with(this).with(decorationAreaType).with(scheme);
+            DecorationPainterUtils.paintCachedArea(graphics, key, -offset.x, 0, pWidth, height,
+                    (Graphics2D g2d, int areaWidth, int areaHeight) -> {
+                        LinearGradientPaint gradientBottom = new LinearGradientPaint(0, 0,
+                                areaWidth, 0, new float[] { 0.0f, 0.5f, 1.0f },
+                                new Color[] { scheme.getMidColor(), scheme.getLightColor(),
+                                                scheme.getMidColor() },
+                                CycleMethod.REPEAT);
+                        g2d.setPaint(gradientBottom);
+                        g2d.fillRect(0, 0, areaWidth, areaHeight);
+                    });
         }
     }
 
@@ -34,6 +34,8 @@ import org.pushingpixels.substance.api.SubstanceSlices.DecorationAreaType;
 import org.pushingpixels.substance.api.colorscheme.ColorSchemeSingleColorQuery;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.FractionBasedPainter;
+import org.pushingpixels.substance.internal.painter.DecorationPainterUtils;
+import org.pushingpixels.substance.internal.utils.HashMapKey;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 
 import javax.swing.*;
@@ -129,13 +131,6 @@ public class FractionBasedDecorationPainter extends FractionBasedPainter
 	private void paintDecoratedBackground(Graphics2D graphics, Component comp,
 			DecorationAreaType decorationAreaType, int width, int height,
 			SubstanceColorScheme scheme) {
-		Graphics2D g2d = (Graphics2D) graphics.create();
-		Color[] fillColors = new Color[this.fractions.length];
-		for (int i = 0; i < this.fractions.length; i++) {
-			ColorSchemeSingleColorQuery colorQuery = this.colorQueries[i];
-			fillColors[i] = colorQuery.query(scheme);
-		}
-
 		Component topMostWithSameDecorationAreaType = SubstanceCoreUtilities
 				.getTopMostParentWithDecorationAreaType(comp,
 						decorationAreaType);
@@ -143,14 +138,26 @@ public class FractionBasedDecorationPainter extends FractionBasedPainter
 				topMostWithSameDecorationAreaType);
 		int dy = inTopMost.y;
 
-		MultipleGradientPaint gradient = new LinearGradientPaint(0, 0, 0,
-				topMostWithSameDecorationAreaType.getHeight(), this.fractions,
-				fillColors, CycleMethod.REPEAT);
-		g2d.setPaint(gradient);
-		g2d.translate(0, -dy);
-		g2d.fillRect(0, 0, width, topMostWithSameDecorationAreaType.getHeight());
-
-		g2d.dispose();
+		// The gradient spans the height of the top-most component with the
+		// same decoration area type, so that all the nested components paint
+		// their part of the same raster
+		HashMapKey key = HashMapKey.lookup().with(this).with(decorationAreaType)
+				.with(scheme);
+		DecorationPainterUtils.paintCachedArea(graphics, key, 0, -dy, width,
+				topMostWithSameDecorationAreaType.getHeight(),
+				(Graphics2D g2d, int areaWidth, int areaHeight) -> {
+					Color[] fillColors = new Color[this.fractions.length];
+					for (int i = 0; i < this.fractions.length; i++) {
+						ColorSchemeSingleColorQuery colorQuery = this.colorQueries[i];
+						fillColors[i] = colorQuery.query(scheme);
+					}
+
+					MultipleGradientPaint gradient = new LinearGradientPaint(0, 0,
+							0, areaHeight, this.fractions, fillColors,
+							CycleMethod.REPEAT);
+					g2d.setPaint(gradient);
+					g2d.fillRect(0, 0, areaWidth, areaHeight);
+				});
 	}
 
 	private void paintDecoratedBackground(Graphics2D graphics, Component comp,
@@ -32,6 +32,7 @@ package org.pushingpixels.substance.api.painter.decoration;
 import org.pushingpixels.substance.api.SubstanceSkin;
 import org.pushingpixels.substance.api.SubstanceSlices.DecorationAreaType;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+import org.pushingpixels.substance.internal.painter.DecorationPainterUtils;
 import org.pushingpixels.substance.internal.utils.*;
 
 import java.awt.*;
@@ -61,7 +62,7 @@ public class MatteDecorationPainter implements SubstanceDecorationPainter {
         SubstanceColorScheme colorScheme = skin.getBackgroundColorScheme(decorationAreaType);
         if ((decorationAreaType == DecorationAreaType.PRIMARY_TITLE_PANE)
                 || (decorationAreaType == DecorationAreaType.SECONDARY_TITLE_PANE)) {
-            this.paintTitleBackground(graphics, width, height, colorScheme);
+            this.paintTitleBackground(graphics, decorationAreaType, width, height, colorScheme);
         } else {
             this.paintExtraBackground(graphics, comp, width, height, colorScheme);
         }
@@ -70,16 +71,18 @@ public class MatteDecorationPainter implements SubstanceDecorationPainter {
     /**
      * Paints the title background.
      *
-     * @param graphics Graphics context.
-     * @param width    Width.
-     * @param height   Height.
-     * @param scheme   Color scheme for painting the title background.
+     * @param graphics           Graphics context.
+     * @param decorationAreaType Decoration area type.
+     * @param width              Width.
+     * @param height             Height.
+     * @param scheme             Color scheme for painting the title background.
      */
-    private void paintTitleBackground(Graphics2D graphics, int width, int height,
-            SubstanceColorScheme scheme) {
-        Graphics2D g2d = (Graphics2D) graphics.create();
-        this.fill(g2d, scheme, 0, 0, 0, width, height);
-        g2d.dispose();
+    private void paintTitleBackground(Graphics2D graphics, DecorationAreaType decorationAreaType,
+            int width, int height, SubstanceColorScheme scheme) {
+        HashMapKey key = HashMapKey.lookup().with(this).with(decorationAreaType).with(scheme);
+        DecorationPainterUtils.paintCachedArea(graphics, key, 0, 0, width, height,
+                (Graphics2D g2d, int areaWidth, int areaHeight) -> this.fill(g2d, scheme, 0, 0,
+                        0, areaWidth, areaHeight));
     }
 
     /**
@@ -35,11 +35,14 @@ import org.pushingpixels.substance.api.SubstanceSlices.DecorationAreaType;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.decoration.SubstanceDecorationPainter;
 import org.pushingpixels.substance.api.watermark.SubstanceWatermark;
+import org.pushingpixels.substance.internal.utils.HashMapKey;
+import org.pushingpixels.substance.internal.utils.LazyResettableHashMap;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.WidgetUtilities;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 /**
  * Contains utility methods related to decoration painters. This class is for internal use only.
@@ -58,6 +61,36 @@ public class DecorationPainterUtils {
         JComponent getPopupInvoker();
     }
 
+    /**
+     * Largest decoration area (in pixels) that is rendered to a cached raster. Larger areas are
+     * painted directly.
+     */
+    private static final int MAX_CACHED_AREA = 1024 * 1024;
+
+    /**
+     * Cache of rendered decoration areas.
+     */
+    private static final LazyResettableHashMap<BufferedImage> areaRasters =
+            new LazyResettableHashMap<>("DecorationPainterUtils.areaRasters");
+
+    /**
+     * Renders the full extent of a decoration area.
+     */
+    @FunctionalInterface
+    public interface AreaRenderer {
+        /**
+         * Renders the decoration area.
+         * 
+         * @param graphics
+         *            Graphics context, with the origin at the top-left corner of the area.
+         * @param width
+         *            Area width.
+         * @param height
+         *            Area height.
+         */
+        void render(Graphics2D graphics, int width, int height);
+    }
+
     /**
      * Sets the decoration type of the specified component.
      * 
@@ -227,6 +260,72 @@ public class DecorationPainterUtils {
         g2d.dispose();
     }
 
+    /**
+     * Paints the decoration area at the specified location from a cached raster of the full
+     * area. The raster is rendered on the first use of the specified key, and only the part that
+     * intersects the clip of the graphics context is drawn. This way a component that shows a
+     * part of a larger decoration area (such as a toolbar in a header) and repaints a small dirty
+     * region does not render the area again.
+     * 
+     * @param graphics
+     *            Graphics context.
+     * @param key
+     *            Key that identifies the rendered area. Must cover everything that the rendering
+     *            depends on, except the area size and the scale factor. Can be a lookup key of
+     *            {@link HashMapKey#lookup()}.
+     * @param x
+     *            X coordinate of the area.
+     * @param y
+     *            Y coordinate of the area.
+     * @param width
+     *            Area width.
+     * @param height
+     *            Area height.
+     * @param renderer
+     *            Renders the area.
+     */
+    public static void paintCachedArea(Graphics2D graphics, HashMapKey key, int x, int y,
+            int width, int height, AreaRenderer renderer) {
+        if ((width <= 0) || (height <= 0)) {
+            return;
+        }
+        Rectangle area = new Rectangle(x, y, width, height);
+        Rectangle clip = graphics.getClipBounds();
+        Rectangle dirty = (clip == null) ? area : area.intersection(clip);
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        if ((long) width * height > MAX_CACHED_AREA) {
+            Graphics2D g2d = (Graphics2D) graphics.create();
+            g2d.translate(x, y);
+            renderer.render(g2d, width, height);
+            g2d.dispose();
+            return;
+        }
+
+        key = key.with(width).with(height);
+        BufferedImage raster = areaRasters.get(key);
+        if (raster == null) {
+            key = key.copy();
+            raster = SubstanceCoreUtilities.getBlankImage(width, height);
+            Graphics2D rasterGraphics = raster.createGraphics();
+            renderer.render(rasterGraphics, width, height);
+            rasterGraphics.dispose();
+            areaRasters.put(key, raster);
+        }
+
+        // The raster may be scaled for high-DPI screens
+        double scaleX = (double) raster.getWidth() / width;
+        double scaleY = (double) raster.getHeight() / height;
+        int sx1 = (int) ((dirty.x - x) * scaleX);
+        int sy1 = (int) ((dirty.y - y) * scaleY);
+        int sx2 = (int) Math.ceil((dirty.x + dirty.width - x) * scaleX);
+        int sy2 = (int) Math.ceil((dirty.y + dirty.height - y) * scaleY);
+        graphics.drawImage(raster, dirty.x, dirty.y, dirty.x + dirty.width,
+                dirty.y + dirty.height, sx1, sy1, sx2, sy2, null);
+    }
+
     public static void paintDecorationArea(Graphics g, Component c,
             Shape contour, DecorationAreaType decorationType,
             SubstanceColorScheme colorScheme, boolean force) {
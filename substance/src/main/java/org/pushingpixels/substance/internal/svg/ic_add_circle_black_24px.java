@@ -5,6 +5,7 @@ import java.awt.geom.*;
 import javax.swing.plaf.UIResource;
 
 import org.pushingpixels.neon.icon.IsHiDpiAware;
+import org.pushingpixels.neon.icon.IsRasterCacheable;
 import org.pushingpixels.neon.icon.ResizableIcon;
 import org.pushingpixels.neon.icon.NeonIcon;
 import org.pushingpixels.neon.icon.NeonIconUIResource;
@@ -13,7 +14,7 @@ import org.pushingpixels.neon.icon.NeonIconUIResource;
  * This class has been automatically generated using <a
  * href="https://github.com/kirill-grouchnikov/radiance">Photon SVG transcoder</a>.
  */
-public class ic_add_circle_black_24px implements ResizableIcon, IsHiDpiAware {
+public class ic_add_circle_black_24px implements ResizableIcon, IsHiDpiAware, IsRasterCacheable {
     @SuppressWarnings("unused")
 	private void innerPaint(Graphics2D g) {
         Shape shape = null;
@@ -147,6 +148,11 @@ g.setTransform(defaultTransform_);
         return true;
     }
 
+    @Override
+    public boolean isRasterCacheable() {
+        return true;
+    }
+
     @Override
 	public void paintIcon(Component c, Graphics g, int x, int y) {
 		Graphics2D g2d = (Graphics2D) g.create();
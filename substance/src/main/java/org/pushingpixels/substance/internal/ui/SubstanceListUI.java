@@ -71,7 +71,34 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
     /**
      * Holds the list of currently selected indices.
      */
-    private Map<Integer, Object> selectedIndices;
+    private SelectionIntervals selectedIndices;
+
+    /**
+     * Elements at the indices that have been selected with an animation. Used to skip the
+     * fade-out animation on indices that point to a different element by the time they are
+     * deselected.
+     */
+    private Map<Integer, Object> selectedValues;
+
+    /**
+     * Selection state of the indices in the range of the selection change that is being
+     * processed. Reused across changes.
+     */
+    private SelectionIntervals changedIndices;
+
+    /**
+     * Start of the range of indices whose selection changes have been reported but not yet
+     * applied to {@link #selectedIndices}. The range is empty when the start is greater than
+     * {@link #unsyncedTo}. Model changes shift and widen this range along with
+     * {@link #selectedIndices}.
+     */
+    private int unsyncedFrom;
+
+    /**
+     * End of the range of indices whose selection changes have been reported but not yet
+     * applied to {@link #selectedIndices}.
+     */
+    private int unsyncedTo;
 
     /**
      * Holds the currently rolled-over index, or -1 is there is none such.
@@ -103,86 +130,89 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
     private class SubstanceListSelectionListener implements ListSelectionListener {
         public void valueChanged(final ListSelectionEvent e) {
             // fix for issue 469/474 - update the inner structures
-            // in a separate event
+            // in a separate event. The changes reported before that event
+            // runs are handled together.
+            unsyncedFrom = Math.min(unsyncedFrom, e.getFirstIndex());
+            unsyncedTo = Math.max(unsyncedTo, e.getLastIndex());
             SwingUtilities.invokeLater(() -> {
-                handleListSelectionChange(e);
+                if (unsyncedFrom > unsyncedTo) {
+                    return;
+                }
+                int first = Math.max(0, unsyncedFrom);
+                int last = unsyncedTo;
+                unsyncedFrom = Integer.MAX_VALUE;
+                unsyncedTo = -1;
+                handleListSelectionChange(first, last);
                 if (list != null) {
                     list.repaint();
                 }
             });
         }
 
-        private void handleListSelectionChange(ListSelectionEvent e) {
+        private void handleListSelectionChange(int first, int last) {
             if (list == null) {
                 // fix for issue 464 - misbehaving app listener can change
                 // look-and-feel without giving this listener a chance to
                 // react
                 return;
             }
+            ListSelectionModel selectionModel = list.getSelectionModel();
+            last = Math.min(last, list.getModel().getSize() - 1);
+
             // optimization on large lists and large selections
-            if (WidgetUtilities.hasNoAnimations(list, AnimationFacet.SELECTION))
+            if (WidgetUtilities.hasNoAnimations(list, AnimationFacet.SELECTION)) {
+                selectedIndices.copyFrom(selectionModel, first, last);
                 return;
+            }
 
             // no selection animations on non-Substance renderers
             if (!(list.getCellRenderer() instanceof SubstanceDefaultListCellRenderer)) {
-                syncModelContents();
+                stateTransitionMultiTracker.clear();
+                selectedValues.clear();
+                selectedIndices.copyFrom(selectionModel, first, last);
                 return;
             }
 
             Set<StateTransitionTracker> initiatedTrackers = new HashSet<>();
             boolean fadeCanceled = false;
 
-            for (int i = e.getFirstIndex(); i <= e.getLastIndex(); i++) {
-                if (i >= list.getModel().getSize()) {
-                    continue;
-                }
-                if (list.isSelectedIndex(i)) {
-                    // check if was selected before
-                    if (!selectedIndices.containsKey(i)) {
-                        // start fading in
-                        // System.out.println("Fade in on index " + i);
-
-                        selectedIndices.put(i, list.getModel().getElementAt(i));
-
-                        if (!fadeCanceled) {
-                            StateTransitionTracker tracker = getTracker(i, (i == rolledOverIndex),
-                                    false);
-                            tracker.getModel().setSelected(true);
-
-                            initiatedTrackers.add(tracker);
-                            if (initiatedTrackers.size() > 25) {
-                                stateTransitionMultiTracker.clear();
-                                initiatedTrackers.clear();
-                                fadeCanceled = true;
-                            }
-                        }
-                    }
+            // Only the indices in the event range can have changed their selection state.
+            // Scan the selection model once and visit only the indices that differ.
+            changedIndices.clear();
+            changedIndices.copyFrom(selectionModel, first, last);
+            for (int i = selectedIndices.nextDifference(changedIndices, first, last); (i >= 0)
+                    && !fadeCanceled; i = selectedIndices.nextDifference(changedIndices, i + 1,
+                            last)) {
+                boolean isSelected = changedIndices.contains(i);
+                StateTransitionTracker tracker;
+                if (isSelected) {
+                    // start fading in
+                    selectedValues.put(i, list.getModel().getElementAt(i));
+                    tracker = getTracker(i, (i == rolledOverIndex), false);
+                    tracker.getModel().setSelected(true);
                 } else {
-                    // check if was selected before and still points to the
-                    // same element
-                    if (selectedIndices.containsKey(i)) {
-                        if (selectedIndices.get(i) == list.getModel().getElementAt(i)) {
-                            // start fading out
-                            // System.out
-                            // .println("Fade out on index " + i);
-
-                            if (!fadeCanceled) {
-                                StateTransitionTracker tracker = getTracker(i,
-                                        (i == rolledOverIndex), true);
-                                tracker.getModel().setSelected(false);
-
-                                initiatedTrackers.add(tracker);
-                                if (initiatedTrackers.size() > 25) {
-                                    stateTransitionMultiTracker.clear();
-                                    initiatedTrackers.clear();
-                                    fadeCanceled = true;
-                                }
-                            }
-                        }
-                        selectedIndices.remove(i);
+                    // check if still points to the same element
+                    if (selectedValues.containsKey(i)
+                            && (selectedValues.remove(i) != list.getModel().getElementAt(i))) {
+                        continue;
                     }
+                    // start fading out
+                    tracker = getTracker(i, (i == rolledOverIndex), true);
+                    tracker.getModel().setSelected(false);
+                }
+
+                initiatedTrackers.add(tracker);
+                if (initiatedTrackers.size() > 25) {
+                    stateTransitionMultiTracker.clear();
+                    initiatedTrackers.clear();
+                    fadeCanceled = true;
                 }
             }
+            selectedIndices.copyFrom(changedIndices, first, last);
+            if (selectedValues.size() > 64) {
+                selectedValues.keySet()
+                        .removeIf((Integer index) -> !selectedIndices.contains(index));
+            }
         }
     }
 
@@ -193,19 +223,74 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
             SwingUtilities.invokeLater(() -> syncModelContents());
         }
 
+        private void _resetModelContents() {
+            // fix for issue 469/474 - update the inner structures
+            // in a separate event
+            SwingUtilities.invokeLater(() -> resetModelContents());
+        }
+
+        /**
+         * Returns indication whether the selection model is known to shift its indices on
+         * model changes the way {@link #intervalAdded(ListDataEvent)} and
+         * {@link #intervalRemoved(ListDataEvent)} do.
+         */
+        private boolean canShiftSelection() {
+            return (list != null)
+                    && (list.getSelectionModel().getClass() == DefaultListSelectionModel.class);
+        }
+
+        // The basic list UI shifts the selection model along with the list model, and
+        // reports every index whose selection state changes to the selection listener.
+        // The selected indices only need the same shift. The range of the selection
+        // changes that have not been applied yet may have been reported before or after
+        // the shift, depending on the order of the model listeners, and is widened to
+        // cover both.
+
         @Override
         public void intervalRemoved(ListDataEvent e) {
-            _syncModelContents();
+            if (!canShiftSelection()) {
+                _syncModelContents();
+                return;
+            }
+            int index0 = Math.min(e.getIndex0(), e.getIndex1());
+            int index1 = Math.max(e.getIndex0(), e.getIndex1());
+            int length = index1 - index0 + 1;
+            selectedIndices.removeRange(index0, index1);
+            if (unsyncedFrom <= unsyncedTo) {
+                unsyncedFrom = (unsyncedFrom > index1) ? unsyncedFrom - length
+                        : Math.min(unsyncedFrom, index0);
+            }
+            _resetModelContents();
         }
 
         @Override
         public void intervalAdded(ListDataEvent e) {
-            _syncModelContents();
+            if (!canShiftSelection()) {
+                _syncModelContents();
+                return;
+            }
+            int index0 = Math.min(e.getIndex0(), e.getIndex1());
+            int index1 = Math.max(e.getIndex0(), e.getIndex1());
+            int length = index1 - index0 + 1;
+            // The inserted indices take the selection state of the index they are
+            // inserted at, as in DefaultListSelectionModel.insertIndexInterval
+            boolean insertSelected = (list
+                    .getSelectionMode() != ListSelectionModel.SINGLE_SELECTION)
+                    && selectedIndices.contains(index0);
+            selectedIndices.insertRange(index0, length);
+            if (insertSelected) {
+                selectedIndices.add(index0, index1);
+            }
+            if ((unsyncedFrom <= unsyncedTo) && (unsyncedTo >= index0)) {
+                unsyncedTo += length;
+            }
+            _resetModelContents();
         }
 
         @Override
         public void contentsChanged(ListDataEvent e) {
-            _syncModelContents();
+            // Changed elements do not change the selection model
+            _resetModelContents();
         }
     }
 
@@ -300,7 +385,11 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
     private SubstanceListUI() {
         super();
         rolledOverIndex = -1;
-        selectedIndices = new HashMap<>();
+        selectedIndices = new SelectionIntervals();
+        changedIndices = new SelectionIntervals();
+        selectedValues = new HashMap<>();
+        unsyncedFrom = Integer.MAX_VALUE;
+        unsyncedTo = -1;
 
         this.stateTransitionMultiTracker = new StateTransitionMultiTracker<>();
     }
@@ -318,6 +407,7 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
     @Override
     protected void uninstallDefaults() {
         selectedIndices.clear();
+        selectedValues.clear();
 
         super.uninstallDefaults();
     }
@@ -625,7 +715,7 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
         StateTransitionTracker tracker = this.stateTransitionMultiTracker.getTracker(cellIndex);
         if (tracker == null) {
             boolean isRollover = (rolledOverIndex >= 0) && (rolledOverIndex == cellIndex);
-            boolean isSelected = selectedIndices.containsKey(cellIndex);
+            boolean isSelected = selectedIndices.contains(cellIndex);
             return ComponentState.getState(isEnabled, isRollover, isSelected);
         } else {
             ComponentState fromTracker = tracker.getModelStateInfo().getCurrModelState();
@@ -773,11 +863,20 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
             return;
         stateTransitionMultiTracker.clear();
         selectedIndices.clear();
-        for (int i = 0; i < list.getModel().getSize(); i++) {
-            if (list.isSelectedIndex(i)) {
-                selectedIndices.put(i, list.getModel().getElementAt(i));
-            }
-        }
+        selectedValues.clear();
+        selectedIndices.copyFrom(list.getSelectionModel(), 0, list.getModel().getSize() - 1);
+        list.repaint();
+    }
+
+    /**
+     * Drops the state that is keyed by the elements at specific indices after a model change,
+     * keeping the selected indices.
+     */
+    private void resetModelContents() {
+        if (list == null)
+            return;
+        stateTransitionMultiTracker.clear();
+        selectedValues.clear();
         list.repaint();
     }
 
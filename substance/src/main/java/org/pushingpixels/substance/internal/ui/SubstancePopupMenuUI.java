@@ -41,6 +41,8 @@ import javax.swing.plaf.basic.BasicPopupMenuUI;
 import java.awt.*;
 import java.awt.event.ContainerEvent;
 import java.awt.event.ContainerListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 
 /**
  * UI for popup menus in <b>Substance</b> look and feel.
@@ -53,6 +55,11 @@ public class SubstancePopupMenuUI extends BasicPopupMenuUI {
 	 */
 	private ContainerListener substanceContainerListener;
 
+	/**
+	 * Tracks changes to the popup menu font and invalidates the layout metrics.
+	 */
+	private PropertyChangeListener substanceFontListener;
+
 	private PopupMenuListener substancePopupMenuListener;
 
 	public static ComponentUI createUI(JComponent comp) {
@@ -66,15 +73,20 @@ public class SubstancePopupMenuUI extends BasicPopupMenuUI {
 
 		this.substanceContainerListener = new ContainerListener() {
 			public void componentAdded(ContainerEvent e) {
-				MenuUtilities.cleanPopupLayoutMetrics(popupMenu);
+				MenuUtilities.cleanPopupLayoutMetrics(popupMenu, e.getChild());
 			}
 
 			public void componentRemoved(ContainerEvent e) {
-				MenuUtilities.cleanPopupLayoutMetrics(popupMenu);
+				MenuUtilities.cleanPopupLayoutMetrics(popupMenu, e.getChild());
 			}
 		};
 		this.popupMenu.addContainerListener(this.substanceContainerListener);
 
+		// menu items that do not have their own font use the font of the popup menu
+		this.substanceFontListener = (PropertyChangeEvent evt) -> MenuUtilities
+				.cleanPopupLayoutMetrics(popupMenu);
+		this.popupMenu.addPropertyChangeListener("font", this.substanceFontListener);
+
 		this.substancePopupMenuListener = new PopupMenuListener() {
 			@Override
 			public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
@@ -118,6 +130,9 @@ public class SubstancePopupMenuUI extends BasicPopupMenuUI {
 		this.popupMenu.removeContainerListener(this.substanceContainerListener);
 		this.substanceContainerListener = null;
 
+		this.popupMenu.removePropertyChangeListener("font", this.substanceFontListener);
+		this.substanceFontListener = null;
+
 		this.popupMenu.removePopupMenuListener(this.substancePopupMenuListener);
 		this.substancePopupMenuListener = null;
 
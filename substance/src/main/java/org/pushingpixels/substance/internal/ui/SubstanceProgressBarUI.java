@@ -245,6 +245,37 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
         return result;
     }
 
+    /**
+     * Paints the background of a determinate progress bar. Wide backgrounds are composed from a
+     * rendition cached for the height alone.
+     *
+     * @param g                    Graphics context.
+     * @param x                    X coordinate of the background.
+     * @param y                    Y coordinate of the background.
+     * @param bar                  Progress bar.
+     * @param width                Progress bar width.
+     * @param height               Progress bar height.
+     * @param scheme               Color scheme for the background.
+     * @param fillPainter          Fill painter.
+     * @param orientation          Progress bar orientation (vertical / horizontal).
+     * @param componentOrientation Progress bar LTR / RTL orientation.
+     */
+    private static void paintDeterminateBackground(Graphics2D g, int x, int y, JProgressBar bar,
+            int width, int height, SubstanceColorScheme scheme, SubstanceFillPainter fillPainter,
+            int orientation, ComponentOrientation componentOrientation) {
+        int capWidth = getCapWidth(bar, height);
+        if (StretchableImageUtilities.isStretchable(fillPainter)
+                && StretchableImageUtilities.canStretch(width, capWidth)) {
+            BufferedImage slices = getDeterminateBackground(bar,
+                    StretchableImageUtilities.getSliceWidth(capWidth), height, scheme,
+                    fillPainter, orientation, componentOrientation);
+            drawStretched(g, slices, capWidth, x, y, width, orientation);
+        } else {
+            NeonCortex.drawImage(g, getDeterminateBackground(bar, width, height, scheme,
+                    fillPainter, orientation, componentOrientation), x, y);
+        }
+    }
+
     /**
      * Returns the background of a determinate progress bar.
      *
@@ -260,14 +291,13 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
     private static BufferedImage getDeterminateBackground(JProgressBar bar, int width, int height,
             SubstanceColorScheme scheme, SubstanceFillPainter fillPainter, int orientation,
             ComponentOrientation componentOrientation) {
+        float radius = getRadius(bar);
         HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, scheme.getDisplayName(),
                 fillPainter.getDisplayName(), orientation, componentOrientation);
         BufferedImage result = SubstanceProgressBarUI.backgroundMap.get(key);
         if (result == null) {
             result = SubstanceCoreUtilities.getBlankImage(width, height);
             Graphics2D g2d = result.createGraphics();
-            float radius = 0.5f * SubstanceSizeUtils
-                    .getClassicButtonCornerRadius(SubstanceSizeUtils.getComponentFontSize(bar));
             Shape contour = SubstanceOutlineUtilities.getBaseOutline(width, height, radius, null);
             fillPainter.paintContourBackground(g2d, bar, width, height, contour, false, scheme,
                     true);
@@ -296,14 +326,14 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
     private static BufferedImage getDeterminateProgress(JProgressBar bar, int width, int height,
             boolean isFull, SubstanceColorScheme scheme, SubstanceFillPainter fillPainter,
             int orientation, ComponentOrientation componentOrientation) {
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, scheme.getDisplayName(),
-                fillPainter.getDisplayName(), orientation, componentOrientation);
+        float radius = getRadius(bar);
+        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, isFull,
+                scheme.getDisplayName(), fillPainter.getDisplayName(), orientation,
+                componentOrientation);
         BufferedImage result = SubstanceProgressBarUI.progressMap.get(key);
         if (result == null) {
             result = SubstanceCoreUtilities.getBlankImage(width, height);
             Graphics2D g2d = result.createGraphics();
-            float radius = 0.5f * SubstanceSizeUtils
-                    .getClassicButtonCornerRadius(SubstanceSizeUtils.getComponentFontSize(bar));
             Side straightSide = (orientation == SwingConstants.VERTICAL) ? Side.RIGHT
                     :
                     (componentOrientation.isLeftToRight() ? Side.RIGHT : Side.LEFT);
@@ -322,6 +352,81 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
         return result;
     }
 
+    /**
+     * Paints the progress of a determinate progress bar. Wide progress images are composed
+     * from a rendition cached for the height alone.
+     *
+     * @param g                    Graphics context.
+     * @param x                    X coordinate of the progress.
+     * @param y                    Y coordinate of the progress.
+     * @param bar                  Progress bar.
+     * @param width                Progress width.
+     * @param height               Progress height.
+     * @param isFull               Indication whether the progress bar is full.
+     * @param scheme               Color scheme for the progress.
+     * @param fillPainter          Fill painter.
+     * @param orientation          Progress bar orientation (vertical / horizontal).
+     * @param componentOrientation Progress bar LTR / RTL orientation.
+     */
+    private static void paintDeterminateProgress(Graphics2D g, int x, int y, JProgressBar bar,
+            int width, int height, boolean isFull, SubstanceColorScheme scheme,
+            SubstanceFillPainter fillPainter, int orientation,
+            ComponentOrientation componentOrientation) {
+        int capWidth = getCapWidth(bar, height);
+        if (StretchableImageUtilities.isStretchable(fillPainter)
+                && StretchableImageUtilities.canStretch(width, capWidth)) {
+            BufferedImage slices = getDeterminateProgress(bar,
+                    StretchableImageUtilities.getSliceWidth(capWidth), height, isFull, scheme,
+                    fillPainter, orientation, componentOrientation);
+            drawStretched(g, slices, capWidth, x, y, width, orientation);
+        } else {
+            NeonCortex.drawImage(g, getDeterminateProgress(bar, width, height, isFull, scheme,
+                    fillPainter, orientation, componentOrientation), x, y);
+        }
+    }
+
+    /**
+     * Returns the corner radius of the determinate background and progress.
+     *
+     * @param bar Progress bar.
+     * @return Corner radius.
+     */
+    private static float getRadius(JProgressBar bar) {
+        return 0.5f * SubstanceSizeUtils
+                .getClassicButtonCornerRadius(SubstanceSizeUtils.getComponentFontSize(bar));
+    }
+
+    /**
+     * Returns the cap width of the renditions cached for the specified height.
+     *
+     * @param bar    Progress bar.
+     * @param height Height of the background or progress (before rotation).
+     * @return Cap width.
+     */
+    private static int getCapWidth(JProgressBar bar, int height) {
+        return StretchableImageUtilities.getCapWidth(height, getRadius(bar), 0);
+    }
+
+    /**
+     * Paints a wide background or progress from a rendition cached for the height alone.
+     *
+     * @param g           Graphics context.
+     * @param slices      Cached rendition, rotated for vertical progress bars.
+     * @param capWidth    Cap width of the rendition.
+     * @param x           X coordinate of the painted area.
+     * @param y           Y coordinate of the painted area.
+     * @param width       Width of the painted area (before rotation).
+     * @param orientation Progress bar orientation (vertical / horizontal).
+     */
+    private static void drawStretched(Graphics2D g, BufferedImage slices, int capWidth, int x,
+            int y, int width, int orientation) {
+        if (orientation == SwingConstants.VERTICAL) {
+            StretchableImageUtilities.drawVertically(g, slices, capWidth, x, y, width);
+        } else {
+            StretchableImageUtilities.drawHorizontally(g, slices, capWidth, x, y, width);
+        }
+    }
+
     @Override
     public void paintDeterminate(Graphics g, JComponent c) {
         if (!(g instanceof Graphics2D)) {
@@ -349,15 +454,13 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
 
         SubstanceFillPainter fillPainter = SubstanceCoreUtilities.getFillPainter(progressBar);
         if (progressBar.getOrientation() == SwingConstants.HORIZONTAL) {
-            BufferedImage back = getDeterminateBackground(progressBar, barRectWidth, barRectHeight,
-                    fillScheme, fillPainter, progressBar.getOrientation(),
+            paintDeterminateBackground(g2d, margin, margin, progressBar, barRectWidth,
+                    barRectHeight, fillScheme, fillPainter, progressBar.getOrientation(),
                     this.progressBar.getComponentOrientation());
-            NeonCortex.drawImage(g2d, back, margin, margin);
         } else {
-            BufferedImage back = getDeterminateBackground(progressBar, barRectHeight, barRectWidth,
-                    fillScheme, fillPainter, progressBar.getOrientation(),
+            paintDeterminateBackground(g2d, margin, margin, progressBar, barRectHeight,
+                    barRectWidth, fillScheme, fillPainter, progressBar.getOrientation(),
                     this.progressBar.getComponentOrientation());
-            NeonCortex.drawImage(g2d, back, margin, margin);
         }
 
         if (amountFull > 0) {
@@ -369,18 +472,14 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
                 int progressWidth = amountFull;
                 int progressHeight = barRectHeight;
                 if ((progressWidth > 0) && (progressHeight > 0)) {
-                    BufferedImage progress = getDeterminateProgress(progressBar, progressWidth,
+                    // fix for RTL determinate horizontal progress
+                    // bar in 2.3
+                    int progressX = progressBar.getComponentOrientation().isLeftToRight()
+                            ? margin : margin + barRectWidth - amountFull;
+                    paintDeterminateProgress(g2d, progressX, margin, progressBar, progressWidth,
                             progressHeight, isFull, progressColorScheme, progressFillPainter,
                             progressBar.getOrientation(),
                             this.progressBar.getComponentOrientation());
-                    if (progressBar.getComponentOrientation().isLeftToRight()) {
-                        NeonCortex.drawImage(g2d, progress, margin, margin);
-                    } else {
-                        // fix for RTL determinate horizontal progress
-                        // bar in 2.3
-                        NeonCortex.drawImage(g2d, progress, margin + barRectWidth - amountFull,
-                                margin);
-                    }
                 }
             } else { // VERTICAL
                 int progressWidth = barRectWidth;
@@ -388,12 +487,11 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
                 if ((amountFull > 0) && (progressHeight > 0)) {
                     // fix for issue 95. Vertical bar is growing from
                     // the bottom
-                    BufferedImage progress = getDeterminateProgress(progressBar, progressHeight,
-                            progressWidth, isFull, progressColorScheme, progressFillPainter,
+                    paintDeterminateProgress(g2d, margin, margin + barRectHeight - progressHeight,
+                            progressBar, progressHeight, progressWidth, isFull,
+                            progressColorScheme, progressFillPainter,
                             progressBar.getOrientation(),
                             this.progressBar.getComponentOrientation());
-                    NeonCortex.drawImage(g2d, progress, margin,
-                            margin + barRectHeight - progressHeight);
                 }
             }
         }
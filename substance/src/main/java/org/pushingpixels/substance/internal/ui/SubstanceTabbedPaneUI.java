@@ -732,6 +732,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             // special handling of tabs placed in decoration areas
             tabColor = SubstanceColorUtilities.getBackgroundFillColor(compForBackground);
         }
+
         HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, tabPlacement,
                 fillPainter.getDisplayName(), borderPainter.getDisplayName(),
                 shaper.getDisplayName(), tabPlacement == SwingConstants.BOTTOM, side.name(),
@@ -773,6 +774,30 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         return backgroundMap.get(key);
     }
 
+    /**
+     * Returns the cap width for composing the tab background from a rendition cached for the
+     * height alone.
+     *
+     * @return Cap width, or -1 if the tab background cannot be composed.
+     */
+    private static int getTabBackgroundCapWidth(JTabbedPane tabPane, int width, int height,
+            int tabPlacement) {
+        if ((tabPlacement == SwingConstants.BOTTOM)
+                || !StretchableImageUtilities.isStretchable(
+                        SubstanceCoreUtilities.getFillPainter(tabPane))
+                || !StretchableImageUtilities.isStretchable(
+                        SubstanceCoreUtilities.getBorderPainter(tabPane))) {
+            return -1;
+        }
+        float cornerRadius = (SubstanceCoreUtilities
+                .getButtonShaper(tabPane) instanceof ClassicButtonShaper)
+                        ? SubstanceSizeUtils.getClassicButtonCornerRadius(
+                                SubstanceSizeUtils.getComponentFontSize(tabPane))
+                        : height / 3.0f;
+        int capWidth = StretchableImageUtilities.getCapWidth(height, cornerRadius, 0);
+        return StretchableImageUtilities.canStretch(width, capWidth) ? capWidth : -1;
+    }
+
     /**
      * Retrieves the image of the close button.
      */
@@ -846,6 +871,10 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         // double scaleFactor = UIUtil.getScaleFactor();
         // Slightly reduce the tab width to create "gaps" between tab visuals
         w -= 1;
+        // wide tabs are composed from a rendition cached for the height alone, with
+        // all the layers blended at the rendition width
+        int capWidth = getTabBackgroundCapWidth(this.tabPane, w, h, tabPlacement);
+        int layerWidth = (capWidth > 0) ? StretchableImageUtilities.getSliceWidth(capWidth) : w;
 
         // check if have windowModified property
         Component comp = this.tabPane.getComponentAt(tabIndex);
@@ -859,10 +888,10 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             float cyclePos = this.modifiedTimelines.get(comp).getTimelinePosition();
 
             BufferedImage layer1 = SubstanceTabbedPaneUI.getFinalTabBackgroundImage(this.tabPane,
-                    tabIndex, x, y, w, h, tabPlacement, SubstanceSlices.Side.BOTTOM, colorScheme,
+                    tabIndex, x, y, layerWidth, h, tabPlacement, SubstanceSlices.Side.BOTTOM, colorScheme,
                     baseBorderScheme);
             BufferedImage layer2 = SubstanceTabbedPaneUI.getFinalTabBackgroundImage(this.tabPane,
-                    tabIndex, x, y, w, h, tabPlacement, SubstanceSlices.Side.BOTTOM, colorScheme2,
+                    tabIndex, x, y, layerWidth, h, tabPlacement, SubstanceSlices.Side.BOTTOM, colorScheme2,
                     baseBorderScheme);
 
             fullOpacity = SubstanceCoreUtilities.getBlankUnscaledImage(layer1);
@@ -876,7 +905,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             g2d.dispose();
         } else {
             BufferedImage layerBase = SubstanceTabbedPaneUI.getFinalTabBackgroundImage(this.tabPane,
-                    tabIndex, x, y, w, h, tabPlacement, SubstanceSlices.Side.BOTTOM,
+                    tabIndex, x, y, layerWidth, h, tabPlacement, SubstanceSlices.Side.BOTTOM,
                     baseColorScheme, baseBorderScheme);
 
             if ((modelStateInfo == null) || currState.isDisabled()
@@ -905,7 +934,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
                                 .getColorScheme(this.tabPane, tabIndex,
                                         ColorSchemeAssociationKind.TAB_BORDER, activeState);
                         BufferedImage layer = SubstanceTabbedPaneUI.getFinalTabBackgroundImage(
-                                this.tabPane, tabIndex, x, y, w, h, tabPlacement,
+                                this.tabPane, tabIndex, x, y, layerWidth, h, tabPlacement,
                                 SubstanceSlices.Side.BOTTOM, fillScheme, borderScheme);
                         g2d.drawImage(layer, 0, 0, layer.getWidth(), layer.getHeight(), null);
                     }
@@ -950,7 +979,11 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
                 currState);
 
         graphics.setComposite(WidgetUtilities.getAlphaComposite(this.tabPane, finalAlpha, g));
-        NeonCortex.drawImage(graphics, fullOpacity, x, y);
+        if (capWidth > 0) {
+            StretchableImageUtilities.drawHorizontally(graphics, fullOpacity, capWidth, x, y, w);
+        } else {
+            NeonCortex.drawImage(graphics, fullOpacity, x, y);
+        }
 
         // Check if requested to paint close buttons.
         if (SubstanceCoreUtilities.hasCloseButton(this.tabPane, tabIndex) && isEnabled) {
@@ -74,9 +74,39 @@ import java.util.List;
  */
 public class SubstanceTableUI extends BasicTableUI implements UpdateOptimizationAware {
     /**
-     * Holds the list of currently selected row-column indexes.
+     * Rows selected as of the last selection sync. Together with {@link #selectedColumns},
+     * {@link #selectionRowsMatter} and {@link #selectionColumnsMatter} this defines the cells
+     * that this delegate considers selected, see {@link #isCellSelectedInSync(int, int)}.
      */
-    private Map<TableCellId, Object> selectedIndices;
+    private SelectionIntervals selectedRows;
+
+    /**
+     * Columns selected as of the last selection sync.
+     */
+    private SelectionIntervals selectedColumns;
+
+    /**
+     * Value of {@link JTable#getRowSelectionAllowed()} as of the last selection sync.
+     */
+    private boolean selectionRowsMatter;
+
+    /**
+     * Value of {@link JTable#getColumnSelectionAllowed()} as of the last selection sync.
+     */
+    private boolean selectionColumnsMatter;
+
+    /**
+     * Indicates whether the selection state above reflects the table selection models. This is
+     * <code>false</code> after the selection has changed on a table without selection
+     * animations.
+     */
+    private boolean isSelectionSynced;
+
+    /**
+     * Values of the cells that have been selected with an animation. Used to skip the fade-out
+     * animation on cells that have changed their content while selected.
+     */
+    private Map<TableCellId, Object> selectedValues;
 
     /**
      * Holds the currently rolled-over row-column index, or <code>null</code> if none such.
@@ -139,7 +169,9 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
      */
     private SubstanceTableUI() {
         super();
-        this.selectedIndices = new HashMap<TableCellId, Object>();
+        this.selectedRows = new SelectionIntervals();
+        this.selectedColumns = new SelectionIntervals();
+        this.selectedValues = new HashMap<TableCellId, Object>();
         this.rolledOverIndices = new HashSet<TableCellId>();
         this.stateTransitionMultiTracker = new StateTransitionMultiTracker<TableCellId>();
         this.rolledOverColumn = -1;
@@ -219,16 +251,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         }
         this.installEditorIfNecessary(Boolean.class, new BooleanEditor());
 
-        int rows = this.table.getRowCount();
-        int cols = this.table.getColumnCount();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (this.table.isCellSelected(i, j)) {
-                    TableCellId cellId = new TableCellId(i, j);
-                    this.selectedIndices.put(cellId, this.table.getValueAt(i, j));
-                }
-            }
-        }
+        this.copySelection();
 
         // This is a little tricky, and hopefully will not
         // interfere with existing applications. The row height in tables
@@ -328,7 +351,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             this.uninstallEditorIfNecessary(entry.getKey(), entry.getValue());
         }
 
-        this.selectedIndices.clear();
+        this.clearSelection();
         // this.table.putClientProperty(SubstanceTableUI.SELECTED_INDICES,
         // null);
 
@@ -398,7 +421,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 }
                 // fix for defect 291 - track changes to the table.
                 table.getModel().addTableModelListener(substanceTableStateListener);
-                selectedIndices.clear();
+                clearSelection();
                 stateTransitionMultiTracker.clear();
                 SubstanceTableUI.this.syncSelection(true);
             }
@@ -411,7 +434,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 }
                 table.getColumnModel().getSelectionModel()
                         .addListSelectionListener(substanceTableStateListener);
-                selectedIndices.clear();
+                clearSelection();
                 stateTransitionMultiTracker.clear();
                 SubstanceTableUI.this.syncSelection(true);
 
@@ -435,7 +458,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                     old.removeListSelectionListener(substanceTableStateListener);
                 }
                 table.getSelectionModel().addListSelectionListener(substanceTableStateListener);
-                selectedIndices.clear();
+                clearSelection();
                 stateTransitionMultiTracker.clear();
                 SubstanceTableUI.this.syncSelection(true);
             }
@@ -451,7 +474,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 if (newSorter != null) {
                     newSorter.addRowSorterListener(substanceTableStateListener);
                 }
-                selectedIndices.clear();
+                clearSelection();
                 stateTransitionMultiTracker.clear();
                 SubstanceTableUI.this.syncSelection(true);
             }
@@ -1169,7 +1192,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 // starts the fade sequence. So, we use the UI delegate to
                 // compute the selection status.
                 boolean isSelected = updateInfo.hasSelectionAnimations
-                        ? this.selectedIndices.containsKey(cellId)
+                        ? this.isCellSelectedInSync(row, column)
                         : this.table.isCellSelected(row, column);
                 boolean newOpaque = !(isSelected || isRollover || hasHighlights);
 
@@ -1643,7 +1666,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                     oldSortKeys.add(copy);
                 }
             }
-            syncSelection(isDifferentSorter);
+            syncSelection(isDifferentSorter, e);
         }
 
         @Override
@@ -1659,11 +1682,17 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 // internal selection and focus tracking
                 // when the event is table update.
                 if (e.getType() != TableModelEvent.UPDATE) {
-                    selectedIndices.clear();
+                    clearSelection();
                     stateTransitionMultiTracker.clear();
                     focusedCellId = null;
+                    syncSelection(true);
+                } else if (!isSelectionSynced) {
+                    // Updates do not change the selection models. Any selection
+                    // change that JTable makes in response to an update reaches
+                    // valueChanged, which keeps the synced selection current, so
+                    // there is nothing to copy when the selection is in sync.
+                    syncSelection(true);
                 }
-                syncSelection(true);
                 table.repaint();
             });
         }
@@ -1926,11 +1955,23 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
     /**
      * Synchronizes the current selection state.
      * 
-     * @param e
-     *            Selection event.
+     * @param enforceNoAnimations
+     *            If <code>true</code>, selection changes are not animated.
      */
-    // @SuppressWarnings("unchecked")
     protected void syncSelection(boolean enforceNoAnimations) {
+        this.syncSelection(enforceNoAnimations, null);
+    }
+
+    /**
+     * Synchronizes the current selection state. When the event comes from the row or the column
+     * selection model, only the rows or columns in the event range are processed.
+     * 
+     * @param enforceNoAnimations
+     *            If <code>true</code>, selection changes are not animated.
+     * @param e
+     *            Selection event. Can be <code>null</code>.
+     */
+    private void syncSelection(boolean enforceNoAnimations, ListSelectionEvent e) {
         if (this.table == null) {
             // fix for defect 270 - if the UI delegate is updated
             // by another selection listener, ignore this
@@ -1940,8 +1981,10 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         int rows = this.table.getRowCount();
         int cols = this.table.getColumnCount();
 
-        int rowLeadIndex = this.table.getSelectionModel().getLeadSelectionIndex();
-        int colLeadIndex = this.table.getColumnModel().getSelectionModel().getLeadSelectionIndex();
+        ListSelectionModel rowSelectionModel = this.table.getSelectionModel();
+        ListSelectionModel columnSelectionModel = this.table.getColumnModel().getSelectionModel();
+        int rowLeadIndex = rowSelectionModel.getLeadSelectionIndex();
+        int colLeadIndex = columnSelectionModel.getLeadSelectionIndex();
         boolean isFocusOwner = this.table.isFocusOwner();
 
         // fix for defect 209 - selection very slow on large tables with
@@ -1951,6 +1994,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         if (!this._hasSelectionAnimations()) {
             stateTransitionMultiTracker.clear();
             // this.prevStateMap.clear();
+            this.isSelectionSynced = false;
             table.repaint();
 
             // fix for issue 414 - track focus on tables
@@ -1961,135 +2005,203 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             return;
         }
 
-        Set<StateTransitionTracker> initiatedTrackers = new HashSet<StateTransitionTracker>();
+        boolean rowsMatter = this.table.getRowSelectionAllowed();
+        boolean columnsMatter = this.table.getColumnSelectionAllowed();
+        boolean isRowEvent = (e != null) && (e.getSource() == rowSelectionModel);
+        boolean isColumnEvent = (e != null) && (e.getSource() == columnSelectionModel);
+        if (!this.isSelectionSynced || (rowsMatter != this.selectionRowsMatter)
+                || (columnsMatter != this.selectionColumnsMatter)
+                || (!isRowEvent && !isColumnEvent)) {
+            // No usable previous state to compare against
+            this.copySelection();
+            isRowEvent = false;
+            isColumnEvent = false;
+            enforceNoAnimations = true;
+        }
 
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                TableCellId cellId = new TableCellId(i, j);
-                if (this.table.isCellSelected(i, j)) {
-                    // check if was selected before
-                    if (!this.selectedIndices.containsKey(cellId)) {
-                        // start fading in
-                        if (!enforceNoAnimations) {
-                            // System.out
-                            // .println("Getting selection/in tracker for "
-                            // + cellId);
-                            StateTransitionTracker tracker = getTracker(cellId, getCellState(cellId)
-                                    .isFacetActive(ComponentStateFacet.ROLLOVER), false);
-                            tracker.getModel().setSelected(true);
-                            // System.out
-                            // .println("Selecting previously unselected "
-                            // + i + ":" + j);
-                            initiatedTrackers.add(tracker);
-                            if (initiatedTrackers.size() > 20) {
-                                stateTransitionMultiTracker.clear();
-                                initiatedTrackers.clear();
-                                enforceNoAnimations = true;
-                            }
+        Set<StateTransitionTracker> initiatedTrackers = new HashSet<StateTransitionTracker>();
+        if (isRowEvent && rowsMatter && !enforceNoAnimations) {
+            int from = Math.max(0, e.getFirstIndex());
+            int to = Math.min(rows - 1, e.getLastIndex());
+            for (int i = from; (i <= to) && !enforceNoAnimations; i++) {
+                boolean isSelected = rowSelectionModel.isSelectedIndex(i);
+                if (isSelected == this.selectedRows.contains(i)) {
+                    continue;
+                }
+                for (int j = 0; (j < cols) && !enforceNoAnimations; j++) {
+                    if (columnsMatter && !this.selectedColumns.contains(j)) {
+                        continue;
+                    }
+                    enforceNoAnimations = this.animateSelectionChange(i, j, isSelected,
+                            initiatedTrackers);
+                }
+            }
+        }
+        if (isColumnEvent && columnsMatter && !enforceNoAnimations) {
+            int from = Math.max(0, e.getFirstIndex());
+            int to = Math.min(cols - 1, e.getLastIndex());
+            for (int j = from; (j <= to) && !enforceNoAnimations; j++) {
+                boolean isSelected = columnSelectionModel.isSelectedIndex(j);
+                if (isSelected == this.selectedColumns.contains(j)) {
+                    continue;
+                }
+                if (rowsMatter) {
+                    // only the cells in selected rows change their selection state
+                    for (int interval = 0; (interval < this.selectedRows.getIntervalCount())
+                            && !enforceNoAnimations; interval++) {
+                        int intervalEnd = Math.min(rows - 1,
+                                this.selectedRows.getIntervalEnd(interval));
+                        for (int i = this.selectedRows.getIntervalStart(interval);
+                                (i <= intervalEnd) && !enforceNoAnimations; i++) {
+                            enforceNoAnimations = this.animateSelectionChange(i, j, isSelected,
+                                    initiatedTrackers);
                         }
-
-                        this.selectedIndices.put(cellId, this.table.getValueAt(i, j));
                     }
                 } else {
-                    // check if was selected before and still points
-                    // to the same element
-                    if (this.selectedIndices.containsKey(cellId)) {
-                        // corner case when the model returns null
-                        Object oldValue = this.selectedIndices.get(cellId);
-                        if ((i >= this.table.getModel().getRowCount())
-                                || (j >= this.table.getModel().getColumnCount())) {
-                            // not only the content changed, but the model
-                            // dimensions as well
-                            continue;
-                        }
-                        Object currValue = this.table.getValueAt(i, j);
-                        boolean isSame = false;
-                        if (oldValue == null) {
-                            isSame = (currValue == null);
-                        } else {
-                            isSame = oldValue.equals(currValue);
-                        }
-                        if (isSame) {
-                            // start fading out
-                            if (!enforceNoAnimations) {
-                                // System.out
-                                // .println("Getting selection/out tracker for "
-                                // + cellId);
-                                StateTransitionTracker tracker = getTracker(cellId,
-                                        getCellState(cellId)
-                                                .isFacetActive(ComponentStateFacet.ROLLOVER),
-                                        true);
-                                tracker.getModel().setSelected(false);
-                                // System.out
-                                // .println("Unselecting previously selected "
-                                // + i + ":" + j);
-
-                                initiatedTrackers.add(tracker);
-                                if (initiatedTrackers.size() > 20) {
-                                    stateTransitionMultiTracker.clear();
-                                    initiatedTrackers.clear();
-                                    enforceNoAnimations = true;
-                                }
-                            }
-                        }
-                        this.selectedIndices.remove(cellId);
+                    for (int i = 0; (i < rows) && !enforceNoAnimations; i++) {
+                        enforceNoAnimations = this.animateSelectionChange(i, j, isSelected,
+                                initiatedTrackers);
                     }
                 }
+            }
+        }
+        if (isRowEvent) {
+            this.selectedRows.copyFrom(rowSelectionModel, e.getFirstIndex(), e.getLastIndex());
+        }
+        if (isColumnEvent) {
+            this.selectedColumns.copyFrom(columnSelectionModel, e.getFirstIndex(),
+                    e.getLastIndex());
+        }
+        if (this.selectedValues.size() > 64) {
+            this.selectedValues.keySet()
+                    .removeIf((TableCellId id) -> !isCellSelectedInSync(id.row, id.column));
+        }
+
+        // handle focus animations
+        TableCellId leadCellId = (isFocusOwner && (rowLeadIndex >= 0) && (rowLeadIndex < rows)
+                && (colLeadIndex >= 0) && (colLeadIndex < cols))
+                        ? new TableCellId(rowLeadIndex, colLeadIndex)
+                        : null;
+        if ((leadCellId != null) && !leadCellId.equals(this.focusedCellId)) {
+            if (!enforceNoAnimations) {
+                if (this.focusedCellId != null) {
+                    // fade out the previous focus holder
+                    ComponentState cellState = getCellState(this.focusedCellId);
+                    StateTransitionTracker tracker = getTracker(this.focusedCellId,
+                            cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
+                            cellState.isFacetActive(ComponentStateFacet.SELECTION));
+                    tracker.setFocusState(false);
+                }
 
-                // handle focus animations
-                boolean cellHasFocus = isFocusOwner && (i == rowLeadIndex) && (j == colLeadIndex);
-                if (cellHasFocus) {
-                    // check if it's a different cell
-                    if ((this.focusedCellId == null) || !this.focusedCellId.equals(cellId)) {
-                        if (!enforceNoAnimations) {
-                            if (this.focusedCellId != null) {
-                                // fade out the previous focus holder
-
-                                ComponentState cellState = getCellState(this.focusedCellId);
-                                // System.out.println("Getting focus/out tracker for "
-                                // + cellId);
-                                StateTransitionTracker tracker = getTracker(this.focusedCellId,
-                                        cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                                        cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                                tracker.setFocusState(false);
-                            }
-
-                            // fade in the current cell (new focus holder)
-                            ComponentState cellState = getCellState(cellId);
+                // fade in the current cell (new focus holder)
+                ComponentState cellState = getCellState(leadCellId);
+                StateTransitionTracker tracker = getTracker(leadCellId,
+                        cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
+                        cellState.isFacetActive(ComponentStateFacet.SELECTION));
+                tracker.setFocusState(true);
+            }
 
-                            // System.out.println("Getting focus/in tracker for "
-                            // + currId);
-                            StateTransitionTracker tracker = getTracker(cellId,
-                                    cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                                    cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                            tracker.setFocusState(true);
-                        }
+            if (AnimationConfigurationManager.getInstance()
+                    .isAnimationAllowed(AnimationFacet.FOCUS, this.table)) {
+                // and store it for future checks
+                this.focusedCellId = leadCellId;
+            }
+        }
+        if ((this.focusedCellId != null) && !this.focusedCellId.equals(leadCellId)
+                && (this.focusedCellId.row >= 0) && (this.focusedCellId.row < rows)
+                && (this.focusedCellId.column >= 0) && (this.focusedCellId.column < cols)) {
+            // check if previously it held focus
+            if (!enforceNoAnimations) {
+                // fade it out
+                ComponentState cellState = getCellState(this.focusedCellId);
+                StateTransitionTracker tracker = getTracker(this.focusedCellId,
+                        cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
+                        cellState.isFacetActive(ComponentStateFacet.SELECTION));
+                tracker.setFocusState(false);
+            }
 
-                        if (AnimationConfigurationManager.getInstance()
-                                .isAnimationAllowed(AnimationFacet.FOCUS, this.table)) {
-                            // and store it for future checks
-                            this.focusedCellId = new TableCellId(i, j);
-                        }
-                    }
-                } else {
-                    // check if previously it held focus
-                    if (cellId.equals(this.focusedCellId)) {
-                        if (!enforceNoAnimations) {
-                            // fade it out
-                            ComponentState cellState = getCellState(cellId);
-                            // System.out.println("Getting focus/out tracker for "
-                            // + cellId);
-                            StateTransitionTracker tracker = getTracker(cellId,
-                                    cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                                    cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                            tracker.setFocusState(false);
-                        }
+            this.focusedCellId = null;
+        }
+    }
 
-                        this.focusedCellId = null;
-                    }
+    /**
+     * Starts the selection animation on the specified cell.
+     * 
+     * @return <code>true</code> if too many animations have been started in this selection sync
+     *         and the remaining selection changes should not be animated.
+     */
+    private boolean animateSelectionChange(int row, int column, boolean isSelected,
+            Set<StateTransitionTracker> initiatedTrackers) {
+        TableCellId cellId = new TableCellId(row, column);
+        StateTransitionTracker tracker;
+        if (isSelected) {
+            // start fading in
+            tracker = getTracker(cellId,
+                    getCellState(cellId).isFacetActive(ComponentStateFacet.ROLLOVER), false);
+            tracker.getModel().setSelected(true);
+            this.selectedValues.put(cellId, this.table.getValueAt(row, column));
+        } else {
+            if ((row >= this.table.getModel().getRowCount())
+                    || (column >= this.table.getModel().getColumnCount())) {
+                // not only the content changed, but the model
+                // dimensions as well
+                return false;
+            }
+            // check if it still points to the same element
+            if (this.selectedValues.containsKey(cellId)) {
+                // corner case when the model returns null
+                Object oldValue = this.selectedValues.remove(cellId);
+                Object currValue = this.table.getValueAt(row, column);
+                boolean isSame = (oldValue == null) ? (currValue == null)
+                        : oldValue.equals(currValue);
+                if (!isSame) {
+                    return false;
                 }
             }
+            // start fading out
+            tracker = getTracker(cellId,
+                    getCellState(cellId).isFacetActive(ComponentStateFacet.ROLLOVER), true);
+            tracker.getModel().setSelected(false);
+        }
+
+        initiatedTrackers.add(tracker);
+        if (initiatedTrackers.size() > 20) {
+            stateTransitionMultiTracker.clear();
+            initiatedTrackers.clear();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies the current state of the table selection models without animating the changes.
+     */
+    private void copySelection() {
+        this.selectedRows.copyFrom(this.table.getSelectionModel());
+        this.selectedColumns.copyFrom(this.table.getColumnModel().getSelectionModel());
+        this.selectionRowsMatter = this.table.getRowSelectionAllowed();
+        this.selectionColumnsMatter = this.table.getColumnSelectionAllowed();
+        this.selectedValues.clear();
+        this.isSelectionSynced = true;
+    }
+
+    private void clearSelection() {
+        this.selectedRows.clear();
+        this.selectedColumns.clear();
+        this.selectedValues.clear();
+        this.isSelectionSynced = false;
+    }
+
+    /**
+     * Returns indication whether the specified cell was selected as of the last selection sync.
+     * This matches {@link JTable#isCellSelected(int, int)} applied to the synced state.
+     */
+    private boolean isCellSelectedInSync(int row, int column) {
+        if (!this.selectionRowsMatter && !this.selectionColumnsMatter) {
+            return false;
         }
+        return (!this.selectionRowsMatter || this.selectedRows.contains(row))
+                && (!this.selectionColumnsMatter || this.selectedColumns.contains(column));
     }
 
     /**
@@ -2114,7 +2226,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                     : this._hasSelectionAnimations();
             if (hasSelectionAnimations && AnimationConfigurationManager.getInstance()
                     .isAnimationAllowed(AnimationFacet.SELECTION, table))
-                isSelected = this.selectedIndices.containsKey(cellId);
+                isSelected = this.isCellSelectedInSync(row, column);
             else {
                 isSelected = this.table.isCellSelected(row, column);
             }
@@ -2155,8 +2267,6 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         // and deletion are very slow on large tables.
         int rowCount = this.table.getRowCount();
         int colCount = this.table.getColumnCount();
-        if (rowCount * colCount >= 500)
-            return false;
         if (this.table.getColumnSelectionAllowed() && !this.table.getRowSelectionAllowed()) {
             if (!this.table.getShowHorizontalLines() && !this.table.getShowVerticalLines())
                 return rowCount <= 10;
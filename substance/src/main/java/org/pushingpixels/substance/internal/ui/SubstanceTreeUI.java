@@ -72,11 +72,6 @@ import java.util.*;
  * @author Kirill Grouchnikov
  */
 public class SubstanceTreeUI extends BasicTreeUI {
-	/**
-	 * Holds the list of currently selected paths.
-	 */
-	private Map<TreePathId, Object> selectedPaths;
-
 	/**
 	 * Holds the currently rolled-over path or <code>null</code> if none such.
 	 */
@@ -132,7 +127,6 @@ public class SubstanceTreeUI extends BasicTreeUI {
 	 */
 	public SubstanceTreeUI() {
 		super();
-		this.selectedPaths = new HashMap<>();
 		this.stateTransitionMultiTracker = new StateTransitionMultiTracker<>();
 	}
 
@@ -161,13 +155,6 @@ public class SubstanceTreeUI extends BasicTreeUI {
 		if (SubstanceCoreUtilities.toDrawWatermark(this.tree))
 			this.tree.setOpaque(false);
 
-		if (this.tree.getSelectionPaths() != null) {
-			for (TreePath selectionPath : this.tree.getSelectionPaths()) {
-				TreePathId pathId = new TreePathId(selectionPath);
-				selectedPaths.put(pathId, selectionPath.getLastPathComponent());
-			}
-		}
-
 		ResizableIcon expandedIcon = SubstanceIconFactory.getTreeIcon(this.tree, false);
 		ResizableIcon collapsedIcon = SubstanceIconFactory.getTreeIcon(this.tree, true);
 		setExpandedIcon(new NeonIconUIResource(expandedIcon));
@@ -186,7 +173,6 @@ public class SubstanceTreeUI extends BasicTreeUI {
 
 	@Override
 	protected void uninstallDefaults() {
-		this.selectedPaths.clear();
 		for (SubstanceWidget lafWidget : this.lafWidgets) {
 			lafWidget.uninstallDefaults();
 		}
@@ -543,14 +529,12 @@ public class SubstanceTreeUI extends BasicTreeUI {
 					return 1;
 				if ((otherId.path == null) && (this.path != null))
 					return -1;
-				Object[] path1Objs = this.path.getPath();
-				Object[] path2Objs = otherId.path.getPath();
-				if (path1Objs.length != path2Objs.length)
+				if (this.path == otherId.path)
+					return 0;
+				if (this.path.getPathCount() != otherId.path.getPathCount())
 					return 1;
-				for (int i = 0; i < path1Objs.length; i++)
-					if (!path1Objs[i].equals(path2Objs[i]))
-						return 1;
-				return 0;
+				// walk the parent chain instead of copying both paths into arrays
+				return this.path.equals(otherId.path) ? 0 : 1;
 			}
 			return -1;
 		}
@@ -564,52 +548,41 @@ public class SubstanceTreeUI extends BasicTreeUI {
 		public int hashCode() {
 			if (this.path == null)
 				return 0;
-			Object[] pathObjs = this.path.getPath();
-			int result = pathObjs[0].hashCode();
-			for (int i = 1; i < pathObjs.length; i++)
-				result = result ^ pathObjs[i].hashCode();
+			int result = 0;
+			for (TreePath curr = this.path; curr != null; curr = curr.getParentPath())
+				result = result ^ curr.getLastPathComponent().hashCode();
 			return result;
 		}
 	}
 
 	/**
-	 * Selection listener for selection animation effects.
+	 * Selection listener for selection animation effects. Only the paths reported in the
+	 * selection event are processed.
 	 * 
 	 * @author Kirill Grouchnikov
 	 */
 	protected class MyTreeSelectionListener implements TreeSelectionListener {
 		@Override
 		public void valueChanged(TreeSelectionEvent e) {
-			// Map<TreePathId, Object> currSelected = (Map<TreePathId, Object>)
-			// tree
-			// .getClientProperty(SELECTED_INDICES);
-			if (tree.getSelectionPaths() != null) {
-				for (TreePath selectionPath : tree.getSelectionPaths()) {
-					TreePathId pathId = new TreePathId(selectionPath);
-
-					// check if was selected before
-					if (!selectedPaths.containsKey(pathId)) {
-						// start fading in
-						StateTransitionTracker tracker = getTracker(pathId,
-								(currRolloverPathId != null) && pathId.equals(currRolloverPathId),
-								false);
-						tracker.getModel().setSelected(true);
-						selectedPaths.put(pathId, selectionPath.getLastPathComponent());
-					}
-				}
+			TreePath[] changedPaths = e.getPaths();
+			if (changedPaths.length > 25) {
+				// too many changes to animate
+				stateTransitionMultiTracker.clear();
+				return;
 			}
-
-			for (Iterator<Map.Entry<TreePathId, Object>> it = selectedPaths.entrySet()
-					.iterator(); it.hasNext();) {
-				Map.Entry<TreePathId, Object> entry = it.next();
-				if (tree.getSelectionModel().isPathSelected(entry.getKey().path))
-					continue;
-				// fade out for deselected path
-				TreePathId pathId = entry.getKey();
-				StateTransitionTracker tracker = getTracker(pathId,
-						(currRolloverPathId != null) && pathId.equals(currRolloverPathId), true);
-				tracker.getModel().setSelected(false);
-				it.remove();
+			for (int i = 0; i < changedPaths.length; i++) {
+				TreePathId pathId = new TreePathId(changedPaths[i]);
+				boolean isRollover = (currRolloverPathId != null)
+						&& pathId.equals(currRolloverPathId);
+				if (e.isAddedPath(i)) {
+					// start fading in
+					StateTransitionTracker tracker = getTracker(pathId, isRollover, false);
+					tracker.getModel().setSelected(true);
+				} else {
+					// fade out for deselected path
+					StateTransitionTracker tracker = getTracker(pathId, isRollover, true);
+					tracker.getModel().setSelected(false);
+				}
 			}
 		}
 	}
@@ -772,7 +745,7 @@ public class SubstanceTreeUI extends BasicTreeUI {
 			this.fadeOut();
 
 			StateTransitionTracker tracker = getTracker(newPathId, false,
-					selectedPaths.containsKey(newPathId));
+					tree.isPathSelected(newPathId.path));
 			tracker.getModel().setRollover(true);
 
 			currRolloverPathId = newPathId;
@@ -786,7 +759,7 @@ public class SubstanceTreeUI extends BasicTreeUI {
 				return;
 
 			StateTransitionTracker tracker = getTracker(currRolloverPathId, true,
-					selectedPaths.containsKey(currRolloverPathId));
+					tree.isPathSelected(currRolloverPathId.path));
 			tracker.getModel().setRollover(false);
 		}
 	}
@@ -125,28 +125,25 @@ public class ButtonBackgroundDelegate {
                     SubstanceColorScheme colorScheme = SubstanceColorSchemeUtilities.ORANGE;
                     float cyclePos = modificationTimeline.getTimelinePosition();
 
-                    HashMapKey key1 = SubstanceCoreUtilities.getHashKey(width, height,
-                            colorScheme.getDisplayName(), baseBorderScheme.getDisplayName(),
-                            shaper.getDisplayName(), fillPainter.getDisplayName(),
-                            borderPainter.getDisplayName(), straightSides, openSides,
-                            button.getClass().getName(), isRoundButton, radius, isContentAreaFilled,
-                            isBorderPainted, SubstanceSizeUtils.getComponentFontSize(button));
+                    HashMapKey key1 = getBackgroundKey(button, shaper, fillPainter, borderPainter,
+                            width, height, colorScheme, baseBorderScheme, straightSides, openSides,
+                            isRoundButton, radius, isContentAreaFilled, isBorderPainted);
                     BufferedImage layer1 = regularBackgrounds.get(key1);
                     if (layer1 == null) {
+                        key1 = key1.copy();
                         layer1 = createBackgroundImage(button, shaper, fillPainter, borderPainter,
                                 width, height, colorScheme, baseBorderScheme, openSides,
                                 isContentAreaFilled, isBorderPainted);
 
                         regularBackgrounds.put(key1, layer1);
                     }
-                    HashMapKey key2 = SubstanceCoreUtilities.getHashKey(width, height,
-                            colorScheme2.getDisplayName(), baseBorderScheme.getDisplayName(),
-                            shaper.getDisplayName(), fillPainter.getDisplayName(),
-                            borderPainter.getDisplayName(), straightSides, openSides,
-                            button.getClass().getName(), isRoundButton, radius, isContentAreaFilled,
-                            isBorderPainted, SubstanceSizeUtils.getComponentFontSize(button));
+                    HashMapKey key2 = getBackgroundKey(button, shaper, fillPainter, borderPainter,
+                            width, height, colorScheme2, baseBorderScheme, straightSides,
+                            openSides, isRoundButton, radius, isContentAreaFilled,
+                            isBorderPainted);
                     BufferedImage layer2 = regularBackgrounds.get(key2);
                     if (layer2 == null) {
+                        key2 = key2.copy();
                         layer2 = createBackgroundImage(button, shaper, fillPainter, borderPainter,
                                 width, height, colorScheme2, baseBorderScheme, openSides,
                                 isContentAreaFilled, isBorderPainted);
@@ -177,15 +174,12 @@ public class ButtonBackgroundDelegate {
 
         SubstanceColorScheme baseFillScheme = SubstanceColorSchemeUtilities.getColorScheme(button,
                 currState);
-        HashMapKey keyBase = SubstanceCoreUtilities.getHashKey(width, height,
-                baseFillScheme.getDisplayName(), baseBorderScheme.getDisplayName(),
-                shaper.getDisplayName(), fillPainter.getDisplayName(),
-                borderPainter.getDisplayName(), straightSides, openSides,
-                button.getClass().getName(), isRoundButton, (int) (1000 * radius),
-                isContentAreaFilled, isBorderPainted,
-                SubstanceSizeUtils.getComponentFontSize(button));
+        HashMapKey keyBase = getBackgroundKey(button, shaper, fillPainter, borderPainter, width,
+                height, baseFillScheme, baseBorderScheme, straightSides, openSides, isRoundButton,
+                radius, isContentAreaFilled, isBorderPainted);
         BufferedImage layerBase = regularBackgrounds.get(keyBase);
         if (layerBase == null) {
+            keyBase = keyBase.copy();
             layerBase = createBackgroundImage(button, shaper, fillPainter, borderPainter, width,
                     height, baseFillScheme, baseBorderScheme, openSides, isContentAreaFilled,
                     isBorderPainted);
@@ -218,15 +212,12 @@ public class ButtonBackgroundDelegate {
                         .getColorScheme(button, activeState);
                 SubstanceColorScheme borderScheme = SubstanceColorSchemeUtilities
                         .getColorScheme(button, ColorSchemeAssociationKind.BORDER, activeState);
-                HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
-                        fillScheme.getDisplayName(), borderScheme.getDisplayName(),
-                        shaper.getDisplayName(), fillPainter.getDisplayName(),
-                        borderPainter.getDisplayName(), straightSides, openSides,
-                        button.getClass().getName(), isRoundButton, (int) (1000 * radius),
-                        isContentAreaFilled, isBorderPainted,
-                        SubstanceSizeUtils.getComponentFontSize(button));
+                HashMapKey key = getBackgroundKey(button, shaper, fillPainter, borderPainter,
+                        width, height, fillScheme, borderScheme, straightSides, openSides,
+                        isRoundButton, radius, isContentAreaFilled, isBorderPainted);
                 BufferedImage layer = regularBackgrounds.get(key);
                 if (layer == null) {
+                    key = key.copy();
                     layer = createBackgroundImage(button, shaper, fillPainter, borderPainter, width,
                             height, fillScheme, borderScheme, openSides, isContentAreaFilled,
                             isBorderPainted);
@@ -239,13 +230,29 @@ public class ButtonBackgroundDelegate {
         return result;
     }
 
+    /**
+     * Returns the lookup key for a cached background layer. The returned key is the reusable
+     * lookup key of the current thread, see {@link HashMapKey#lookup()}.
+     */
+    private static HashMapKey getBackgroundKey(AbstractButton button,
+            SubstanceButtonShaper shaper, SubstanceFillPainter fillPainter,
+            SubstanceBorderPainter borderPainter, int width, int height,
+            SubstanceColorScheme fillScheme, SubstanceColorScheme borderScheme,
+            Set<Side> straightSides, Set<Side> openSides, boolean isRoundButton, float radius,
+            boolean isContentAreaFilled, boolean isBorderPainted) {
+        return HashMapKey.lookup().with(width).with(height).with(fillScheme).with(borderScheme)
+                .with(shaper).with(fillPainter).with(borderPainter).with(straightSides)
+                .with(openSides).with(button.getClass()).with(isRoundButton).with(radius)
+                .with(isContentAreaFilled).with(isBorderPainted)
+                .with(SubstanceSizeUtils.getComponentFontSize(button));
+    }
+
     private static BufferedImage createBackgroundImage(AbstractButton button,
             SubstanceButtonShaper shaper, SubstanceFillPainter fillPainter,
             SubstanceBorderPainter borderPainter, int width, int height,
             SubstanceColorScheme colorScheme, SubstanceColorScheme borderScheme,
             Set<Side> openSides, boolean isContentAreaFilled, boolean isBorderPainted) {
-        int openDelta = (int) (Math.ceil(3.0 * SubstanceSizeUtils.getBorderStrokeWidth()));
-        openDelta *= NeonCortex.getScaleFactor();
+        int openDelta = getOpenDelta();
         int deltaLeft = ((openSides != null) && openSides.contains(Side.LEFT)) ? openDelta : 0;
         int deltaRight = ((openSides != null) && openSides.contains(Side.RIGHT)) ? openDelta : 0;
         int deltaTop = ((openSides != null) && openSides.contains(Side.TOP)) ? openDelta : 0;
@@ -277,6 +284,41 @@ public class ButtonBackgroundDelegate {
         return newBackground;
     }
 
+    /**
+     * Returns the cap width for composing the background of the specified button from a
+     * rendition cached for the height alone.
+     *
+     * @param button        Button.
+     * @param shaper        Button shaper.
+     * @param fillPainter   Button fill painter.
+     * @param borderPainter Button border painter.
+     * @param width         Button width.
+     * @param height        Button height.
+     * @return Cap width, or -1 if the background cannot be composed.
+     */
+    private static int getCapWidth(AbstractButton button, SubstanceButtonShaper shaper,
+            SubstanceFillPainter fillPainter, SubstanceBorderPainter borderPainter, int width,
+            int height) {
+        if (!StretchableImageUtilities.isStretchable(shaper)
+                || !StretchableImageUtilities.isStretchable(fillPainter)
+                || !StretchableImageUtilities.isStretchable(borderPainter)) {
+            return -1;
+        }
+        float cornerRadius = ((RectangularButtonShaper) shaper).getCornerRadius(button, 0.0f);
+        int capWidth = StretchableImageUtilities.getCapWidth(height, cornerRadius,
+                getOpenDelta());
+        return StretchableImageUtilities.canStretch(width, capWidth) ? capWidth : -1;
+    }
+
+    /**
+     * Returns the extra width painted outside the button on each open side.
+     */
+    private static int getOpenDelta() {
+        int openDelta = (int) (Math.ceil(3.0 * SubstanceSizeUtils.getBorderStrokeWidth()));
+        openDelta *= NeonCortex.getScaleFactor();
+        return openDelta;
+    }
+
     /**
      * Simple constructor.
      */
@@ -312,8 +354,12 @@ public class ButtonBackgroundDelegate {
         SubstanceButtonShaper shaper = SubstanceCoreUtilities.getButtonShaper(button);
         SubstanceBorderPainter borderPainter = SubstanceCoreUtilities.getBorderPainter(button);
 
-        BufferedImage bgImage = getFullAlphaBackground(button, shaper,
-                fillPainter, borderPainter, width, height);
+        // wide backgrounds are composed from a rendition cached for the height alone,
+        // with all the transition layers blended at the rendition width
+        int capWidth = getCapWidth(button, shaper, fillPainter, borderPainter, width, height);
+        BufferedImage bgImage = getFullAlphaBackground(button, shaper, fillPainter, borderPainter,
+                (capWidth > 0) ? StretchableImageUtilities.getSliceWidth(capWidth) : width,
+                height);
 
         TransitionAwareUI transitionAwareUI = (TransitionAwareUI) button.getUI();
         StateTransitionTracker stateTransitionTracker = transitionAwareUI.getTransitionTracker();
@@ -352,7 +398,12 @@ public class ButtonBackgroundDelegate {
         if (extraAlpha > 0.0f) {
             Graphics2D graphics = (Graphics2D) g.create();
             graphics.setComposite(WidgetUtilities.getAlphaComposite(button, extraAlpha, g));
-            NeonCortex.drawImage(graphics, bgImage, 0, y);
+            if (capWidth > 0) {
+                StretchableImageUtilities.drawHorizontally(graphics, bgImage, capWidth, 0, y,
+                        width);
+            } else {
+                NeonCortex.drawImage(graphics, bgImage, 0, y);
+            }
             graphics.dispose();
         }
     }
@@ -29,18 +29,71 @@
  */
 package org.pushingpixels.substance.internal.utils;
 
+import org.pushingpixels.substance.api.SubstanceSlices.Side;
+
 import java.util.Arrays;
+import java.util.Set;
 
 /**
- * Implementation of a key for the {@link LazyResettableHashMap}.
+ * Implementation of a key for the {@link LazyResettableHashMap}. There are two kinds of keys:
+ * 
+ * <ul>
+ * <li>Keys created with {@link #HashMapKey(Object...)} compare their fields with
+ * {@link Object#equals(Object)}.</li>
+ * <li>Keys obtained from {@link #lookup()} are typed builders. Primitive fields are stored
+ * without boxing, and object fields (such as color schemes and painters) are compared by
+ * identity. The instance returned by {@link #lookup()} is reused by all the lookups on the
+ * current thread, so that a cache hit does not allocate anything. It must not be retained, and
+ * must be converted with {@link #copy()} before calling any code that may use another lookup
+ * key (such as rendering the image on a cache miss).</li>
+ * </ul>
+ * 
+ * In both cases the hash code is computed once as the fields are added.
  * 
  * @author Kirill Grouchnikov
  */
-public class HashMapKey {
+public final class HashMapKey {
+	/**
+	 * Marker for slots in {@link #refs} that hold primitive fields.
+	 */
+	private static final Object PRIMITIVE = new Object();
+
 	/**
-	 * Fields that represent this key object.
+	 * Reusable lookup keys, one per thread.
 	 */
-	private Object[] keyFields;
+	private static final ThreadLocal<HashMapKey> lookupKeys = ThreadLocal.withInitial(
+			() -> new HashMapKey(true, true, new Object[16], new long[16], 0, 1));
+
+	/**
+	 * Fields that represent this key object. For typed keys, slots that hold primitive fields
+	 * contain {@link #PRIMITIVE}.
+	 */
+	private Object[] refs;
+
+	/**
+	 * Values of primitive fields of typed keys.
+	 */
+	private long[] primitives;
+
+	/**
+	 * Number of used slots.
+	 */
+	private int count;
+
+	/**
+	 * Precomputed hash code.
+	 */
+	private int hash;
+
+	/**
+	 * Indicates whether this is a typed key that compares its object fields by identity.
+	 */
+	private final boolean isTyped;
+
+	/**
+	 * Indicates whether this is the reusable lookup key of a thread.
+	 */
+	private final boolean isReusable;
 
 	/**
 	 * Creates a new key object.
@@ -49,20 +102,163 @@ public class HashMapKey {
 	 *            Fields of the key object.
 	 */
 	public HashMapKey(Object... fields) {
-		this.keyFields = fields;
+		this.isTyped = false;
+		this.isReusable = false;
+		this.refs = fields;
+		this.count = fields.length;
+		this.hash = Arrays.deepHashCode(fields);
+	}
+
+	private HashMapKey(boolean isTyped, boolean isReusable, Object[] refs, long[] primitives,
+			int count, int hash) {
+		this.isTyped = isTyped;
+		this.isReusable = isReusable;
+		this.refs = refs;
+		this.primitives = primitives;
+		this.count = count;
+		this.hash = hash;
+	}
+
+	/**
+	 * Returns the cleared lookup key of the current thread.
+	 * 
+	 * @return The cleared lookup key of the current thread.
+	 */
+	public static HashMapKey lookup() {
+		HashMapKey result = lookupKeys.get();
+		Arrays.fill(result.refs, 0, result.count, null);
+		result.count = 0;
+		result.hash = 1;
+		return result;
+	}
+
+	/**
+	 * Returns a key with the same fields that is safe to retain and to store in a map. Keys
+	 * created with {@link #HashMapKey(Object...)} and keys that have already been copied are
+	 * returned as is.
+	 * 
+	 * @return A key with the same fields that is safe to retain.
+	 */
+	public HashMapKey copy() {
+		if (!this.isReusable) {
+			return this;
+		}
+		return new HashMapKey(true, false, Arrays.copyOf(this.refs, this.count),
+				Arrays.copyOf(this.primitives, this.count), this.count, this.hash);
+	}
+
+	private void ensureCapacity() {
+		if (this.count == this.refs.length) {
+			this.refs = Arrays.copyOf(this.refs, 2 * this.count);
+			this.primitives = Arrays.copyOf(this.primitives, 2 * this.count);
+		}
+	}
+
+	private HashMapKey withPrimitive(long value) {
+		this.ensureCapacity();
+		this.refs[this.count] = PRIMITIVE;
+		this.primitives[this.count] = value;
+		this.count++;
+		this.hash = 31 * this.hash + Long.hashCode(value);
+		return this;
+	}
+
+	/**
+	 * Adds an <code>int</code> field to this typed key.
+	 * 
+	 * @param value
+	 *            Field value.
+	 * @return This key.
+	 */
+	public HashMapKey with(int value) {
+		return this.withPrimitive(value);
+	}
+
+	/**
+	 * Adds a <code>float</code> field to this typed key.
+	 * 
+	 * @param value
+	 *            Field value.
+	 * @return This key.
+	 */
+	public HashMapKey with(float value) {
+		return this.withPrimitive(Float.floatToIntBits(value));
+	}
+
+	/**
+	 * Adds a <code>boolean</code> field to this typed key.
+	 * 
+	 * @param value
+	 *            Field value.
+	 * @return This key.
+	 */
+	public HashMapKey with(boolean value) {
+		return this.withPrimitive(value ? 1 : 0);
+	}
+
+	/**
+	 * Adds an object field to this typed key. The field is compared by identity, and as such
+	 * should be a long-lived object such as a color scheme, a painter or a class.
+	 * 
+	 * @param value
+	 *            Field value. Can be <code>null</code>.
+	 * @return This key.
+	 */
+	public HashMapKey with(Object value) {
+		this.ensureCapacity();
+		this.refs[this.count] = value;
+		this.primitives[this.count] = 0;
+		this.count++;
+		this.hash = 31 * this.hash + System.identityHashCode(value);
+		return this;
+	}
+
+	/**
+	 * Adds a set of sides to this typed key.
+	 * 
+	 * @param sides
+	 *            Sides. Can be <code>null</code>.
+	 * @return This key.
+	 */
+	public HashMapKey with(Set<Side> sides) {
+		int mask = 0;
+		if (sides != null) {
+			// Query the sides one by one to avoid allocating an iterator
+			mask |= sides.contains(Side.LEFT) ? 0x1 : 0;
+			mask |= sides.contains(Side.RIGHT) ? 0x2 : 0;
+			mask |= sides.contains(Side.TOP) ? 0x4 : 0;
+			mask |= sides.contains(Side.BOTTOM) ? 0x8 : 0;
+			mask |= 0x10;
+		}
+		return this.withPrimitive(mask);
 	}
 
 	@Override
 	public int hashCode() {
-		return Arrays.deepHashCode(this.keyFields);
+		return this.hash;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
 		if (!(obj instanceof HashMapKey)) {
 			return false;
 		}
 		HashMapKey key2 = (HashMapKey) obj;
-		return Arrays.equals(this.keyFields, key2.keyFields);
+		if ((this.hash != key2.hash) || (this.isTyped != key2.isTyped)
+				|| (this.count != key2.count)) {
+			return false;
+		}
+		if (!this.isTyped) {
+			return Arrays.equals(this.refs, key2.refs);
+		}
+		for (int i = 0; i < this.count; i++) {
+			if ((this.refs[i] != key2.refs[i]) || (this.primitives[i] != key2.primitives[i])) {
+				return false;
+			}
+		}
+		return true;
 	}
 }
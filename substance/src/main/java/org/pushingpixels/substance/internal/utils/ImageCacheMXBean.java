@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.pushingpixels.substance.api.SubstanceSlices.ImageCacheStats;
+
+import java.util.List;
+
+/**
+ * JMX management interface of the internal image caches. This class is <b>for internal use
+ * only</b>.
+ * 
+ * @author Kirill Grouchnikov
+ */
+public interface ImageCacheMXBean {
+	/**
+	 * Returns the usage statistics of all the internal image caches.
+	 * 
+	 * @return The usage statistics of all the internal image caches.
+	 */
+	List<ImageCacheStats> getImageCaches();
+
+	/**
+	 * Returns the combined pixel size of all the cached images.
+	 * 
+	 * @return The combined pixel size (in bytes) of all the cached images.
+	 */
+	long getResidentBytes();
+
+	/**
+	 * Returns the byte budget shared by all the internal image caches.
+	 * 
+	 * @return The byte budget shared by all the internal image caches.
+	 */
+	long getBudget();
+
+	/**
+	 * Sets the byte budget shared by all the internal image caches.
+	 * 
+	 * @param budget
+	 *            New byte budget. Must be positive.
+	 */
+	void setBudget(long budget);
+}
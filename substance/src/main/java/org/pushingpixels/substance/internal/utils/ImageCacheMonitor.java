@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.pushingpixels.substance.api.SubstanceSlices.ImageCacheStats;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Exports the usage statistics of the internal image caches as a JMX MBean. This class is
+ * <b>for internal use only</b>.
+ * 
+ * @author Kirill Grouchnikov
+ */
+public class ImageCacheMonitor implements ImageCacheMXBean {
+	/**
+	 * Name of the registered MBean.
+	 */
+	public static final String OBJECT_NAME = "org.pushingpixels.substance:type=ImageCaches";
+
+	/**
+	 * Registers the MBean with the platform MBean server if it has not been registered yet.
+	 */
+	public static synchronized void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new ImageCacheMonitor(), name);
+			}
+		} catch (Exception exc) {
+			// no access to the platform MBean server (such as running in unsecure JNLP) -
+			// ignore
+		}
+	}
+
+	@Override
+	public List<ImageCacheStats> getImageCaches() {
+		return LazyResettableHashMap.getCacheStats();
+	}
+
+	@Override
+	public long getResidentBytes() {
+		return LazyResettableHashMap.getTotalWeight();
+	}
+
+	@Override
+	public long getBudget() {
+		return LazyResettableHashMap.getBudget();
+	}
+
+	@Override
+	public void setBudget(long budget) {
+		LazyResettableHashMap.setBudget(budget);
+	}
+}
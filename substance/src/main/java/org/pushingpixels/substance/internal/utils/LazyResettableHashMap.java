@@ -29,28 +29,150 @@
  */
 package org.pushingpixels.substance.internal.utils;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import org.pushingpixels.neon.NeonCortex;
+import org.pushingpixels.substance.api.SubstanceSlices.ImageCacheStats;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Lazily initialized hash map for caching images. 
+ * Lazily initialized hash map for caching images. All the existing maps share a single byte
+ * budget. Every cached value is charged its pixel size (see {@link #getWeight(Object)}), and once
+ * the combined size of all the cached values exceeds the budget, the least recently used entries
+ * are evicted across all the maps until the combined size fits in the budget again.
+ * 
+ * <p>
+ * Lookups do not take any lock. Instead of reordering the shared access list on every lookup,
+ * the hits are recorded in a small lossy buffer that is drained in batches - when it fills up
+ * (if the lock is not contended at that moment) and before every insertion.
+ * </p>
+ * 
+ * <p>
+ * Every map declares the {@link Dependency} kinds that its values depend on, so that a change to
+ * one of them drops only the affected maps with {@link #invalidate(Dependency)}. Maps that depend
+ * on {@link Dependency#SCALE} keep a separate partition for every scale factor, so that values
+ * rendered at one scale factor are never returned at another. Such values are dropped along
+ * with the rest of the map by {@link #invalidate(Dependency)}.
+ * </p>
+ * 
+ * <p>
+ * Values can be rendered ahead of a change to the global state with
+ * {@link #runTagged(Object, Runnable)}. Such values are tagged, and
+ * {@link #invalidate(Dependency, Object)} keeps the values with the matching tag when the change
+ * is applied.
+ * </p>
  * 
  * @author Kirill Grouchnikov
  * @param <T>
  *            Class for the stored values.
  */
 public class LazyResettableHashMap<T> {
+	/**
+	 * Global state that cached values may depend on.
+	 */
+	public enum Dependency {
+		/**
+		 * The current skin, including its color schemes, painters and shapers.
+		 */
+		SKIN,
+
+		/**
+		 * The current icon pack.
+		 */
+		ICON_PACK,
+
+		/**
+		 * The current scale factor. Maps with this dependency are partitioned by the scale
+		 * factor.
+		 */
+		SCALE
+	}
+
+	/**
+	 * Default byte budget shared by all the maps.
+	 */
+	public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+	/**
+	 * Weight charged for values that are not images or icons.
+	 */
+	private static final int MIN_WEIGHT = 64;
+
+	/**
+	 * Size of the buffer of recorded lookup hits.
+	 */
+	private static final int READ_BUFFER_SIZE = 128;
+
+	/**
+	 * Tag of the values put by the current thread, or <code>null</code> for untagged values.
+	 */
+	private static final ThreadLocal<Object> currentTag = new ThreadLocal<>();
+
+	/**
+	 * The last lookup miss on the current thread that has not been followed by a put yet.
+	 * Shared by all the maps.
+	 */
+	private static final ThreadLocal<LastMiss> lastMiss = ThreadLocal.withInitial(LastMiss::new);
+
+	/**
+	 * Lock that guards all the modifications of the maps and the shared access order.
+	 */
+	private static final ReentrantLock LOCK = new ReentrantLock();
+
+	/**
+	 * Lookup hits that have not yet been applied to the shared access order.
+	 */
+	private static final AtomicReferenceArray<Entry<?>> readBuffer = new AtomicReferenceArray<>(
+			READ_BUFFER_SIZE);
+
+	/**
+	 * Index of the next free slot in {@link #readBuffer}.
+	 */
+	private static final AtomicInteger readBufferIndex = new AtomicInteger();
+
 	/**
 	 * List of all existing maps.
 	 */
 	private static List<LazyResettableHashMap<?>> all;
 
 	/**
-	 * The delegate cache.
+	 * Sentinel of the circular access-ordered list of entries across all the maps. The entry
+	 * right after the sentinel is the least recently used one.
 	 */
-	private Map<HashMapKey, T> cache;
+	private static final Entry<Object> lru = new Entry<>(null, null, null, null, 0, null);
+
+	/**
+	 * The byte budget shared by all the maps.
+	 */
+	private static long budget = DEFAULT_BUDGET;
+
+	/**
+	 * The combined weight of all the cached values.
+	 */
+	private static long totalWeight;
+
+	/**
+	 * The delegate caches, one for every scale factor that has been used with this map. Maps
+	 * that do not depend on the scale factor have at most one partition.
+	 */
+	private volatile Partition<T>[] partitions;
+
+	/**
+	 * Global state that the values of this map depend on.
+	 */
+	private final Set<Dependency> dependencies;
+
+	/**
+	 * The combined weight of the values cached in this map.
+	 */
+	private long weight;
 
 	/**
 	 * Display name of this hash map. Is used for tracking the statistics.
@@ -58,38 +180,233 @@ public class LazyResettableHashMap<T> {
 	private String displayName;
 
 	/**
-	 * Creates a new hash map.
+	 * Number of lookups that found a value.
+	 */
+	private final LongAdder hitCount = new LongAdder();
+
+	/**
+	 * Number of lookups that did not find a value.
+	 */
+	private final LongAdder missCount = new LongAdder();
+
+	/**
+	 * Number of values put in this map.
+	 */
+	private long putCount;
+
+	/**
+	 * Number of values evicted from this map.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Number of puts that directly followed a lookup miss in this map on the same thread, and
+	 * the combined time between those misses and puts.
+	 */
+	private long missRenderCount;
+	private long missRenderNanos;
+
+	/**
+	 * Lookup miss on a single thread.
+	 */
+	private static final class LastMiss {
+		/**
+		 * The map of the miss, or <code>null</code> if there was a put since then.
+		 */
+		private LazyResettableHashMap<?> map;
+
+		/**
+		 * Time of the miss.
+		 */
+		private long nanos;
+	}
+
+	/**
+	 * Delegate cache for a single scale factor.
+	 * 
+	 * @param <T>
+	 *            Class for the stored values.
+	 */
+	private static class Partition<T> {
+		private final double scaleFactor;
+		private final Map<HashMapKey, Entry<T>> cache = new ConcurrentHashMap<>();
+
+		private Partition(double scaleFactor) {
+			this.scaleFactor = scaleFactor;
+		}
+	}
+
+	/**
+	 * Single cached value. Entries of all the maps are linked in a single access-ordered list.
+	 * 
+	 * @param <T>
+	 *            Class for the stored value.
+	 */
+	private static class Entry<T> {
+		private final LazyResettableHashMap<T> owner;
+		private final Map<HashMapKey, Entry<T>> cache;
+		private final HashMapKey key;
+		private final T value;
+		private final int weight;
+		private final Object tag;
+
+		private Entry<?> prev;
+		private Entry<?> next;
+		private boolean isEvicted;
+
+		private Entry(LazyResettableHashMap<T> owner, Map<HashMapKey, Entry<T>> cache,
+				HashMapKey key, T value, int weight, Object tag) {
+			this.owner = owner;
+			this.cache = cache;
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.tag = tag;
+			this.prev = this;
+			this.next = this;
+		}
+
+		private void unlink() {
+			this.prev.next = this.next;
+			this.next.prev = this.prev;
+			this.prev = this;
+			this.next = this;
+		}
+
+		private void linkLast() {
+			this.prev = lru.prev;
+			this.next = lru;
+			lru.prev.next = this;
+			lru.prev = this;
+		}
+	}
+
+	/**
+	 * Creates a new hash map whose values depend on the current skin and scale factor.
 	 * 
 	 * @param displayName
 	 *            Display name of the new hash map.
 	 */
 	public LazyResettableHashMap(String displayName) {
+		this(displayName, Dependency.SKIN, Dependency.SCALE);
+	}
+
+	/**
+	 * Creates a new hash map.
+	 * 
+	 * @param displayName
+	 *            Display name of the new hash map.
+	 * @param dependencies
+	 *            Global state that the values of the new hash map depend on.
+	 */
+	public LazyResettableHashMap(String displayName, Dependency... dependencies) {
 		this.displayName = displayName;
-		if (all == null) {
-			all = new LinkedList<>();
+		this.dependencies = EnumSet.noneOf(Dependency.class);
+		this.dependencies.addAll(Arrays.asList(dependencies));
+		this.partitions = newPartitions(0);
+		LOCK.lock();
+		try {
+			if (all == null) {
+				all = new LinkedList<>();
+			}
+			all.add(this);
+		} finally {
+			LOCK.unlock();
 		}
-		all.add(this);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Partition<T>[] newPartitions(int size) {
+		return (Partition<T>[]) new Partition<?>[size];
 	}
 
 	/**
-	 * Creates the delegate cache if necessary.
+	 * Returns the scale factor that selects the partition for the values of this map.
+	 * 
+	 * @return The current scale factor if this map depends on it, <code>0</code> otherwise.
 	 */
-	private void createIfNecessary() {
-		if (this.cache == null)
-			this.cache = new SoftHashMap<>();
+	private double getPartitionScaleFactor() {
+		return this.dependencies.contains(Dependency.SCALE) ? NeonCortex.getScaleFactor() : 0.0;
 	}
 
 	/**
-	 * Puts a new key-value pair in the map.
+	 * Returns the delegate cache for the specified scale factor.
+	 * 
+	 * @param scaleFactor
+	 *            Scale factor.
+	 * @return The delegate cache for the specified scale factor, or <code>null</code> if it
+	 *         hasn't been created yet.
+	 */
+	private Map<HashMapKey, Entry<T>> getCache(double scaleFactor) {
+		Partition<T>[] partitions = this.partitions;
+		for (int i = 0; i < partitions.length; i++) {
+			if (partitions[i].scaleFactor == scaleFactor) {
+				return partitions[i].cache;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the delegate cache for the specified scale factor if necessary. Must be called
+	 * with the lock held.
+	 * 
+	 * @param scaleFactor
+	 *            Scale factor.
+	 * @return The delegate cache for the specified scale factor.
+	 */
+	private Map<HashMapKey, Entry<T>> createIfNecessary(double scaleFactor) {
+		Map<HashMapKey, Entry<T>> cache = this.getCache(scaleFactor);
+		if (cache == null) {
+			Partition<T> partition = new Partition<>(scaleFactor);
+			Partition<T>[] newPartitions = Arrays.copyOf(this.partitions,
+					this.partitions.length + 1);
+			newPartitions[this.partitions.length] = partition;
+			this.partitions = newPartitions;
+			cache = partition.cache;
+		}
+		return cache;
+	}
+
+	/**
+	 * Puts a new key-value pair in the map. This may evict the least recently used entries of
+	 * this and other maps to keep the combined size of all the maps within the budget. A reusable
+	 * lookup key is copied before it is stored.
 	 * 
 	 * @param key
 	 *            Pair key.
 	 * @param entry
 	 *            Pair value.
 	 */
-	public synchronized void put(HashMapKey key, T entry) {
-		this.createIfNecessary();
-		this.cache.put(key, entry);
+	public void put(HashMapKey key, T entry) {
+		key = key.copy();
+		double scaleFactor = this.getPartitionScaleFactor();
+		int entryWeight = getWeight(entry);
+		LastMiss miss = lastMiss.get();
+		long renderNanos = (miss.map == this) ? System.nanoTime() - miss.nanos : -1;
+		miss.map = null;
+		LOCK.lock();
+		try {
+			drainReadBuffer();
+			this.putCount++;
+			if (renderNanos >= 0) {
+				this.missRenderCount++;
+				this.missRenderNanos += renderNanos;
+			}
+			Map<HashMapKey, Entry<T>> cache = this.createIfNecessary(scaleFactor);
+			Entry<T> newEntry = new Entry<>(this, cache, key, entry, entryWeight,
+					currentTag.get());
+			Entry<T> oldEntry = cache.put(key, newEntry);
+			if (oldEntry != null) {
+				this.unaccount(oldEntry);
+			}
+			newEntry.linkLast();
+			this.weight += entryWeight;
+			totalWeight += entryWeight;
+			evictIfNecessary();
+		} finally {
+			LOCK.unlock();
+		}
 	}
 
 	/**
@@ -99,10 +416,19 @@ public class LazyResettableHashMap<T> {
 	 *            Key.
 	 * @return Registered value or <code>null</code> if none.
 	 */
-	public synchronized T get(HashMapKey key) {
-		if (this.cache == null)
+	public T get(HashMapKey key) {
+		Map<HashMapKey, Entry<T>> cache = this.getCache(this.getPartitionScaleFactor());
+		Entry<T> entry = (cache == null) ? null : cache.get(key);
+		if (entry == null) {
+			this.missCount.increment();
+			LastMiss miss = lastMiss.get();
+			miss.map = this;
+			miss.nanos = System.nanoTime();
 			return null;
-		return this.cache.get(key);
+		}
+		this.hitCount.increment();
+		recordHit(entry);
+		return entry.value;
 	}
 
 	/**
@@ -114,34 +440,337 @@ public class LazyResettableHashMap<T> {
 	 *         <code>false</code> otherwise.
 	 */
 	public boolean containsKey(HashMapKey key) {
-		if (this.cache == null) {
+		Map<HashMapKey, Entry<T>> cache = this.getCache(this.getPartitionScaleFactor());
+		if (cache == null) {
 			return false;
 		}
-		return this.cache.containsKey(key);
+		return cache.containsKey(key);
 	}
 
 	/**
-	 * Returns the number of key-value pairs of this hash map.
+	 * Returns the number of key-value pairs of this hash map across all scale factors.
 	 * 
 	 * @return The number of key-value pairs of this hash map.
 	 */
 	public int size() {
-		if (this.cache == null) {
-            return 0;
-        }
-		return this.cache.size();
+		Partition<T>[] partitions = this.partitions;
+		int result = 0;
+		for (int i = 0; i < partitions.length; i++) {
+			result += partitions[i].cache.size();
+		}
+		return result;
+	}
+
+	/**
+	 * Drops all the values of the specified partition. Must be called with the lock held.
+	 * 
+	 * @param partition
+	 *            Partition.
+	 */
+	private void clear(Partition<T> partition) {
+		for (Entry<T> entry : partition.cache.values()) {
+			this.unaccount(entry);
+		}
+		partition.cache.clear();
+	}
+
+	/**
+	 * Removes the accounting of the specified entry that is no longer in the delegate cache.
+	 * 
+	 * @param entry
+	 *            Entry that has been removed from the delegate cache.
+	 */
+	private void unaccount(Entry<T> entry) {
+		entry.isEvicted = true;
+		entry.unlink();
+		this.weight -= entry.weight;
+		totalWeight -= entry.weight;
+	}
+
+	/**
+	 * Records a lookup hit on the specified entry. The hit is dropped if the buffer is full
+	 * and another thread is currently holding the lock.
+	 * 
+	 * @param entry
+	 *            Entry that has been found by a lookup.
+	 */
+	private static void recordHit(Entry<?> entry) {
+		int index = readBufferIndex.getAndIncrement();
+		if (index < READ_BUFFER_SIZE) {
+			readBuffer.lazySet(index, entry);
+			return;
+		}
+		if (LOCK.tryLock()) {
+			try {
+				drainReadBuffer();
+			} finally {
+				LOCK.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Applies all the recorded lookup hits to the shared access order. Must be called with the
+	 * lock held.
+	 */
+	private static void drainReadBuffer() {
+		// Only the slots up to the current index can have been filled since the last drain
+		int filled = Math.min(readBufferIndex.get(), READ_BUFFER_SIZE);
+		for (int i = 0; i < filled; i++) {
+			Entry<?> entry = readBuffer.getAndSet(i, null);
+			if ((entry != null) && !entry.isEvicted) {
+				entry.unlink();
+				entry.linkLast();
+			}
+		}
+		readBufferIndex.set(0);
+	}
+
+	/**
+	 * Evicts the least recently used entries until the combined weight fits in the budget.
+	 */
+	private static void evictIfNecessary() {
+		// Always keep the most recently used entry, even if it doesn't fit in the
+		// budget on its own
+		while ((totalWeight > budget) && (lru.next != lru.prev)) {
+			evict(lru.next);
+		}
+	}
+
+	private static <T> void evict(Entry<T> entry) {
+		entry.owner.evictionCount++;
+		entry.cache.remove(entry.key, entry);
+		entry.owner.unaccount(entry);
+	}
+
+	/**
+	 * Returns the weight charged for the specified value. Images are charged the size of their
+	 * pixel data, icons are charged the size of their ARGB pixels at the current scale factor.
+	 * 
+	 * @param value
+	 *            Value.
+	 * @return The weight (in bytes) charged for the specified value.
+	 */
+	private static int getWeight(Object value) {
+		long result = 0;
+		if (value instanceof BufferedImage) {
+			DataBuffer dataBuffer = ((BufferedImage) value).getRaster().getDataBuffer();
+			result = (long) dataBuffer.getSize() * dataBuffer.getNumBanks()
+					* DataBuffer.getDataTypeSize(dataBuffer.getDataType()) / 8;
+		} else if (value instanceof Icon) {
+			Icon icon = (Icon) value;
+			double scaleFactor = NeonCortex.getScaleFactor();
+			result = (long) (4 * icon.getIconWidth() * icon.getIconHeight() * scaleFactor
+					* scaleFactor);
+		}
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_WEIGHT, result));
+	}
+
+	/**
+	 * Sets the byte budget shared by all the maps. If the values that are currently cached
+	 * exceed the new budget, the least recently used entries are evicted immediately.
+	 * 
+	 * @param newBudget
+	 *            New byte budget. Must be positive.
+	 */
+	public static void setBudget(long newBudget) {
+		if (newBudget <= 0) {
+			throw new IllegalArgumentException("Cache budget must be positive");
+		}
+		LOCK.lock();
+		try {
+			budget = newBudget;
+			evictIfNecessary();
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Returns the byte budget shared by all the maps.
+	 * 
+	 * @return The byte budget shared by all the maps.
+	 */
+	public static long getBudget() {
+		LOCK.lock();
+		try {
+			return budget;
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Drops all the values of the existing hash maps that depend on the specified global state.
+	 * 
+	 * @param dependency
+	 *            Global state that has changed.
+	 */
+	public static void invalidate(Dependency dependency) {
+		invalidate(dependency, null);
+	}
+
+	/**
+	 * Drops the values of the existing hash maps that depend on the specified global state,
+	 * except the values that have been put with the specified tag.
+	 * 
+	 * @param dependency
+	 *            Global state that has changed.
+	 * @param keptTag
+	 *            Tag of the values to keep. If <code>null</code>, all the values of the affected
+	 *            maps are dropped.
+	 * @see #runTagged(Object, Runnable)
+	 */
+	public static void invalidate(Dependency dependency, Object keptTag) {
+		LOCK.lock();
+		try {
+			drainReadBuffer();
+			if (all != null) {
+				for (LazyResettableHashMap<?> map : all) {
+					if (map.dependencies.contains(dependency)) {
+						if (keptTag == null) {
+							map.clear();
+						} else {
+							map.clearUntagged(keptTag);
+						}
+					}
+				}
+			}
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Runs the specified code, tagging all the values that it puts on the current thread with
+	 * the specified tag.
+	 * 
+	 * @param tag
+	 *            Tag of the values. Must not be <code>null</code>.
+	 * @param runnable
+	 *            Code to run.
+	 * @see #invalidate(Dependency, Object)
+	 */
+	public static void runTagged(Object tag, Runnable runnable) {
+		if (tag == null) {
+			throw new IllegalArgumentException("Tag must not be null");
+		}
+		Object previousTag = currentTag.get();
+		currentTag.set(tag);
+		try {
+			runnable.run();
+		} finally {
+			currentTag.set(previousTag);
+		}
+	}
+
+	/**
+	 * Drops all the values of this map. Must be called with the lock held.
+	 */
+	private void clear() {
+		for (Partition<T> partition : this.partitions) {
+			this.clear(partition);
+		}
+		this.partitions = newPartitions(0);
+	}
+
+	/**
+	 * Drops all the values of this map that have not been put with the specified tag. Must be
+	 * called with the lock held.
+	 * 
+	 * @param keptTag
+	 *            Tag of the values to keep.
+	 */
+	private void clearUntagged(Object keptTag) {
+		for (Partition<T> partition : this.partitions) {
+			Iterator<Entry<T>> entries = partition.cache.values().iterator();
+			while (entries.hasNext()) {
+				Entry<T> entry = entries.next();
+				if (entry.tag != keptTag) {
+					entries.remove();
+					this.unaccount(entry);
+				}
+			}
+		}
 	}
 
 	/**
 	 * Resets all existing hash maps.
 	 */
 	public static void reset() {
-		if (all != null) {
+		LOCK.lock();
+		try {
+			drainReadBuffer();
+			if (all != null) {
+				for (LazyResettableHashMap<?> map : all) {
+					map.partitions = newPartitions(0);
+					map.weight = 0;
+				}
+			}
+			while (lru.next != lru) {
+				Entry<?> entry = lru.next;
+				entry.isEvicted = true;
+				entry.unlink();
+			}
+			totalWeight = 0;
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Returns the combined weight of all the cached values.
+	 * 
+	 * @return The combined weight (in bytes) of all the cached values.
+	 */
+	public static long getTotalWeight() {
+		LOCK.lock();
+		try {
+			return totalWeight;
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Returns the usage statistics of the existing hash maps. Maps that share the same display
+	 * name are reported together.
+	 * 
+	 * @return The usage statistics of the existing hash maps, sorted by display name.
+	 */
+	public static List<ImageCacheStats> getCacheStats() {
+		List<ImageCacheStats> result = new ArrayList<>();
+		LOCK.lock();
+		try {
+			if (all == null) {
+				return result;
+			}
+			Map<String, List<LazyResettableHashMap<?>>> byName = new TreeMap<>();
 			for (LazyResettableHashMap<?> map : all) {
-				if (map.cache != null) {
-                    map.cache.clear();
-                }
+				byName.computeIfAbsent(map.displayName, (String name) -> new ArrayList<>())
+						.add(map);
 			}
+			for (Map.Entry<String, List<LazyResettableHashMap<?>>> named : byName.entrySet()) {
+				int entryCount = 0;
+				long hitCount = 0, missCount = 0, putCount = 0, evictionCount = 0;
+				long weight = 0, missRenderCount = 0, missRenderNanos = 0;
+				for (LazyResettableHashMap<?> map : named.getValue()) {
+					entryCount += map.size();
+					hitCount += map.hitCount.sum();
+					missCount += map.missCount.sum();
+					putCount += map.putCount;
+					evictionCount += map.evictionCount;
+					weight += map.weight;
+					missRenderCount += map.missRenderCount;
+					missRenderNanos += map.missRenderNanos;
+				}
+				result.add(new ImageCacheStats(named.getKey(), named.getValue().size(),
+						entryCount, hitCount, missCount, putCount, evictionCount, weight,
+						(missRenderCount == 0) ? 0 : missRenderNanos / missRenderCount));
+			}
+			return result;
+		} finally {
+			LOCK.unlock();
 		}
 	}
 
@@ -151,30 +780,41 @@ public class LazyResettableHashMap<T> {
 	 * @return Statistical information of the existing hash maps.
 	 */
 	public static List<String> getStats() {
-		if (all != null) {
-			List<String> result = new LinkedList<>();
+		LOCK.lock();
+		try {
+			if (all != null) {
+				List<String> result = new LinkedList<>();
 
-			Map<String, Integer> mapCounter = new TreeMap<>();
-			Map<String, Integer> entryCounter = new TreeMap<>();
+				Map<String, Integer> mapCounter = new TreeMap<>();
+				Map<String, Integer> entryCounter = new TreeMap<>();
+				Map<String, Long> weightCounter = new TreeMap<>();
 
-			for (LazyResettableHashMap<?> map : all) {
-				String key = map.displayName;
-				if (!mapCounter.containsKey(key)) {
-					mapCounter.put(key, 0);
-					entryCounter.put(key, 0);
+				for (LazyResettableHashMap<?> map : all) {
+					String key = map.displayName;
+					if (!mapCounter.containsKey(key)) {
+						mapCounter.put(key, 0);
+						entryCounter.put(key, 0);
+						weightCounter.put(key, 0L);
+					}
+					mapCounter.put(key, mapCounter.get(key) + 1);
+					entryCounter.put(key, entryCounter.get(key) + map.size());
+					weightCounter.put(key, weightCounter.get(key) + map.weight);
 				}
-				mapCounter.put(key, mapCounter.get(key) + 1);
-				entryCounter.put(key, entryCounter.get(key) + map.size());
-			}
 
-			for (Map.Entry<String, Integer> entry : mapCounter.entrySet()) {
-				String key = entry.getKey();
-				result.add(entry.getValue() + " " + key + " with "
-						+ entryCounter.get(key) + " entries total");
-			}
+				for (Map.Entry<String, Integer> entry : mapCounter.entrySet()) {
+					String key = entry.getKey();
+					result.add(entry.getValue() + " " + key + " with "
+							+ entryCounter.get(key) + " entries total ("
+							+ weightCounter.get(key) / 1024 + " KB)");
+				}
+				result.add("Total " + totalWeight / 1024 + " KB of " + budget / 1024
+						+ " KB budget");
 
-			return result;
+				return result;
+			}
+			return null;
+		} finally {
+			LOCK.unlock();
 		}
-		return null;
 	}
 }
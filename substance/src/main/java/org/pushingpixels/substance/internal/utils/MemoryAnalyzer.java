@@ -29,6 +29,8 @@
  */
 package org.pushingpixels.substance.internal.utils;
 
+import org.pushingpixels.substance.api.SubstanceSlices;
+
 import javax.swing.*;
 import java.awt.*;
 import java.io.BufferedWriter;
@@ -232,12 +234,12 @@ public class MemoryAnalyzer extends TrackableThread {
 			// gather statistics and print them to file
 			try (BufferedWriter bw = new BufferedWriter(new FileWriter(new File(this.filename), true))) {
 				bw.write(sdf.format(new Date()) + "\n");
-				java.util.List<String> stats = LazyResettableHashMap.getStats();
-				if (stats != null) {
-					for (String stat : stats) {
-						bw.write(stat + "\n");
-					}
+				for (SubstanceSlices.ImageCacheStats stats : LazyResettableHashMap
+						.getCacheStats()) {
+					bw.write(stats + "\n");
 				}
+				bw.write("Image caches have " + LazyResettableHashMap.getTotalWeight() / 1024
+						+ " KB of " + LazyResettableHashMap.getBudget() / 1024 + " KB budget\n");
 				ArrayList<String> usages = getUsages();
 				for (String usage : usages) {
 					bw.write(usage + "\n");
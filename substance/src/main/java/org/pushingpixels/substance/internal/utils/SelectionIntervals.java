@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import javax.swing.*;
+import java.util.Arrays;
+
+/**
+ * Set of non-negative <code>int</code> indices stored as sorted, disjoint and non-adjacent
+ * closed intervals. Used by the UI delegates of lists, tables and trees to track the selection
+ * state without keeping an entry per selected index.
+ * 
+ * @author Kirill Grouchnikov
+ */
+public final class SelectionIntervals {
+    private int[] starts;
+
+    private int[] ends;
+
+    private int count;
+
+    public SelectionIntervals() {
+        this.starts = new int[8];
+        this.ends = new int[8];
+    }
+
+    /**
+     * Returns indication whether the specified index is in this set.
+     * 
+     * @param index
+     *            Index.
+     * @return <code>true</code> if the specified index is in this set.
+     */
+    public boolean contains(int index) {
+        int pos = this.firstEndingAtOrAfter(index);
+        return (pos < this.count) && (this.starts[pos] <= index);
+    }
+
+    public boolean isEmpty() {
+        return (this.count == 0);
+    }
+
+    public void clear() {
+        this.count = 0;
+    }
+
+    /**
+     * Returns the number of intervals in this set.
+     */
+    public int getIntervalCount() {
+        return this.count;
+    }
+
+    public int getIntervalStart(int interval) {
+        return this.starts[interval];
+    }
+
+    public int getIntervalEnd(int interval) {
+        return this.ends[interval];
+    }
+
+    /**
+     * Adds all the indices in the specified closed interval.
+     */
+    public void add(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        // Intervals that overlap or touch [from, to] are merged with it
+        int first = this.firstEndingAtOrAfter(from - 1);
+        int last = this.firstStartingAfter(to + 1);
+        int newStart = from;
+        int newEnd = to;
+        if (first < last) {
+            newStart = Math.min(from, this.starts[first]);
+            newEnd = Math.max(to, this.ends[last - 1]);
+        }
+        this.replace(first, last, 1, newStart, newEnd, 0, 0);
+    }
+
+    /**
+     * Removes all the indices in the specified closed interval.
+     */
+    public void remove(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        int first = this.firstEndingAtOrAfter(from);
+        int last = this.firstStartingAfter(to);
+        if (first >= last) {
+            return;
+        }
+        boolean keepLeft = (this.starts[first] < from);
+        boolean keepRight = (this.ends[last - 1] > to);
+        int leftStart = this.starts[first];
+        int rightEnd = this.ends[last - 1];
+        if (keepLeft && keepRight) {
+            this.replace(first, last, 2, leftStart, from - 1, to + 1, rightEnd);
+        } else if (keepLeft) {
+            this.replace(first, last, 1, leftStart, from - 1, 0, 0);
+        } else if (keepRight) {
+            this.replace(first, last, 1, to + 1, rightEnd, 0, 0);
+        } else {
+            this.replace(first, last, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Opens a gap of the specified length at the specified index, shifting all the indices at or
+     * after it up by that length. The indices in the gap are not in this set. This mirrors
+     * {@link ListSelectionModel#insertIndexInterval(int, int, boolean)} without guessing the
+     * selection state of the inserted indices.
+     */
+    public void insertRange(int index, int length) {
+        if (length <= 0) {
+            return;
+        }
+        int pos = this.firstEndingAtOrAfter(index);
+        if ((pos < this.count) && (this.starts[pos] < index)) {
+            // Split the interval that straddles the insertion point
+            this.replace(pos, pos + 1, 2, this.starts[pos], index - 1, index + length,
+                    this.ends[pos] + length);
+            pos += 2;
+        }
+        for (int i = pos; i < this.count; i++) {
+            this.starts[i] += length;
+            this.ends[i] += length;
+        }
+    }
+
+    /**
+     * Removes all the indices in the specified closed interval and shifts all the indices after
+     * it down by its length. This mirrors {@link ListSelectionModel#removeIndexInterval(int, int)}.
+     */
+    public void removeRange(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        this.remove(from, to);
+        int length = to - from + 1;
+        int pos = this.firstStartingAfter(to);
+        for (int i = pos; i < this.count; i++) {
+            this.starts[i] -= length;
+            this.ends[i] -= length;
+        }
+        // The intervals on the two sides of the removed range may now touch
+        if ((pos > 0) && (pos < this.count) && (this.ends[pos - 1] + 1 >= this.starts[pos])) {
+            this.replace(pos - 1, pos + 1, 1, this.starts[pos - 1], this.ends[pos], 0, 0);
+        }
+    }
+
+    /**
+     * Updates the specified closed interval of this set to match the selection state of the
+     * specified selection model.
+     * 
+     * @param selectionModel
+     *            Selection model.
+     * @param from
+     *            Start of the interval to update.
+     * @param to
+     *            End of the interval to update.
+     */
+    public void copyFrom(ListSelectionModel selectionModel, int from, int to) {
+        this.remove(from, to);
+        from = Math.max(from, selectionModel.getMinSelectionIndex());
+        to = Math.min(to, selectionModel.getMaxSelectionIndex());
+        if ((from < 0) || (from > to)) {
+            return;
+        }
+        int runStart = -1;
+        for (int i = from; i <= to; i++) {
+            if (selectionModel.isSelectedIndex(i)) {
+                if (runStart < 0) {
+                    runStart = i;
+                }
+            } else if (runStart >= 0) {
+                this.add(runStart, i - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            this.add(runStart, to);
+        }
+    }
+
+    /**
+     * Updates the specified closed interval of this set to match the content of another set in
+     * that interval.
+     *
+     * @param source
+     *            Set to copy from.
+     * @param from
+     *            Start of the interval to update.
+     * @param to
+     *            End of the interval to update.
+     */
+    public void copyFrom(SelectionIntervals source, int from, int to) {
+        this.remove(from, to);
+        for (int pos = source.firstEndingAtOrAfter(from); (pos < source.count)
+                && (source.starts[pos] <= to); pos++) {
+            this.add(Math.max(from, source.starts[pos]), Math.min(to, source.ends[pos]));
+        }
+    }
+
+    /**
+     * Returns the first index in the specified closed interval that is in exactly one of this
+     * set and the specified set, or -1 if the two sets match in that interval. Runs in time
+     * proportional to the number of interval boundaries skipped, not to the number of indices.
+     *
+     * @param other
+     *            Set to compare to.
+     * @param from
+     *            Start of the interval to compare.
+     * @param to
+     *            End of the interval to compare.
+     */
+    public int nextDifference(SelectionIntervals other, int from, int to) {
+        int index = from;
+        while (index <= to) {
+            int thisBoundary = this.nextBoundary(index);
+            int otherBoundary = other.nextBoundary(index);
+            if (this.contains(index) != other.contains(index)) {
+                return index;
+            }
+            index = Math.min(thisBoundary, otherBoundary);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the smallest index after the specified index whose membership in this set differs
+     * from that of the specified index, or {@link Integer#MAX_VALUE} if there is none.
+     */
+    private int nextBoundary(int index) {
+        int pos = this.firstEndingAtOrAfter(index);
+        if (pos == this.count) {
+            return Integer.MAX_VALUE;
+        }
+        return (this.starts[pos] <= index) ? this.ends[pos] + 1 : this.starts[pos];
+    }
+
+    /**
+     * Replaces the entire content of this set with the selection state of the specified
+     * selection model.
+     * 
+     * @param selectionModel
+     *            Selection model.
+     */
+    public void copyFrom(ListSelectionModel selectionModel) {
+        this.clear();
+        this.copyFrom(selectionModel, 0, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * Returns the position of the first interval that ends at or after the specified index, or
+     * the interval count if there is no such interval.
+     */
+    private int firstEndingAtOrAfter(int index) {
+        int low = 0;
+        int high = this.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.ends[mid] < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position of the first interval that starts after the specified index, or the
+     * interval count if there is no such interval.
+     */
+    private int firstStartingAfter(int index) {
+        int low = 0;
+        int high = this.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.starts[mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Replaces the intervals in positions <code>[first, last)</code> with up to two new
+     * intervals.
+     */
+    private void replace(int first, int last, int newCount, int start1, int end1, int start2,
+            int end2) {
+        int tail = this.count - last;
+        int newTotal = first + newCount + tail;
+        if (newTotal > this.starts.length) {
+            int capacity = Math.max(newTotal, 2 * this.starts.length);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.ends = Arrays.copyOf(this.ends, capacity);
+        }
+        if ((tail > 0) && (last != first + newCount)) {
+            System.arraycopy(this.starts, last, this.starts, first + newCount, tail);
+            System.arraycopy(this.ends, last, this.ends, first + newCount, tail);
+        }
+        if (newCount > 0) {
+            this.starts[first] = start1;
+            this.ends[first] = end1;
+        }
+        if (newCount > 1) {
+            this.starts[first + 1] = start2;
+            this.ends[first + 1] = end2;
+        }
+        this.count = newTotal;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.pushingpixels.neon.internal.DaemonExecutors;
+import org.pushingpixels.substance.api.ComponentState;
+import org.pushingpixels.substance.api.SubstanceSkin;
+import org.pushingpixels.substance.api.SubstanceSlices.ColorSchemeAssociationKind;
+import org.pushingpixels.substance.api.SubstanceSlices.DecorationAreaType;
+import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+import org.pushingpixels.substance.internal.painter.DecorationPainterUtils;
+import org.pushingpixels.substance.internal.utils.icon.SubstanceIconFactory;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Prepares a skin off the Event Dispatch Thread before it is set. Preparation resolves the color
+ * schemes of all the scheme bundles of the skin, and renders the watermark and the cached images
+ * used by the open windows in parallel. The images are put in the image caches with a tag, so
+ * that they are kept when the skin is set. This class is <b>for internal use only</b>.
+ * 
+ * @author Kirill Grouchnikov
+ */
+public class SkinPreparation {
+    /**
+     * States of the title pane buttons whose icons are rendered ahead of time.
+     */
+    private static final ComponentState[] TITLE_BUTTON_STATES = { ComponentState.ENABLED,
+            ComponentState.ROLLOVER_UNSELECTED, ComponentState.PRESSED_UNSELECTED };
+
+    /**
+     * Shared pool for the preparation tasks.
+     */
+    private static final ThreadPoolExecutor preparer = DaemonExecutors.newBoundedPool(
+            "Substance skin preparation", new LinkedBlockingQueue<>());
+
+    /**
+     * Components of the open windows that the preparation is based on. Taken on the Event
+     * Dispatch Thread, so that the preparation tasks do not touch any component.
+     */
+    public static final class Inventory {
+        /**
+         * Decoration areas used in the open windows.
+         */
+        private final Set<DecorationAreaType> decorationAreaTypes = new HashSet<>();
+
+        /**
+         * Whether any of the open windows has a decorated title pane.
+         */
+        private boolean hasDecoratedTitlePane;
+
+        /**
+         * All the component states and association kinds known at the time of the inventory.
+         */
+        private final List<ComponentState> states;
+        private final List<ColorSchemeAssociationKind> associationKinds;
+
+        private Inventory() {
+            this.decorationAreaTypes.add(DecorationAreaType.NONE);
+            this.states = new ArrayList<>(ComponentState.getAllStates());
+            this.associationKinds = new ArrayList<>(ColorSchemeAssociationKind.values());
+        }
+
+        /**
+         * Returns the decoration areas used in the open windows.
+         * 
+         * @return The decoration areas used in the open windows.
+         */
+        public Set<DecorationAreaType> getDecorationAreaTypes() {
+            return Collections.unmodifiableSet(this.decorationAreaTypes);
+        }
+
+        /**
+         * Returns indication whether any of the open windows has a decorated title pane.
+         * 
+         * @return <code>true</code> if any of the open windows has a decorated title pane.
+         */
+        public boolean hasDecoratedTitlePane() {
+            return this.hasDecoratedTitlePane;
+        }
+    }
+
+    /**
+     * Takes the inventory of the components of all the open windows. Must be called on the Event
+     * Dispatch Thread.
+     * 
+     * @return The inventory of the components of all the open windows.
+     */
+    public static Inventory takeInventory() {
+        Inventory inventory = new Inventory();
+        for (Window window : Window.getWindows()) {
+            if (window.isDisplayable()) {
+                collect(window, inventory);
+            }
+        }
+        return inventory;
+    }
+
+    private static void collect(Component component, Inventory inventory) {
+        DecorationAreaType decorationAreaType = DecorationPainterUtils
+                .getImmediateDecorationType(component);
+        if (decorationAreaType != null) {
+            inventory.decorationAreaTypes.add(decorationAreaType);
+        }
+        if ((component instanceof JRootPane)
+                && (((JRootPane) component).getWindowDecorationStyle() != JRootPane.NONE)) {
+            inventory.hasDecoratedTitlePane = true;
+            inventory.decorationAreaTypes.add(DecorationAreaType.PRIMARY_TITLE_PANE);
+        }
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents()) {
+                collect(child, inventory);
+            }
+        }
+    }
+
+    /**
+     * Prepares the specified skin on the shared pool. The values put in the image caches during
+     * the preparation are tagged with the specified tag.
+     * 
+     * @param skin
+     *            Skin to prepare.
+     * @param inventory
+     *            Inventory of the components of the open windows.
+     * @param tag
+     *            Tag of the cached values rendered during the preparation.
+     * @param toUpdateWatermark
+     *            If <code>true</code>, the watermark image of the skin is updated as well.
+     * @return Future that completes when the preparation is done, with <code>false</code> if
+     *         the watermark of the skin could not be updated.
+     */
+    public static CompletableFuture<Boolean> prepare(SubstanceSkin skin, Inventory inventory,
+            Object tag, boolean toUpdateWatermark) {
+        // Resolve all the scheme bundle cells first, in a single task. The resolution writes to
+        // the bundles, and decoration areas without their own bundle share the default one.
+        // Once it is done, the rendering tasks only read from the bundles.
+        return CompletableFuture.runAsync(() -> resolveColorSchemes(skin, inventory), preparer)
+                .thenComposeAsync((Void ignored) -> {
+                    List<CompletableFuture<Boolean>> tasks = new ArrayList<>();
+                    if (toUpdateWatermark && (skin.getWatermark() != null)) {
+                        tasks.add(CompletableFuture.supplyAsync(
+                                () -> skin.getWatermark().updateWatermarkImage(skin),
+                                preparer));
+                    }
+                    if (inventory.hasDecoratedTitlePane) {
+                        for (SubstanceIconFactory.IconKind iconKind : SubstanceIconFactory
+                                .IconKind.values()) {
+                            tasks.add(CompletableFuture.supplyAsync(() -> {
+                                LazyResettableHashMap.runTagged(tag,
+                                        () -> renderTitlePaneIcons(skin, iconKind));
+                                return true;
+                            }, preparer));
+                        }
+                    }
+                    return CompletableFuture
+                            .allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]))
+                            .thenApply((Void done) -> {
+                                for (CompletableFuture<Boolean> task : tasks) {
+                                    if (!task.join()) {
+                                        return false;
+                                    }
+                                }
+                                return true;
+                            });
+                }, preparer);
+    }
+
+    /**
+     * Resolves the color schemes of all the association kinds and component states in the scheme
+     * bundles of the decoration areas in the inventory.
+     */
+    private static void resolveColorSchemes(SubstanceSkin skin, Inventory inventory) {
+        for (DecorationAreaType decorationAreaType : inventory.decorationAreaTypes) {
+            skin.getBackgroundColorScheme(decorationAreaType);
+            for (ColorSchemeAssociationKind associationKind : inventory.associationKinds) {
+                for (ComponentState state : inventory.states) {
+                    skin.getColorScheme(decorationAreaType, associationKind, state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders the title pane icons of the specified kind for the common states of the title
+     * pane buttons.
+     */
+    private static void renderTitlePaneIcons(SubstanceSkin skin,
+            SubstanceIconFactory.IconKind iconKind) {
+        SubstanceColorScheme backgroundScheme = skin
+                .getBackgroundColorScheme(DecorationAreaType.PRIMARY_TITLE_PANE);
+        for (ComponentState state : TITLE_BUTTON_STATES) {
+            SubstanceColorScheme scheme = skin.getColorScheme(
+                    DecorationAreaType.PRIMARY_TITLE_PANE, ColorSchemeAssociationKind.MARK, state);
+            SubstanceIconFactory.getTitlePaneIcon(iconKind, scheme, backgroundScheme);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.pushingpixels.neon.NeonCortex;
+import org.pushingpixels.substance.api.painter.border.*;
+import org.pushingpixels.substance.api.painter.fill.*;
+import org.pushingpixels.substance.api.shaper.ClassicButtonShaper;
+import org.pushingpixels.substance.api.shaper.StandardButtonShaper;
+import org.pushingpixels.substance.api.shaper.SubstanceButtonShaper;
+import org.pushingpixels.substance.internal.painter.SimplisticFillPainter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+
+/**
+ * Utilities for composing wide backgrounds from a narrow cached rendition. The core shapers
+ * produce outlines with straight horizontal sides, and the core painters use vertical gradients,
+ * so that all the pixel columns between the rounded corners of such a background are identical.
+ * The cached rendition is painted at {@link #getSliceWidth(int)} and keeps two caps with the
+ * corners and the vertical edges. The caps are drawn as-is at the two ends of the painted area,
+ * and the center column between them is stretched to fill the rest. The number of cached images
+ * then depends only on the height. This class is <b>for internal use only</b>.
+ * 
+ * @author Kirill Grouchnikov
+ */
+public class StretchableImageUtilities {
+    /**
+     * Extra width of a cap beyond the corner radius. Covers the blurred shine of
+     * {@link StandardFillPainter}, whose kernel is at most 12 pixels wide.
+     */
+    private static final int CAP_MARGIN = 26;
+
+    /**
+     * Fill painters with output that does not vary along the straight horizontal sides.
+     */
+    private static final Set<Class<?>> STRETCHABLE_FILL_PAINTERS = new HashSet<>(Arrays.asList(
+            StandardFillPainter.class, ClassicFillPainter.class, GlassFillPainter.class,
+            MatteFillPainter.class, SubduedFillPainter.class, FractionBasedFillPainter.class,
+            SimplisticFillPainter.class));
+
+    /**
+     * Border painters with output that does not vary along the straight horizontal sides.
+     */
+    private static final Set<Class<?>> STRETCHABLE_BORDER_PAINTERS = new HashSet<>(Arrays.asList(
+            StandardBorderPainter.class, ClassicBorderPainter.class, FlatBorderPainter.class,
+            GlassBorderPainter.class, FractionBasedBorderPainter.class,
+            DelegateBorderPainter.class, DelegateFractionBasedBorderPainter.class));
+
+    /**
+     * Returns indication whether the output of the specified fill painter can be stretched
+     * horizontally. Only the core painters are considered, as application painters are free to
+     * use the full width of the painted area.
+     * 
+     * @param fillPainter
+     *            Fill painter.
+     * @return <code>true</code> if the output of the fill painter can be stretched horizontally.
+     */
+    public static boolean isStretchable(SubstanceFillPainter fillPainter) {
+        return (fillPainter != null)
+                && STRETCHABLE_FILL_PAINTERS.contains(fillPainter.getClass());
+    }
+
+    /**
+     * Returns indication whether the output of the specified border painter can be stretched
+     * horizontally.
+     * 
+     * @param borderPainter
+     *            Border painter.
+     * @return <code>true</code> if the output of the border painter can be stretched
+     *         horizontally.
+     */
+    public static boolean isStretchable(SubstanceBorderPainter borderPainter) {
+        if (borderPainter instanceof CompositeBorderPainter) {
+            CompositeBorderPainter composite = (CompositeBorderPainter) borderPainter;
+            return isStretchable(composite.getInner()) && isStretchable(composite.getOuter());
+        }
+        return (borderPainter != null)
+                && STRETCHABLE_BORDER_PAINTERS.contains(borderPainter.getClass());
+    }
+
+    /**
+     * Returns indication whether the outlines of the specified shaper can be stretched
+     * horizontally.
+     * 
+     * @param shaper
+     *            Button shaper.
+     * @return <code>true</code> if the outlines of the shaper can be stretched horizontally.
+     */
+    public static boolean isStretchable(SubstanceButtonShaper shaper) {
+        return (shaper != null) && ((shaper.getClass() == StandardButtonShaper.class)
+                || (shaper.getClass() == ClassicButtonShaper.class));
+    }
+
+    /**
+     * Returns the width of the caps for a background of the specified height.
+     * 
+     * @param height
+     *            Background height.
+     * @param radius
+     *            Corner radius of the background outline.
+     * @param extraWidth
+     *            Extra width painted outside the background on each side, such as for open
+     *            sides.
+     * @return Width of the caps.
+     */
+    public static int getCapWidth(int height, float radius, int extraWidth) {
+        // The rendition is at least as wide as it is high, so that painters that
+        // look at the smaller dimension paint it the same way as the full image
+        return Math.max((int) Math.ceil(radius) + extraWidth + CAP_MARGIN, (height + 1) / 2);
+    }
+
+    /**
+     * Returns the width of the cached rendition for the specified cap width.
+     * 
+     * @param capWidth
+     *            Cap width.
+     * @return The width of the cached rendition.
+     */
+    public static int getSliceWidth(int capWidth) {
+        return 2 * capWidth + 1;
+    }
+
+    /**
+     * Returns indication whether a background of the specified width should be composed from a
+     * cached rendition with the specified cap width. Fractional scale factors are not supported,
+     * as the caps would not be aligned to the pixel grid at both ends.
+     * 
+     * @param width
+     *            Background width.
+     * @param capWidth
+     *            Cap width.
+     * @return <code>true</code> if the background should be composed from a cached rendition.
+     */
+    public static boolean canStretch(int width, int capWidth) {
+        double scaleFactor = NeonCortex.getScaleFactor();
+        return (width > getSliceWidth(capWidth)) && (scaleFactor == Math.rint(scaleFactor));
+    }
+
+    /**
+     * Paints a cached rendition stretched to the specified width. The three slices are drawn
+     * straight into the specified graphics context, so that no image of the final width is
+     * allocated.
+     * 
+     * @param g
+     *            Graphics context.
+     * @param slices
+     *            Cached rendition, as obtained from
+     *            {@link SubstanceCoreUtilities#getBlankImage(int, int)} with
+     *            {@link #getSliceWidth(int)} width.
+     * @param capWidth
+     *            Cap width.
+     * @param x
+     *            X coordinate of the painted area.
+     * @param y
+     *            Y coordinate of the painted area.
+     * @param width
+     *            Width of the painted area.
+     */
+    public static void drawHorizontally(Graphics g, BufferedImage slices, int capWidth, int x,
+            int y, int width) {
+        int scaleFactor = (int) NeonCortex.getScaleFactor();
+        int capPixels = capWidth * scaleFactor;
+        int slicesWidth = slices.getWidth();
+        int slicesHeight = slices.getHeight();
+        int height = slicesHeight / scaleFactor;
+
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.drawImage(slices, x, y, x + capWidth, y + height, 0, 0, capPixels, slicesHeight,
+                null);
+        g2d.drawImage(slices, x + capWidth, y, x + width - capWidth, y + height, capPixels, 0,
+                capPixels + 1, slicesHeight, null);
+        g2d.drawImage(slices, x + width - capWidth, y, x + width, y + height,
+                slicesWidth - capPixels, 0, slicesWidth, slicesHeight, null);
+        g2d.dispose();
+    }
+
+    /**
+     * Paints a cached rendition that has been rotated by a quarter turn stretched to the
+     * specified height. The three slices are drawn straight into the specified graphics
+     * context.
+     * 
+     * @param g
+     *            Graphics context.
+     * @param slices
+     *            Rotated cached rendition, with {@link #getSliceWidth(int)} height.
+     * @param capHeight
+     *            Cap height.
+     * @param x
+     *            X coordinate of the painted area.
+     * @param y
+     *            Y coordinate of the painted area.
+     * @param height
+     *            Height of the painted area.
+     */
+    public static void drawVertically(Graphics g, BufferedImage slices, int capHeight, int x,
+            int y, int height) {
+        int scaleFactor = (int) NeonCortex.getScaleFactor();
+        int capPixels = capHeight * scaleFactor;
+        int slicesWidth = slices.getWidth();
+        int slicesHeight = slices.getHeight();
+        int width = slicesWidth / scaleFactor;
+
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.drawImage(slices, x, y, x + width, y + capHeight, 0, 0, slicesWidth, capPixels,
+                null);
+        g2d.drawImage(slices, x, y + capHeight, x + width, y + height - capHeight, 0, capPixels,
+                slicesWidth, capPixels + 1, null);
+        g2d.drawImage(slices, x, y + height - capHeight, x + width, y + height, 0,
+                slicesHeight - capPixels, slicesWidth, slicesHeight, null);
+        g2d.dispose();
+    }
+}
@@ -55,10 +55,14 @@ import java.util.List;
  */
 public class SubstanceColorSchemeUtilities {
     /**
-     * Cache of shifted schemes.
+     * Cache of shifted schemes. The schemes share the access order and the budget of the image
+     * caches that are keyed by scheme identity. A shifted scheme is looked up every time such an
+     * image is painted, so it does not become least recently used ahead of those images, and the
+     * images of an evicted scheme are the next entries to be evicted.
      */
     private final static LazyResettableHashMap<SubstanceColorScheme> shiftedCache =
-            new LazyResettableHashMap<>("ShiftColorScheme.shiftedSchemes");
+            new LazyResettableHashMap<>("ShiftColorScheme.shiftedSchemes",
+                    LazyResettableHashMap.Dependency.SKIN);
 
     private enum ColorSchemeKind {
         LIGHT, DARK
@@ -33,6 +33,7 @@ import org.pushingpixels.neon.NeonCortex;
 import org.pushingpixels.substance.api.ComponentState;
 import org.pushingpixels.substance.api.SubstanceSlices.ColorSchemeAssociationKind;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+import org.pushingpixels.substance.api.painter.border.SubstanceBorderPainter;
 import org.pushingpixels.substance.internal.utils.*;
 
 import javax.swing.border.Border;
@@ -174,20 +175,38 @@ public class SubstanceBorder implements Border, UIResource {
 				finalAlpha, g));
 
 		if (width * height < 100000) {
-			HashMapKey hashKey = SubstanceCoreUtilities.getHashKey(
-					SubstanceCoreUtilities.getBorderPainter(c).getDisplayName(),
-					SubstanceSizeUtils.getComponentFontSize(c), width, height, radius,
-					borderColorScheme.getDisplayName());
+			SubstanceBorderPainter borderPainter = SubstanceCoreUtilities
+					.getBorderPainter(c);
+			// wide borders are composed from a rendition cached for the
+			// height alone
+			int capWidth = StretchableImageUtilities.getCapWidth(height,
+					radius, 0);
+			boolean toStretch = StretchableImageUtilities
+					.isStretchable(borderPainter)
+					&& StretchableImageUtilities.canStretch(width, capWidth);
+			int imageWidth = toStretch ? StretchableImageUtilities
+					.getSliceWidth(capWidth) : width;
+			HashMapKey hashKey = HashMapKey.lookup().with(borderPainter)
+					.with(SubstanceSizeUtils.getComponentFontSize(c))
+					.with(imageWidth).with(height).with(radius)
+					.with(borderColorScheme);
 			BufferedImage result = smallImageCache.get(hashKey);
 			if (result == null) {
-				result = SubstanceCoreUtilities.getBlankImage(width, height);
+				hashKey = hashKey.copy();
+				result = SubstanceCoreUtilities.getBlankImage(imageWidth,
+						height);
 				Graphics2D g2d = result.createGraphics();
-				SubstanceImageCreator.paintBorder(c, g2d, 0, 0, width, height,
-						radius, borderColorScheme);
+				SubstanceImageCreator.paintBorder(c, g2d, 0, 0, imageWidth,
+						height, radius, borderColorScheme);
 				g2d.dispose();
 				smallImageCache.put(hashKey, result);
 			}
-			NeonCortex.drawImage(graphics, result, x, y);
+			if (toStretch) {
+				StretchableImageUtilities.drawHorizontally(graphics, result,
+						capWidth, x, y, width);
+			} else {
+				NeonCortex.drawImage(graphics, result, x, y);
+			}
 		} else {
 			// for borders larger than 100000 pixels, use simple
 			// painting
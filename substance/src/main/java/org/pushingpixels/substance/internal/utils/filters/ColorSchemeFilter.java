@@ -34,7 +34,7 @@
 
 package org.pushingpixels.substance.internal.utils.filters;
 
-import org.pushingpixels.neon.filter.NeonAbstractFilter;
+import org.pushingpixels.neon.filter.NeonAbstractPixelFilter;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.internal.utils.HashMapKey;
 import org.pushingpixels.substance.internal.utils.LazyResettableHashMap;
@@ -51,16 +51,28 @@ import java.util.List;
  * @author Kirill Grouchnikov
  */
 
-public class ColorSchemeFilter extends NeonAbstractFilter {
+public class ColorSchemeFilter extends NeonAbstractPixelFilter {
 	private int[] interpolated;
 
 	private static final int MAPSTEPS = 512;
 
 	private final static LazyResettableHashMap<ColorSchemeFilter> filters =
-			new LazyResettableHashMap<>("ColorSchemeFilter");
+			new LazyResettableHashMap<>("ColorSchemeFilter",
+					LazyResettableHashMap.Dependency.SKIN);
 
 	private float originalBrightnessFactor;
 
+	/**
+	 * Hue, saturation and brightness of the interpolated scheme color for each
+	 * pixel brightness value, so that filtering does not convert to HSB per
+	 * pixel.
+	 */
+	private float[] hueLookup;
+
+	private float[] saturationLookup;
+
+	private float[] brightnessLookup;
+
 	public static ColorSchemeFilter getColorSchemeFilter(SubstanceColorScheme scheme,
 			float originalBrightnessFactor) {
 		HashMapKey key = SubstanceCoreUtilities.getHashKey(scheme.getDisplayName(),
@@ -152,28 +164,35 @@ public class ColorSchemeFilter extends NeonAbstractFilter {
 				}
 			}
 		}
+
+		this.hueLookup = new float[256];
+		this.saturationLookup = new float[256];
+		this.brightnessLookup = new float[256];
+		float[] hsb = new float[3];
+		for (int brightness = 0; brightness < 256; brightness++) {
+			int schemeColor = this.interpolated[brightness * MAPSTEPS / 256];
+			Color.RGBtoHSB((schemeColor >>> 16) & 0xFF, (schemeColor >>> 8) & 0xFF,
+					schemeColor & 0xFF, hsb);
+			this.hueLookup[brightness] = hsb[0];
+			this.saturationLookup[brightness] = hsb[1];
+			this.brightnessLookup[brightness] = hsb[2];
+		}
 	}
 
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
-		if (dst == null) {
-			dst = createCompatibleDestImage(src, null);
-		}
-
-		int width = src.getWidth();
-		int height = src.getHeight();
-
-		int[] pixels = new int[width * height];
-		getPixels(src, 0, 0, width, height, pixels);
-		mixColor(pixels);
-		setPixels(dst, 0, 0, width, height, pixels);
-
-		return dst;
+		return filterPixels(src, dst);
 	}
 
-	private void mixColor(int[] pixels) {
-		for (int i = 0; i < pixels.length; i++) {
-			int argb = pixels[i];
+	@Override
+	protected void filterPixels(int[] src, int srcOffset, int[] dst, int dstOffset,
+			int length) {
+		float[] hueLookup = this.hueLookup;
+		float[] saturationLookup = this.saturationLookup;
+		float[] brightnessLookup = this.brightnessLookup;
+		float originalBrightnessFactor = this.originalBrightnessFactor;
+		for (int i = 0; i < length; i++) {
+			int argb = src[srcOffset + i];
 
 			int brightness = SubstanceColorUtilities.getColorBrightness(argb);
 
@@ -181,27 +200,22 @@ public class ColorSchemeFilter extends NeonAbstractFilter {
 			int g = (argb >>> 8) & 0xFF;
 			int b = (argb >>> 0) & 0xFF;
 
-			float[] hsb = Color.RGBtoHSB(r, g, b, null);
-			int pixelColor = interpolated[brightness * MAPSTEPS / 256];
-
-			int ri = (pixelColor >>> 16) & 0xFF;
-			int gi = (pixelColor >>> 8) & 0xFF;
-			int bi = (pixelColor >>> 0) & 0xFF;
-			float[] hsbi = Color.RGBtoHSB(ri, gi, bi, null);
-
-			hsb[0] = hsbi[0];
-			hsb[1] = hsbi[1];
-			if (this.originalBrightnessFactor >= 0.0f) {
-				hsb[2] = this.originalBrightnessFactor * hsb[2]
-						+ (1.0f - this.originalBrightnessFactor) * hsbi[2];
+			// the same brightness as computed by Color.RGBtoHSB
+			float pixelBrightness = Math.max(r, Math.max(g, b)) / 255.0f;
+			float schemeBrightness = brightnessLookup[brightness];
+			float resultBrightness;
+			if (originalBrightnessFactor >= 0.0f) {
+				resultBrightness = originalBrightnessFactor * pixelBrightness
+						+ (1.0f - originalBrightnessFactor) * schemeBrightness;
 			} else {
-				hsb[2] = hsb[2] * hsbi[2] * (1.0f + this.originalBrightnessFactor);
+				resultBrightness = pixelBrightness * schemeBrightness
+						* (1.0f + originalBrightnessFactor);
 			}
 
-			int result = Color.HSBtoRGB(hsb[0], hsb[1], hsb[2]);
+			int result = Color.HSBtoRGB(hueLookup[brightness], saturationLookup[brightness],
+					resultBrightness);
 
-			pixels[i] = (argb & 0xFF000000) | ((result >> 16) & 0xFF) << 16
-					| ((result >> 8) & 0xFF) << 8 | (result & 0xFF);
+			dst[dstOffset + i] = (argb & 0xFF000000) | (result & 0x00FFFFFF);
 		}
 	}
 }
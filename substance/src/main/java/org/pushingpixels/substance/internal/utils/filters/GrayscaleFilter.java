@@ -29,7 +29,7 @@
  */
 package org.pushingpixels.substance.internal.utils.filters;
 
-import org.pushingpixels.neon.filter.NeonAbstractFilter;
+import org.pushingpixels.neon.filter.NeonAbstractPixelFilter;
 import org.pushingpixels.substance.internal.utils.SubstanceColorUtilities;
 
 import java.awt.image.BufferedImage;
@@ -37,29 +37,20 @@ import java.awt.image.BufferedImage;
 /**
  * @author Kirill Grouchnikov
  */
-public class GrayscaleFilter extends NeonAbstractFilter {
+public class GrayscaleFilter extends NeonAbstractPixelFilter {
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
-		if (dst == null) {
-			dst = createCompatibleDestImage(src, null);
-		}
-
-		int width = src.getWidth();
-		int height = src.getHeight();
-
-		int[] pixels = new int[width * height];
-		getPixels(src, 0, 0, width, height, pixels);
-		grayScaleColor(pixels);
-		setPixels(dst, 0, 0, width, height, pixels);
-		
-		return dst;
+		return filterPixels(src, dst);
 	}
 
-	private void grayScaleColor(int[] pixels) {
-		for (int i = 0; i < pixels.length; i++) {
-			int argb = pixels[i];
+	@Override
+	protected void filterPixels(int[] src, int srcOffset, int[] dst, int dstOffset,
+			int length) {
+		for (int i = 0; i < length; i++) {
+			int argb = src[srcOffset + i];
 			int brightness = SubstanceColorUtilities.getColorBrightness(argb);
-			pixels[i] = (argb & 0xFF000000) | brightness << 16 | brightness << 8 | brightness;
+			dst[dstOffset + i] = (argb & 0xFF000000) | brightness << 16 | brightness << 8
+					| brightness;
 		}
 	}
 }
@@ -29,46 +29,39 @@
  */
 package org.pushingpixels.substance.internal.utils.filters;
 
-import org.pushingpixels.neon.filter.NeonAbstractFilter;
+import org.pushingpixels.neon.filter.NeonAbstractPixelFilter;
 
 import java.awt.image.BufferedImage;
 
 /**
  * @author Kirill Grouchnikov
  */
-public class TranslucentFilter extends NeonAbstractFilter {
-	private double alpha;
+public class TranslucentFilter extends NeonAbstractPixelFilter {
+	/**
+	 * Translucent alpha for each source alpha value, shifted into the alpha
+	 * byte.
+	 */
+	private int[] alphaLookup;
 
 	public TranslucentFilter(double alpha) {
-		this.alpha = alpha;
+		this.alphaLookup = new int[256];
+		for (int sourceAlpha = 0; sourceAlpha < 256; sourceAlpha++) {
+			this.alphaLookup[sourceAlpha] = ((int) (alpha * sourceAlpha)) << 24;
+		}
 	}
 
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
-		if (dst == null) {
-			dst = createCompatibleDestImage(src, null);
-		}
-
-		int width = src.getWidth();
-		int height = src.getHeight();
-
-		int[] pixels = new int[width * height];
-		getPixels(src, 0, 0, width, height, pixels);
-		translucentColor(pixels);
-		setPixels(dst, 0, 0, width, height, pixels);
-
-		return dst;
+		return filterPixels(src, dst);
 	}
 
-	private void translucentColor(int[] pixels) {
-		for (int i = 0; i < pixels.length; i++) {
-			int argb = pixels[i];
-			int transp = (int) (alpha * ((argb >>> 24) & 0xFF));
-			int r = (argb >>> 16) & 0xFF;
-			int g = (argb >>> 8) & 0xFF;
-			int b = (argb >>> 0) & 0xFF;
-
-			pixels[i] = (transp << 24) | (r << 16) | (g << 8) | b;
+	@Override
+	protected void filterPixels(int[] src, int srcOffset, int[] dst, int dstOffset,
+			int length) {
+		int[] alphaLookup = this.alphaLookup;
+		for (int i = 0; i < length; i++) {
+			int argb = src[srcOffset + i];
+			dst[dstOffset + i] = alphaLookup[argb >>> 24] | (argb & 0x00FFFFFF);
 		}
 	}
 }
@@ -54,7 +54,8 @@ public class HighlightableTransitionAwareIcon implements Icon {
      * {@link #delegate} returns an icon that paints the same for the same parameters.
      */
     private static LazyResettableHashMap<NeonIconUIResource> iconMap = new LazyResettableHashMap<>(
-            "HighlightableTransitionAwareIcon");
+            "HighlightableTransitionAwareIcon", LazyResettableHashMap.Dependency.SKIN,
+            LazyResettableHashMap.Dependency.ICON_PACK, LazyResettableHashMap.Dependency.SCALE);
 
     /**
      * Icon width.
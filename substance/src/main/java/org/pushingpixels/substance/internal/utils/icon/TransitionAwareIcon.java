@@ -105,7 +105,8 @@ public class TransitionAwareIcon implements Icon, IsHiDpiAware {
      * {@link #delegate} returns an icon that paints the same for the same parameters.
      */
     private static LazyResettableHashMap<NeonIconUIResource> iconMap = new LazyResettableHashMap<>(
-            "TransitionAwareIcon");
+            "TransitionAwareIcon", LazyResettableHashMap.Dependency.SKIN,
+            LazyResettableHashMap.Dependency.ICON_PACK, LazyResettableHashMap.Dependency.SCALE);
 
     private int iconWidth;
 
@@ -135,7 +136,8 @@ public class TransitionAwareIcon implements Icon, IsHiDpiAware {
         this.transitionAwareUIDelegate = transitionAwareUIDelegate;
         this.delegate = delegate;
         this.colorSchemeAssociationKindDelegate = colorSchemeAssociationKindDelegate;
-        this.uniqueIconTypeId = uniqueIconTypeId;
+        // intern the type id so that it can be used as an identity-based cache key field
+        this.uniqueIconTypeId = (uniqueIconTypeId == null) ? null : uniqueIconTypeId.intern();
 
         NeonIconUIResource markEnabledIcon = this.delegate
                 .getColorSchemeIcon(SubstanceColorSchemeUtilities.getColorScheme(comp,
@@ -176,11 +178,12 @@ public class TransitionAwareIcon implements Icon, IsHiDpiAware {
                 baseAssociationKind, currState);
         float baseAlpha = SubstanceColorSchemeUtilities.getAlpha(this.comp, currState);
 
-        HashMapKey keyBase = SubstanceCoreUtilities.getHashKey(this.uniqueIconTypeId,
-                SubstanceSizeUtils.getComponentFontSize(this.comp), baseScheme.getDisplayName(),
-                baseAlpha);
+        HashMapKey keyBase = HashMapKey.lookup().with(this.uniqueIconTypeId)
+                .with(SubstanceSizeUtils.getComponentFontSize(this.comp)).with(baseScheme)
+                .with(baseAlpha);
         NeonIconUIResource layerBase = iconMap.get(keyBase);
         if (layerBase == null) {
+            keyBase = keyBase.copy();
             NeonIconUIResource baseFullOpacity = this.delegate.getColorSchemeIcon(baseScheme);
             if (baseAlpha == 1.0f) {
                 layerBase = baseFullOpacity;
@@ -227,11 +230,12 @@ public class TransitionAwareIcon implements Icon, IsHiDpiAware {
                         .getColorScheme(this.comp, associationKind, activeState);
                 float alpha = SubstanceColorSchemeUtilities.getAlpha(this.comp, activeState);
 
-                HashMapKey key = SubstanceCoreUtilities.getHashKey(this.uniqueIconTypeId,
-                        SubstanceSizeUtils.getComponentFontSize(this.comp), scheme.getDisplayName(),
-                        alpha);
+                HashMapKey key = HashMapKey.lookup().with(this.uniqueIconTypeId)
+                        .with(SubstanceSizeUtils.getComponentFontSize(this.comp)).with(scheme)
+                        .with(alpha);
                 NeonIconUIResource layer = iconMap.get(key);
                 if (layer == null) {
+                    key = key.copy();
                     NeonIconUIResource fullOpacity = this.delegate.getColorSchemeIcon(scheme);
                     if (alpha == 1.0f) {
                         layer = fullOpacity;
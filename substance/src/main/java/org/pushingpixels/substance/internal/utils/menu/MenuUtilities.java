@@ -48,6 +48,7 @@ import java.awt.event.KeyEvent;
 import java.awt.geom.Area;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.*;
 
 /**
  * Menu-related utilities.
@@ -67,8 +68,20 @@ public class MenuUtilities {
     private static final String GUTTER_X = "substancelaf.internal.menus.gutterX";
 
     /**
-     * Listener to track changes in the menu items. Once any property has been changed, the popup
-     * layout metrics on the menu item and its parent popup menu are cleared.
+     * Menu item properties that affect the layout metrics of the parent popup menu.
+     */
+    private static final Set<String> LAYOUT_PROPERTIES = new HashSet<>(Arrays.asList(
+            AbstractButton.TEXT_CHANGED_PROPERTY, AbstractButton.ICON_CHANGED_PROPERTY,
+            AbstractButton.HORIZONTAL_ALIGNMENT_CHANGED_PROPERTY,
+            AbstractButton.VERTICAL_ALIGNMENT_CHANGED_PROPERTY,
+            AbstractButton.HORIZONTAL_TEXT_POSITION_CHANGED_PROPERTY,
+            AbstractButton.VERTICAL_TEXT_POSITION_CHANGED_PROPERTY,
+            AbstractButton.MARGIN_CHANGED_PROPERTY, "accelerator", "font", "iconTextGap", "border",
+            "componentOrientation", "UI"));
+
+    /**
+     * Listener to track changes in the menu items. Once a layout property has been changed, the
+     * cached layout of the menu item is cleared from its parent popup menu.
      * 
      * @author Kirill Grouchnikov
      */
@@ -111,8 +124,10 @@ public class MenuUtilities {
         @Override
         public void propertyChange(PropertyChangeEvent evt) {
             if (!evt.getPropertyName().equals(MenuUtilities.LAYOUT_METRICS)) {
-                SwingUtilities.invokeLater(cleanLayoutMetricsRunnable);
-                
+                if (LAYOUT_PROPERTIES.contains(evt.getPropertyName())) {
+                    SwingUtilities.invokeLater(cleanLayoutMetricsRunnable);
+                }
+
                 // Workaround for https://github.com/kirill-grouchnikov/substance/issues/86
                 // introduced in http://hg.openjdk.java.net/jdk8u/jdk8u/jdk/rev/908d5fa49906
                 // where the basic UI delegate overrides the check icon after the custom UI
@@ -204,6 +219,65 @@ public class MenuUtilities {
         public int maxIconTextGap;
     }
 
+    /**
+     * Cached layout of a single popup menu. The layout metrics of each menu item are kept
+     * separately, so that a change in one menu item does not require laying out all the other
+     * menu items. The same cache is used by the layout and painting passes.
+     * 
+     * @author Kirill Grouchnikov
+     */
+    private static class PopupLayoutCache {
+        /**
+         * Layout metrics of the individual menu items.
+         */
+        private Map<JMenuItem, MenuLayoutMetrics> itemMetrics = new HashMap<>();
+
+        /**
+         * Combined layout metrics of all the menu items. Is <code>null</code> after a menu item
+         * has been changed, added or removed.
+         */
+        private MenuLayoutMetrics metrics;
+
+        /**
+         * Returns the combined layout metrics of the specified popup menu. Only the menu items
+         * without cached layout metrics are laid out.
+         */
+        private MenuLayoutMetrics getMetrics(JPopupMenu popupMenu, boolean forPainting) {
+            if (this.metrics != null) {
+                return this.metrics;
+            }
+            // Rebuild the per-item map so that removed menu items are not retained
+            Map<JMenuItem, MenuLayoutMetrics> currItemMetrics = new HashMap<>();
+            MenuLayoutMetrics result = new MenuLayoutMetrics();
+            for (int i = 0; i < popupMenu.getComponentCount(); i++) {
+                Component comp = popupMenu.getComponent(i);
+                if (comp instanceof JMenuItem) {
+                    JMenuItem childMenuItem = (JMenuItem) comp;
+                    MenuLayoutMetrics childMetrics = this.itemMetrics.get(childMenuItem);
+                    if (childMetrics == null) {
+                        childMetrics = getItemMetrics(childMenuItem, forPainting);
+                    }
+                    if (childMetrics == null)
+                        continue;
+                    currItemMetrics.put(childMenuItem, childMetrics);
+                    merge(result, childMetrics);
+                }
+            }
+            this.itemMetrics = currItemMetrics;
+            this.metrics = result;
+            return result;
+        }
+
+        /**
+         * Clears the cached layout metrics of the specified menu item, which can be
+         * <code>null</code> to only clear the combined layout metrics.
+         */
+        private void clear(JMenuItem menuItem) {
+            this.itemMetrics.remove(menuItem);
+            this.metrics = null;
+        }
+    }
+
     /**
      * Returns the layout info for the specified menu item.
      * 
@@ -766,29 +840,56 @@ public class MenuUtilities {
         for (int i = 0; i < popupMenu.getComponentCount(); i++) {
             Component comp = popupMenu.getComponent(i);
             if (comp instanceof JMenuItem) {
-                JMenuItem childMenuItem = (JMenuItem) comp;
-                ButtonUI bui = childMenuItem.getUI();
-                if (!(bui instanceof SubstanceMenu))
-                    continue;
-                SubstanceMenu ui = (SubstanceMenu) bui;
-                MenuLayoutInfo mli = MenuUtilities.getMenuLayoutInfo(forPainting, childMenuItem,
-                        ui.getAcceleratorFont(), ui.getCheckIcon(), ui.getArrowIcon(),
-                        ui.getDefaultTextIconGap());
-                metrics.maxIconWidth = Math.max(metrics.maxIconWidth, mli.iconRect.width);
-                metrics.maxCheckIconWidth = Math.max(metrics.maxCheckIconWidth,
-                        mli.checkIconRect.width);
-                metrics.maxTextWidth = Math.max(metrics.maxTextWidth, mli.textRect.width);
-                metrics.maxAcceleratorWidth = Math.max(metrics.maxAcceleratorWidth,
-                        mli.acceleratorRect.width);
-                metrics.maxArrowIconWidth = Math.max(metrics.maxArrowIconWidth,
-                        mli.arrowIconRect.width);
-                metrics.maxIconTextGap = Math.max(metrics.maxIconTextGap,
-                        ui.getDefaultTextIconGap());
+                MenuLayoutMetrics childMetrics = getItemMetrics((JMenuItem) comp, forPainting);
+                if (childMetrics != null) {
+                    merge(metrics, childMetrics);
+                }
             }
         }
         return metrics;
     }
 
+    /**
+     * Returns the layout metrics of the specified menu item on its own.
+     * 
+     * @param menuItem
+     *            Menu item.
+     * @return Layout metrics of the specified menu item, or <code>null</code> if the menu item
+     *         is not painted by <b>Substance</b>.
+     */
+    private static MenuLayoutMetrics getItemMetrics(JMenuItem menuItem, boolean forPainting) {
+        ButtonUI bui = menuItem.getUI();
+        if (!(bui instanceof SubstanceMenu))
+            return null;
+        SubstanceMenu ui = (SubstanceMenu) bui;
+        MenuLayoutInfo mli = MenuUtilities.getMenuLayoutInfo(forPainting, menuItem,
+                ui.getAcceleratorFont(), ui.getCheckIcon(), ui.getArrowIcon(),
+                ui.getDefaultTextIconGap());
+        MenuLayoutMetrics metrics = new MenuLayoutMetrics();
+        metrics.maxIconWidth = mli.iconRect.width;
+        metrics.maxCheckIconWidth = mli.checkIconRect.width;
+        metrics.maxTextWidth = mli.textRect.width;
+        metrics.maxAcceleratorWidth = mli.acceleratorRect.width;
+        metrics.maxArrowIconWidth = mli.arrowIconRect.width;
+        metrics.maxIconTextGap = ui.getDefaultTextIconGap();
+        return metrics;
+    }
+
+    /**
+     * Merges the layout metrics of a single menu item into the layout metrics of its popup menu.
+     */
+    private static void merge(MenuLayoutMetrics metrics, MenuLayoutMetrics itemMetrics) {
+        metrics.maxIconWidth = Math.max(metrics.maxIconWidth, itemMetrics.maxIconWidth);
+        metrics.maxCheckIconWidth = Math.max(metrics.maxCheckIconWidth,
+                itemMetrics.maxCheckIconWidth);
+        metrics.maxTextWidth = Math.max(metrics.maxTextWidth, itemMetrics.maxTextWidth);
+        metrics.maxAcceleratorWidth = Math.max(metrics.maxAcceleratorWidth,
+                itemMetrics.maxAcceleratorWidth);
+        metrics.maxArrowIconWidth = Math.max(metrics.maxArrowIconWidth,
+                itemMetrics.maxArrowIconWidth);
+        metrics.maxIconTextGap = Math.max(metrics.maxIconTextGap, itemMetrics.maxIconTextGap);
+    }
+
     /**
      * Returns the layout metrics of the popup menu of the specified menu item.
      * 
@@ -805,20 +906,8 @@ public class MenuUtilities {
         // fix for issue 347 - menu item in menu bar is not
         // covered by the code above
         if (!(comp instanceof JMenu)) {
-            ButtonUI bui = menuItem.getUI();
-            if (bui instanceof SubstanceMenu) {
-                SubstanceMenu ui = (SubstanceMenu) bui;
-
-                MenuLayoutInfo mli = MenuUtilities.getMenuLayoutInfo(forPainting, menuItem,
-                        ui.getAcceleratorFont(), ui.getCheckIcon(), ui.getArrowIcon(),
-                        ui.getDefaultTextIconGap());
-                MenuLayoutMetrics metrics = new MenuLayoutMetrics();
-                metrics.maxIconWidth = mli.iconRect.width;
-                metrics.maxCheckIconWidth = mli.checkIconRect.width;
-                metrics.maxTextWidth = mli.textRect.width;
-                metrics.maxAcceleratorWidth = mli.acceleratorRect.width;
-                metrics.maxArrowIconWidth = mli.arrowIconRect.width;
-                metrics.maxIconTextGap = ui.getDefaultTextIconGap();
+            MenuLayoutMetrics metrics = getItemMetrics(menuItem, forPainting);
+            if (metrics != null) {
                 return metrics;
             }
         }
@@ -831,16 +920,19 @@ public class MenuUtilities {
     public static MenuLayoutMetrics getPopupLayoutMetrics(JPopupMenu popupMenu,
             boolean forPainting) {
         Object prop = popupMenu.getClientProperty(LAYOUT_METRICS);
-        if (prop instanceof MenuLayoutMetrics) {
-            return (MenuLayoutMetrics) prop;
+        PopupLayoutCache cache;
+        if (prop instanceof PopupLayoutCache) {
+            cache = (PopupLayoutCache) prop;
+        } else {
+            cache = new PopupLayoutCache();
+            popupMenu.putClientProperty(LAYOUT_METRICS, cache);
         }
-        MenuLayoutMetrics metrics = getMetrics(popupMenu, forPainting);
-        popupMenu.putClientProperty(LAYOUT_METRICS, metrics);
-        return metrics;
+        return cache.getMetrics(popupMenu, forPainting);
     }
 
     /**
-     * Cleans the layout metrics of the popup menu of the specified menu item.
+     * Cleans the cached layout metrics of the specified menu item from its popup menu. The
+     * cached layout metrics of the other menu items in the same popup menu are kept.
      * 
      * @param menuItem
      *            Menu item.
@@ -848,8 +940,30 @@ public class MenuUtilities {
     private static void cleanPopupLayoutMetrics(JMenuItem menuItem) {
         Component comp = menuItem.getParent();
         if (comp instanceof JPopupMenu) {
-            JPopupMenu popupMenu = (JPopupMenu) comp;
-            cleanPopupLayoutMetrics(popupMenu);
+            Object prop = ((JPopupMenu) comp).getClientProperty(LAYOUT_METRICS);
+            if (prop instanceof PopupLayoutCache) {
+                ((PopupLayoutCache) prop).clear(menuItem);
+            }
+        }
+    }
+
+    /**
+     * Cleans the combined layout metrics of the specified popup menu after a menu item has been
+     * added or removed. The cached layout metrics of the menu items themselves are kept.
+     * 
+     * @param popupMenu
+     *            Popup menu.
+     * @param menuItem
+     *            Menu item that has been added or removed.
+     */
+    public static void cleanPopupLayoutMetrics(JPopupMenu popupMenu, Component menuItem) {
+        if (popupMenu == null) {
+            return;
+        }
+        Object prop = popupMenu.getClientProperty(LAYOUT_METRICS);
+        if (prop instanceof PopupLayoutCache) {
+            ((PopupLayoutCache) prop).clear(
+                    (menuItem instanceof JMenuItem) ? (JMenuItem) menuItem : null);
         }
     }
 
@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2005-2018 Substance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Substance Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.widget.menu;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Search index over the texts of all menus and menu items of a menu bar. The index is kept up to
+ * date from container events on the menu bar and the popup menus, and from text changes on the
+ * menu items, so that searching does not need to walk the menu hierarchy.
+ * 
+ * @author Kirill Grouchnikov
+ */
+class MenuSearchIndex {
+    /**
+     * Single indexed menu or menu item.
+     * 
+     * @author Kirill Grouchnikov
+     */
+    static class Entry {
+        /**
+         * The indexed menu (item).
+         */
+        final JMenuItem menuItem;
+
+        /**
+         * The menus leading to the indexed menu (item), starting from the top-level menu.
+         */
+        final JMenu[] path;
+
+        /**
+         * Lower-cased text of the indexed menu (item).
+         */
+        String text;
+
+        /**
+         * Words of {@link #text}.
+         */
+        String[] tokens;
+
+        /**
+         * Location of the indexed menu (item) in the depth-first order of the menu bar.
+         */
+        int order;
+
+        /**
+         * Number of the last search that has collected this entry.
+         */
+        int searchStamp;
+
+        Entry(JMenuItem menuItem, JMenu[] path) {
+            this.menuItem = menuItem;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Single search match and its rank.
+     */
+    private static class Match {
+        /**
+         * The matching entry.
+         */
+        private final Entry entry;
+
+        /**
+         * 0 if the text starts with the query, 1 if a word starts with the query and 2 otherwise.
+         */
+        private final int tier;
+
+        private Match(Entry entry, int tier) {
+            this.entry = entry;
+            this.tier = tier;
+        }
+    }
+
+    /**
+     * Orders matches by rank, and then by the location of the entry in the menu bar.
+     */
+    private static final Comparator<Match> MATCH_ORDER = (Match m1, Match m2) -> {
+        if (m1.tier != m2.tier) {
+            return m1.tier - m2.tier;
+        }
+        return m1.entry.order - m2.entry.order;
+    };
+
+    /**
+     * The indexed menu bar.
+     */
+    private final JMenuBar menuBar;
+
+    /**
+     * All indexed entries.
+     */
+    private final Map<JMenuItem, Entry> entries = new HashMap<>();
+
+    /**
+     * Entries by the words of their texts. Words are sorted, so that all words that start with
+     * the same prefix are adjacent.
+     */
+    private final NavigableMap<String, Set<Entry>> tokenIndex = new TreeMap<>();
+
+    /**
+     * Incremented on every change to the indexed entries.
+     */
+    private int modificationCount;
+
+    /**
+     * Incremented on every menu (item) that is added or removed.
+     */
+    private int structureCount;
+
+    /**
+     * Value of {@link #structureCount} when {@link Entry#order} was last computed.
+     */
+    private int orderStructureCount = -1;
+
+    /**
+     * Incremented on every search.
+     */
+    private int searchCount;
+
+    /**
+     * The query of the last search that scanned the entries.
+     */
+    private String lastQuery;
+
+    /**
+     * All entries that contain {@link #lastQuery}.
+     */
+    private List<Entry> lastMatches;
+
+    /**
+     * Value of {@link #modificationCount} when {@link #lastMatches} was computed.
+     */
+    private int lastModificationCount;
+
+    /**
+     * Tracks menus and menu items added to and removed from the menu bar and the popup menus.
+     */
+    private final ContainerListener containerListener = new ContainerListener() {
+        @Override
+        public void componentAdded(ContainerEvent e) {
+            Component child = e.getChild();
+            if (!(child instanceof JMenuItem)) {
+                return;
+            }
+            Container container = e.getContainer();
+            if (container == menuBar) {
+                add((JMenuItem) child, new JMenu[0]);
+                return;
+            }
+            Component invoker = ((JPopupMenu) container).getInvoker();
+            Entry parentEntry = entries.get(invoker);
+            if (parentEntry != null) {
+                JMenu[] path = Arrays.copyOf(parentEntry.path, parentEntry.path.length + 1);
+                path[parentEntry.path.length] = (JMenu) invoker;
+                add((JMenuItem) child, path);
+            }
+        }
+
+        @Override
+        public void componentRemoved(ContainerEvent e) {
+            Component child = e.getChild();
+            if (child instanceof JMenuItem) {
+                remove((JMenuItem) child);
+            }
+        }
+    };
+
+    /**
+     * Tracks text changes of the indexed menus and menu items.
+     */
+    private final PropertyChangeListener textListener = (PropertyChangeEvent evt) -> {
+        Entry entry = entries.get(evt.getSource());
+        if (entry != null) {
+            removeTokens(entry);
+            setText(entry);
+            modificationCount++;
+        }
+    };
+
+    /**
+     * Creates an index for the specified menu bar. Call {@link #dispose()} to stop tracking
+     * changes.
+     * 
+     * @param menuBar
+     *            Menu bar.
+     */
+    MenuSearchIndex(JMenuBar menuBar) {
+        this.menuBar = menuBar;
+        for (int i = 0; i < menuBar.getComponentCount(); i++) {
+            Component component = menuBar.getComponent(i);
+            if (component instanceof JMenuItem) {
+                this.add((JMenuItem) component, new JMenu[0]);
+            }
+        }
+        menuBar.addContainerListener(this.containerListener);
+    }
+
+    /**
+     * Stops tracking changes to the menu bar and its menus.
+     */
+    void dispose() {
+        this.menuBar.removeContainerListener(this.containerListener);
+        for (Entry entry : this.entries.values()) {
+            entry.menuItem.removePropertyChangeListener("text", this.textListener);
+            if (entry.menuItem instanceof JMenu) {
+                ((JMenu) entry.menuItem).getPopupMenu()
+                        .removeContainerListener(this.containerListener);
+            }
+        }
+        this.entries.clear();
+        this.tokenIndex.clear();
+        this.lastMatches = null;
+    }
+
+    /**
+     * Returns the number of menus and menu items in the menu bar. This includes the menu items
+     * that are added directly to the menu bar, and not only the menus and their contents.
+     * 
+     * @return The number of menus and menu items in the menu bar.
+     */
+    int getMenuItemCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the menus and menu items with texts that contain the specified query. Menus and
+     * menu items with texts that start with the query come first, followed by the ones that have
+     * a word that starts with the query. Within the same rank, the results are in the menu bar
+     * order.
+     * 
+     * @param query
+     *            Lower-cased query.
+     * @param limit
+     *            Maximal number of results.
+     * @return The matching menus and menu items.
+     */
+    List<Entry> search(String query, int limit) {
+        Collection<Entry> matches = null;
+        if (isToken(query)) {
+            // words that start with the query are adjacent in the sorted index
+            this.searchCount++;
+            List<Entry> tokenMatches = new ArrayList<>();
+            for (Set<Entry> tokenEntries : this.tokenIndex
+                    .subMap(query, true, query + Character.MAX_VALUE, true).values()) {
+                for (Entry entry : tokenEntries) {
+                    // an entry can have more than one matching word
+                    if (entry.searchStamp != this.searchCount) {
+                        entry.searchStamp = this.searchCount;
+                        tokenMatches.add(entry);
+                    }
+                }
+            }
+            if (tokenMatches.size() >= limit) {
+                // no need to look for matches in the middle of words
+                matches = tokenMatches;
+            }
+        }
+        if (matches == null) {
+            // A longer query only matches a subset of the entries that matched
+            // the shorter query
+            Collection<Entry> candidates = this.entries.values();
+            if ((this.lastMatches != null)
+                    && (this.lastModificationCount == this.modificationCount)
+                    && query.contains(this.lastQuery)) {
+                candidates = this.lastMatches;
+            }
+            List<Entry> scanMatches = new ArrayList<>();
+            for (Entry entry : candidates) {
+                if (entry.text.contains(query)) {
+                    scanMatches.add(entry);
+                }
+            }
+            this.lastQuery = query;
+            this.lastMatches = scanMatches;
+            this.lastModificationCount = this.modificationCount;
+            matches = scanMatches;
+        }
+
+        // keep the best matches in a heap with the worst of them at the top
+        this.updateOrder();
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, MATCH_ORDER.reversed());
+        for (Entry entry : matches) {
+            Match match = new Match(entry, getTier(entry, query));
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (MATCH_ORDER.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+        List<Match> ranked = new ArrayList<>(best);
+        Collections.sort(ranked, MATCH_ORDER);
+        List<Entry> result = new ArrayList<>(ranked.size());
+        for (Match match : ranked) {
+            result.add(match.entry);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the specified menu (item) and all its children to the index.
+     */
+    private void add(JMenuItem menuItem, JMenu[] path) {
+        if (this.entries.containsKey(menuItem)) {
+            return;
+        }
+        Entry entry = new Entry(menuItem, path);
+        this.setText(entry);
+        this.entries.put(menuItem, entry);
+        this.modificationCount++;
+        this.structureCount++;
+        menuItem.addPropertyChangeListener("text", this.textListener);
+
+        if (menuItem instanceof JMenu) {
+            JMenu menu = (JMenu) menuItem;
+            JMenu[] childPath = Arrays.copyOf(path, path.length + 1);
+            childPath[path.length] = menu;
+            JPopupMenu popupMenu = menu.getPopupMenu();
+            for (int i = 0; i < popupMenu.getComponentCount(); i++) {
+                Component child = popupMenu.getComponent(i);
+                if (child instanceof JMenuItem) {
+                    this.add((JMenuItem) child, childPath);
+                }
+            }
+            popupMenu.addContainerListener(this.containerListener);
+        }
+    }
+
+    /**
+     * Removes the specified menu (item) and all its children from the index.
+     */
+    private void remove(JMenuItem menuItem) {
+        Entry entry = this.entries.remove(menuItem);
+        if (entry == null) {
+            return;
+        }
+        this.removeTokens(entry);
+        this.modificationCount++;
+        this.structureCount++;
+        menuItem.removePropertyChangeListener("text", this.textListener);
+
+        if (menuItem instanceof JMenu) {
+            JPopupMenu popupMenu = ((JMenu) menuItem).getPopupMenu();
+            popupMenu.removeContainerListener(this.containerListener);
+            for (int i = 0; i < popupMenu.getComponentCount(); i++) {
+                Component child = popupMenu.getComponent(i);
+                if (child instanceof JMenuItem) {
+                    this.remove((JMenuItem) child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the text and the words of the specified entry from its menu (item), and adds the
+     * words to the index.
+     */
+    private void setText(Entry entry) {
+        String text = entry.menuItem.getText();
+        entry.text = (text == null) ? "" : text.toLowerCase();
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= entry.text.length(); i++) {
+            boolean isWordChar = (i < entry.text.length())
+                    && Character.isLetterOrDigit(entry.text.charAt(i));
+            if (isWordChar && (start < 0)) {
+                start = i;
+            } else if (!isWordChar && (start >= 0)) {
+                tokens.add(entry.text.substring(start, i));
+                start = -1;
+            }
+        }
+        entry.tokens = tokens.toArray(new String[0]);
+        for (String token : entry.tokens) {
+            this.tokenIndex.computeIfAbsent(token, (String key) -> new HashSet<>()).add(entry);
+        }
+    }
+
+    /**
+     * Removes the words of the specified entry from the index.
+     */
+    private void removeTokens(Entry entry) {
+        for (String token : entry.tokens) {
+            Set<Entry> tokenEntries = this.tokenIndex.get(token);
+            if (tokenEntries != null) {
+                tokenEntries.remove(entry);
+                if (tokenEntries.isEmpty()) {
+                    this.tokenIndex.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Numbers the entries in the depth-first order of the menu bar, if menus or menu items have
+     * been added or removed since the last numbering.
+     */
+    private void updateOrder() {
+        if (this.orderStructureCount == this.structureCount) {
+            return;
+        }
+        int order = 0;
+        for (int i = 0; i < this.menuBar.getComponentCount(); i++) {
+            order = this.updateOrder(this.menuBar.getComponent(i), order);
+        }
+        this.orderStructureCount = this.structureCount;
+    }
+
+    private int updateOrder(Component component, int order) {
+        Entry entry = this.entries.get(component);
+        if (entry == null) {
+            return order;
+        }
+        entry.order = order++;
+        if (component instanceof JMenu) {
+            JPopupMenu popupMenu = ((JMenu) component).getPopupMenu();
+            for (int i = 0; i < popupMenu.getComponentCount(); i++) {
+                order = this.updateOrder(popupMenu.getComponent(i), order);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Returns the rank of the specified entry for the specified query.
+     */
+    private static int getTier(Entry entry, String query) {
+        if (entry.text.startsWith(query)) {
+            return 0;
+        }
+        for (String token : entry.tokens) {
+            if (token.startsWith(query)) {
+                return 1;
+            }
+        }
+        return 2;
+    }
+
+    /**
+     * Returns indication whether the specified query is a single word.
+     */
+    private static boolean isToken(String query) {
+        for (int i = 0; i < query.length(); i++) {
+            if (!Character.isLetterOrDigit(query.charAt(i))) {
+                return false;
+            }
+        }
+        return query.length() > 0;
+    }
+}
@@ -45,10 +45,8 @@ import java.awt.*;
 import java.awt.event.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.ResourceBundle;
+import java.util.*;
+import java.util.List;
 
 /**
  * Adds menu search panel to menu bars.
@@ -71,6 +69,16 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
      */
     private SearchPanel searchPanel;
 
+    /**
+     * Search index over the menus and menu items of the associated menu bar.
+     */
+    private MenuSearchIndex searchIndex;
+
+    /**
+     * Keeps the search panel as the last child of the associated menu bar.
+     */
+    private ContainerListener containerListener;
+
     /**
      * Panel for searching the menus.
      * 
@@ -166,14 +174,11 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
                     SearchPanel.this.remove(toRemove);
                 }
                 SearchPanel.this.resultButtons.clear();
-                // find all matching menu items / menus
-                LinkedList<SearchResult> searchResults = SearchPanel.this
-                        .findOccurences(searchString);
+                // find the first 16 matching menu items / menus
+                List<SearchResult> searchResults = SearchPanel.this
+                        .findOccurences(searchString, 16);
                 int count = 0;
                 for (SearchResult searchResult : searchResults) {
-                    // show only first 16 results.
-                    if (count == 16)
-                        break;
                     // create new button with binary icon
                     JButton resultButton = new JButton();
                     final int finalCount = count;
@@ -207,65 +212,24 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
         }
 
         /**
-         * Returns all occurences of the specified string in the menus and menu items of the
+         * Returns the best occurences of the specified string in the menus and menu items of the
          * associated menu bar.
          * 
          * @param searchPattern
          *            Pattern to search (no wildcards yet).
-         * @return All occurences of the specified string in the menus and menu items of the
+         * @param limit
+         *            Maximal number of occurences to return.
+         * @return The best occurences of the specified string in the menus and menu items of the
          *         associated menu bar.
          */
-        private LinkedList<SearchResult> findOccurences(String searchPattern) {
-            LinkedList<SearchResult> result = new LinkedList<SearchResult>();
-
-            LinkedList<JMenu> currentPath = new LinkedList<JMenu>();
-
-            for (int i = 0; i < jcomp.getComponentCount(); i++) {
-                Component component = jcomp.getComponent(i);
-                if (component instanceof JMenu) {
-                    JMenu menu = (JMenu) component;
-                    this.checkMenu(currentPath, menu, searchPattern, result);
-                }
+        private List<SearchResult> findOccurences(String searchPattern, int limit) {
+            List<SearchResult> result = new ArrayList<SearchResult>();
+            for (MenuSearchIndex.Entry entry : searchIndex.search(searchPattern, limit)) {
+                result.add(new SearchResult(jcomp, Arrays.asList(entry.path), entry.menuItem));
             }
-
             return result;
         }
 
-        /**
-         * Recursively scans the specified menu (item) and updates the list that contains all
-         * occurences of the specified string in the contained menus and menu items.
-         * 
-         * @param currentPath
-         *            The path to the current menu (item). Contains {@link JMenu}s.
-         * @param menuItem
-         *            The menu (item) itself that is being tested.
-         * @param searchPattern
-         *            Pattern to search (no wildcards yet).
-         * @param matchingResults
-         *            All occurences of the specified string up until now. After <code>this</code>
-         *            function returns, will also contain all occurences of the specified string in
-         *            the contained menu (item)s. Contains {@link SearchResult}s.
-         */
-        private void checkMenu(LinkedList<JMenu> currentPath, JMenuItem menuItem,
-                String searchPattern, LinkedList<SearchResult> matchingResults) {
-            String menuItemText = menuItem.getText();
-            if (menuItemText.toLowerCase().indexOf(searchPattern) >= 0) {
-                matchingResults.addLast(new SearchResult(jcomp, currentPath, menuItem));
-            }
-            if (menuItem instanceof JMenu) {
-                JMenu menu = (JMenu) menuItem;
-                currentPath.addLast(menu);
-                for (int i = 0; i < menu.getMenuComponentCount(); i++) {
-                    Component menuComponent = menu.getMenuComponent(i);
-                    if (menuComponent instanceof JMenuItem) {
-                        JMenuItem childItem = (JMenuItem) menuComponent;
-                        this.checkMenu(currentPath, childItem, searchPattern, matchingResults);
-                    }
-                }
-                currentPath.removeLast();
-            }
-        }
-
         @Override
         public void setVisible(boolean aFlag) {
             super.setVisible(aFlag);
@@ -336,7 +300,7 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
          * @param menuLeaf
          *            The menu (item) that matches the search pattern string.
          */
-        public SearchResult(JMenuBar menuBar, LinkedList<JMenu> menuPath, JMenuItem menuLeaf) {
+        public SearchResult(JMenuBar menuBar, List<JMenu> menuPath, JMenuItem menuLeaf) {
             int count = 1;
             if (menuPath != null)
                 count += 2 * menuPath.size();
@@ -396,7 +360,7 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
         }
     }
 
-    private static boolean toInstallMenuSearch(JMenuBar menuBar) {
+    private boolean toInstallMenuSearch(JMenuBar menuBar) {
         // if the menu search widget has not been allowed,
         // return false
         if (!SubstanceWidgetManager.getInstance().isAllowed(SwingUtilities.getRootPane(menuBar),
@@ -405,53 +369,16 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
         // don't install on menu bar of title panes
         if (menuBar instanceof SubstanceTitlePane.SubstanceMenuBar)
             return false;
-        return MenuSearchWidget.getMenuItemCount(menuBar) > 40;
-    }
-
-    /**
-     * Returns the number of menu items under the specified menu item.
-     * 
-     * @param menuItem
-     *            The root menu item.
-     * @return The number of menu items under the specified menu item.
-     */
-    private static int getMenuItemCount(JMenuItem menuItem) {
-        int result = 1;
-
-        if (menuItem instanceof JMenu) {
-            JMenu menu = (JMenu) menuItem;
-            for (int i = 0; i < menu.getMenuComponentCount(); i++) {
-                Component child = menu.getMenuComponent(i);
-                if (child instanceof JMenuItem)
-                    result += MenuSearchWidget.getMenuItemCount((JMenuItem) child);
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * Returns the number of menu items under the specified menu bar.
-     * 
-     * @param menuBar
-     *            The root menu bar.
-     * @return The number of menu items under the specified menu bar.
-     */
-    public static int getMenuItemCount(JMenuBar menuBar) {
-        int result = 0;
-
-        for (int i = 0; i < menuBar.getMenuCount(); i++) {
-            JMenu menu = menuBar.getMenu(i);
-            if (menu != null) {
-                result += MenuSearchWidget.getMenuItemCount(menu);
-            }
-        }
-
-        return result;
+        // The count includes the menu items that are added directly to the menu bar,
+        // and not only the menus and their contents
+        return this.searchIndex.getMenuItemCount() > 40;
     }
 
     @Override
     public void installUI() {
+        // The index tracks the menus of the menu bar. It needs to be created before
+        // the container listener below, which relies on it being up to date.
+        this.searchIndex = new MenuSearchIndex(this.jcomp);
         this.searchPanel = new SearchPanel(this.jcomp);
         this.jcomp.add(searchPanel, this.jcomp.getComponentCount());
         this.searchPanel.setVisible(toInstallMenuSearch(this.jcomp));
@@ -463,7 +390,7 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
         // need to add a container listener that will move a newly added
         // JMenu one entry before the last (so that our search panel
         // will always be the last).
-        this.jcomp.addContainerListener(new ContainerAdapter() {
+        this.containerListener = new ContainerAdapter() {
             @Override
             public void componentAdded(ContainerEvent e) {
                 if (!(e.getChild() instanceof JMenu))
@@ -487,7 +414,8 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
                     inEvent = false;
                 }
             }
-        });
+        };
+        this.jcomp.addContainerListener(this.containerListener);
         // }
 
         // SearchPanel sp = (SearchPanel)
@@ -499,7 +427,11 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
 
     @Override
     public void uninstallUI() {
+        this.jcomp.removeContainerListener(this.containerListener);
+        this.containerListener = null;
         this.jcomp.remove(this.searchPanel);
+        this.searchIndex.dispose();
+        this.searchIndex = null;
         super.uninstallUI();
     }
 
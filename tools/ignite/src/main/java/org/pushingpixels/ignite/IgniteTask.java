@@ -32,12 +32,9 @@ package org.pushingpixels.ignite;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.tasks.*;
-import org.pushingpixels.photon.transcoder.*;
-import org.pushingpixels.photon.transcoder.java.JavaLanguageRenderer;
-import org.pushingpixels.photon.transcoder.kotlin.KotlinLanguageRenderer;
+import org.pushingpixels.photon.transcoder.SvgBatchProcessor;
 
 import java.io.*;
-import java.util.concurrent.CountDownLatch;
 
 public class IgniteTask extends DefaultTask {
     @Input
@@ -52,12 +49,31 @@ public class IgniteTask extends DefaultTask {
     @Input
     public boolean useResizableTemplate;
 
+    @Input
+    public boolean useStaticGeometry;
+
     @InputDirectory
     public File inputDirectory;
 
-    @InputDirectory
+    @OutputDirectory
     public File outputDirectory;
 
+    /**
+     * Returns the manifest with the content hashes of the SVG files transcoded by the previous
+     * run of this task. Only the SVG files that have changed since then are transcoded again.
+     * This complements Gradle's own up-to-date check, which skips the task entirely when neither
+     * the inputs nor the outputs have changed, and also applies when {@link #transcode()} is
+     * called directly from another task.
+     *
+     * @return The manifest file of this task.
+     */
+    @Internal
+    public File getManifestFile() {
+        return new File(getTemporaryDir(), "manifest-"
+                + Integer.toHexString((inputDirectory.getAbsolutePath() + File.pathSeparator
+                + outputDirectory.getAbsolutePath()).hashCode()));
+    }
+
     @TaskAction
     public void transcode() {
         Logger logger = getLogger();
@@ -70,13 +86,6 @@ public class IgniteTask extends DefaultTask {
 
         this.outputDirectory.mkdirs();
 
-        boolean renderAsKotlinCode = ("kotlin".compareTo(outputLanguage) == 0);
-
-        LanguageRenderer languageRenderer = renderAsKotlinCode
-                ? new KotlinLanguageRenderer()
-                : new JavaLanguageRenderer();
-        String outputFileNameExtension = ("java".compareTo(outputLanguage) == 0) ? ".java" : ".kt";
-
         logger.trace(
                 "Processing " + inputDirectory.getAbsolutePath() + " to " + outputPackageName +
                         " in " + outputLanguage);
@@ -86,43 +95,28 @@ public class IgniteTask extends DefaultTask {
         templateFileName += (useResizableTemplate ? "Resizable" : "Plain");
         templateFileName += ".templ";
 
-        for (File file : inputDirectory.listFiles(
-                (File dir, String name) -> name.endsWith(".svg"))) {
-            String svgClassName = outputClassNamePrefix
-                    + file.getName().substring(0, file.getName().length() - 4);
-            svgClassName = svgClassName.replace('-', '_');
-            svgClassName = svgClassName.replace(' ', '_');
-            String classFilename =
-                    outputDirectory + File.separator + svgClassName + outputFileNameExtension;
-
-            logger.trace("Processing " + file.getName());
-
-            try (PrintWriter pw = new PrintWriter(classFilename);
-                 InputStream templateStream = SvgBatchConverter.class
-                         .getResourceAsStream(templateFileName)) {
-                final CountDownLatch latch = new CountDownLatch(1);
-
-                SvgTranscoder transcoder = new SvgTranscoder(file.toURI().toURL().toString(),
-                        svgClassName, languageRenderer);
-                transcoder.setPackageName(outputPackageName);
-                transcoder.setListener(new TranscoderListener() {
-                    public Writer getWriter() {
-                        return pw;
-                    }
-
-                    public void finished() {
-                        latch.countDown();
-                    }
-                });
-                if (templateStream == null) {
-                    logger.error("Couldn't load " + templateFileName);
-                    return;
-                }
-                transcoder.transcode(templateStream);
-                latch.await();
-            } catch (Exception e) {
-                logger.error("Transcoding failed", e);
+        SvgBatchProcessor processor = new SvgBatchProcessor(inputDirectory, outputDirectory,
+                outputPackageName, outputLanguage, templateFileName);
+        processor.setOutputClassNamePrefix(outputClassNamePrefix);
+        processor.setStaticGeometry(useStaticGeometry);
+        processor.setManifestFile(getManifestFile());
+        processor.setListener(new SvgBatchProcessor.BatchListener() {
+            public void onTranscoding(File svgFile) {
+                logger.trace("Processing " + svgFile.getName());
+            }
+
+            public void onFailure(File svgFile, Throwable failure) {
+                logger.error("Transcoding " + svgFile.getName() + " failed", failure);
             }
+        });
+
+        try {
+            SvgBatchProcessor.Report report = processor.process();
+            StringWriter reportWriter = new StringWriter();
+            report.writeTo(new PrintWriter(reportWriter), 10);
+            logger.info(reportWriter.toString());
+        } catch (IOException ioe) {
+            logger.error("Transcoding failed", ioe);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2005-2018 Trident Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Trident Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.trident;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of property setters and getters used by the default property accessors of
+ * {@link TimelinePropertyBuilder}. Each accessor is looked up once per class and property name
+ * and bound to a {@link MethodHandle}.
+ * 
+ * @author Kirill Grouchnikov
+ */
+final class PropertyAccessors {
+    /**
+     * Resolved accessor method.
+     */
+    static final class Accessor {
+        static final Accessor MISSING = new Accessor(null, null, null);
+
+        /**
+         * The accessor method, or <code>null</code> if there is no such method.
+         */
+        final Method method;
+
+        /**
+         * Handle of the method adapted to take and return {@link Object}s. This is
+         * <code>null</code> if the method is missing or not accessible through a public lookup,
+         * in which case the method is called reflectively.
+         */
+        final MethodHandle genericHandle;
+
+        /**
+         * Handle of the method with the receiver adapted to {@link Object} and the primitive
+         * property type (if any) left as is. This is <code>null</code> if
+         * {@link #genericHandle} is <code>null</code>.
+         */
+        final MethodHandle primitiveHandle;
+
+        private Accessor(Method method, MethodHandle genericHandle,
+                MethodHandle primitiveHandle) {
+            this.method = method;
+            this.genericHandle = genericHandle;
+            this.primitiveHandle = primitiveHandle;
+        }
+
+        /**
+         * Returns the type of the property - the parameter type for setters and the return type
+         * for getters.
+         */
+        Class<?> getPropertyType() {
+            if (this.method == null) {
+                return null;
+            }
+            return (this.method.getParameterTypes().length == 1)
+                    ? this.method.getParameterTypes()[0] : this.method.getReturnType();
+        }
+    }
+
+    private static final ClassValue<Map<String, Accessor>> SETTERS =
+            new ClassValue<Map<String, Accessor>>() {
+                @Override
+                protected Map<String, Accessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private static final ClassValue<Map<String, Accessor>> GETTERS =
+            new ClassValue<Map<String, Accessor>>() {
+                @Override
+                protected Map<String, Accessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private PropertyAccessors() {
+    }
+
+    static Accessor getSetter(Class<?> clazz, String propertyName) {
+        return SETTERS.get(clazz).computeIfAbsent(propertyName,
+                (String name) -> createAccessor(findSetter(clazz, name), true));
+    }
+
+    static Accessor getGetter(Class<?> clazz, String propertyName) {
+        return GETTERS.get(clazz).computeIfAbsent(propertyName,
+                (String name) -> createAccessor(findGetter(clazz, name), false));
+    }
+
+    private static Accessor createAccessor(Method method, boolean isSetter) {
+        if (method == null) {
+            return Accessor.MISSING;
+        }
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException iae) {
+            // For example, a public method declared in a non-public class
+            return new Accessor(method, null, null);
+        }
+        MethodHandle primitiveHandle = handle.asType(
+                handle.type().changeParameterType(0, Object.class));
+        MethodHandle genericHandle = isSetter
+                ? handle.asType(MethodType.methodType(void.class, Object.class, Object.class))
+                : handle.asType(MethodType.methodType(Object.class, Object.class));
+        return new Accessor(method, genericHandle, primitiveHandle);
+    }
+
+    private static Method findSetter(Class<?> clazz, String propertyName) {
+        String setterMethodName = "set" + Character.toUpperCase(propertyName.charAt(0))
+                + propertyName.substring(1);
+        Class<?> oClazz = clazz;
+        while (oClazz != null) {
+            for (Method m : oClazz.getMethods()) {
+                if (setterMethodName.equals(m.getName()) && (m.getParameterTypes().length == 1)
+                        && (m.getReturnType() == Void.TYPE)
+                        && (!Modifier.isStatic(m.getModifiers()))) {
+                    return m;
+                }
+            }
+            oClazz = oClazz.getSuperclass();
+        }
+        return null;
+    }
+
+    private static Method findGetter(Class<?> clazz, String propertyName) {
+        String getterMethodName = "get" + Character.toUpperCase(propertyName.charAt(0))
+                + propertyName.substring(1);
+        Class<?> oClazz = clazz;
+        while (oClazz != null) {
+            for (Method m : oClazz.getMethods()) {
+                if (getterMethodName.equals(m.getName()) && (m.getParameterTypes().length == 0)
+                        && (!Modifier.isStatic(m.getModifiers()))) {
+                    return m;
+                }
+            }
+            oClazz = oClazz.getSuperclass();
+        }
+        return null;
+    }
+}
@@ -188,12 +188,7 @@ public class Timeline implements TimelineScenario.TimelineScenarioActor {
                 final float durationFraction, final float timelinePosition) {
             // special handling for chained callbacks not running on UI
             // thread
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = callback.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnUIThread.class);
-                clazz = clazz.getSuperclass();
-            }
+            boolean shouldRunOnUIThread = TimelineEngine.isRunOnUIThread(callback.getClass());
             if (shouldRunOnUIThread && (Timeline.this.uiToolkitHandler != null)) {
                 Timeline.this.uiToolkitHandler.runOnUIThread(mainObject,
                         () -> callback.onTimelineStateChanged(oldState, newState, durationFraction,
@@ -231,12 +226,7 @@ public class Timeline implements TimelineScenario.TimelineScenarioActor {
                 final float timelinePosition) {
             // special handling for chained callbacks not running on UI
             // thread
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = callback.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnUIThread.class);
-                clazz = clazz.getSuperclass();
-            }
+            boolean shouldRunOnUIThread = TimelineEngine.isRunOnUIThread(callback.getClass());
             if (shouldRunOnUIThread && (Timeline.this.uiToolkitHandler != null)) {
                 Timeline.this.uiToolkitHandler.runOnUIThread(mainObject, () -> {
                     if (Timeline.this.getState() == TimelineState.CANCELLED)
@@ -267,6 +257,39 @@ public class Timeline implements TimelineScenario.TimelineScenarioActor {
                 handlePulse(this.callbacks.get(i), durationFraction, timelinePosition);
             }
         }
+
+        /**
+         * Variant of {@link #onTimelinePulse(float, float)} used by the pulse thread. Callbacks
+         * that should run on the UI thread are added to the batch instead of being posted to the
+         * UI thread one by one.
+         */
+        void onTimelinePulse(float durationFraction, float timelinePosition,
+                TimelinePulseBatch pulseBatch) {
+            if ((uiToolkitHandler != null) && !shouldForceUiUpdate() &&
+                    !uiToolkitHandler.isInReadyState(mainObject)) {
+                if (TimelineEngine.DEBUG_MODE) {
+                    System.out.println("Main object is not in ready state for pulse " + durationFraction);
+                }
+                return;
+            }
+
+            batchPulse(this.setterCallback, durationFraction, timelinePosition, pulseBatch);
+            for (int i = this.callbacks.size() - 1; i >= 0; i--) {
+                batchPulse(this.callbacks.get(i), durationFraction, timelinePosition,
+                        pulseBatch);
+            }
+        }
+
+        private void batchPulse(TimelineCallback callback, float durationFraction,
+                float timelinePosition, TimelinePulseBatch pulseBatch) {
+            if ((Timeline.this.uiToolkitHandler != null)
+                    && TimelineEngine.isRunOnUIThread(callback.getClass())) {
+                pulseBatch.addUIPulse(Timeline.this, callback, durationFraction,
+                        timelinePosition);
+            } else {
+                callback.onTimelinePulse(durationFraction, timelinePosition);
+            }
+        }
     }
 
     public Timeline() {
@@ -33,11 +33,9 @@ import org.pushingpixels.trident.Timeline.TimelineState;
 import org.pushingpixels.trident.TimelineScenario.TimelineScenarioState;
 import org.pushingpixels.trident.callback.RunOnUIThread;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The Trident timeline engine. This is the main entry point to play {@link Timeline}s and
@@ -151,7 +149,61 @@ class TimelineEngine {
     /**
      * The timeline thread.
      */
-    TridentAnimationThread animatorThread;
+    volatile TridentAnimationThread animatorThread;
+
+    /**
+     * Timeline and scenario operations submitted while
+     * {@link TridentConfig#isDeferringTimelineOperations()} is on. These are applied on the pulse
+     * thread at the beginning of the next pulse.
+     */
+    private final Queue<Runnable> pendingOperations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Worker threads for partitioned pulse processing. Created on first use with
+     * {@link TridentConfig#getPulseWorkerCount()} threads, and only recreated if that count
+     * changes.
+     */
+    private ExecutorService pulseWorkers;
+
+    /**
+     * Number of threads in {@link #pulseWorkers}.
+     */
+    private int pulseWorkerCount;
+
+    /**
+     * Minimal number of timelines in a single partition of partitioned pulse processing.
+     */
+    private static final int MIN_PULSE_PARTITION_SIZE = 256;
+
+    /**
+     * Pulse batches that are not in use, see {@link TimelinePulseBatch}.
+     */
+    private final Queue<TimelinePulseBatch> pulseBatchPool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of pulse batches dispatched to the callback thread and not yet recycled.
+     */
+    private final AtomicInteger pendingPulseBatches = new AtomicInteger();
+
+    /**
+     * Set while the pulse thread is parked in {@link #awaitActivity()}.
+     */
+    private volatile boolean isAwaitingActivity;
+
+    /**
+     * Caches whether callbacks of the specific class should run on the UI thread.
+     */
+    private static final ClassValue<Boolean> RUN_ON_UI_THREAD = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+                if (clazz.isAnnotationPresent(RunOnUIThread.class)) {
+                    return Boolean.TRUE;
+                }
+            }
+            return Boolean.FALSE;
+        }
+    };
 
     private BlockingQueue<Runnable> callbackQueue;
 
@@ -232,6 +284,15 @@ class TimelineEngine {
      */
     void updateTimelines() {
         synchronized (LOCK) {
+            Runnable pendingOperation;
+            while ((pendingOperation = this.pendingOperations.poll()) != null) {
+                try {
+                    pendingOperation.run();
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                }
+            }
+
             if ((this.runningTimelines.size() == 0) && (this.runningScenarios.size() == 0)) {
                 this.lastIterationTimeStamp = System.currentTimeMillis();
                 return;
@@ -265,172 +326,7 @@ class TimelineEngine {
             // + (t.mainObject == null ? "null" : t.mainObject
             // .getClass().getName()));
             // }
-            for (Iterator<Timeline> itTimeline = this.runningTimelines.iterator(); itTimeline
-                    .hasNext();) {
-                Timeline timeline = itTimeline.next();
-                if (timeline.getState() == TimelineState.SUSPENDED)
-                    continue;
-
-                boolean timelineWasInReadyState = false;
-                if (timeline.getState() == TimelineState.READY) {
-                    if ((timeline.timeUntilPlay - passedSinceLastIteration) > 0) {
-                        // still needs to wait in the READY state
-                        timeline.timeUntilPlay -= passedSinceLastIteration;
-                        continue;
-                    }
-
-                    // can go from READY to PLAYING
-                    timelineWasInReadyState = true;
-                    timeline.popState();
-                    if (DEBUG_MODE) {
-                        System.out.println("Moving " + timeline.id + " to READY");
-                    }
-                    this.callbackCallTimelineStateChanged(timeline, TimelineState.READY);
-                }
-
-                boolean hasEnded = false;
-                if (DEBUG_MODE) {
-                    System.out.println("Processing " + timeline.id + "["
-                            + timeline.mainObject.getClass().getSimpleName() + "] from "
-                            + timeline.durationFraction + ". Callback - "
-                            + (timeline.callbackChain == null ? "no" : "yes"));
-                }
-                // Component comp = entry.getKey();
-
-                // at this point, the timeline must be playing
-                switch (timeline.getState()) {
-                case PLAYING_FORWARD:
-                    if (!timelineWasInReadyState) {
-                        timeline.durationFraction = timeline.durationFraction
-                                + (float) passedSinceLastIteration / (float) timeline.duration;
-                    }
-                    timeline.timelinePosition = timeline.ease.map(timeline.durationFraction);
-                    if (DEBUG_MODE) {
-                        System.out.println("Timeline " + timeline.id + " position: "
-                                + ((long) (timeline.durationFraction * timeline.duration)) + "/"
-                                + timeline.duration + " = " + timeline.durationFraction);
-                    }
-                    if (timeline.durationFraction > 1.0f) {
-                        timeline.durationFraction = 1.0f;
-                        timeline.timelinePosition = 1.0f;
-                        if (timeline.isLooping) {
-                            boolean stopLoopingAnimation = timeline.toCancelAtCycleBreak;
-                            int loopsToLive = timeline.repeatCount;
-                            if (loopsToLive > 0) {
-                                loopsToLive--;
-                                stopLoopingAnimation = stopLoopingAnimation || (loopsToLive == 0);
-                                timeline.repeatCount = loopsToLive;
-                            }
-                            if (stopLoopingAnimation) {
-                                // end looping animation
-                                hasEnded = true;
-                                itTimeline.remove();
-                            } else {
-                                if (timeline.repeatBehavior == Timeline.RepeatBehavior.REVERSE) {
-                                    timeline.replaceState(TimelineState.PLAYING_REVERSE);
-                                    if (timeline.cycleDelay > 0) {
-                                        timeline.pushState(TimelineState.READY);
-                                        timeline.timeUntilPlay = timeline.cycleDelay;
-                                    }
-                                    this.callbackCallTimelineStateChanged(timeline,
-                                            TimelineState.PLAYING_FORWARD);
-                                } else {
-                                    timeline.durationFraction = 0.0f;
-                                    timeline.timelinePosition = 0.0f;
-                                    if (timeline.cycleDelay > 0) {
-                                        timeline.pushState(TimelineState.READY);
-                                        timeline.timeUntilPlay = timeline.cycleDelay;
-                                        this.callbackCallTimelineStateChanged(timeline,
-                                                TimelineState.PLAYING_FORWARD);
-                                    } else {
-                                        // it's still playing forward, but lets
-                                        // the app code know
-                                        // that the new loop has begun
-                                        this.callbackCallTimelineStateChanged(timeline,
-                                                TimelineState.PLAYING_FORWARD);
-                                    }
-                                }
-                            }
-                        } else {
-                            hasEnded = true;
-                            itTimeline.remove();
-                        }
-                    }
-                    break;
-                case PLAYING_REVERSE:
-                    if (!timelineWasInReadyState) {
-                        timeline.durationFraction = timeline.durationFraction
-                                - (float) passedSinceLastIteration / (float) timeline.duration;
-                    }
-                    timeline.timelinePosition = timeline.ease.map(timeline.durationFraction);
-                    // state.timelinePosition = state.timelinePosition
-                    // - stepFactor
-                    // * state.fadeStep.getNextStep(state.timelineKind,
-                    // state.timelinePosition,
-                    // state.isPlayingForward, state.isLooping);
-                    if (DEBUG_MODE) {
-                        System.out.println("Timeline position: "
-                                + ((long) (timeline.durationFraction * timeline.duration)) + "/"
-                                + timeline.duration + " = " + timeline.durationFraction);
-                    }
-                    if (timeline.durationFraction < 0) {
-                        timeline.durationFraction = 0.0f;
-                        timeline.timelinePosition = 0.0f;
-                        if (timeline.isLooping) {
-                            boolean stopLoopingAnimation = timeline.toCancelAtCycleBreak;
-                            int loopsToLive = timeline.repeatCount;
-                            if (loopsToLive > 0) {
-                                loopsToLive--;
-                                stopLoopingAnimation = stopLoopingAnimation || (loopsToLive == 0);
-                                timeline.repeatCount = loopsToLive;
-                            }
-                            if (stopLoopingAnimation) {
-                                // end looping animation
-                                hasEnded = true;
-                                itTimeline.remove();
-                            } else {
-                                timeline.replaceState(TimelineState.PLAYING_FORWARD);
-                                if (timeline.cycleDelay > 0) {
-                                    timeline.pushState(TimelineState.READY);
-                                    timeline.timeUntilPlay = timeline.cycleDelay;
-                                }
-                                this.callbackCallTimelineStateChanged(timeline,
-                                        TimelineState.PLAYING_REVERSE);
-                            }
-                        } else {
-                            hasEnded = true;
-                            itTimeline.remove();
-                        }
-                    }
-                    break;
-                default:
-                    throw new IllegalStateException(
-                            "Timeline cannot be in " + timeline.getState() + " state");
-                }
-                if (hasEnded) {
-                    if (DEBUG_MODE) {
-                        System.out.println("Ending " + timeline.id + " on "
-                        // + timeline.timelineKind.toString()
-                                + " in state " + timeline.getState().name() + " at position "
-                                + timeline.durationFraction);
-                    }
-                    TimelineState oldState = timeline.getState();
-                    timeline.replaceState(TimelineState.DONE);
-                    this.callbackCallTimelineStateChanged(timeline, oldState);
-                    timeline.popState();
-                    if (timeline.getState() != TimelineState.IDLE) {
-                        throw new IllegalStateException("Timeline should be IDLE at this point");
-                    }
-                    this.callbackCallTimelineStateChanged(timeline, TimelineState.DONE);
-                } else {
-                    if (DEBUG_MODE) {
-                        System.out.println("Calling " + timeline.id + " on "
-                        // + timeline.timelineKind.toString() + " at "
-                                + timeline.durationFraction);
-                    }
-                    this.callbackCallTimelinePulse(timeline);
-                }
-            }
+            this.updateRunningTimelines(passedSinceLastIteration);
 
             if (this.runningScenarios.size() > 0) {
                 // System.err.println(Thread.currentThread().getName()
@@ -463,18 +359,314 @@ class TimelineEngine {
         }
     }
 
+    /**
+     * Updates the specified timeline.
+     * 
+     * @param timeline
+     *            Timeline to update.
+     * @param passedSinceLastIteration
+     *            Milliseconds passed since the previous pulse.
+     * @param pulseBatch
+     *            Batch that collects the pulse callbacks.
+     * @return <code>true</code> if the timeline has ended and should no longer be tracked,
+     *         <code>false</code> otherwise.
+     */
+    private boolean updateTimeline(Timeline timeline, long passedSinceLastIteration,
+            TimelinePulseBatch pulseBatch) {
+        if (timeline.getState() == TimelineState.SUSPENDED)
+            return false;
+
+        boolean timelineWasInReadyState = false;
+        if (timeline.getState() == TimelineState.READY) {
+            if ((timeline.timeUntilPlay - passedSinceLastIteration) > 0) {
+                // still needs to wait in the READY state
+                timeline.timeUntilPlay -= passedSinceLastIteration;
+                return false;
+            }
+
+            // can go from READY to PLAYING
+            timelineWasInReadyState = true;
+            timeline.popState();
+            if (DEBUG_MODE) {
+                System.out.println("Moving " + timeline.id + " to READY");
+            }
+            this.callbackCallTimelineStateChanged(timeline, TimelineState.READY);
+        }
+
+        boolean hasEnded = false;
+        if (DEBUG_MODE) {
+            System.out.println("Processing " + timeline.id + "["
+                    + timeline.mainObject.getClass().getSimpleName() + "] from "
+                    + timeline.durationFraction + ". Callback - "
+                    + (timeline.callbackChain == null ? "no" : "yes"));
+        }
+        // Component comp = entry.getKey();
+
+        // at this point, the timeline must be playing
+        switch (timeline.getState()) {
+        case PLAYING_FORWARD:
+            if (!timelineWasInReadyState) {
+                timeline.durationFraction = timeline.durationFraction
+                        + (float) passedSinceLastIteration / (float) timeline.duration;
+            }
+            timeline.timelinePosition = timeline.ease.map(timeline.durationFraction);
+            if (DEBUG_MODE) {
+                System.out.println("Timeline " + timeline.id + " position: "
+                        + ((long) (timeline.durationFraction * timeline.duration)) + "/"
+                        + timeline.duration + " = " + timeline.durationFraction);
+            }
+            if (timeline.durationFraction > 1.0f) {
+                timeline.durationFraction = 1.0f;
+                timeline.timelinePosition = 1.0f;
+                if (timeline.isLooping) {
+                    boolean stopLoopingAnimation = timeline.toCancelAtCycleBreak;
+                    int loopsToLive = timeline.repeatCount;
+                    if (loopsToLive > 0) {
+                        loopsToLive--;
+                        stopLoopingAnimation = stopLoopingAnimation || (loopsToLive == 0);
+                        timeline.repeatCount = loopsToLive;
+                    }
+                    if (stopLoopingAnimation) {
+                        // end looping animation
+                        hasEnded = true;
+                    } else {
+                        if (timeline.repeatBehavior == Timeline.RepeatBehavior.REVERSE) {
+                            timeline.replaceState(TimelineState.PLAYING_REVERSE);
+                            if (timeline.cycleDelay > 0) {
+                                timeline.pushState(TimelineState.READY);
+                                timeline.timeUntilPlay = timeline.cycleDelay;
+                            }
+                            this.callbackCallTimelineStateChanged(timeline,
+                                    TimelineState.PLAYING_FORWARD);
+                        } else {
+                            timeline.durationFraction = 0.0f;
+                            timeline.timelinePosition = 0.0f;
+                            if (timeline.cycleDelay > 0) {
+                                timeline.pushState(TimelineState.READY);
+                                timeline.timeUntilPlay = timeline.cycleDelay;
+                                this.callbackCallTimelineStateChanged(timeline,
+                                        TimelineState.PLAYING_FORWARD);
+                            } else {
+                                // it's still playing forward, but lets
+                                // the app code know
+                                // that the new loop has begun
+                                this.callbackCallTimelineStateChanged(timeline,
+                                        TimelineState.PLAYING_FORWARD);
+                            }
+                        }
+                    }
+                } else {
+                    hasEnded = true;
+                }
+            }
+            break;
+        case PLAYING_REVERSE:
+            if (!timelineWasInReadyState) {
+                timeline.durationFraction = timeline.durationFraction
+                        - (float) passedSinceLastIteration / (float) timeline.duration;
+            }
+            timeline.timelinePosition = timeline.ease.map(timeline.durationFraction);
+            // state.timelinePosition = state.timelinePosition
+            // - stepFactor
+            // * state.fadeStep.getNextStep(state.timelineKind,
+            // state.timelinePosition,
+            // state.isPlayingForward, state.isLooping);
+            if (DEBUG_MODE) {
+                System.out.println("Timeline position: "
+                        + ((long) (timeline.durationFraction * timeline.duration)) + "/"
+                        + timeline.duration + " = " + timeline.durationFraction);
+            }
+            if (timeline.durationFraction < 0) {
+                timeline.durationFraction = 0.0f;
+                timeline.timelinePosition = 0.0f;
+                if (timeline.isLooping) {
+                    boolean stopLoopingAnimation = timeline.toCancelAtCycleBreak;
+                    int loopsToLive = timeline.repeatCount;
+                    if (loopsToLive > 0) {
+                        loopsToLive--;
+                        stopLoopingAnimation = stopLoopingAnimation || (loopsToLive == 0);
+                        timeline.repeatCount = loopsToLive;
+                    }
+                    if (stopLoopingAnimation) {
+                        // end looping animation
+                        hasEnded = true;
+                    } else {
+                        timeline.replaceState(TimelineState.PLAYING_FORWARD);
+                        if (timeline.cycleDelay > 0) {
+                            timeline.pushState(TimelineState.READY);
+                            timeline.timeUntilPlay = timeline.cycleDelay;
+                        }
+                        this.callbackCallTimelineStateChanged(timeline,
+                                TimelineState.PLAYING_REVERSE);
+                    }
+                } else {
+                    hasEnded = true;
+                }
+            }
+            break;
+        default:
+            throw new IllegalStateException(
+                    "Timeline cannot be in " + timeline.getState() + " state");
+        }
+        if (hasEnded) {
+            if (DEBUG_MODE) {
+                System.out.println("Ending " + timeline.id + " on "
+                // + timeline.timelineKind.toString()
+                        + " in state " + timeline.getState().name() + " at position "
+                        + timeline.durationFraction);
+            }
+            TimelineState oldState = timeline.getState();
+            timeline.replaceState(TimelineState.DONE);
+            this.callbackCallTimelineStateChanged(timeline, oldState);
+            timeline.popState();
+            if (timeline.getState() != TimelineState.IDLE) {
+                throw new IllegalStateException("Timeline should be IDLE at this point");
+            }
+            this.callbackCallTimelineStateChanged(timeline, TimelineState.DONE);
+        } else {
+            if (DEBUG_MODE) {
+                System.out.println("Calling " + timeline.id + " on "
+                // + timeline.timelineKind.toString() + " at "
+                        + timeline.durationFraction);
+            }
+            pulseBatch.addPulse(timeline);
+        }
+        return hasEnded;
+    }
+
+    /**
+     * Updates all the running timelines, splitting them into partitions processed by the pulse
+     * workers if configured with {@link TridentConfig#setPulseWorkerCount(int)}.
+     * 
+     * @param passedSinceLastIteration
+     *            Milliseconds passed since the previous pulse.
+     */
+    private void updateRunningTimelines(final long passedSinceLastIteration) {
+        int workerCount = TridentConfig.getInstance().getPulseWorkerCount();
+        int partitionCount = Math.min(workerCount,
+                this.runningTimelines.size() / MIN_PULSE_PARTITION_SIZE);
+        if (partitionCount <= 1) {
+            TimelinePulseBatch pulseBatch = this.acquirePulseBatch();
+            for (Iterator<Timeline> itTimeline = this.runningTimelines.iterator(); itTimeline
+                    .hasNext();) {
+                if (this.updateTimeline(itTimeline.next(), passedSinceLastIteration,
+                        pulseBatch)) {
+                    itTimeline.remove();
+                }
+            }
+            this.dispatchPulseBatch(pulseBatch);
+            return;
+        }
+
+        final Timeline[] timelines = this.runningTimelines
+                .toArray(new Timeline[this.runningTimelines.size()]);
+        final boolean[] hasEnded = new boolean[timelines.length];
+        List<Callable<Void>> partitions = new ArrayList<>(partitionCount);
+        List<TimelinePulseBatch> pulseBatches = new ArrayList<>(partitionCount);
+        int partitionSize = (timelines.length + partitionCount - 1) / partitionCount;
+        for (int partitionStart = 0; partitionStart < timelines.length;
+                partitionStart += partitionSize) {
+            final int from = partitionStart;
+            final int to = Math.min(timelines.length, partitionStart + partitionSize);
+            final TimelinePulseBatch pulseBatch = this.acquirePulseBatch();
+            pulseBatches.add(pulseBatch);
+            partitions.add(() -> {
+                for (int i = from; i < to; i++) {
+                    hasEnded[i] = this.updateTimeline(timelines[i], passedSinceLastIteration,
+                            pulseBatch);
+                }
+                return null;
+            });
+        }
+        Throwable failure = null;
+        try {
+            for (Future<Void> partition : this.getPulseWorkers(workerCount)
+                    .invokeAll(partitions)) {
+                try {
+                    partition.get();
+                } catch (ExecutionException ee) {
+                    if (failure == null) {
+                        failure = ee.getCause();
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        for (TimelinePulseBatch pulseBatch : pulseBatches) {
+            this.dispatchPulseBatch(pulseBatch);
+        }
+        for (int i = 0; i < timelines.length; i++) {
+            if (hasEnded[i]) {
+                this.runningTimelines.remove(timelines[i]);
+            }
+        }
+        // fail the pulse the same way as an exception thrown while updating the
+        // timelines on the pulse thread itself
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    private ExecutorService getPulseWorkers(int workerCount) {
+        if ((this.pulseWorkers == null) || (this.pulseWorkerCount != workerCount)) {
+            if (this.pulseWorkers != null) {
+                this.pulseWorkers.shutdown();
+            }
+            this.pulseWorkerCount = workerCount;
+            this.pulseWorkers = Executors.newFixedThreadPool(workerCount, (Runnable r) -> {
+                Thread worker = new Thread(r, "Trident pulse worker thread");
+                worker.setDaemon(true);
+                return worker;
+            });
+        }
+        return this.pulseWorkers;
+    }
+
+    private TimelinePulseBatch acquirePulseBatch() {
+        TimelinePulseBatch pulseBatch = this.pulseBatchPool.poll();
+        return (pulseBatch != null) ? pulseBatch : new TimelinePulseBatch();
+    }
+
+    private void dispatchPulseBatch(TimelinePulseBatch pulseBatch) {
+        if (pulseBatch.isEmpty()) {
+            this.pulseBatchPool.offer(pulseBatch);
+        } else {
+            this.pendingPulseBatches.incrementAndGet();
+            this.callbackQueue.add(pulseBatch);
+        }
+    }
+
+    void recyclePulseBatch(TimelinePulseBatch pulseBatch) {
+        this.pendingPulseBatches.decrementAndGet();
+        this.pulseBatchPool.offer(pulseBatch);
+    }
+
+    /**
+     * Returns indication whether callbacks of the specified class should run on the UI thread.
+     * 
+     * @param callbackClass
+     *            Callback class.
+     * @return <code>true</code> if the class or one of its superclasses is marked with
+     *         {@link RunOnUIThread}, <code>false</code> otherwise.
+     */
+    static boolean isRunOnUIThread(Class<?> callbackClass) {
+        return RUN_ON_UI_THREAD.get(callbackClass);
+    }
+
     private void callbackCallTimelineStateChanged(final Timeline timeline,
             final TimelineState oldState) {
         final TimelineState newState = timeline.getState();
         final float durationFraction = timeline.durationFraction;
         final float timelinePosition = timeline.timelinePosition;
         Runnable callbackRunnable = () -> {
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = timeline.callbackChain.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnUIThread.class);
-                clazz = clazz.getSuperclass();
-            }
+            boolean shouldRunOnUIThread = isRunOnUIThread(timeline.callbackChain.getClass());
             if (shouldRunOnUIThread && (timeline.uiToolkitHandler != null)) {
                 if (DEBUG_MODE) {
                     System.out.println("Scheduling callback state change from " + oldState.name()
@@ -505,12 +697,7 @@ class TimelineEngine {
         final float durationFraction = timeline.durationFraction;
         final float timelinePosition = timeline.timelinePosition;
         Runnable callbackRunnable = () -> {
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = timeline.callbackChain.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnUIThread.class);
-                clazz = clazz.getSuperclass();
-            }
+            boolean shouldRunOnUIThread = isRunOnUIThread(timeline.callbackChain.getClass());
             if (shouldRunOnUIThread && (timeline.uiToolkitHandler != null)) {
                 timeline.uiToolkitHandler.runOnUIThread(timeline.mainObject,
                         () -> timeline.callbackChain.onTimelinePulse(durationFraction,
@@ -554,6 +741,7 @@ class TimelineEngine {
             timeline.fullObjectID = cid;
             this.runningTimelines.add(timeline);
             // this.nothingTracked = false;
+            LOCK.notifyAll();
             if (DEBUG_MODE) {
                 System.out.println(
                         "Added (" + timeline.id + ") on [" + timeline.fullObjectID + "]. State - "
@@ -619,12 +807,56 @@ class TimelineEngine {
             // System.err.println(Thread.currentThread().getName() +
             // " : adding");
             this.runningScenarios.add(scenario);
+            LOCK.notifyAll();
             for (TimelineScenario.TimelineScenarioActor readyActor : readyActors) {
                 readyActor.play();
             }
         }
     }
 
+    /**
+     * Blocks the calling thread as long as there are no running timelines, no running scenarios
+     * and no deferred timeline operations. Used by pulse sources that park while there is
+     * nothing to animate.
+     */
+    void awaitActivity() {
+        synchronized (LOCK) {
+            if (this.hasActivity()) {
+                return;
+            }
+            this.isAwaitingActivity = true;
+            try {
+                while (!this.hasActivity()) {
+                    try {
+                        LOCK.wait();
+                    } catch (InterruptedException ie) {
+                        // The pulse thread runs for the lifetime of the engine. The
+                        // interrupt status has been cleared, so keep waiting.
+                    }
+                }
+            } finally {
+                this.isAwaitingActivity = false;
+            }
+            // Do not count the parked time towards the first pulse
+            this.lastIterationTimeStamp = System.currentTimeMillis();
+        }
+    }
+
+    private boolean hasActivity() {
+        return !this.runningTimelines.isEmpty() || !this.runningScenarios.isEmpty()
+                || !this.pendingOperations.isEmpty();
+    }
+
+    /**
+     * Returns indication whether pulse callbacks of an earlier pulse are still waiting to be run
+     * on the callback thread or the UI thread.
+     * 
+     * @return <code>true</code> if pulse callbacks of an earlier pulse are still pending.
+     */
+    boolean hasPendingPulseCallbacks() {
+        return this.pendingPulseBatches.get() > 0;
+    }
+
     void playReverse(Timeline timeline, boolean reset, long msToSkip) {
         synchronized (LOCK) {
             getAnimatorThread();
@@ -738,8 +970,12 @@ class TimelineEngine {
      */
     private TridentAnimationThread getAnimatorThread() {
         if (this.animatorThread == null) {
-            this.animatorThread = new TridentAnimationThread();
-            this.animatorThread.start();
+            synchronized (LOCK) {
+                if (this.animatorThread == null) {
+                    this.animatorThread = new TridentAnimationThread();
+                    this.animatorThread.start();
+                }
+            }
         }
         return this.animatorThread;
     }
@@ -857,9 +1093,43 @@ class TimelineEngine {
         }
     }
 
-    @SuppressWarnings("incomplete-switch")
+    /**
+     * Runs the specified operation while holding the engine lock. If
+     * {@link TridentConfig#isDeferringTimelineOperations()} is on, the operation is queued
+     * without taking the lock and applied on the pulse thread at the beginning of the next pulse.
+     * 
+     * @param operation
+     *            Operation to run.
+     * @return <code>true</code> if the operation has been queued, <code>false</code> if it has
+     *         been run.
+     */
+    boolean deferIfNecessary(Runnable operation) {
+        if (!TridentConfig.getInstance().isDeferringTimelineOperations()
+                || (Thread.currentThread() == this.animatorThread)) {
+            return false;
+        }
+        this.getAnimatorThread();
+        this.pendingOperations.add(operation);
+        if (this.isAwaitingActivity) {
+            synchronized (LOCK) {
+                LOCK.notifyAll();
+            }
+        }
+        return true;
+    }
+
     void runTimelineOperation(Timeline timeline, TimelineOperationKind operationKind,
             Runnable operationRunnable) {
+        if (this.deferIfNecessary(
+                () -> this.runTimelineOperationNow(timeline, operationKind, operationRunnable))) {
+            return;
+        }
+        this.runTimelineOperationNow(timeline, operationKind, operationRunnable);
+    }
+
+    @SuppressWarnings("incomplete-switch")
+    private void runTimelineOperationNow(Timeline timeline, TimelineOperationKind operationKind,
+            Runnable operationRunnable) {
         synchronized (LOCK) {
             this.getAnimatorThread();
             switch (operationKind) {
@@ -884,6 +1154,10 @@ class TimelineEngine {
     }
 
     void runTimelineScenario(TimelineScenario timelineScenario, Runnable timelineScenarioRunnable) {
+        if (this.deferIfNecessary(
+                () -> this.runTimelineScenario(timelineScenario, timelineScenarioRunnable))) {
+            return;
+        }
         synchronized (LOCK) {
             this.getAnimatorThread();
             timelineScenarioRunnable.run();
@@ -29,12 +29,11 @@
  */
 package org.pushingpixels.trident;
 
+import org.pushingpixels.trident.interpolator.CorePropertyInterpolators.FloatInterpolation;
+import org.pushingpixels.trident.interpolator.CorePropertyInterpolators.IntInterpolation;
 import org.pushingpixels.trident.interpolator.KeyFrames;
 import org.pushingpixels.trident.interpolator.PropertyInterpolator;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-
 public class TimelinePropertyBuilder<T> {
 
     /**
@@ -58,18 +57,46 @@ public class TimelinePropertyBuilder<T> {
     }
 
     /**
-     * Default property setter.
+     * Default property setter. The setter method is looked up once per class and property name
+     * and called through a method handle.
      */
     public static class DefaultPropertySetter<T> implements PropertySetter<T> {
-        private Method setterMethod;
+        private final PropertyAccessors.Accessor setter;
 
         public DefaultPropertySetter(Object obj, String fieldName) {
-            setterMethod = getSetter(obj, fieldName);
+            setter = PropertyAccessors.getSetter(obj.getClass(), fieldName);
         }
 
         public void set(Object obj, String fieldName, T value) {
             try {
-                setterMethod.invoke(obj, value);
+                if (setter.genericHandle != null) {
+                    setter.genericHandle.invokeExact(obj, (Object) value);
+                } else {
+                    setter.method.invoke(obj, value);
+                }
+            } catch (Throwable t) {
+                throw new RuntimeException(
+                        "Unable to set the value of the field '" + fieldName + "'", t);
+            }
+        }
+
+        boolean hasPrimitiveSetter(Class<?> primitiveClass) {
+            return (setter.primitiveHandle != null)
+                    && (setter.getPropertyType() == primitiveClass);
+        }
+
+        void setFloat(Object obj, String fieldName, float value) {
+            try {
+                setter.primitiveHandle.invokeExact(obj, value);
+            } catch (Throwable t) {
+                throw new RuntimeException(
+                        "Unable to set the value of the field '" + fieldName + "'", t);
+            }
+        }
+
+        void setInt(Object obj, String fieldName, int value) {
+            try {
+                setter.primitiveHandle.invokeExact(obj, value);
             } catch (Throwable t) {
                 throw new RuntimeException(
                         "Unable to set the value of the field '" + fieldName + "'", t);
@@ -78,18 +105,21 @@ public class TimelinePropertyBuilder<T> {
     }
 
     /**
-     * Default property getter.
+     * Default property getter. The getter method is looked up once per class and property name
+     * and called through a method handle.
      */
     public static class DefaultPropertyGetter<T> implements PropertyGetter<T> {
-        private Method getterMethod;
+        private final PropertyAccessors.Accessor getter;
 
         public DefaultPropertyGetter(Object obj, String fieldName) {
-            getterMethod = getGetter(obj, fieldName);
+            getter = PropertyAccessors.getGetter(obj.getClass(), fieldName);
         }
 
         public T get(Object obj, String fieldName) {
             try {
-                return (T) getterMethod.invoke(obj);
+                Object value = (getter.genericHandle != null)
+                        ? getter.genericHandle.invokeExact(obj) : getter.method.invoke(obj);
+                return (T) value;
             } catch (Throwable t) {
                 throw new RuntimeException(
                         "Unable to get the value of the field '" + fieldName + "'", t);
@@ -273,6 +303,36 @@ public class TimelinePropertyBuilder<T> {
         abstract void onStart();
 
         abstract void updateFieldValue(float timelinePosition);
+
+        /**
+         * Sets the interpolated value without boxing when the interpolator and the default
+         * setter both work with the same primitive type.
+         * 
+         * @return <code>true</code> if the value has been set, <code>false</code> if the caller
+         *         needs to go through the generic path.
+         */
+        boolean setInterpolatedPrimitive(PropertyInterpolator<?> interpolator, Object from,
+                Object to, float timelinePosition) {
+            if (!(this.setter instanceof DefaultPropertySetter)) {
+                return false;
+            }
+            DefaultPropertySetter<?> defaultSetter = (DefaultPropertySetter<?>) this.setter;
+            if ((interpolator instanceof FloatInterpolation) && (from instanceof Float)
+                    && (to instanceof Float) && defaultSetter.hasPrimitiveSetter(float.class)) {
+                defaultSetter.setFloat(this.object, this.fieldName,
+                        ((FloatInterpolation) interpolator).interpolateFloat((Float) from,
+                                (Float) to, timelinePosition));
+                return true;
+            }
+            if ((interpolator instanceof IntInterpolation) && (from instanceof Integer)
+                    && (to instanceof Integer) && defaultSetter.hasPrimitiveSetter(int.class)) {
+                defaultSetter.setInt(this.object, this.fieldName,
+                        ((IntInterpolation) interpolator).interpolateInt((Integer) from,
+                                (Integer) to, timelinePosition));
+                return true;
+            }
+            return false;
+        }
     }
 
     private static <T> PropertyGetter<T> getPropertyGetter(Object obj, String fieldName,
@@ -314,6 +374,10 @@ public class TimelinePropertyBuilder<T> {
         void updateFieldValue(float timelinePosition) {
             //System.out.println("updateFieldValue on @" + hashCode());
             try {
+                if (this.setInterpolatedPrimitive(this.propertyInterpolator, from, to,
+                        timelinePosition)) {
+                    return;
+                }
                 Object value = this.propertyInterpolator.interpolate(from, to, timelinePosition);
                 this.setter.set(this.object, this.fieldName, value);
             } catch (Throwable exc) {
@@ -342,6 +406,10 @@ public class TimelinePropertyBuilder<T> {
         @Override
         void updateFieldValue(float timelinePosition) {
             try {
+                if (this.setInterpolatedPrimitive(this.propertyInterpolator, from, to,
+                        timelinePosition)) {
+                    return;
+                }
                 Object value = this.propertyInterpolator.interpolate(from, to, timelinePosition);
                 this.setter.set(this.object, this.fieldName, value);
             } catch (Throwable exc) {
@@ -378,37 +446,4 @@ public class TimelinePropertyBuilder<T> {
             }
         }
     }
-
-    private static Method getSetter(Object object, String propertyName) {
-        String setterMethodName = "set" + Character.toUpperCase(propertyName.charAt(0))
-                + propertyName.substring(1);
-        Class oClazz = object.getClass();
-        while (oClazz != null) {
-            for (Method m : oClazz.getMethods()) {
-                if (setterMethodName.equals(m.getName()) && (m.getParameterTypes().length == 1)
-                        && (m.getReturnType() == Void.TYPE)
-                        && (!Modifier.isStatic(m.getModifiers()))) {
-                    return m;
-                }
-            }
-            oClazz = oClazz.getSuperclass();
-        }
-        return null;
-    }
-
-    private static Method getGetter(Object object, String propertyName) {
-        String getterMethodName = "get" + Character.toUpperCase(propertyName.charAt(0))
-                + propertyName.substring(1);
-        Class oClazz = object.getClass();
-        while (oClazz != null) {
-            for (Method m : oClazz.getMethods()) {
-                if (getterMethodName.equals(m.getName()) && (m.getParameterTypes().length == 0)
-                        && (!Modifier.isStatic(m.getModifiers()))) {
-                    return m;
-                }
-            }
-            oClazz = oClazz.getSuperclass();
-        }
-        return null;
-    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2005-2018 Trident Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Trident Kirill Grouchnikov nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.trident;
+
+import org.pushingpixels.trident.Timeline.TimelineState;
+import org.pushingpixels.trident.callback.TimelineCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pulse callbacks of all the timelines updated in a single pulse. The batch is run on the
+ * Trident callback thread, where it calls the timeline callbacks that do not need the UI thread.
+ * The callbacks marked with {@link org.pushingpixels.trident.callback.RunOnUIThread} are
+ * collected and passed to the UI toolkit handler as a single runnable. Batches are recycled by
+ * {@link TimelineEngine} once the UI thread is done with them.
+ * 
+ * @author Kirill Grouchnikov
+ */
+final class TimelinePulseBatch implements Runnable {
+    private Timeline[] timelines = new Timeline[16];
+    private float[] durationFractions = new float[16];
+    private float[] timelinePositions = new float[16];
+    private int pulseCount;
+
+    private Timeline[] uiTimelines = new Timeline[16];
+    private TimelineCallback[] uiCallbacks = new TimelineCallback[16];
+    private float[] uiDurationFractions = new float[16];
+    private float[] uiTimelinePositions = new float[16];
+    private int uiPulseCount;
+
+    private final Runnable uiRunnable = () -> {
+        this.runUIPulses(null);
+        this.recycle();
+    };
+
+    void addPulse(Timeline timeline) {
+        if (this.pulseCount == this.timelines.length) {
+            int capacity = 2 * this.pulseCount;
+            this.timelines = Arrays.copyOf(this.timelines, capacity);
+            this.durationFractions = Arrays.copyOf(this.durationFractions, capacity);
+            this.timelinePositions = Arrays.copyOf(this.timelinePositions, capacity);
+        }
+        this.timelines[this.pulseCount] = timeline;
+        this.durationFractions[this.pulseCount] = timeline.durationFraction;
+        this.timelinePositions[this.pulseCount] = timeline.timelinePosition;
+        this.pulseCount++;
+    }
+
+    void addUIPulse(Timeline timeline, TimelineCallback callback, float durationFraction,
+            float timelinePosition) {
+        if (this.uiPulseCount == this.uiTimelines.length) {
+            int capacity = 2 * this.uiPulseCount;
+            this.uiTimelines = Arrays.copyOf(this.uiTimelines, capacity);
+            this.uiCallbacks = Arrays.copyOf(this.uiCallbacks, capacity);
+            this.uiDurationFractions = Arrays.copyOf(this.uiDurationFractions, capacity);
+            this.uiTimelinePositions = Arrays.copyOf(this.uiTimelinePositions, capacity);
+        }
+        this.uiTimelines[this.uiPulseCount] = timeline;
+        this.uiCallbacks[this.uiPulseCount] = callback;
+        this.uiDurationFractions[this.uiPulseCount] = durationFraction;
+        this.uiTimelinePositions[this.uiPulseCount] = timelinePosition;
+        this.uiPulseCount++;
+    }
+
+    boolean isEmpty() {
+        return (this.pulseCount == 0);
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < this.pulseCount; i++) {
+            try {
+                this.timelines[i].callbackChain.onTimelinePulse(this.durationFractions[i],
+                        this.timelinePositions[i], this);
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+            this.timelines[i] = null;
+        }
+        this.pulseCount = 0;
+
+        if (this.uiPulseCount == 0) {
+            this.recycle();
+            return;
+        }
+
+        UIToolkitHandler handler = this.uiTimelines[0].uiToolkitHandler;
+        boolean hasSingleHandler = true;
+        for (int i = 1; i < this.uiPulseCount; i++) {
+            if (this.uiTimelines[i].uiToolkitHandler != handler) {
+                hasSingleHandler = false;
+                break;
+            }
+        }
+        if (hasSingleHandler) {
+            handler.runOnUIThread(this.uiTimelines[0].mainObject, this.uiRunnable);
+            return;
+        }
+
+        // Rare case of timelines driven by different UI toolkits. Run each toolkit's share
+        // of the callbacks on its own UI thread and recycle after the last one is done.
+        List<UIToolkitHandler> handlers = new ArrayList<>();
+        for (int i = 0; i < this.uiPulseCount; i++) {
+            if (!handlers.contains(this.uiTimelines[i].uiToolkitHandler)) {
+                handlers.add(this.uiTimelines[i].uiToolkitHandler);
+            }
+        }
+        AtomicInteger remaining = new AtomicInteger(handlers.size());
+        for (UIToolkitHandler uiToolkitHandler : handlers) {
+            Object mainObject = null;
+            for (int i = 0; i < this.uiPulseCount; i++) {
+                if (this.uiTimelines[i].uiToolkitHandler == uiToolkitHandler) {
+                    mainObject = this.uiTimelines[i].mainObject;
+                    break;
+                }
+            }
+            uiToolkitHandler.runOnUIThread(mainObject, () -> {
+                this.runUIPulses(uiToolkitHandler);
+                if (remaining.decrementAndGet() == 0) {
+                    this.recycle();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs the collected UI thread callbacks.
+     * 
+     * @param uiToolkitHandler
+     *            If not <code>null</code>, only the callbacks of timelines driven by this handler
+     *            are run.
+     */
+    private void runUIPulses(UIToolkitHandler uiToolkitHandler) {
+        for (int i = 0; i < this.uiPulseCount; i++) {
+            Timeline timeline = this.uiTimelines[i];
+            if ((uiToolkitHandler != null) && (timeline.uiToolkitHandler != uiToolkitHandler)) {
+                continue;
+            }
+            if (timeline.getState() == TimelineState.CANCELLED) {
+                continue;
+            }
+            try {
+                this.uiCallbacks[i].onTimelinePulse(this.uiDurationFractions[i],
+                        this.uiTimelinePositions[i]);
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+    }
+
+    private void recycle() {
+        Arrays.fill(this.uiTimelines, 0, this.uiPulseCount, null);
+        Arrays.fill(this.uiCallbacks, 0, this.uiPulseCount, null);
+        this.uiPulseCount = 0;
+        TimelineEngine.getInstance().recyclePulseBatch(this);
+    }
+}
@@ -185,6 +185,9 @@ public class TimelineScenario {
     }
 
     public void cancel() {
+        if (TimelineEngine.getInstance().deferIfNecessary(this::cancel)) {
+            return;
+        }
         synchronized (TimelineEngine.LOCK) {
             TimelineScenarioState oldState = this.state;
             if (oldState != TimelineScenarioState.PLAYING)
@@ -205,6 +208,9 @@ public class TimelineScenario {
     }
 
     public void suspend() {
+        if (TimelineEngine.getInstance().deferIfNecessary(this::suspend)) {
+            return;
+        }
         synchronized (TimelineEngine.LOCK) {
             TimelineScenarioState oldState = this.state;
             if (oldState != TimelineScenarioState.PLAYING)
@@ -221,6 +227,9 @@ public class TimelineScenario {
     }
 
     public void resume() {
+        if (TimelineEngine.getInstance().deferIfNecessary(this::resume)) {
+            return;
+        }
         synchronized (TimelineEngine.LOCK) {
             TimelineScenarioState oldState = this.state;
             if (oldState != TimelineScenarioState.SUSPENDED)
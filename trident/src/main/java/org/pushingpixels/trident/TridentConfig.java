@@ -40,6 +40,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 public class TridentConfig {
     private static TridentConfig config;
@@ -50,6 +52,10 @@ public class TridentConfig {
 
     private TridentConfig.PulseSource pulseSource;
 
+    private volatile boolean deferTimelineOperations;
+
+    private volatile int pulseWorkerCount = 1;
+
     public interface PulseSource {
         public void waitUntilNextPulse();
     }
@@ -71,7 +77,69 @@ public class TridentConfig {
         }
     }
 
-    private class DefaultPulseSource extends FixedRatePulseSource {
+    /**
+     * Pulse source that schedules pulses against absolute {@link System#nanoTime()} deadlines, so
+     * that the time spent in updating the timelines does not accumulate as drift. The pulse
+     * thread is parked while there are no running timelines or scenarios. If the callbacks of
+     * the previous pulse have not been run yet (for example, when the UI thread is busy), the
+     * next pulse is postponed by another period, up to the specified maximum number of skipped
+     * periods.
+     */
+    public static class AdaptivePulseSource implements TridentConfig.PulseSource {
+        private final long periodNanos;
+
+        private final int maxSkippedPulses;
+
+        private long nextPulseNanos;
+
+        public AdaptivePulseSource(int msDelay) {
+            this(msDelay, 3);
+        }
+
+        public AdaptivePulseSource(int msDelay, int maxSkippedPulses) {
+            if (msDelay <= 0) {
+                throw new IllegalArgumentException("Pulse delay must be positive");
+            }
+            if (maxSkippedPulses < 0) {
+                throw new IllegalArgumentException("Max skipped pulses must be non-negative");
+            }
+            this.periodNanos = TimeUnit.MILLISECONDS.toNanos(msDelay);
+            this.maxSkippedPulses = maxSkippedPulses;
+        }
+
+        @Override
+        public void waitUntilNextPulse() {
+            TimelineEngine engine = TimelineEngine.getInstance();
+            engine.awaitActivity();
+
+            long now = System.nanoTime();
+            if ((this.nextPulseNanos == 0) || (now - this.nextPulseNanos > this.periodNanos)) {
+                // First pulse, or the previous pulse ran late (or the thread was parked).
+                // Start a new schedule instead of firing a burst of catch-up pulses.
+                this.nextPulseNanos = now;
+            }
+            this.nextPulseNanos += this.periodNanos;
+            this.parkUntil(this.nextPulseNanos);
+
+            for (int skipped = 0; (skipped < this.maxSkippedPulses)
+                    && engine.hasPendingPulseCallbacks(); skipped++) {
+                this.nextPulseNanos += this.periodNanos;
+                this.parkUntil(this.nextPulseNanos);
+            }
+        }
+
+        private void parkUntil(long deadlineNanos) {
+            long remaining;
+            while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+                // Parking returns right away while the interrupt status is set. Clear it so
+                // that an interrupt does not turn this loop into a busy wait.
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private class DefaultPulseSource extends AdaptivePulseSource {
         DefaultPulseSource() {
             super(40);
         }
@@ -155,4 +223,42 @@ public class TridentConfig {
     public synchronized TridentConfig.PulseSource getPulseSource() {
         return pulseSource;
     }
+
+    /**
+     * Sets whether timeline and scenario operations (play, suspend, resume, cancel, ...) called
+     * outside the pulse thread should be queued and applied at the beginning of the next pulse
+     * instead of waiting on the engine lock. When on, the state of the affected timeline is only
+     * updated once the next pulse starts.
+     * 
+     * @param deferTimelineOperations
+     *            If <code>true</code>, timeline operations are queued for the next pulse.
+     */
+    public void setDeferTimelineOperations(boolean deferTimelineOperations) {
+        this.deferTimelineOperations = deferTimelineOperations;
+    }
+
+    public boolean isDeferringTimelineOperations() {
+        return this.deferTimelineOperations;
+    }
+
+    /**
+     * Sets the number of worker threads that share the processing of running timelines on every
+     * pulse. Partitioning only kicks in when there are enough running timelines to make it
+     * worthwhile. Timeline callbacks keep their per-timeline order, but callbacks of different
+     * timelines may be interleaved differently than with a single worker.
+     * 
+     * @param pulseWorkerCount
+     *            Number of pulse worker threads. <code>1</code> (the default) processes all
+     *            timelines on the pulse thread.
+     */
+    public void setPulseWorkerCount(int pulseWorkerCount) {
+        if (pulseWorkerCount < 1) {
+            throw new IllegalArgumentException("Pulse worker count must be positive");
+        }
+        this.pulseWorkerCount = pulseWorkerCount;
+    }
+
+    public int getPulseWorkerCount() {
+        return this.pulseWorkerCount;
+    }
 }
@@ -49,7 +49,24 @@ public class CorePropertyInterpolators implements PropertyInterpolatorSource {
         return Collections.unmodifiableSet(this.interpolators);
     }
 
-    private static class FloatPropertyInterpolator implements PropertyInterpolator<Float> {
+    /**
+     * Implemented by interpolators that can interpolate primitive <code>float</code> values
+     * without boxing.
+     */
+    public interface FloatInterpolation {
+        float interpolateFloat(float from, float to, float timelinePosition);
+    }
+
+    /**
+     * Implemented by interpolators that can interpolate primitive <code>int</code> values
+     * without boxing.
+     */
+    public interface IntInterpolation {
+        int interpolateInt(int from, int to, float timelinePosition);
+    }
+
+    private static class FloatPropertyInterpolator
+            implements PropertyInterpolator<Float>, FloatInterpolation {
         @Override
         public Class getBasePropertyClass() {
             return Float.class;
@@ -59,6 +76,11 @@ public class CorePropertyInterpolators implements PropertyInterpolatorSource {
         public Float interpolate(Float from, Float to, float timelinePosition) {
             return from + (to - from) * timelinePosition;
         }
+
+        @Override
+        public float interpolateFloat(float from, float to, float timelinePosition) {
+            return from + (to - from) * timelinePosition;
+        }
     }
 
     private static class DoublePropertyInterpolator implements PropertyInterpolator<Double> {
@@ -73,7 +95,8 @@ public class CorePropertyInterpolators implements PropertyInterpolatorSource {
         }
     }
 
-    private static class IntegerPropertyInterpolator implements PropertyInterpolator<Integer> {
+    private static class IntegerPropertyInterpolator
+            implements PropertyInterpolator<Integer>, IntInterpolation {
         @Override
         public Class getBasePropertyClass() {
             return Integer.class;
@@ -83,6 +106,11 @@ public class CorePropertyInterpolators implements PropertyInterpolatorSource {
         public Integer interpolate(Integer from, Integer to, float timelinePosition) {
             return (int) (from + (to - from) * timelinePosition);
         }
+
+        @Override
+        public int interpolateInt(int from, int to, float timelinePosition) {
+            return (int) (from + (to - from) * timelinePosition);
+        }
     }
 
     private static class LongPropertyInterpolator implements PropertyInterpolator<Long> {